@@ -0,0 +1,213 @@
+package com.pipeline.api;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel (Varghese &amp; Lauck) used to park delayed jumps without holding a thread per run.
+ *
+ * <p>A single daemon ticker advances one bucket per {@code tick}; a timeout lands in bucket
+ * {@code deadlineTick % wheelSize} and carries the number of full rotations left, so delays longer than one
+ * rotation cost nothing extra. Scheduling and cancelling are lock-free; only the ticker touches the buckets.
+ * Expired tasks run on the ticker thread and must be short: hand real work off to an executor.
+ *
+ * <p>Timeouts fire no earlier than requested and at most about one {@code tick} late.
+ */
+public final class HashedTimerWheel implements AutoCloseable {
+  private static final HashedTimerWheel SHARED =
+      new HashedTimerWheel("pipeline-timer-wheel", Duration.ofMillis(10), 512);
+
+  private static final int STATE_INIT = 0, STATE_STARTED = 1, STATE_CLOSED = 2;
+  private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+  private final String threadName;
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+  private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+  private final AtomicLong pending = new AtomicLong();
+  private volatile long startNanos;
+  private volatile Thread ticker;
+
+  /** Process-wide wheel (10ms tick, 512 buckets) used by pipelines that do not configure their own. */
+  public static HashedTimerWheel shared() { return SHARED; }
+
+  public HashedTimerWheel(String threadName, Duration tick, int wheelSize) {
+    this.threadName = Objects.requireNonNull(threadName, "threadName");
+    Objects.requireNonNull(tick, "tick");
+    if (tick.isNegative() || tick.isZero()) throw new IllegalArgumentException("tick must be > 0");
+    if (wheelSize < 1 || wheelSize > (1 << 30)) throw new IllegalArgumentException("wheelSize must be in [1, 2^30]");
+    this.tickNanos = tick.toNanos();
+    int size = Integer.highestOneBit(wheelSize);
+    if (size < wheelSize) size <<= 1;
+    this.wheel = new Bucket[size];
+    for (int i = 0; i < size; i++) wheel[i] = new Bucket();
+    this.mask = size - 1;
+  }
+
+  /**
+   * Runs {@code task} on the ticker thread once {@code delay} has elapsed.
+   *
+   * @throws IllegalStateException if the wheel has been closed
+   */
+  public Timeout schedule(long delay, TimeUnit unit, Runnable task) {
+    Objects.requireNonNull(task, "task");
+    start();
+    long deadline = System.nanoTime() + Math.max(0L, unit.toNanos(delay)) - startNanos;
+    Timeout timeout = new Timeout(this, task, deadline);
+    pending.incrementAndGet();
+    incoming.add(timeout);
+    return timeout;
+  }
+
+  /** Timeouts scheduled and neither fired nor cancelled yet. */
+  public long pending() { return pending.get(); }
+
+  /** Stops the ticker; timeouts that have not fired yet are dropped. The shared wheel cannot be closed. */
+  @Override
+  public void close() {
+    if (this == SHARED) throw new IllegalStateException("The shared timer wheel cannot be closed");
+    if (state.getAndSet(STATE_CLOSED) == STATE_STARTED) {
+      Thread t = ticker;
+      if (t != null) t.interrupt();
+    }
+  }
+
+  private void start() {
+    int s = state.get();
+    if (s == STATE_STARTED) return;
+    if (s == STATE_CLOSED) throw new IllegalStateException("Timer wheel '" + threadName + "' is closed");
+    synchronized (this) {
+      if (state.get() == STATE_INIT) {
+        startNanos = System.nanoTime();
+        Thread t = new Thread(this::tickLoop, threadName);
+        t.setDaemon(true);
+        ticker = t;
+        state.set(STATE_STARTED);
+        t.start();
+      }
+    }
+    if (state.get() == STATE_CLOSED) throw new IllegalStateException("Timer wheel '" + threadName + "' is closed");
+  }
+
+  private void tickLoop() {
+    long tick = 0;
+    while (state.get() == STATE_STARTED) {
+      long now = waitForTick(tick);
+      if (now < 0) break;
+      transferIncoming(tick);
+      wheel[(int) (tick & mask)].expire(now);
+      tick++;
+    }
+  }
+
+  /** Parks until tick {@code tick} ends; returns the wheel-relative time, or -1 when closed. */
+  private long waitForTick(long tick) {
+    long deadline = tickNanos * (tick + 1);
+    while (true) {
+      long now = System.nanoTime() - startNanos;
+      long sleep = deadline - now;
+      if (sleep <= 0) return now;
+      LockSupport.parkNanos(this, sleep);
+      if (state.get() != STATE_STARTED) return -1;
+    }
+  }
+
+  private void transferIncoming(long currentTick) {
+    for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+      Timeout timeout = incoming.poll();
+      if (timeout == null) return;
+      if (timeout.state.get() != Timeout.ST_WAITING) continue;
+      long deadlineTick = timeout.deadline / tickNanos;
+      timeout.remainingRounds = (deadlineTick - currentTick) / wheel.length;
+      long placeAt = Math.max(deadlineTick, currentTick); // never schedule into the past
+      wheel[(int) (placeAt & mask)].add(timeout);
+    }
+  }
+
+  /** Handle to a scheduled task. */
+  public static final class Timeout {
+    private static final int ST_WAITING = 0, ST_CANCELLED = 1, ST_EXPIRED = 2;
+
+    private final HashedTimerWheel owner;
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger(ST_WAITING);
+    // Touched by the ticker thread only.
+    private long remainingRounds;
+    private Timeout next, prev;
+
+    private Timeout(HashedTimerWheel owner, Runnable task, long deadline) {
+      this.owner = owner;
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /** Prevents the task from running; returns {@code false} if it already ran or was cancelled. */
+    public boolean cancel() {
+      if (!state.compareAndSet(ST_WAITING, ST_CANCELLED)) return false;
+      owner.pending.decrementAndGet();
+      return true; // the ticker unlinks it lazily when its bucket comes round
+    }
+
+    public boolean isCancelled() { return state.get() == ST_CANCELLED; }
+    public boolean isExpired() { return state.get() == ST_EXPIRED; }
+
+    private void expire() {
+      if (!state.compareAndSet(ST_WAITING, ST_EXPIRED)) return;
+      owner.pending.decrementAndGet();
+      try {
+        task.run();
+      } catch (Throwable failure) {
+        Thread t = Thread.currentThread();
+        t.getUncaughtExceptionHandler().uncaughtException(t, failure);
+      }
+    }
+  }
+
+  /** Doubly-linked list of timeouts hashed to one slot. */
+  private static final class Bucket {
+    private Timeout head, tail;
+
+    void add(Timeout timeout) {
+      if (head == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    void expire(long now) {
+      Timeout timeout = head;
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        if (timeout.state.get() != Timeout.ST_WAITING) {
+          remove(timeout);
+        } else if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+          remove(timeout);
+          timeout.expire();
+        } else {
+          timeout.remainingRounds--;
+        }
+        timeout = next;
+      }
+    }
+
+    private void remove(Timeout timeout) {
+      if (timeout.prev != null) timeout.prev.next = timeout.next;
+      if (timeout.next != null) timeout.next.prev = timeout.prev;
+      if (timeout == head) head = timeout.next;
+      if (timeout == tail) tail = timeout.prev;
+      timeout.prev = timeout.next = null;
+    }
+  }
+}
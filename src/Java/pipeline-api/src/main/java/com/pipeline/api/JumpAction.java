@@ -0,0 +1,7 @@
+package com.pipeline.api;
+
+/** Step that may request a jump through {@link JumpControl} instead of throwing {@link com.pipeline.core.Jumps.Signal}. */
+@FunctionalInterface
+public interface JumpAction<A, B> {
+  B apply(A input, JumpControl control) throws Exception;
+}
@@ -0,0 +1,18 @@
+package com.pipeline.api;
+
+import java.time.Duration;
+
+/**
+ * Exception-free jump requests for a {@link JumpAction}. The request is taken when the action returns, and the
+ * returned value becomes the target step's input; the last request made during one call wins.
+ *
+ * <p>{@link JumpTarget} overloads use an index resolved once when the pipeline seals; the label overloads look the
+ * label up per jump. Both skip the stack unwinding of {@link com.pipeline.core.Jumps}.
+ */
+public interface JumpControl {
+  void jumpTo(JumpTarget target);
+  void jumpAfter(JumpTarget target, Duration delay);
+
+  void jumpTo(String label);
+  void jumpAfter(String label, Duration delay);
+}
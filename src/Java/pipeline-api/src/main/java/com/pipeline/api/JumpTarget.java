@@ -0,0 +1,22 @@
+package com.pipeline.api;
+
+import java.util.Objects;
+
+/**
+ * Handle to a labeled step of one {@link Pipeline}, obtained from {@link Pipeline#jumpTarget(String)} and resolved
+ * to a step index when that pipeline seals (unknown labels and jumps into 'pre' fail at seal time).
+ */
+public final class JumpTarget {
+  final Pipeline<?, ?> owner;
+  private final String label;
+  int index = -1; // set by the owner's buildControlPlanIfNeeded
+
+  JumpTarget(Pipeline<?, ?> owner, String label) {
+    this.owner = Objects.requireNonNull(owner, "owner");
+    this.label = Objects.requireNonNull(label, "label");
+  }
+
+  public String label() { return label; }
+
+  @Override public String toString() { return "JumpTarget[" + label + "]"; }
+}
@@ -9,13 +9,21 @@ import com.pipeline.core.ThrowingBiConsumer;
 import com.pipeline.core.ThrowingPred;
 import com.pipeline.core.Steps;
 import com.pipeline.core.Jumps;
-import com.pipeline.core.PipelineResult;
+import com.pipeline.core.LambdaBinder;
+import com.pipeline.core.PipelineListener;
+import com.pipeline.core.StepInfo;
+import com.pipeline.core.StepPhase;
+import com.pipeline.core.jfr.FlightRecorderListener;
 import com.pipeline.core.metrics.Metrics;
+import com.pipeline.core.metrics.MetricsListener;
 import com.pipeline.core.metrics.NoopMetrics;
+import com.pipeline.remote.http.HedgePolicy;
+import com.pipeline.remote.http.HttpClients;
 import com.pipeline.remote.http.HttpStep;
+import com.pipeline.remote.http.RemotePolicy;
+import com.pipeline.remote.http.RemoteSerde;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.charset.StandardCharsets;
@@ -26,19 +34,23 @@ import java.time.Duration;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Unified, subclassable Pipeline facade (unary + typed) with:
  *  - pre/steps/post, labels, beans, static/instance $method, $local/$prompt/$remote
  *  - JSON append (unary or typed), including per-step 'jumpWhen' predicate wrapper
  *  - Jump-by-label engine (opt-in) for polling/workflows: Jumps.now/after inside steps
+ *  - runAsync: delayed jumps park the run on a hashed timer wheel instead of sleeping a thread
  *  - Optional jumpTo(label) (one-shot next-run start) for ad-hoc starts
  *  - Metrics hooks for pipeline and per-step timing, errors, jumps
  *  - Seals on first run to immutable core when jumps are disabled
  */
 public class Pipeline<I, C> {
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("pipeline-jump-resume").start(task);
 
   private String name = "pipeline";
   private boolean shortCircuit = true;
@@ -64,7 +76,31 @@ public class Pipeline<I, C> {
 
   // ----- Metrics -----
   private volatile Metrics metrics = NoopMetrics.INSTANCE;
-  private final ThreadLocal<Metrics.RunScope> currentRunScope = new ThreadLocal<>();
+  // Every engine below reports through this listener; with NoopMetrics it opts out of each run up front.
+  private final MetricsListener metricsListener = new MetricsListener(() -> metrics);
+  private final PipelineListener jumpMetricsListener =
+      (pipeline, startNanos) -> metricsListener.onRunStart(pipeline, this.queuedStartLabel, startNanos);
+  private final List<PipelineListener> listeners = new ArrayList<>();
+  // Typed and jump engines also feed JFR (the core engine adds FlightRecorderListener itself).
+  private PipelineListener typedListener = PipelineListener.of(metricsListener, FlightRecorderListener.INSTANCE);
+  private PipelineListener jumpListener = PipelineListener.of(jumpMetricsListener, FlightRecorderListener.INSTANCE);
+
+  /** Adds a run/step listener (for example a {@code StepWatchdog}) to whichever engine runs this pipeline. */
+  public Pipeline<I,C> addListener(PipelineListener listener) {
+    ensureMutable();
+    listeners.add(Objects.requireNonNull(listener, "listener"));
+    typedListener = engineListener(metricsListener);
+    jumpListener = engineListener(jumpMetricsListener);
+    return this;
+  }
+
+  private PipelineListener engineListener(PipelineListener metricsAdapter) {
+    PipelineListener[] all = new PipelineListener[listeners.size() + 2];
+    all[0] = metricsAdapter;
+    all[1] = FlightRecorderListener.INSTANCE;
+    for (int i = 0; i < listeners.size(); i++) all[i + 2] = listeners.get(i);
+    return PipelineListener.of(all);
+  }
 
   public Pipeline<I,C> metrics(Metrics m) { this.metrics = (m == null) ? NoopMetrics.INSTANCE : m; return this; }
 
@@ -79,8 +115,11 @@ public class Pipeline<I, C> {
   // ----- Jump engine config -----
   private boolean jumpsEnabled = false;
   private int maxJumpsPerRun = 128;
+  /** Test hook: when set, delayed jumps call it in-line instead of suspending the run on the timer wheel. */
   public interface Sleeper { void sleep(long millis) throws InterruptedException; }
-  private Sleeper sleeper = millis -> { if (millis > 0) Thread.sleep(millis); };
+  private Sleeper sleeper; // null: sync runs sleep, async runs park on timerWheel
+  private HashedTimerWheel timerWheel = HashedTimerWheel.shared();
+  private Executor jumpExecutor = VIRTUAL_THREADS;
   private String queuedStartLabel;
 
   // Flattened plan for jump engine
@@ -90,6 +129,10 @@ public class Pipeline<I, C> {
   private final List<Class<?>> flatExpectedIn = new ArrayList<>();
   private final Map<String,Integer> labelIndex = new HashMap<>();
   private int preCount = 0; // number of items from pre (to block jumps into pre)
+  private final List<JumpTarget> jumpTargets = new ArrayList<>(); // resolved at seal
+  private JumpAction<Object,Object>[] flatControlled; // per step; null for plain ThrowingFn steps
+  private Class<?>[] jumpTypeCheck;                   // per target; null when any value is accepted
+  private StepInfo[] flatSteps;                       // per step, as reported to metrics
 
   // ---- factories ----
   public Pipeline() {}
@@ -152,6 +195,11 @@ public class Pipeline<I, C> {
     return addAction(Steps.bind(cons, arg));
   }
 
+  /** Step that jumps through {@link JumpControl} rather than by throwing; needs {@link #enableJumps(boolean)}. */
+  public <M> Pipeline<I,M> addAction(JumpAction<? super C, ? extends M> fn) {
+    return addControlled(null, fn);
+  }
+
   // Labeled addAction overloads
   @SuppressWarnings("unchecked")
   public <M> Pipeline<I,M> addAction(String label, ThrowingFn<? super C, ? extends M> fn) {
@@ -166,6 +214,17 @@ public class Pipeline<I, C> {
   public <U> Pipeline<I,C> addAction(String label, ThrowingBiConsumer<? super C, ? super U> cons, U arg) {
     return addAction(label, Steps.bind(cons, arg));
   }
+  public <M> Pipeline<I,M> addAction(String label, JumpAction<? super C, ? extends M> fn) {
+    validateNewLabel(label);
+    return addControlled(label, fn);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <M> Pipeline<I,M> addControlled(String label, JumpAction<? super C, ? extends M> fn) {
+    ensureMutable();
+    push(Section.MAIN, new ControlledStep((JumpAction<Object,Object>) Objects.requireNonNull(fn), label), label, null);
+    return (Pipeline<I,M>) this;
+  }
 
   // ---- JSON append (unary or typed), with beans and labels ----
   public Pipeline<I,C> addPipelineConfig(String jsonOrPath) {
@@ -195,81 +254,98 @@ public class Pipeline<I, C> {
   public Pipeline<I,C> enableJumps(boolean on) { ensureMutable(); this.jumpsEnabled = on; return this; }
   public Pipeline<I,C> maxJumpsPerRun(int n) { ensureMutable(); this.maxJumpsPerRun = Math.max(1, n); return this; }
   public Pipeline<I,C> sleeper(Sleeper s) { ensureMutable(); this.sleeper = Objects.requireNonNull(s); return this; }
+  /** Wheel on which {@link #runAsync} parks runs waiting out a delayed jump (default: {@link HashedTimerWheel#shared()}). */
+  public Pipeline<I,C> timerWheel(HashedTimerWheel wheel) { ensureMutable(); this.timerWheel = Objects.requireNonNull(wheel); return this; }
+  /** Executor that resumes runs after a delayed jump (default: a new virtual thread per resumption). */
+  public Pipeline<I,C> jumpExecutor(Executor executor) { ensureMutable(); this.jumpExecutor = Objects.requireNonNull(executor); return this; }
+  /**
+   * Handle for {@link JumpControl#jumpTo(JumpTarget)}; resolved to a step index when this pipeline seals, so
+   * jumps through it need no label lookup.
+   */
+  public JumpTarget jumpTarget(String label) {
+    if (label == null || label.isBlank()) throw new IllegalArgumentException("label must be non-empty");
+    JumpTarget target = new JumpTarget(this, label);
+    if (controlPlanBuilt) target.index = resolveJumpLabel(label);
+    else jumpTargets.add(target);
+    return target;
+  }
   /** Schedule next run to start at a label (one-shot). */
   public Pipeline<I,C> jumpTo(String label) { this.queuedStartLabel = Objects.requireNonNull(label); return this; }
 
   // ---- sealing & run ----
   @SuppressWarnings("unchecked")
   public C run(I input) throws Exception {
-    String runId = newRunId();
-    Metrics.RunScope scope = metrics.onPipelineStart(name, runId, queuedStartLabel);
-    currentRunScope.set(scope);
+    if (shouldUseJumpEngine()) return (C) runJumpEngine(input, /*typedOut*/ null);
+    if (compiledUnary == null) sealUnaryWithMetrics();
+    // The core engine drives metricsListener at its step boundaries (see sealUnaryWithMetrics).
+    return compiledUnary.run((C) input).context();
+  }
+
+  @SuppressWarnings("unchecked")
+  public <O> O run(I input, Class<O> outType) throws Exception {
+    if (shouldUseJumpEngine()) return (O) runJumpEngine(input, outType);
+    if (compiledTyped == null) sealTypedWithMetrics(outType);
+    return (O) compiledTyped.run(input);
+  }
+
+  private Object runJumpEngine(Object input, Class<?> typedOut) throws Exception {
     long t0 = System.nanoTime();
+    PipelineListener.RunListener events = jumpListener.onRunStart(name, t0);
     try {
-      Object out;
-      boolean success = true;
-      Throwable err = null;
-
-      if (shouldUseJumpEngine()) {
-        out = runWithJumps(input, /*typedOut*/ null, scope);
-      } else {
-        if (compiledUnary == null) sealUnaryWithMetrics();
-        PipelineResult<C> result = compiledUnary.run((C) input);
-        out = result.context();
-        if (result.hasErrors()) {
-          success = false;
-          err = result.errors().getFirst().exception();
-        }
-      }
-      scope.onPipelineEnd(success, System.nanoTime()-t0, err);
-      return (C) out;
+      Object out = runWithJumps(input, typedOut, events);
+      if (events != null) runEnded(events, t0, out, null);
+      return out;
     } catch (Throwable ex) {
-      scope.onPipelineEnd(false, System.nanoTime()-t0, ex);
+      if (events != null) runEnded(events, t0, null, ex);
       if (ex instanceof Exception e) throw e;
       throw new RuntimeException(ex);
-    } finally {
-      currentRunScope.remove();
     }
   }
 
+  /**
+   * Runs without holding a thread through delayed jumps: {@code Jumps.after} suspends the run (step index plus
+   * current value) on the timer wheel and a worker resumes it when the delay expires. Steps up to the first delay
+   * run on the calling thread. Without the jump engine this is {@link #run(Object)} with a completed future.
+   */
   @SuppressWarnings("unchecked")
-  public <O> O run(I input, Class<O> outType) throws Exception {
-    String runId = newRunId();
-    Metrics.RunScope scope = metrics.onPipelineStart(name, runId, queuedStartLabel);
-    currentRunScope.set(scope);
+  public CompletableFuture<C> runAsync(I input) {
+    return (CompletableFuture<C>) runAsyncInternal(input, null);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <O> CompletableFuture<O> runAsync(I input, Class<O> outType) {
+    return (CompletableFuture<O>) runAsyncInternal(input, Objects.requireNonNull(outType, "outType"));
+  }
+
+  private CompletableFuture<?> runAsyncInternal(I input, Class<?> outType) {
+    if (!shouldUseJumpEngine()) {
+      try {
+        return CompletableFuture.completedFuture(outType == null ? run(input) : run(input, outType));
+      } catch (Exception ex) {
+        return CompletableFuture.failedFuture(ex);
+      }
+    }
     long t0 = System.nanoTime();
+    PipelineListener.RunListener events = jumpListener.onRunStart(name, t0);
+    CompletableFuture<Object> done = new CompletableFuture<>();
     try {
-      Object out;
-      if (shouldUseJumpEngine()) out = runWithJumps(input, outType, scope);
-      else {
-        if (compiledTyped == null) sealTypedWithMetrics(outType);
-        out = compiledTyped.run(input);
-      }
-      scope.onPipelineEnd(true, System.nanoTime()-t0, null);
-      return (O) out;
+      resumeAsync(startJumpRun(input, outType, events), done);
     } catch (Throwable ex) {
-      scope.onPipelineEnd(false, System.nanoTime()-t0, ex);
-      if (ex instanceof Exception e) throw e;
-      throw new RuntimeException(ex);
-    } finally {
-      currentRunScope.remove();
+      done.completeExceptionally(ex);
     }
+    if (events == null) return done;
+    return done.whenComplete((out, ex) -> runEnded(events, t0, out, ex));
   }
 
   private boolean shouldUseJumpEngine() { return jumpsEnabled || queuedStartLabel != null; }
 
-  private String newRunId() {
-    long r = ThreadLocalRandom.current().nextLong();
-    return Long.toHexString(System.nanoTime()) + "-" + Long.toHexString(r);
-  }
-
   public synchronized com.pipeline.core.Pipeline<C> sealUnaryWithMetrics() {
     if (compiledUnary == null) {
-      var b = com.pipeline.core.Pipeline.<C>builder(name).shortCircuit(shortCircuit);
-      int idx = 0;
-      for (int i=0;i<pre.size();i++,idx++)  b.addPreAction(labelOf(preLabels,i), wrapForMetricsUnary(idx, labelOf(preLabels,i), castFn(pre.get(i))));
-      for (int i=0;i<main.size();i++,idx++) b.addAction   (labelOf(mainLabels,i), wrapForMetricsUnary(idx, labelOf(mainLabels,i), castFn(main.get(i))));
-      for (int i=0;i<post.size();i++,idx++) b.addPostAction(labelOf(postLabels,i), wrapForMetricsUnary(idx, labelOf(postLabels,i), castFn(post.get(i))));
+      var b = com.pipeline.core.Pipeline.<C>builder(name).shortCircuit(shortCircuit).addListener(metricsListener);
+      for (PipelineListener listener : listeners) b.addListener(listener);
+      for (int i=0;i<pre.size();i++)  b.addPreAction(labelOf(preLabels,i), unchecked(castFn(pre.get(i))));
+      for (int i=0;i<main.size();i++) b.addAction   (labelOf(mainLabels,i), unchecked(castFn(main.get(i))));
+      for (int i=0;i<post.size();i++) b.addPostAction(labelOf(postLabels,i), unchecked(castFn(post.get(i))));
       compiledUnary = b.build();
     }
     return compiledUnary;
@@ -279,15 +355,16 @@ public class Pipeline<I, C> {
     if (compiledTyped == null) {
       int idx = 0;
       List<ThrowingFn<Object,Object>> steps = new ArrayList<>();
-      for (int i=0;i<pre.size();i++,idx++)  steps.add(wrapForMetrics(idx, labelOf(preLabels,i), castFn(pre.get(i))));
-      for (int i=0;i<main.size();i++,idx++) steps.add(wrapForMetrics(idx, labelOf(mainLabels,i), castFn(main.get(i))));
-      for (int i=0;i<post.size();i++,idx++) steps.add(wrapForMetrics(idx, labelOf(postLabels,i), castFn(post.get(i))));
+      List<StepInfo> infos = new ArrayList<>();
+      for (int i=0;i<pre.size();i++,idx++)  { steps.add(castFn(pre.get(i)));  infos.add(StepRef.of(StepPhase.PRE, i, idx, labelOf(preLabels,i))); }
+      for (int i=0;i<main.size();i++,idx++) { steps.add(castFn(main.get(i))); infos.add(StepRef.of(StepPhase.MAIN, i, idx, labelOf(mainLabels,i))); }
+      for (int i=0;i<post.size();i++,idx++) { steps.add(castFn(post.get(i))); infos.add(StepRef.of(StepPhase.POST, i, idx, labelOf(postLabels,i))); }
 
       @SuppressWarnings("unchecked")
       Function<Exception,O> onErrorReturnForOut =
           (Function<Exception,O>) (Function<?,?>) onErrorReturn;
 
-      compiledTyped = new CompiledTyped<>(name, shortCircuit, onErrorReturnForOut, steps);
+      compiledTyped = new CompiledTyped<>(name, shortCircuit, onErrorReturnForOut, steps, infos, typedListener);
     }
     @SuppressWarnings("unchecked")
     var typed = (CompiledTyped<I,O>) compiledTyped;
@@ -299,31 +376,56 @@ public class Pipeline<I, C> {
     private final boolean shortCircuit;
     private final Function<Exception,O> onErrorReturn; // may be null
     private final List<ThrowingFn<Object,Object>> steps;
+    private final List<StepInfo> stepInfos;
+    private final PipelineListener listener;
 
     private CompiledTyped(String name,
                           boolean shortCircuit,
                           Function<Exception,O> onErrorReturn,
-                          List<ThrowingFn<Object,Object>> steps) {
+                          List<ThrowingFn<Object,Object>> steps,
+                          List<StepInfo> stepInfos,
+                          PipelineListener listener) {
       this.name = Objects.requireNonNull(name, "name");
       this.shortCircuit = shortCircuit;
       this.onErrorReturn = onErrorReturn;
       this.steps = List.copyOf(steps);
+      this.stepInfos = List.copyOf(stepInfos);
+      this.listener = Objects.requireNonNull(listener, "listener");
     }
 
-    @SuppressWarnings("unchecked")
     public O run(I input) throws Exception {
+      long t0 = System.nanoTime();
+      PipelineListener.RunListener events = listener.onRunStart(name, t0);
+      if (events == null) return runSteps(input, null, t0);
+      try {
+        O out = runSteps(input, events, t0);
+        runEnded(events, t0, out, null);
+        return out;
+      } catch (Exception ex) {
+        runEnded(events, t0, null, ex);
+        throw ex;
+      }
+    }
+
+    /** {@code events} is null when nobody listens; then no clock is read. */
+    @SuppressWarnings("unchecked")
+    private O runSteps(I input, PipelineListener.RunListener events, long boundaryNanos) throws Exception {
       Object cur = input;
       for (int i = 0; i < steps.size(); i++) {
         ThrowingFn<Object, Object> fn = steps.get(i);
+        if (events != null) events.onStepStart(stepInfos.get(i), boundaryNanos);
         try {
           cur = fn.apply(cur);
         } catch (Exception ex) {
+          if (events != null) boundaryNanos = stepEnded(events, stepInfos.get(i), boundaryNanos, ex);
           if (shortCircuit) {
             if (onErrorReturn != null) return onErrorReturn.apply(ex);
             throw ex;
           }
           // continue-on-error: keep current value and continue
+          continue;
         }
+        if (events != null) boundaryNanos = stepEnded(events, stepInfos.get(i), boundaryNanos, null);
       }
       return (O) cur;
     }
@@ -337,42 +439,39 @@ public class Pipeline<I, C> {
     return (l == null ? "step#" + i : l);
   }
 
-  private <A,B> ThrowingFn<A,B> wrapForMetrics(int idx, String label, ThrowingFn<A,B> fn) {
+  /** Core pipelines take unchecked steps; checked exceptions still reach the engine's error handling. */
+  private static <T> UnaryOperator<T> unchecked(ThrowingFn<T,T> fn) {
     return a -> {
-      Metrics.RunScope s = currentRunScope.get();
-      long t0 = System.nanoTime();
-      if (s != null) s.onStepStart(idx, label);
       try {
-        B out = fn.apply(a);
-        if (s != null) s.onStepEnd(idx, label, System.nanoTime()-t0, true);
-        return out;
-      } catch (Exception ex) {
-        if (s != null) s.onStepError(idx, label, ex);
+        return fn.apply(a);
+      } catch (RuntimeException ex) {
         throw ex;
-      }
-    };
-  }
-
-  private <T> UnaryOperator<T> wrapForMetricsUnary(int idx, String label, ThrowingFn<T,T> fn) {
-    return a -> {
-      Metrics.RunScope s = currentRunScope.get();
-      long t0 = System.nanoTime();
-      if (s != null) s.onStepStart(idx, label);
-      try {
-        T out = fn.apply(a);
-        if (s != null) s.onStepEnd(idx, label, System.nanoTime()-t0, true);
-        return out;
       } catch (Exception ex) {
-        if (s != null) {
-          s.onStepError(idx, label, ex);
-          s.onStepEnd(idx, label, System.nanoTime()-t0, false);
-        }
-        if (ex instanceof RuntimeException re) throw re;
         throw new RuntimeException(ex);
       }
     };
   }
 
+  /** Reports a step boundary with a single clock read; the returned end is the next step's start. */
+  private static long stepEnded(PipelineListener.RunListener events, StepInfo step, long startNanos, Throwable error) {
+    long endNanos = System.nanoTime();
+    events.onStepEnd(step, endNanos, endNanos - startNanos, error);
+    return endNanos;
+  }
+
+  private static void runEnded(PipelineListener.RunListener events, long startNanos, Object result, Throwable error) {
+    if (error == null) events.onRunResult(result);
+    long endNanos = System.nanoTime();
+    events.onRunEnd(endNanos, endNanos - startNanos, error);
+  }
+
+  /** Step identity for the api's own engines (typed and jump), which run outside the core pipeline. */
+  private record StepRef(StepPhase phase, int index, int position, String name, String stepName) implements StepInfo {
+    static StepRef of(StepPhase phase, int index, int position, String label) {
+      return new StepRef(phase, index, position, label, label);
+    }
+  }
+
   public boolean isSealed() { return compiledUnary != null || compiledTyped != null || controlPlanBuilt; }
 
   public Pipeline<I,C> fork() {
@@ -388,11 +487,85 @@ public class Pipeline<I, C> {
     p.jumpsEnabled = this.jumpsEnabled;
     p.maxJumpsPerRun = this.maxJumpsPerRun;
     p.sleeper = this.sleeper;
+    p.timerWheel = this.timerWheel;
+    p.jumpExecutor = this.jumpExecutor;
     return p;
   }
 
   // ---- Jump runner ----
-  private Object runWithJumps(Object input, Class<?> typedOut, Metrics.RunScope scope) throws Exception {
+  private Object runWithJumps(Object input, Class<?> typedOut, PipelineListener.RunListener events) throws Exception {
+    JumpRun run = startJumpRun(input, typedOut, events);
+    long delay;
+    while ((delay = advance(run)) >= 0) {
+      if (sleeper != null) sleeper.sleep(delay);
+      else Thread.sleep(delay);
+    }
+    return run.value;
+  }
+
+  /**
+   * Continuation of a jump-engine run: where to resume and the value to resume with. Also the {@link JumpControl}
+   * handed to {@link JumpAction} steps, recording the requested jump for the engine to take.
+   */
+  private static final class JumpRun implements JumpControl {
+    final Class<?> typedOut;
+    final PipelineListener.RunListener events; // null: nobody listens
+    Object value;
+    int index;
+    int jumps;
+    Object requested; // JumpTarget or label
+    long requestedDelay;
+
+    JumpRun(Object value, int index, Class<?> typedOut, PipelineListener.RunListener events) {
+      this.value = value;
+      this.index = index;
+      this.typedOut = typedOut;
+      this.events = events;
+    }
+
+    @Override public void jumpTo(JumpTarget target) { request(Objects.requireNonNull(target, "target"), 0L); }
+    @Override public void jumpAfter(JumpTarget target, Duration delay) { request(Objects.requireNonNull(target, "target"), millis(delay)); }
+    @Override public void jumpTo(String label) { request(requireLabel(label), 0L); }
+    @Override public void jumpAfter(String label, Duration delay) { request(requireLabel(label), millis(delay)); }
+
+    private void request(Object target, long delayMillis) {
+      requested = target;
+      requestedDelay = delayMillis;
+    }
+
+    private static String requireLabel(String label) {
+      if (label == null || label.isBlank()) throw new IllegalArgumentException("label must be non-empty");
+      return label;
+    }
+
+    private static long millis(Duration d) { return d == null ? 0L : Math.max(0L, d.toMillis()); }
+  }
+
+  /** Adapts a {@link JumpAction} to the plain step lists; outside the jump engine it cannot jump. */
+  private static final class ControlledStep implements ThrowingFn<Object,Object> {
+    private static final JumpControl JUMPS_DISABLED = new JumpControl() {
+      @Override public void jumpTo(JumpTarget target) { throw disabled(); }
+      @Override public void jumpAfter(JumpTarget target, Duration delay) { throw disabled(); }
+      @Override public void jumpTo(String label) { throw disabled(); }
+      @Override public void jumpAfter(String label, Duration delay) { throw disabled(); }
+      private IllegalStateException disabled() {
+        return new IllegalStateException("Jumps are disabled; enable them with enableJumps(true)");
+      }
+    };
+
+    final JumpAction<Object,Object> action;
+    private final String label;
+
+    ControlledStep(JumpAction<Object,Object> action, String label) {
+      this.action = action;
+      this.label = label;
+    }
+
+    @Override public Object apply(Object in) throws Exception { return action.apply(in, JUMPS_DISABLED); }
+    @Override public String toString() { return label != null ? label : super.toString(); }
+  }
+
+  private JumpRun startJumpRun(Object input, Class<?> typedOut, PipelineListener.RunListener events) {
     buildControlPlanIfNeeded();
     int start = 0;
     if (queuedStartLabel != null) {
@@ -401,48 +574,116 @@ public class Pipeline<I, C> {
       start = idx;
       queuedStartLabel = null; // one-shot
     }
-    Object value = input;
-    int i = start;
-    int jumps = 0;
+    return new JumpRun(input, start, typedOut, events);
+  }
 
-    while (i < flatFns.size()) {
-      ThrowingFn<Object,Object> fn = flatFns.get(i);
-      String curLabel = labelOrIndex(i);
-      long t0 = System.nanoTime();
-      if (scope != null) scope.onStepStart(i, curLabel);
-      try {
-        value = fn.apply(value);
-        if (scope != null) scope.onStepEnd(i, curLabel, System.nanoTime()-t0, true);
-        i++;
-      } catch (Jumps.Signal sig) {
-        if (scope != null) scope.onStepEnd(i, curLabel, System.nanoTime()-t0, true);
-        if (++jumps > maxJumpsPerRun) throw new IllegalStateException("Too many jumps in one run (>" + maxJumpsPerRun + ")");
-        String to = sig.label();
-        Integer target = labelIndex.get(to);
-        if (target == null) throw new IllegalArgumentException("Unknown jump label: " + to);
-        if (target < preCount) throw new IllegalArgumentException("Jump into 'pre' is not allowed: " + to);
-        if (scope != null) scope.onJump(curLabel, to, sig.sleepMillis());
-        long sleep = sig.sleepMillis();
-        if (sleep > 0) sleeper.sleep(sleep);
-        Class<?> expected = flatExpectedIn.get(target);
+  /**
+   * Runs steps until the pipeline completes (returns -1) or a step asks for a delayed jump; then the run is already
+   * positioned at the jump target and the delay in millis is returned, leaving the wait to the caller.
+   */
+  private long advance(JumpRun run) throws Exception {
+    PipelineListener.RunListener events = run.events;
+    Object value = run.value;
+    int i = run.index;
+    long boundary = (events == null) ? 0L : System.nanoTime();
+    try {
+      while (i < flatFns.size()) {
+        StepInfo step = flatSteps[i];
+        if (events != null) events.onStepStart(step, boundary);
+        int target;
+        long delay;
+        try {
+          JumpAction<Object,Object> controlled = flatControlled[i];
+          if (controlled == null) {
+            value = flatFns.get(i).apply(value);
+          } else {
+            run.requested = null;
+            value = controlled.apply(value, run);
+          }
+          if (events != null) boundary = stepEnded(events, step, boundary, null);
+          Object requested = (controlled == null) ? null : run.requested;
+          if (requested == null) {
+            i++;
+            continue;
+          }
+          target = (requested instanceof JumpTarget t) ? resolvedIndex(t) : resolveJumpLabel((String) requested);
+          delay = run.requestedDelay;
+        } catch (Jumps.Signal sig) {
+          // Compatibility path: label lookup per jump.
+          if (events != null) boundary = stepEnded(events, step, boundary, null);
+          target = resolveJumpLabel(sig.label());
+          delay = sig.sleepMillis();
+        } catch (Exception ex) {
+          if (events != null) boundary = stepEnded(events, step, boundary, ex);
+          if (shortCircuit) throw ex; // abort
+          // else continue with same value
+          i++;
+          continue;
+        }
+        if (++run.jumps > maxJumpsPerRun) throw new IllegalStateException("Too many jumps in one run (>" + maxJumpsPerRun + ")");
+        String to = flatLabels.get(target);
+        if (events != null) events.onJump(step, flatSteps[target], delay);
+        Class<?> expected = jumpTypeCheck[target];
         if (expected != null && value != null && !expected.isInstance(value)) {
-          throw new IllegalStateException("Jump type mismatch: value at '" + curLabel + "' is "
+          throw new IllegalStateException("Jump type mismatch: value at '" + step.name() + "' is "
             + value.getClass().getName() + " but target '" + to + "' expects " + expected.getName());
         }
         i = target; // perform jump
-      } catch (Exception ex) {
-        if (scope != null) scope.onStepError(i, curLabel, ex);
-        if (shortCircuit) throw ex; // abort
-        // else continue with same value
-        i++;
+        if (delay > 0) return delay;
       }
+    } finally {
+      run.value = value;
+      run.index = i;
     }
     // typed out post-check
-    if (typedOut != null && value != null && !typedOut.isInstance(value)) {
+    if (run.typedOut != null && value != null && !run.typedOut.isInstance(value)) {
       throw new IllegalStateException("Pipeline completed but result type " + value.getClass().getName() +
-          " is not assignable to requested " + typedOut.getName());
+          " is not assignable to requested " + run.typedOut.getName());
+    }
+    return -1L;
+  }
+
+  /**
+   * Drives {@code run} without blocking: a delayed jump parks the continuation on the timer wheel and the run
+   * resumes on {@code jumpExecutor} when the delay expires. A configured {@link Sleeper} (test hook) is invoked
+   * inline instead.
+   */
+  private void resumeAsync(JumpRun run, CompletableFuture<Object> done) {
+    try {
+      long delay;
+      while ((delay = advance(run)) >= 0) {
+        if (sleeper != null) {
+          sleeper.sleep(delay);
+          continue;
+        }
+        Executor executor = jumpExecutor;
+        timerWheel.schedule(delay, TimeUnit.MILLISECONDS, () -> {
+          try {
+            executor.execute(() -> resumeAsync(run, done));
+          } catch (RuntimeException rejected) {
+            done.completeExceptionally(rejected);
+          }
+        });
+        return;
+      }
+      done.complete(run.value);
+    } catch (Throwable ex) {
+      done.completeExceptionally(ex);
     }
-    return value;
+  }
+
+  private int resolveJumpLabel(String to) {
+    Integer target = labelIndex.get(to);
+    if (target == null) throw new IllegalArgumentException("Unknown jump label: " + to);
+    if (target < preCount) throw new IllegalArgumentException("Jump into 'pre' is not allowed: " + to);
+    return target;
+  }
+
+  private int resolvedIndex(JumpTarget target) {
+    if (target.owner != this) {
+      throw new IllegalArgumentException("Jump target '" + target.label() + "' belongs to another pipeline");
+    }
+    return target.index;
   }
 
   private String labelOrIndex(int i) {
@@ -452,6 +693,8 @@ public class Pipeline<I, C> {
 
   private void buildControlPlanIfNeeded() {
     if (controlPlanBuilt) return;
+    // Start over if an earlier attempt failed part-way (e.g. an unresolvable jump target).
+    flatFns.clear(); flatLabels.clear(); flatExpectedIn.clear(); labelIndex.clear();
     int idx = 0;
     for (int k = 0; k < pre.size(); k++, idx++) {
       flatFns.add(castFn(pre.get(k)));
@@ -481,6 +724,26 @@ public class Pipeline<I, C> {
         labelIndex.put(lab, idx);
       }
     }
+    // Resolve everything a jump needs to plain indices once, so taking a jump costs no lookups.
+    @SuppressWarnings("unchecked") // no generic array creation; the wildcard array only ever holds ControlledStep actions
+    JumpAction<Object,Object>[] controlled = (JumpAction<Object,Object>[]) new JumpAction<?,?>[idx];
+    Class<?>[] typeCheck = new Class<?>[idx];
+    for (int k = 0; k < idx; k++) {
+      if (flatFns.get(k) instanceof ControlledStep step) controlled[k] = step.action;
+      Class<?> expected = flatExpectedIn.get(k);
+      typeCheck[k] = (expected == Object.class) ? null : expected;
+    }
+    StepInfo[] infos = new StepInfo[idx];
+    int postStart = preCount + main.size();
+    for (int k = 0; k < idx; k++) {
+      StepPhase phase = (k < preCount) ? StepPhase.PRE : (k < postStart) ? StepPhase.MAIN : StepPhase.POST;
+      int offset = (phase == StepPhase.PRE) ? 0 : (phase == StepPhase.MAIN) ? preCount : postStart;
+      infos[k] = StepRef.of(phase, k - offset, k, labelOrIndex(k));
+    }
+    flatControlled = controlled;
+    jumpTypeCheck = typeCheck;
+    flatSteps = infos;
+    for (JumpTarget target : jumpTargets) target.index = resolveJumpLabel(target.label());
     controlPlanBuilt = true;
   }
 
@@ -509,7 +772,7 @@ public class Pipeline<I, C> {
     if (expectedIn == null && label != null) {
       expectedIn = inferInputType(fn);
     }
-    ThrowingFn<?,?> wrapped = (label == null) ? fn : label(fn, label);
+    ThrowingFn<?,?> wrapped = (label == null || fn instanceof ControlledStep) ? fn : label(fn, label);
     switch (sec) {
       case PRE -> { pre.add(wrapped); preLabels.add(label); preInTypes.add(expectedIn); }
       case MAIN -> { main.add(wrapped); mainLabels.add(label); mainInTypes.add(expectedIn); }
@@ -795,15 +1058,7 @@ public class Pipeline<I, C> {
       if (out != boolean.class && !out.isAssignableFrom(m.getReturnType())) {
         throw new IllegalArgumentException("Method return " + m.getReturnType().getName() + " not assignable to declared out " + out.getName());
       }
-      m.setAccessible(true);
-      return (ThrowingFn<Object,Object>) (Object inVal) -> {
-        try { return m.invoke(null, inVal); }
-        catch (InvocationTargetException ite) {
-          Throwable cause = ite.getCause();
-          if (cause instanceof Exception ex) throw ex;
-          throw new RuntimeException(cause);
-        }
-      };
+      return LambdaBinder.staticMethod(m);
     } catch (NoSuchMethodException e) {
       throw new IllegalArgumentException("No such method: " + ref + " with parameter " + in.getName(), e);
     }
@@ -818,15 +1073,7 @@ public class Pipeline<I, C> {
       if (out != boolean.class && !out.isAssignableFrom(m.getReturnType())) {
         throw new IllegalArgumentException("Method return " + m.getReturnType().getName() + " not assignable to declared out " + out.getName());
       }
-      m.setAccessible(true);
-      return (ThrowingFn<Object,Object>) (Object inVal) -> {
-        try { return m.invoke(bean, inVal); }
-        catch (InvocationTargetException ite) {
-          Throwable cause = ite.getCause();
-          if (cause instanceof Exception ex) throw ex;
-          throw new RuntimeException(cause);
-        }
-      };
+      return LambdaBinder.instanceMethod(bean, m);
     } catch (NoSuchMethodException e) {
       throw new IllegalArgumentException("No such instance method on " + bean.getClass().getName() + ": " + method + "(" + in.getName() + ")", e);
     }
@@ -843,6 +1090,7 @@ public class Pipeline<I, C> {
     spec.retries = remoteNode.path("retries").asInt(defaults.retries);
     spec.headers = defaults.mergeHeaders(parseStringMap(remoteNode.get("headers")));
     spec.client = defaults.client;
+    spec.clientProfile = parseClientProfile(remoteNode, defaults.clientProfile);
 
     String serde = remoteNode.path("serde").asText(null);
     if (serde == null || serde.isBlank()) serde = defaults.serde;
@@ -851,29 +1099,36 @@ public class Pipeline<I, C> {
     }
     if ("json".equalsIgnoreCase(serde)) serde = "jackson";
 
+    spec.gzip = remoteNode.path("gzip").asBoolean(defaults.gzip);
+    spec.policy = parseRemotePolicy(remoteNode, defaults.policy);
+    boolean get = "GET".equalsIgnoreCase(remoteNode.path("method").asText(defaults.method));
+    if (!get && remoteNode.hasNonNull("hedge")) throw new IllegalArgumentException("$remote hedge requires method GET");
+    if (get) spec.hedge = parseHedgePolicy(remoteNode, defaults.hedge, defaults);
+    spec.coalesce = remoteNode.path("coalesce").asBoolean(defaults.coalesce);
+
     if ("jackson".equalsIgnoreCase(serde)) {
-      spec.toJson = obj -> {
+      spec.serde = jacksonSerde(inClass, outClass);
+      spec.toJson = obj -> { // GET query string only; POST bodies stream through the serde
         try { return (obj == null) ? "null" : OBJECT_MAPPER.writeValueAsString(obj); }
         catch (Exception e) { throw new RuntimeException(e); }
       };
-      spec.fromJson = body -> {
-        try {
-          if (outClass == String.class) return body;
-          return OBJECT_MAPPER.readValue(body, outClass);
-        } catch (Exception e) { throw new RuntimeException(e); }
-      };
     } else {
       spec.toJson = obj -> (String) obj;
       spec.fromJson = body -> body;
     }
 
     @SuppressWarnings("unchecked")
-    ThrowingFn<?,?> fn = (ThrowingFn<?,?>) ("GET".equalsIgnoreCase(remoteNode.path("method").asText(defaults.method))
+    ThrowingFn<?,?> fn = (ThrowingFn<?,?>) (get
         ? HttpStep.jsonGetTyped(spec)
         : HttpStep.jsonPostTyped(spec));
     return fn;
   }
 
+  @SuppressWarnings("unchecked")
+  private static RemoteSerde<Object,Object> jacksonSerde(Class<?> inClass, Class<?> outClass) {
+    return (RemoteSerde<Object,Object>) (RemoteSerde<?,?>) RemoteSerde.jackson(OBJECT_MAPPER, inClass, outClass);
+  }
+
   private static HttpStep.RemoteDefaults parseRemoteDefaults(JsonNode node, HttpStep.RemoteDefaults base) {
     if (node == null || node.isNull() || !node.isObject()) return base;
     HttpStep.RemoteDefaults defaults = new HttpStep.RemoteDefaults();
@@ -884,9 +1139,62 @@ public class Pipeline<I, C> {
     defaults.serde = node.path("serde").asText(base.serde);
     defaults.headers = base.mergeHeaders(parseStringMap(node.get("headers")));
     defaults.client = base.client;
+    defaults.clientProfile = parseClientProfile(node, base.clientProfile);
+    defaults.gzip = node.path("gzip").asBoolean(base.gzip);
+    defaults.policy = parseRemotePolicy(node, base.policy);
+    defaults.hedge = parseHedgePolicy(node, base.hedge, defaults);
+    defaults.coalesce = node.path("coalesce").asBoolean(base.coalesce);
     return defaults;
   }
 
+  /** {@link RemotePolicy} from {@code "policy"}; fields left out keep {@code base}'s (or the defaults'). */
+  private static RemotePolicy parseRemotePolicy(JsonNode node, RemotePolicy base) {
+    JsonNode p = node.get("policy");
+    if (p == null || p.isNull()) return base;
+    if (!p.isObject()) throw new IllegalArgumentException("policy must be an object: " + p);
+    RemotePolicy b = (base != null) ? base : RemotePolicy.defaults();
+    return new RemotePolicy(
+        Duration.ofMillis(p.path("baseBackoffMillis").asLong(b.baseBackoff().toMillis())),
+        Duration.ofMillis(p.path("maxBackoffMillis").asLong(b.maxBackoff().toMillis())),
+        p.path("retryBudgetRatio").asDouble(b.retryBudgetRatio()),
+        p.path("retryBudgetBurst").asInt(b.retryBudgetBurst()),
+        p.path("failureThreshold").asInt(b.failureThreshold()),
+        Duration.ofMillis(p.path("openMillis").asLong(b.openDuration().toMillis())));
+  }
+
+  /**
+   * {@link HedgePolicy} from {@code "hedge"}: an object whose fields left out keep {@code base}'s (or the defaults'),
+   * or {@code false} to turn an inherited one off. Hedge endpoints resolve against {@code defaults.baseUrl}.
+   */
+  private static HedgePolicy parseHedgePolicy(JsonNode node, HedgePolicy base, HttpStep.RemoteDefaults defaults) {
+    JsonNode h = node.get("hedge");
+    if (h == null || h.isNull()) return base;
+    if (h.isBoolean() && !h.asBoolean()) return null;
+    if (!h.isObject()) throw new IllegalArgumentException("hedge must be an object or false: " + h);
+    HedgePolicy b = (base != null) ? base : HedgePolicy.defaults();
+    List<String> endpoints = b.endpoints();
+    JsonNode e = h.get("endpoints");
+    if (e != null && !e.isNull()) {
+      if (!e.isArray()) throw new IllegalArgumentException("hedge.endpoints must be an array: " + e);
+      endpoints = new ArrayList<>(e.size());
+      for (JsonNode endpoint : e) endpoints.add(defaults.resolveEndpoint(endpoint.asText()));
+    }
+    return new HedgePolicy(
+        h.path("quantile").asDouble(b.quantile()),
+        Duration.ofMillis(h.path("minDelayMillis").asLong(b.minDelay().toMillis())),
+        Duration.ofMillis(h.path("fallbackDelayMillis").asLong(b.fallbackDelay().toMillis())),
+        h.path("extraLoadRatio").asDouble(b.extraLoadRatio()),
+        h.path("extraLoadBurst").asInt(b.extraLoadBurst()),
+        endpoints);
+  }
+
+  /** Name of an {@link HttpClients} profile from {@code "client"}; unknown names fail here rather than on first call. */
+  private static String parseClientProfile(JsonNode node, String fallback) {
+    String name = node.path("client").asText(fallback);
+    HttpClients.profile(name);
+    return name;
+  }
+
   private static String parseRemoteEndpointOrPath(JsonNode remoteNode) {
     if (remoteNode == null || remoteNode.isNull()) {
       throw new IllegalArgumentException("$remote must be a string or object");
@@ -0,0 +1,73 @@
+package com.pipeline.api.tests;
+
+import com.pipeline.api.JumpControl;
+import com.pipeline.api.JumpTarget;
+import com.pipeline.api.Pipeline;
+import com.pipeline.core.Jumps;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JumpControlTest {
+
+  @Test
+  void targetJumpsCarryTheReturnedValue() throws Exception {
+    var m = new TestMetrics();
+    var p = Pipeline.<Integer>named("control_loop", false).enableJumps(true).metrics(m);
+    JumpTarget loop = p.jumpTarget("loop");
+    p.addAction("loop", (Integer n, JumpControl c) -> {
+          if (n < 5) c.jumpTo(loop);
+          return n + 1;
+        })
+        .addAction(n -> n * 10);
+
+    assertEquals(60, p.run(0));
+    assertEquals(5, m.jumps.get());
+    assertTrue(m.events.contains("jump:loop->loop"));
+  }
+
+  @Test
+  void labelJumpsAndSignalsMixAndDelaysGoThroughTheSleeper() throws Exception {
+    List<Long> slept = new ArrayList<>();
+    var p = Pipeline.<String>named("mixed", false)
+        .enableJumps(true)
+        .sleeper(slept::add)
+        .addAction("a", (String s, JumpControl c) -> {
+          if (s.length() < 3) c.jumpAfter("b", Duration.ofMillis(7));
+          return s + "a";
+        })
+        .addAction("b", s -> {
+          if (s.length() < 3) Jumps.now("a");
+          return s + "b";
+        });
+
+    assertEquals("aaab", p.run(""));
+    assertEquals(List.of(7L, 7L, 7L), slept);
+  }
+
+  @Test
+  void targetsAreResolvedWhenThePipelineSeals() {
+    var unknown = Pipeline.<String>named("unknown_target", false).enableJumps(true);
+    JumpTarget missing = unknown.jumpTarget("missing");
+    unknown.addAction("a", (String s, JumpControl c) -> { c.jumpTo(missing); return s; });
+    var ex = assertThrows(IllegalArgumentException.class, () -> unknown.run("x"));
+    assertTrue(ex.getMessage().contains("Unknown jump label: missing"));
+
+    var intoPre = Pipeline.<String>named("pre_target", false).enableJumps(true).before("init", s -> s);
+    intoPre.jumpTarget("init");
+    intoPre.addAction("a", s -> s);
+    ex = assertThrows(IllegalArgumentException.class, () -> intoPre.run("x"));
+    assertTrue(ex.getMessage().contains("Jump into 'pre' is not allowed"));
+  }
+
+  @Test
+  void controlledStepsRunOnTheCompiledPathWhenTheyDoNotJump() throws Exception {
+    var p = Pipeline.<String>named("no_jumps", true)
+        .addAction("up", (String s, JumpControl c) -> s.toUpperCase());
+    assertEquals("X", p.run("x"));
+  }
+}
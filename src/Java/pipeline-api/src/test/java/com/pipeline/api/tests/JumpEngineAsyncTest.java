@@ -0,0 +1,88 @@
+package com.pipeline.api.tests;
+
+import com.pipeline.api.HashedTimerWheel;
+import com.pipeline.api.Pipeline;
+import com.pipeline.core.Jumps;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JumpEngineAsyncTest {
+
+  @Test
+  void delayedPollsAreParkedOnTheWheelNotOnThreads() throws Exception {
+    int runs = 2_000;
+    Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    try (var wheel = new HashedTimerWheel("test-wheel", Duration.ofMillis(1), 64)) {
+      var p = Pipeline.<String>named("async_poll", false)
+          .enableJumps(true)
+          .timerWheel(wheel)
+          .addAction("await", s -> {
+            if (attempts.computeIfAbsent(s, k -> new AtomicInteger()).incrementAndGet() < 3) {
+              Jumps.after("await", Duration.ofMillis(20));
+            }
+            return s;
+          })
+          .addAction(s -> s + ":done");
+
+      int threadsBefore = Thread.activeCount();
+      List<CompletableFuture<String>> futures = new ArrayList<>(runs);
+      for (int i = 0; i < runs; i++) futures.add(p.runAsync("job-" + i));
+      // Every run is now suspended on the wheel; none holds a platform thread while it waits.
+      assertTrue(Thread.activeCount() - threadsBefore < 10, "runs must not pin platform threads");
+
+      for (int i = 0; i < runs; i++) {
+        assertEquals("job-" + i + ":done", futures.get(i).get(10, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get("job-" + i).get());
+      }
+      assertEquals(0, wheel.pending());
+    }
+  }
+
+  @Test
+  void sleeperHookRunsInlineAndFailuresCompleteTheFuture() {
+    List<Long> slept = new ArrayList<>();
+    var p = Pipeline.<String>named("async_hook", false)
+        .enableJumps(true)
+        .sleeper(slept::add)
+        .maxJumpsPerRun(2)
+        .addAction("loop", s -> { Jumps.after("loop", Duration.ofMillis(5)); return s; });
+
+    CompletableFuture<String> future = p.runAsync("x");
+    assertTrue(future.isDone(), "with a sleeper hook the run never leaves the caller");
+    CompletionException ex = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(IllegalStateException.class, ex.getCause());
+    assertEquals(List.of(5L, 5L), slept);
+  }
+
+  @Test
+  void wheelFiresNoEarlierThanRequestedAndHonoursCancel() throws Exception {
+    try (var wheel = new HashedTimerWheel("test-wheel", Duration.ofMillis(1), 8)) {
+      CountDownLatch fired = new CountDownLatch(1);
+      long[] firedAt = new long[1];
+      long start = System.nanoTime();
+      // 30ms spans several rotations of an 8-slot, 1ms wheel.
+      wheel.schedule(30, TimeUnit.MILLISECONDS, () -> { firedAt[0] = System.nanoTime(); fired.countDown(); });
+      AtomicInteger cancelledRuns = new AtomicInteger();
+      var cancelled = wheel.schedule(5, TimeUnit.MILLISECONDS, cancelledRuns::incrementAndGet);
+      assertTrue(cancelled.cancel());
+
+      assertTrue(fired.await(5, TimeUnit.SECONDS));
+      assertTrue(firedAt[0] - start >= TimeUnit.MILLISECONDS.toNanos(30));
+      assertEquals(0, cancelledRuns.get());
+      assertTrue(cancelled.isCancelled());
+      assertEquals(0, wheel.pending());
+    }
+  }
+}
@@ -1,19 +1,21 @@
 package com.pipeline.config;
 
+import com.pipeline.core.LambdaBinder;
 import com.pipeline.core.StepAction;
 import com.pipeline.core.ActionControl;
 
 import java.lang.reflect.Constructor;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
 public final class PerRunLocalAction<C> implements StepAction<C> {
-    private final Constructor<?> constructor;
+    private final Supplier<?> factory;
     private final LocalActionInvokeStyle invokeStyle;
     private final String actionReference;
 
     public PerRunLocalAction(Constructor<?> constructor, LocalActionInvokeStyle invokeStyle, String actionReference) {
-        this.constructor = Objects.requireNonNull(constructor, "constructor");
+        this.factory = LambdaBinder.constructor(Objects.requireNonNull(constructor, "constructor"));
         this.invokeStyle = Objects.requireNonNull(invokeStyle, "invokeStyle");
         this.actionReference = Objects.requireNonNull(actionReference, "actionReference");
     }
@@ -30,7 +32,7 @@ public final class PerRunLocalAction<C> implements StepAction<C> {
 
     private Object newInstance() {
         try {
-            return constructor.newInstance();
+            return factory.get();
         } catch (Exception exception) {
             throw new IllegalStateException("Failed to instantiate action: " + actionReference, exception);
         }
@@ -5,17 +5,24 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pipeline.core.ActionRegistry;
 import com.pipeline.core.ActionLifecycle;
 import com.pipeline.core.ActionPool;
+import com.pipeline.core.ActionPoolOptions;
 import com.pipeline.core.ResettableAction;
 import com.pipeline.core.Pipeline;
 import com.pipeline.core.StepAction;
+import com.pipeline.remote.http.HedgePolicy;
+import com.pipeline.remote.http.HttpClients;
 import com.pipeline.remote.http.HttpStep;
+import com.pipeline.remote.http.RemotePolicy;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiConsumer;
@@ -211,11 +218,11 @@ public final class PipelineJsonLoader {
                 lifecycle = isRegistryLocal ? ActionLifecycle.SHARED : ActionLifecycle.POOLED;
                 if (lifecycleOverride != null) lifecycle = lifecycleOverride;
             }
-            int poolMax = defaultPoolMax();
+            ActionPoolOptions poolOptions = ActionPoolOptions.fixed(defaultPoolMax());
             if (singletonMode && lifecycle == ActionLifecycle.POOLED) {
-                poolMax = parsePoolMax(actionNode, poolMax);
+                poolOptions = parsePoolOptions(actionNode, poolOptions);
             }
-            addLocal(registry, localRef, actionName, singletonMode, reflectionEnabled, isRegistryLocal, lifecycle, poolMax, unaryAdder, stepAdder);
+            addLocal(registry, localRef, actionName, singletonMode, reflectionEnabled, isRegistryLocal, lifecycle, poolOptions, unaryAdder, stepAdder);
             return;
         }
 
@@ -233,10 +240,17 @@ public final class PipelineJsonLoader {
                 spec.timeoutMillis = remoteSpecNode.path("timeoutMillis").asInt(spec.timeoutMillis);
                 spec.retries = remoteSpecNode.path("retries").asInt(spec.retries);
                 spec.headers = remoteDefaults.mergeHeaders(parseStringMap(remoteSpecNode.get("headers")));
+                spec.clientProfile = parseClientProfile(remoteSpecNode, spec.clientProfile);
+                spec.gzip = remoteSpecNode.path("gzip").asBoolean(spec.gzip);
+                spec.policy = parseRemotePolicy(remoteSpecNode, spec.policy);
+                spec.hedge = parseHedgePolicy(remoteSpecNode, spec.hedge, remoteDefaults);
+                spec.coalesce = remoteSpecNode.path("coalesce").asBoolean(spec.coalesce);
             }
 
-            String method = remoteSpecNode.path("method").asText(remoteDefaults.method);
-            StepAction<String> remoteAction = "GET".equalsIgnoreCase(method) ? HttpStep.jsonGet(spec) : HttpStep.jsonPost(spec);
+            boolean get = "GET".equalsIgnoreCase(remoteSpecNode.path("method").asText(remoteDefaults.method));
+            if (!get && remoteSpecNode.hasNonNull("hedge")) throw new IOException("$remote hedge requires method GET");
+            if (!get) spec.hedge = null; // an inherited hedge only applies to GETs
+            StepAction<String> remoteAction = get ? HttpStep.jsonGet(spec) : HttpStep.jsonPost(spec);
             stepAdder.accept(actionName, remoteAction);
             return;
         }
@@ -257,7 +271,7 @@ public final class PipelineJsonLoader {
         boolean reflectionEnabled,
         boolean isRegistryLocal,
         ActionLifecycle lifecycle,
-        int poolMax,
+        ActionPoolOptions poolOptions,
         BiConsumer<String, UnaryOperator<String>> unaryAdder,
         BiConsumer<String, StepAction<String>> stepAdder
     ) throws IOException {
@@ -295,7 +309,7 @@ public final class PipelineJsonLoader {
         }
 
         if (lifecycle == ActionLifecycle.POOLED) {
-            addLocalPooled(localRef, actionName, stepAdder, poolMax);
+            addLocalPooled(localRef, actionName, stepAdder, poolOptions);
             return;
         }
 
@@ -326,7 +340,7 @@ public final class PipelineJsonLoader {
         String localRef,
         String actionName,
         BiConsumer<String, StepAction<String>> stepAdder,
-        int poolMax
+        ActionPoolOptions poolOptions
     ) throws IOException {
         Class<?> actionClass = resolveClass(localRef);
         if (!ResettableAction.class.isAssignableFrom(actionClass)) {
@@ -336,7 +350,7 @@ public final class PipelineJsonLoader {
         LocalActionInvokeStyle invokeStyle = determineInvokeStyle(actionClass, localRef);
         Constructor<?> constructor = resolveNoArgsConstructor(actionClass, localRef);
 
-        ActionPool<Object> pool = new ActionPool<>(poolMax, new ReflectiveNoArgFactory(constructor, localRef));
+        ActionPool<Object> pool = new ActionPool<>(poolOptions, new ReflectiveNoArgFactory(constructor, localRef));
         StepAction<String> pooledAction = new PooledLocalAction<>(pool, invokeStyle, localRef);
         stepAdder.accept(actionName, pooledAction);
     }
@@ -418,18 +432,49 @@ public final class PipelineJsonLoader {
         };
     }
 
-    private static int parsePoolMax(JsonNode actionNode, int defaultMax) throws IOException {
+    /**
+     * Parses {@code "pool": {"max", "core", "growAfterWaitMillis", "idleTtlMillis", "borrowTimeoutMillis"}}. Without
+     * {@code core} the pool creates up to {@code max} on demand; with it, instances above {@code core} are only
+     * created after a borrower waited {@code growAfterWaitMillis} (default 0).
+     */
+    private static ActionPoolOptions parsePoolOptions(JsonNode actionNode, ActionPoolOptions defaults) throws IOException {
         JsonNode poolNode = actionNode.get("pool");
-        if (poolNode == null || poolNode.isNull()) return defaultMax;
+        if (poolNode == null || poolNode.isNull()) return defaults;
         if (!poolNode.isObject()) throw new IOException("pool must be an object");
 
+        int max = defaults.max();
         JsonNode maxNode = poolNode.get("max");
-        if (maxNode == null || maxNode.isNull()) return defaultMax;
-        if (!maxNode.canConvertToInt()) throw new IOException("pool.max must be an integer");
+        if (maxNode != null && !maxNode.isNull()) {
+            if (!maxNode.canConvertToInt()) throw new IOException("pool.max must be an integer");
+            max = maxNode.asInt();
+            if (max < 1) throw new IOException("pool.max must be >= 1");
+        }
+
+        Integer core = parseOptionalInt(poolNode, "core");
+        if (core != null && (core < 0 || core > max)) throw new IOException("pool.core must be between 0 and pool.max");
+        Duration growAfterWait = parseOptionalMillis(poolNode, "growAfterWaitMillis");
+        Duration idleTtl = parseOptionalMillis(poolNode, "idleTtlMillis");
+        Duration borrowTimeout = parseOptionalMillis(poolNode, "borrowTimeoutMillis");
+        if (idleTtl != null && idleTtl.isZero()) throw new IOException("pool.idleTtlMillis must be > 0");
+
+        if (core == null) return new ActionPoolOptions(max, max, growAfterWait, idleTtl, borrowTimeout);
+        return new ActionPoolOptions(max, core, (growAfterWait == null) ? Duration.ZERO : growAfterWait, idleTtl, borrowTimeout);
+    }
+
+    private static Integer parseOptionalInt(JsonNode node, String field) throws IOException {
+        JsonNode valueNode = node.get(field);
+        if (valueNode == null || valueNode.isNull()) return null;
+        if (!valueNode.canConvertToInt()) throw new IOException("pool." + field + " must be an integer");
+        return valueNode.asInt();
+    }
 
-        int maxValue = maxNode.asInt();
-        if (maxValue < 1) throw new IOException("pool.max must be >= 1");
-        return maxValue;
+    private static Duration parseOptionalMillis(JsonNode node, String field) throws IOException {
+        JsonNode valueNode = node.get(field);
+        if (valueNode == null || valueNode.isNull()) return null;
+        if (!valueNode.canConvertToLong()) throw new IOException("pool." + field + " must be an integer");
+        long millis = valueNode.asLong();
+        if (millis < 0) throw new IOException("pool." + field + " must be >= 0");
+        return Duration.ofMillis(millis);
     }
 
     private static int defaultPoolMax() {
@@ -480,9 +525,75 @@ public final class PipelineJsonLoader {
         defaults.method = node.path("method").asText(defaults.method);
         defaults.serde = node.path("serde").asText(defaults.serde);
         defaults.headers = defaults.mergeHeaders(parseStringMap(node.get("headers")));
+        defaults.clientProfile = parseClientProfile(node, defaults.clientProfile);
+        defaults.gzip = node.path("gzip").asBoolean(defaults.gzip);
+        defaults.policy = parseRemotePolicy(node, defaults.policy);
+        defaults.hedge = parseHedgePolicy(node, defaults.hedge, defaults);
+        defaults.coalesce = node.path("coalesce").asBoolean(defaults.coalesce);
         return defaults;
     }
 
+    /** {@link RemotePolicy} from {@code "policy"}; fields left out keep {@code base}'s (or the defaults'). */
+    private static RemotePolicy parseRemotePolicy(JsonNode node, RemotePolicy base) throws IOException {
+        JsonNode p = node.get("policy");
+        if (p == null || p.isNull()) return base;
+        if (!p.isObject()) throw new IOException("policy must be an object: " + p);
+        RemotePolicy b = (base != null) ? base : RemotePolicy.defaults();
+        try {
+            return new RemotePolicy(
+                Duration.ofMillis(p.path("baseBackoffMillis").asLong(b.baseBackoff().toMillis())),
+                Duration.ofMillis(p.path("maxBackoffMillis").asLong(b.maxBackoff().toMillis())),
+                p.path("retryBudgetRatio").asDouble(b.retryBudgetRatio()),
+                p.path("retryBudgetBurst").asInt(b.retryBudgetBurst()),
+                p.path("failureThreshold").asInt(b.failureThreshold()),
+                Duration.ofMillis(p.path("openMillis").asLong(b.openDuration().toMillis())));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid remote policy: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@link HedgePolicy} from {@code "hedge"}: an object whose fields left out keep {@code base}'s (or the
+     * defaults'), or {@code false} to turn an inherited one off. Hedge endpoints resolve against the base URL.
+     */
+    private static HedgePolicy parseHedgePolicy(JsonNode node, HedgePolicy base, HttpStep.RemoteDefaults defaults)
+        throws IOException {
+        JsonNode h = node.get("hedge");
+        if (h == null || h.isNull()) return base;
+        if (h.isBoolean() && !h.asBoolean()) return null;
+        if (!h.isObject()) throw new IOException("hedge must be an object or false: " + h);
+        HedgePolicy b = (base != null) ? base : HedgePolicy.defaults();
+        List<String> endpoints = b.endpoints();
+        JsonNode e = h.get("endpoints");
+        if (e != null && !e.isNull()) {
+            if (!e.isArray()) throw new IOException("hedge.endpoints must be an array: " + e);
+            endpoints = new ArrayList<>(e.size());
+            for (JsonNode endpoint : e) endpoints.add(defaults.resolveEndpoint(endpoint.asText()));
+        }
+        try {
+            return new HedgePolicy(
+                h.path("quantile").asDouble(b.quantile()),
+                Duration.ofMillis(h.path("minDelayMillis").asLong(b.minDelay().toMillis())),
+                Duration.ofMillis(h.path("fallbackDelayMillis").asLong(b.fallbackDelay().toMillis())),
+                h.path("extraLoadRatio").asDouble(b.extraLoadRatio()),
+                h.path("extraLoadBurst").asInt(b.extraLoadBurst()),
+                endpoints);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid hedge policy: " + ex.getMessage(), ex);
+        }
+    }
+
+    /** Name of an {@link HttpClients} profile from {@code "client"}, checked so typos fail at load time. */
+    private static String parseClientProfile(JsonNode node, String fallback) throws IOException {
+        String name = node.path("client").asText(fallback);
+        try {
+            HttpClients.profile(name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return name;
+    }
+
     private static String parseRemoteEndpointOrPath(JsonNode remoteNode) throws IOException {
         if (remoteNode == null || remoteNode.isNull()) {
             throw new IOException("$remote must be a string or object");
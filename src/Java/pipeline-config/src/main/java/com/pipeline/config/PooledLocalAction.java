@@ -1,6 +1,7 @@
 package com.pipeline.config;
 
 import com.pipeline.core.ActionPool;
+import com.pipeline.core.ActionPoolStats;
 import com.pipeline.core.ResettableAction;
 import com.pipeline.core.StepAction;
 import com.pipeline.core.ActionControl;
@@ -19,6 +20,11 @@ public final class PooledLocalAction<C> implements StepAction<C> {
         this.actionReference = Objects.requireNonNull(actionReference, "actionReference");
     }
 
+    /** Borrow-wait, in-use, created and evicted counters of the backing pool. */
+    public ActionPoolStats poolStats() {
+        return pool.stats();
+    }
+
     @Override
     public C apply(C ctx, ActionControl<C> control) {
         Object instance = pool.borrow();
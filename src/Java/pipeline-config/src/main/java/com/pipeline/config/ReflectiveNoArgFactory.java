@@ -1,22 +1,25 @@
 package com.pipeline.config;
 
+import com.pipeline.core.LambdaBinder;
+
 import java.lang.reflect.Constructor;
 import java.util.Objects;
 import java.util.function.Supplier;
 
+/** Factory for reflectively resolved actions, bound once to a real {@link Supplier} via {@link LambdaBinder}. */
 final class ReflectiveNoArgFactory implements Supplier<Object> {
-    private final Constructor<?> constructor;
+    private final Supplier<?> factory;
     private final String actionReference;
 
     ReflectiveNoArgFactory(Constructor<?> constructor, String actionReference) {
-        this.constructor = Objects.requireNonNull(constructor, "constructor");
+        this.factory = LambdaBinder.constructor(Objects.requireNonNull(constructor, "constructor"));
         this.actionReference = Objects.requireNonNull(actionReference, "actionReference");
     }
 
     @Override
     public Object get() {
         try {
-            return constructor.newInstance();
+            return factory.get();
         } catch (Exception exception) {
             throw new IllegalStateException("Failed to instantiate action: " + actionReference, exception);
         }
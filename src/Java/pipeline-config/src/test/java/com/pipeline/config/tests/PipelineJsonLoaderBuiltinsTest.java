@@ -3,15 +3,26 @@ package com.pipeline.config.tests;
 import com.pipeline.config.PipelineJsonLoader;
 import com.pipeline.core.ActionRegistry;
 import com.pipeline.core.Pipeline;
+import com.pipeline.remote.http.EndpointHealth;
+import com.pipeline.remote.http.HttpClientProfile;
+import com.pipeline.remote.http.HttpClients;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class PipelineJsonLoaderBuiltinsTest {
 
@@ -76,5 +87,160 @@ public final class PipelineJsonLoaderBuiltinsTest {
             PipelineJsonLoader.loadUnary(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), registry);
         }
     }
-}
 
+    @Test
+    void remoteDefaultsPickANamedClientProfile() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/echo", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+            HttpClients.registerProfile("local-h1", HttpClientProfile.http1().withConnectTimeout(Duration.ofMillis(500)));
+            String json = """
+                {
+                  "pipeline": "remote_profile",
+                  "type": "unary",
+                  "remoteDefaults": { "baseUrl": "%s", "client": "local-h1" },
+                  "actions": [ { "$remote": "/echo" } ]
+                }
+                """.formatted(base);
+
+            Pipeline<String> pipeline = PipelineJsonLoader.loadUnary(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), new ActionRegistry<>());
+
+            assertEquals("ping", pipeline.run("ping").context());
+            assertTrue(HttpClients.stats().stream().anyMatch(c -> c.origin().equals(base)
+                && c.profile().equals(HttpClients.profile("local-h1"))));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void unknownClientProfileFailsAtLoadTime() {
+        String json = """
+            {
+              "pipeline": "remote_unknown_profile",
+              "type": "unary",
+              "remoteDefaults": { "baseUrl": "http://127.0.0.1:9", "client": "nope" },
+              "actions": [ { "$remote": "/echo" } ]
+            }
+            """;
+
+        IOException error = assertThrows(IOException.class, () -> PipelineJsonLoader.loadUnary(
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), new ActionRegistry<>()));
+        assertTrue(error.getMessage().contains("nope"));
+    }
+
+    @Test
+    void remotePolicyOpensTheCircuitAfterRepeatedFailures() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/down", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            calls.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+            String json = """
+                {
+                  "pipeline": "remote_policy",
+                  "type": "unary",
+                  "remoteDefaults": { "baseUrl": "%s", "policy": { "failureThreshold": 2, "openMillis": 60000 } },
+                  "actions": [ { "$remote": { "path": "/down", "retries": 0 } } ]
+                }
+                """.formatted(base);
+
+            Pipeline<String> pipeline = PipelineJsonLoader.loadUnary(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), new ActionRegistry<>());
+
+            for (int run = 0; run < 4; run++) assertTrue(pipeline.run("ping").hasErrors());
+            assertEquals(2, calls.get());
+            assertTrue(EndpointHealth.snapshot().stream()
+                .anyMatch(h -> h.endpoint().equals(base + "/down") && h.circuit().equals("open")));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void invalidRemotePolicyFailsAtLoadTime() {
+        String json = """
+            {
+              "pipeline": "remote_bad_policy",
+              "type": "unary",
+              "actions": [ { "$remote": { "endpoint": "http://127.0.0.1:9/echo", "policy": { "retryBudgetBurst": -1 } } } ]
+            }
+            """;
+
+        IOException error = assertThrows(IOException.class, () -> PipelineJsonLoader.loadUnary(
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), new ActionRegistry<>()));
+        assertTrue(error.getMessage().contains("retryBudgetBurst"));
+    }
+
+    @Test
+    void remoteHedgeSendsSlowGetsToTheAlternateEndpoint() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/slow", exchange -> {
+            try (exchange) {
+                Thread.sleep(3000);
+                exchange.sendResponseHeaders(200, -1);
+            } catch (InterruptedException | IOException ignored) {
+                // cancelled by the winning hedge
+            }
+        });
+        server.createContext("/fast", exchange -> {
+            byte[] body = "fast".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String json = """
+                {
+                  "pipeline": "remote_hedge",
+                  "type": "unary",
+                  "remoteDefaults": {
+                    "baseUrl": "http://127.0.0.1:%d",
+                    "hedge": { "fallbackDelayMillis": 20, "endpoints": [ "/fast" ] }
+                  },
+                  "actions": [ { "$remote": { "path": "/slow", "method": "GET", "timeoutMillis": 5000 } } ]
+                }
+                """.formatted(server.getAddress().getPort());
+
+            Pipeline<String> pipeline = PipelineJsonLoader.loadUnary(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), new ActionRegistry<>());
+
+            long startNanos = System.nanoTime();
+            assertEquals("fast", pipeline.run("q=1").context());
+            assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(2));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void remoteHedgeOnAPostFailsAtLoadTime() {
+        String json = """
+            {
+              "pipeline": "remote_post_hedge",
+              "type": "unary",
+              "actions": [ { "$remote": { "endpoint": "http://127.0.0.1:9/echo", "hedge": { "quantile": 0.9 } } } ]
+            }
+            """;
+
+        IOException error = assertThrows(IOException.class, () -> PipelineJsonLoader.loadUnary(
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), new ActionRegistry<>()));
+        assertTrue(error.getMessage().contains("GET"));
+    }
+}
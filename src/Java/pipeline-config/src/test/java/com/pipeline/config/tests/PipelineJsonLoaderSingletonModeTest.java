@@ -88,6 +88,32 @@ public final class PipelineJsonLoaderSingletonModeTest {
         );
     }
 
+    @Test
+    void elasticPoolOptionsLoadAndInvalidOnesAreRejected() throws Exception {
+        String json = """
+            {
+              "pipeline": "pooled_elastic",
+              "type": "unary",
+              "singletonMode": true,
+              "actions": [
+                {
+                  "$local": "com.pipeline.config.tests.PooledStatefulEchoAction",
+                  "lifecycle": "pooled",
+                  "pool": { "max": 8, "core": 1, "growAfterWaitMillis": 2, "idleTtlMillis": 60000, "borrowTimeoutMillis": 500 }
+                }
+              ]
+            }
+            """;
+
+        ActionRegistry<String> registry = new ActionRegistry<>();
+        Pipeline<String> pipeline = PipelineJsonLoader.loadUnary(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), registry);
+        assertEquals("elastic", pipeline.run("elastic").context());
+
+        String invalid = json.replace("\"core\": 1", "\"core\": 9");
+        IOException exception = assertThrows(IOException.class, new LoadPipelineTask(invalid, registry));
+        assertEquals("pool.core must be between 0 and pool.max", exception.getMessage());
+    }
+
     @Test
     void actionArrayAliasesPreferNewKeysOverLegacy() throws Exception {
         ActionRegistry<String> registry = new ActionRegistry<>();
@@ -22,5 +22,24 @@ public interface ActionControl<C> {
 
   /** Per-action timing captured by the pipeline runtime (best-effort; may be empty). */
   default List<ActionTiming> actionTimings() { return List.of(); }
+
+  /** Number of errors recorded so far; unlike {@code errors().size()} the pipeline's control answers without copying. */
+  default int errorCount() { return errors().size(); }
+
+  /**
+   * Size of {@link #actionTimings()}. With the positional accessors below, actions that run on every execution can read
+   * timings without materializing {@link ActionTiming} records; the pipeline's control reads its primitive buffer.
+   */
+  default int actionTimingCount() { return actionTimings().size(); }
+
+  default StepPhase actionPhase(int position) { return actionTimings().get(position).phase(); }
+
+  default int actionIndex(int position) { return actionTimings().get(position).index(); }
+
+  default String actionName(int position) { return actionTimings().get(position).actionName(); }
+
+  default long actionElapsedNanos(int position) { return actionTimings().get(position).elapsedNanos(); }
+
+  default boolean actionSucceeded(int position) { return actionTimings().get(position).success(); }
 }
 
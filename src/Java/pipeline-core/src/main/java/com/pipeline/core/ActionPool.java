@@ -1,57 +1,197 @@
 package com.pipeline.core;
 
+import com.pipeline.core.jfr.ActionPoolWaitEvent;
+
+import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
+/**
+ * Pool of instances created on demand by {@code factory}, sized by {@link ActionPoolOptions}: up to {@code core}
+ * instances are created without waiting, further ones only once a borrower has waited {@code growAfterWait}, never
+ * more than {@code max}, and instances idle longer than {@code idleTtl} are evicted back down to {@code core}.
+ *
+ * <p>Idle instances sit in per-thread magazines in front of a lock-free depot (see {@link MagazineDepot}), so a thread
+ * that borrows and releases on its own does not contend with other threads. Counters are striped for the same
+ * reason; see {@link #stats()}.
+ */
 public final class ActionPool<T> {
-    private final ArrayBlockingQueue<T> available;
-    private final AtomicInteger createdCount = new AtomicInteger(0);
-    private final int max;
+    private final ActionPoolOptions options;
+    private final MagazineDepot<T> available;
     private final Supplier<? extends T> factory;
 
+    private final AtomicInteger createdCount = new AtomicInteger(0);
+    private final AtomicLong evictedCount = new AtomicLong(0);
+    private final LongAdder inUse = new LongAdder();
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder waitedBorrows = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong(0);
+    private final LongAdder timeouts = new LongAdder();
+
     public ActionPool(int max, Supplier<? extends T> factory) {
-        if (max < 1) throw new IllegalArgumentException("max must be >= 1");
-        this.max = max;
-        this.factory = Objects.requireNonNull(factory, "factory");
-        this.available = new ArrayBlockingQueue<>(max);
+        this(ActionPoolOptions.fixed(max), Objects.requireNonNull(factory, "factory"));
+    }
+
+    public ActionPool(ActionPoolOptions options, Supplier<? extends T> factory) {
+        this(Objects.requireNonNull(factory, "factory"), options);
+    }
+
+    private ActionPool(Supplier<? extends T> factory, ActionPoolOptions options) {
+        this.options = Objects.requireNonNull(options, "options");
+        this.factory = factory;
+        this.available = new MagazineDepot<>(options.idleTtl() != null);
+        if (options.idleTtl() != null) ActionPoolEvictor.register(this, options.idleTtl());
+    }
+
+    /**
+     * Pool that is filled through {@link #trySeed}; with a {@code null} factory it never creates instances itself (and
+     * never evicts, since evicted seeds could not be replaced).
+     */
+    static <T> ActionPool<T> seeded(ActionPoolOptions options, Supplier<? extends T> factoryOrNull) {
+        return new ActionPool<>(factoryOrNull, options);
     }
 
     public int max() {
-        return max;
+        return options.max();
     }
 
+    public ActionPoolOptions options() {
+        return options;
+    }
+
+    /** Live instances: created or seeded, minus evicted. */
     public int createdCount() {
         return createdCount.get();
     }
 
+    public ActionPoolStats stats() {
+        return new ActionPoolStats(
+            options.max(),
+            createdCount.get(),
+            evictedCount.get(),
+            inUse.sum(),
+            borrows.sum(),
+            waitedBorrows.sum(),
+            totalWaitNanos.sum(),
+            maxWaitNanos.get(),
+            timeouts.sum());
+    }
+
+    /** Borrows an instance, waiting at most the configured {@code borrowTimeout} once the pool is exhausted. */
     public T borrow() {
-        while (true) {
-            T fromQueue = available.poll();
-            if (fromQueue != null) {
-                return fromQueue;
-            }
+        return borrow(options.borrowTimeout());
+    }
 
-            int createdSoFar = createdCount.get();
-            if (createdSoFar < max) {
-                if (!createdCount.compareAndSet(createdSoFar, createdSoFar + 1)) {
-                    continue;
+    /**
+     * Borrows an instance, waiting at most {@code timeout} ({@code null}: indefinitely) once the pool is exhausted.
+     *
+     * @throws IllegalStateException if the timeout elapses or the thread is interrupted while waiting
+     */
+    public T borrow(Duration timeout) {
+        T instance = available.poll();
+        if (instance == null) instance = borrowSlow(timeout);
+        inUse.increment();
+        borrows.increment();
+        return instance;
+    }
+
+    public void release(T instance) {
+        if (instance == null) return;
+        inUse.decrement();
+        available.put(instance);
+    }
+
+    /** Adds an externally created instance if the pool is below {@code max}. */
+    boolean trySeed(T instance) {
+        if (instance == null || !reserve(options.max())) return false;
+        available.put(instance);
+        return true;
+    }
+
+    /** Evicts instances idle longer than {@code idleTtl}, keeping at least {@code core}; returns how many. */
+    int evictIdle() {
+        if (options.idleTtl() == null || factory == null) return 0;
+        int surplus = createdCount.get() - options.core();
+        if (surplus <= 0) return 0;
+        int evicted = available.evictIdle(System.nanoTime() - options.idleTtl().toNanos(), surplus);
+        if (evicted > 0) {
+            // Count the eviction first so a reader that sees the lower createdCount also sees it.
+            evictedCount.addAndGet(evicted);
+            createdCount.addAndGet(-evicted);
+        }
+        return evicted;
+    }
+
+    private T borrowSlow(Duration timeout) {
+        T created = tryCreate(options.core());
+        if (created != null) return created;
+
+        ActionPoolWaitEvent event = new ActionPoolWaitEvent();
+        event.begin();
+        String outcome = "failed";
+        long startNanos = System.nanoTime();
+        long deadline = (timeout == null) ? Long.MAX_VALUE : startNanos + timeout.toNanos();
+        long growAt = (factory == null || options.growAfterWait() == null)
+            ? Long.MAX_VALUE
+            : startNanos + options.growAfterWait().toNanos();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (now - growAt >= 0) {
+                    T grown = tryCreate(options.max());
+                    if (grown != null) {
+                        outcome = "grown";
+                        return grown;
+                    }
+                    growAt = Long.MAX_VALUE; // at max: nothing left to grow into, just wait
+                }
+                long until = Math.min(deadline, growAt);
+                if (until == Long.MAX_VALUE) {
+                    T instance = available.take(-1L);
+                    outcome = "acquired";
+                    return instance;
+                }
+                if (deadline != Long.MAX_VALUE && now - deadline >= 0) {
+                    timeouts.increment();
+                    outcome = "timeout";
+                    throw new IllegalStateException(
+                        "Timed out after " + timeout.toMillis() + "ms waiting for an action instance from the pool"
+                            + " (max=" + options.max() + ")");
+                }
+                T instance = available.take(Math.max(1L, until - now));
+                if (instance != null) {
+                    outcome = "acquired";
+                    return instance;
                 }
-                return factory.get();
             }
+        } finally {
+            long waited = System.nanoTime() - startNanos;
+            waitedBorrows.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            event.complete(outcome, options.max(), createdCount.get());
+        }
+    }
 
-            try {
-                return available.take();
-            } catch (InterruptedException interrupted) {
-                Thread.currentThread().interrupt();
-                throw new IllegalStateException("Interrupted while waiting for an action instance from the pool");
-            }
+    private T tryCreate(int limit) {
+        if (factory == null || !reserve(limit)) return null;
+        try {
+            return Objects.requireNonNull(factory.get(), "factory.get()");
+        } catch (RuntimeException | Error failure) {
+            createdCount.decrementAndGet();
+            throw failure;
         }
     }
 
-    public void release(T instance) {
-        if (instance == null) return;
-        available.offer(instance);
+    private boolean reserve(int limit) {
+        while (true) {
+            int createdSoFar = createdCount.get();
+            if (createdSoFar >= limit) return false;
+            if (createdCount.compareAndSet(createdSoFar, createdSoFar + 1)) return true;
+        }
     }
 }
@@ -1,32 +1,65 @@
 package com.pipeline.core;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Provider-scoped cache for pooling action instances across different pipeline instances.
  *
- * <p>This is intentionally seed-based: the cache does not instantiate actions. Pipelines contribute
- * instances (seeds) and pooled wrappers borrow/release them per invocation.
+ * <p>This is seed-based: pipelines contribute instances (seeds) and pooled wrappers borrow/release them per
+ * invocation. Unless a factory is given, the cache does not instantiate actions and borrowers wait for a seed (at
+ * most {@code borrowTimeout}). With {@link #ActionPoolCache(ActionPoolOptions, Function)}, a pool whose seeds are
+ * all busy grows through that factory as its {@link ActionPoolOptions} allow, and idle instances above
+ * {@code core} are evicted.
  */
 public final class ActionPoolCache {
     private final ConcurrentMap<ActionCacheKey, ActionPoolEntry> entries;
-    private final int maxPerAction;
+    private final ActionPoolOptions options;
+    private final Function<Class<?>, ?> factory;
 
     public ActionPoolCache() {
         this(defaultPoolMax());
     }
 
     public ActionPoolCache(int maxPerAction) {
-        if (maxPerAction < 1) throw new IllegalArgumentException("maxPerAction must be >= 1");
-        this.maxPerAction = maxPerAction;
+        this(ActionPoolOptions.fixed(maxPerAction));
+    }
+
+    /** Seed-only cache with {@code options}' cap and borrow timeout. */
+    public ActionPoolCache(ActionPoolOptions options) {
+        this.options = Objects.requireNonNull(options, "options");
+        this.factory = null;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Cache whose pools grow beyond their seeds: {@code factory} creates an instance of the given action class,
+     * configured as the seeds are, when {@code options} allow a new instance.
+     */
+    public ActionPoolCache(ActionPoolOptions options, Function<Class<?>, ?> factory) {
+        this.options = Objects.requireNonNull(options, "options");
+        this.factory = Objects.requireNonNull(factory, "factory");
         this.entries = new ConcurrentHashMap<>();
     }
 
     public int maxPerAction() {
-        return maxPerAction;
+        return options.max();
+    }
+
+    public ActionPoolOptions options() {
+        return options;
+    }
+
+    /** Telemetry for every pooled action, keyed by its cache key. */
+    public Map<ActionCacheKey, ActionPoolStats> stats() {
+        Map<ActionCacheKey, ActionPoolStats> out = new LinkedHashMap<>();
+        entries.forEach((key, entry) -> out.put(key, entry.pool().stats()));
+        return out;
     }
 
     ActionPoolEntry entry(ActionCacheKey key, Class<?> actionClass, ActionInvokeStyle invokeStyle) {
@@ -36,7 +69,7 @@ public final class ActionPoolCache {
 
         return entries.compute(key, (existingKey, existingEntry) -> {
             if (existingEntry == null) {
-                return new ActionPoolEntry(actionClass, invokeStyle, new SeededPool<>(maxPerAction));
+                return new ActionPoolEntry(actionClass, invokeStyle, new SeededPool<>(options, instanceFactory(actionClass)));
             }
             if (!existingEntry.actionClass().equals(actionClass)) {
                 throw new IllegalStateException(
@@ -52,6 +85,17 @@ public final class ActionPoolCache {
         });
     }
 
+    private Supplier<Object> instanceFactory(Class<?> actionClass) {
+        if (factory == null) return null;
+        return () -> {
+            Object instance = factory.apply(actionClass);
+            if (!actionClass.isInstance(instance)) {
+                throw new IllegalStateException("Pool factory returned " + instance + " for " + actionClass.getName());
+            }
+            return instance;
+        };
+    }
+
     private static int defaultPoolMax() {
         int processors = Runtime.getRuntime().availableProcessors();
         int computed = processors * 8;
@@ -83,32 +127,30 @@ public final class ActionPoolCache {
     }
 
     static final class SeededPool<T> {
-        private final ArrayBlockingQueue<T> available;
+        private final ActionPool<T> pool;
 
         SeededPool(int max) {
-            this.available = new ArrayBlockingQueue<>(max);
+            this(ActionPoolOptions.fixed(max), null);
+        }
+
+        SeededPool(ActionPoolOptions options, Supplier<? extends T> factoryOrNull) {
+            this.pool = ActionPool.seeded(options, factoryOrNull);
         }
 
         boolean trySeed(T instance) {
-            if (instance == null) return false;
-            return available.offer(instance);
+            return pool.trySeed(instance);
         }
 
         T borrow() {
-            T fromQueue = available.poll();
-            if (fromQueue != null) return fromQueue;
-            try {
-                return available.take();
-            } catch (InterruptedException interrupted) {
-                Thread.currentThread().interrupt();
-                throw new IllegalStateException("Interrupted while waiting for an action instance from the pool");
-            }
+            return pool.borrow();
         }
 
         void release(T instance) {
-            if (instance == null) return;
-            available.offer(instance);
+            pool.release(instance);
+        }
+
+        ActionPoolStats stats() {
+            return pool.stats();
         }
     }
 }
-
@@ -0,0 +1,58 @@
+package com.pipeline.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One daemon thread that periodically trims idle instances from every pool configured with an {@code idleTtl}.
+ * Pools are held weakly, so an unreachable pool is collected and its task cancelled.
+ */
+final class ActionPoolEvictor {
+    private static final Logger log = LoggerFactory.getLogger(ActionPoolEvictor.class);
+    private static final long MIN_PERIOD_MILLIS = 10L;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pipeline-action-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ActionPoolEvictor() {}
+
+    static void register(ActionPool<?> pool, Duration idleTtl) {
+        long periodMillis = Math.max(MIN_PERIOD_MILLIS, idleTtl.toMillis() / 2);
+        Task task = new Task(pool);
+        task.future = SCHEDULER.scheduleWithFixedDelay(task, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class Task implements Runnable {
+        private final WeakReference<ActionPool<?>> pool;
+        private volatile ScheduledFuture<?> future;
+
+        private Task(ActionPool<?> pool) {
+            this.pool = new WeakReference<>(pool);
+        }
+
+        @Override
+        public void run() {
+            ActionPool<?> target = pool.get();
+            if (target == null) {
+                ScheduledFuture<?> scheduled = future;
+                if (scheduled != null) scheduled.cancel(false);
+                return;
+            }
+            try {
+                target.evictIdle();
+            } catch (RuntimeException failure) {
+                log.warn("idle eviction failed for action pool", failure);
+            }
+        }
+    }
+}
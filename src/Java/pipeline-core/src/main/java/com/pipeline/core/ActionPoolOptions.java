@@ -0,0 +1,76 @@
+package com.pipeline.core;
+
+import java.time.Duration;
+
+/**
+ * Sizing policy for an {@link ActionPool}.
+ *
+ * <ul>
+ *   <li>{@code max}: hard cap on live instances.</li>
+ *   <li>{@code core}: instances created on demand without waiting; the pool never shrinks below this.</li>
+ *   <li>{@code growAfterWait}: above {@code core}, a borrower that has waited this long creates a new instance
+ *       (up to {@code max}) instead of waiting further; {@code null} never grows above {@code core}.</li>
+ *   <li>{@code idleTtl}: instances idle for longer than this are evicted down to {@code core}; {@code null} keeps
+ *       them forever.</li>
+ *   <li>{@code borrowTimeout}: how long {@link ActionPool#borrow()} waits once the pool is at {@code max};
+ *       {@code null} waits indefinitely.</li>
+ * </ul>
+ *
+ * <p>{@link #fixed(int)} reproduces the classic behaviour: create on demand up to {@code max}, then wait.
+ */
+public record ActionPoolOptions(
+    int max,
+    int core,
+    Duration growAfterWait,
+    Duration idleTtl,
+    Duration borrowTimeout
+) {
+  public ActionPoolOptions {
+    if (max < 1) throw new IllegalArgumentException("max must be >= 1");
+    if (core < 0 || core > max) throw new IllegalArgumentException("core must be between 0 and max");
+    requireNonNegative(growAfterWait, "growAfterWait");
+    requirePositive(idleTtl, "idleTtl");
+    requireNonNegative(borrowTimeout, "borrowTimeout");
+  }
+
+  /** Creates up to {@code max} instances on demand and keeps them; borrowers wait indefinitely beyond that. */
+  public static ActionPoolOptions fixed(int max) {
+    return new ActionPoolOptions(max, max, null, null, null);
+  }
+
+  /**
+   * Starts empty and grows toward {@code max} only when borrowers have waited {@code growAfterWait}; idle instances
+   * are evicted after {@code idleTtl}.
+   */
+  public static ActionPoolOptions elastic(int max, Duration growAfterWait, Duration idleTtl) {
+    return new ActionPoolOptions(max, 0, growAfterWait, idleTtl, null);
+  }
+
+  public ActionPoolOptions withMax(int value) {
+    return new ActionPoolOptions(value, Math.min(core, value), growAfterWait, idleTtl, borrowTimeout);
+  }
+
+  public ActionPoolOptions withCore(int value) {
+    return new ActionPoolOptions(max, value, growAfterWait, idleTtl, borrowTimeout);
+  }
+
+  public ActionPoolOptions withGrowAfterWait(Duration value) {
+    return new ActionPoolOptions(max, core, value, idleTtl, borrowTimeout);
+  }
+
+  public ActionPoolOptions withIdleTtl(Duration value) {
+    return new ActionPoolOptions(max, core, growAfterWait, value, borrowTimeout);
+  }
+
+  public ActionPoolOptions withBorrowTimeout(Duration value) {
+    return new ActionPoolOptions(max, core, growAfterWait, idleTtl, value);
+  }
+
+  private static void requireNonNegative(Duration value, String name) {
+    if (value != null && value.isNegative()) throw new IllegalArgumentException(name + " must be >= 0");
+  }
+
+  private static void requirePositive(Duration value, String name) {
+    if (value != null && (value.isNegative() || value.isZero())) throw new IllegalArgumentException(name + " must be > 0");
+  }
+}
@@ -0,0 +1,28 @@
+package com.pipeline.core;
+
+/**
+ * Point-in-time counters of an {@link ActionPool}.
+ *
+ * <p>{@code created} is the number of live instances (seeded or created, minus evicted); {@code evicted} and the
+ * borrow counters are cumulative. Only borrows that found no idle instance are timed, so
+ * {@code waitedBorrows}/{@code totalWaitNanos} describe contention rather than the fast path.
+ */
+public record ActionPoolStats(
+    int max,
+    int created,
+    long evicted,
+    long inUse,
+    long borrows,
+    long waitedBorrows,
+    long totalWaitNanos,
+    long maxWaitNanos,
+    long timeouts
+) {
+  public long idle() {
+    return Math.max(0L, created - inUse);
+  }
+
+  public double averageWaitNanos() {
+    return (waitedBorrows == 0) ? 0.0 : totalWaitNanos / (double) waitedBorrows;
+  }
+}
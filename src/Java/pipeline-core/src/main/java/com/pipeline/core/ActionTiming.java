@@ -2,16 +2,32 @@ package com.pipeline.core;
 
 import java.util.Objects;
 
+/**
+ * Wall time of one step execution. {@code cpuNanos} and {@code allocatedBytes} are measured on the step's thread
+ * only in runs sampled by {@link Pipeline#sampleResources(double)}, and are {@code -1} otherwise (also for async and
+ * batch steps, and wherever the JVM cannot measure them).
+ */
 public record ActionTiming(
     StepPhase phase,
     int index,
     String actionName,
     long elapsedNanos,
-    boolean success
+    boolean success,
+    long cpuNanos,
+    long allocatedBytes
 ) {
   public ActionTiming {
     phase = Objects.requireNonNull(phase, "phase");
     actionName = Objects.requireNonNull(actionName, "actionName");
   }
-}
 
+  /** A timing without resource usage. */
+  public ActionTiming(StepPhase phase, int index, String actionName, long elapsedNanos, boolean success) {
+    this(phase, index, actionName, elapsedNanos, success, -1L, -1L);
+  }
+
+  /** Whether this step was resource-sampled (at least one of CPU time or allocation is known). */
+  public boolean hasResourceUsage() {
+    return cpuNanos >= 0 || allocatedBytes >= 0;
+  }
+}
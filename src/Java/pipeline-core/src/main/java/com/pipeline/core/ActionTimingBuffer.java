@@ -0,0 +1,143 @@
+package com.pipeline.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Reusable primitive storage for per-action timings captured during a run.
+ *
+ * <p>Elapsed times (and CPU/allocation samples) live in {@code long[]}s and success flags in a bitset; the step phase, index and name are
+ * references to values precomputed when the pipeline was built. {@link #view()} exposes the recorded entries as a
+ * read-only {@code List<ActionTiming>} that materializes records only when an element is read.
+ */
+final class ActionTimingBuffer {
+  private StepPhase[] phases;
+  private int[] indices;
+  private String[] names;
+  private long[] elapsedNanos;
+  private long[] cpuNanos;
+  private long[] allocatedBytes;
+  private long[] successBits;
+  private int size;
+
+  private final TimingView view = new TimingView();
+
+  ActionTimingBuffer(int initialCapacity) {
+    int capacity = Math.max(1, initialCapacity);
+    this.phases = new StepPhase[capacity];
+    this.indices = new int[capacity];
+    this.names = new String[capacity];
+    this.elapsedNanos = new long[capacity];
+    this.cpuNanos = new long[capacity];
+    this.allocatedBytes = new long[capacity];
+    this.successBits = new long[bitWords(capacity)];
+  }
+
+  /** Clears recorded entries and makes sure at least {@code capacity} entries fit without growing. */
+  void reset(int capacity) {
+    if (capacity > phases.length) resize(capacity);
+    Arrays.fill(successBits, 0L);
+    Arrays.fill(names, 0, size, null);
+    Arrays.fill(phases, 0, size, null);
+    size = 0;
+  }
+
+  void add(StepPhase phase, int index, String name, long elapsed, boolean success, long cpu, long allocated) {
+    if (size == phases.length) resize(size * 2);
+    phases[size] = phase;
+    indices[size] = index;
+    names[size] = name;
+    elapsedNanos[size] = elapsed;
+    cpuNanos[size] = cpu;
+    allocatedBytes[size] = allocated;
+    if (success) successBits[size >>> 6] |= 1L << size;
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  long elapsedNanos(int position) {
+    return elapsedNanos[position];
+  }
+
+  boolean success(int position) {
+    return (successBits[position >>> 6] & (1L << position)) != 0L;
+  }
+
+  StepPhase phase(int position) {
+    return phases[position];
+  }
+
+  int index(int position) {
+    return indices[position];
+  }
+
+  String name(int position) {
+    return names[position];
+  }
+
+  /** Live view over this buffer; it reflects whatever the buffer holds when an element is read. */
+  List<ActionTiming> view() {
+    return view;
+  }
+
+  /** Fixed-size view over the first {@code length} entries (used for mid-run reads by actions). */
+  List<ActionTiming> view(int length) {
+    return new PrefixView(length);
+  }
+
+  private ActionTiming timingAt(int position) {
+    return new ActionTiming(phases[position], indices[position], names[position], elapsedNanos[position], success(position),
+        cpuNanos[position], allocatedBytes[position]);
+  }
+
+  private void resize(int capacity) {
+    phases = Arrays.copyOf(phases, capacity);
+    indices = Arrays.copyOf(indices, capacity);
+    names = Arrays.copyOf(names, capacity);
+    elapsedNanos = Arrays.copyOf(elapsedNanos, capacity);
+    cpuNanos = Arrays.copyOf(cpuNanos, capacity);
+    allocatedBytes = Arrays.copyOf(allocatedBytes, capacity);
+    successBits = Arrays.copyOf(successBits, bitWords(capacity));
+  }
+
+  private static int bitWords(int capacity) {
+    return (capacity + 63) >>> 6;
+  }
+
+  private final class TimingView extends AbstractList<ActionTiming> implements RandomAccess {
+    @Override
+    public ActionTiming get(int position) {
+      if (position < 0 || position >= size) throw new IndexOutOfBoundsException(position);
+      return timingAt(position);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  private final class PrefixView extends AbstractList<ActionTiming> implements RandomAccess {
+    private final int length;
+
+    private PrefixView(int length) {
+      this.length = length;
+    }
+
+    @Override
+    public ActionTiming get(int position) {
+      if (position < 0 || position >= length) throw new IndexOutOfBoundsException(position);
+      return timingAt(position);
+    }
+
+    @Override
+    public int size() {
+      return length;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.pipeline.core;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A step whose result arrives later, typically from non-blocking I/O.
+ *
+ * <p>{@link Pipeline#runAsync(Object)} chains on the returned stage without parking a thread; the rest of the run
+ * continues on whichever thread completes it. {@link Pipeline#run(Object)} still works and simply waits for the
+ * stage. An exceptionally completed stage is handled like a step that threw its cause: both entry points report the
+ * stage's own exception, checked or not, never the {@link CompletionException} it arrived in.
+ */
+@FunctionalInterface
+public interface AsyncStepAction<C> extends StepAction<C> {
+  CompletionStage<C> applyAsync(C ctx, ActionControl<C> control);
+
+  @Override
+  default C apply(C ctx, ActionControl<C> control) {
+    CompletionStage<C> stage = applyAsync(ctx, control);
+    if (stage == null) throw new IllegalStateException("Async step returned a null stage");
+    try {
+      return stage.toCompletableFuture().join();
+    } catch (CompletionException e) {
+      if (e.getCause() == null) throw e;
+      throw AsyncStepAction.<RuntimeException>rethrow(e.getCause());
+    }
+  }
+
+  // Rethrows as-is, checked exceptions included, so run() reports what runAsync() does.
+  @SuppressWarnings("unchecked")
+  private static <E extends Throwable> RuntimeException rethrow(Throwable failure) throws E {
+    throw (E) failure;
+  }
+}
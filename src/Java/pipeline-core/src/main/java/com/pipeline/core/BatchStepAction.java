@@ -0,0 +1,26 @@
+package com.pipeline.core;
+
+import java.util.List;
+
+/**
+ * A step that can process a whole batch in one call (one vectorised computation, one DB round trip, ...).
+ *
+ * <p>{@link Pipeline#runBatch(List)} hands the action every element still active at this step; {@link Pipeline#run}
+ * calls {@link #apply} which, by default, is a batch of one. {@code controls.get(i)} belongs to
+ * {@code contexts.get(i)} and may be used to short-circuit or record an error for that element alone. The returned
+ * list must have one non-null context per input, in the same order. If the call throws, the step fails for every
+ * element of the batch.
+ */
+@FunctionalInterface
+public interface BatchStepAction<C> extends StepAction<C> {
+  List<C> applyBatch(List<C> contexts, List<? extends ActionControl<C>> controls);
+
+  @Override
+  default C apply(C ctx, ActionControl<C> control) {
+    List<C> out = applyBatch(List.of(ctx), List.of(control));
+    if (out == null || out.size() != 1) {
+      throw new IllegalStateException("Batch step must return exactly one result per input");
+    }
+    return out.getFirst();
+  }
+}
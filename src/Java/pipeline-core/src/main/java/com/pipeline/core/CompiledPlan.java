@@ -0,0 +1,152 @@
+package com.pipeline.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Execution plan produced by {@link Pipeline#compile()}.
+ *
+ * <p>The interpreted loop calls every action from one {@code action.apply} call site, which turns megamorphic as
+ * soon as a process hosts a few pipelines. Here each step is a {@link CompiledStep} node that calls its own action
+ * and then the next node. Nodes are hidden-class copies of the {@code CompiledStep} template, one class per step, so
+ * each copy's call sites only ever see one receiver type and the JIT can inline along the chain. When hidden classes
+ * cannot be defined (e.g. the template bytes are not readable) plain {@code CompiledStep} instances are used; the
+ * semantics are identical either way.
+ *
+ * <p>Each node calls the next one, so a chain costs a stack frame per step. Phases longer than {@link #MAX_CHAIN}
+ * steps are split into chains of at most that many, run one after another from a loop, so very long pipelines
+ * cannot overflow the stack.
+ */
+final class CompiledPlan<C> {
+    private static final Logger log = LoggerFactory.getLogger(CompiledPlan.class);
+
+    private static final MethodType STEP_CONSTRUCTOR = MethodType.methodType(
+        void.class, Pipeline.class, Pipeline.RegisteredAction.class, Node.class, boolean.class);
+    private static final byte[] STEP_TEMPLATE = loadStepTemplate();
+    private static volatile boolean hiddenClassesAvailable = STEP_TEMPLATE != null;
+
+    /** Most steps called from one another in a single chain. */
+    static final int MAX_CHAIN = 256;
+
+    /** A compiled step (or the end of a phase). */
+    interface Node<C> {
+        C run(C ctx, Pipeline.DefaultActionControl<C> control);
+    }
+
+    private final Node<C> pre;
+    private final Node<C> main;
+    private final Node<C> post;
+
+    private CompiledPlan(Node<C> pre, Node<C> main, Node<C> post) {
+        this.pre = pre;
+        this.main = main;
+        this.post = post;
+    }
+
+    static <C> CompiledPlan<C> compile(Pipeline<C> pipeline, ExecutionPlan<C> plan) {
+        return new CompiledPlan<>(
+            chain(pipeline, plan.pre, /*stopOnShortCircuit=*/false),
+            chain(pipeline, plan.main, /*stopOnShortCircuit=*/true),
+            chain(pipeline, plan.post, /*stopOnShortCircuit=*/false));
+    }
+
+    C run(C input, Pipeline.DefaultActionControl<C> control) {
+        // pre: always run all pre-actions
+        C ctx = pre.run(input, control);
+
+        // main: stop when control short-circuits
+        if (!control.isShortCircuited()) {
+            ctx = main.run(ctx, control);
+        }
+
+        // post: always run all post-actions
+        return post.run(ctx, control);
+    }
+
+    private static <C> Node<C> chain(Pipeline<C> pipeline,
+                                     Pipeline.RegisteredAction<C>[] steps,
+                                     boolean stopOnShortCircuit) {
+        if (steps.length <= MAX_CHAIN) return chain(pipeline, steps, 0, steps.length, stopOnShortCircuit);
+        @SuppressWarnings("unchecked")
+        Node<C>[] segments = (Node<C>[]) new Node<?>[(steps.length + MAX_CHAIN - 1) / MAX_CHAIN];
+        for (int s = 0; s < segments.length; s++) {
+            int from = s * MAX_CHAIN;
+            segments[s] = chain(pipeline, steps, from, Math.min(steps.length, from + MAX_CHAIN), stopOnShortCircuit);
+        }
+        return new Segments<>(segments, stopOnShortCircuit);
+    }
+
+    private static <C> Node<C> chain(Pipeline<C> pipeline,
+                                     Pipeline.RegisteredAction<C>[] steps,
+                                     int from,
+                                     int to,
+                                     boolean stopOnShortCircuit) {
+        @SuppressWarnings("unchecked") Node<C> next = (Node<C>) End.INSTANCE;
+        for (int i = to - 1; i >= from; i--) {
+            next = newStep(pipeline, steps[i], next, stopOnShortCircuit);
+        }
+        return next;
+    }
+
+    private static <C> Node<C> newStep(Pipeline<C> pipeline,
+                                       Pipeline.RegisteredAction<C> step,
+                                       Node<C> next,
+                                       boolean stopOnShortCircuit) {
+        if (hiddenClassesAvailable) {
+            try {
+                MethodHandles.Lookup stepLookup = MethodHandles.lookup().defineHiddenClass(STEP_TEMPLATE, true);
+                MethodHandle constructor = stepLookup.findConstructor(stepLookup.lookupClass(), STEP_CONSTRUCTOR);
+                @SuppressWarnings("unchecked")
+                Node<C> node = (Node<C>) constructor.invoke(pipeline, step, next, stopOnShortCircuit);
+                return node;
+            } catch (Throwable failure) {
+                hiddenClassesAvailable = false;
+                log.debug("hidden step classes unavailable; compiled plans fall back to shared step class", failure);
+            }
+        }
+        return new CompiledStep<>(pipeline, step, next, stopOnShortCircuit);
+    }
+
+    private static byte[] loadStepTemplate() {
+        try (InputStream in = CompiledStep.class.getResourceAsStream("CompiledStep.class")) {
+            return (in == null) ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** A phase longer than {@link #MAX_CHAIN}: its chains run in turn, stopping like the steps inside them do. */
+    private static final class Segments<C> implements Node<C> {
+        private final Node<C>[] segments;
+        private final boolean stopOnShortCircuit;
+
+        private Segments(Node<C>[] segments, boolean stopOnShortCircuit) {
+            this.segments = segments;
+            this.stopOnShortCircuit = stopOnShortCircuit;
+        }
+
+        @Override
+        public C run(C ctx, Pipeline.DefaultActionControl<C> control) {
+            for (Node<C> segment : segments) {
+                ctx = segment.run(ctx, control);
+                if (stopOnShortCircuit && control.isShortCircuited()) break;
+            }
+            return ctx;
+        }
+    }
+
+    private static final class End implements Node<Object> {
+        private static final End INSTANCE = new End();
+
+        @Override
+        public Object run(Object ctx, Pipeline.DefaultActionControl<Object> control) {
+            return ctx;
+        }
+    }
+}
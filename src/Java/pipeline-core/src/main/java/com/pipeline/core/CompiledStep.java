@@ -0,0 +1,49 @@
+package com.pipeline.core;
+
+import java.util.Objects;
+
+/**
+ * One step of a {@link CompiledPlan}: runs its action, then hands the result straight to the next step.
+ *
+ * <p>This class doubles as the template for per-step hidden classes, so keep it self-contained: no lambdas, no
+ * nested classes, and only package-level access to {@link Pipeline}.
+ */
+final class CompiledStep<C> implements CompiledPlan.Node<C> {
+    private final Pipeline<C> pipeline;
+    private final Pipeline.RegisteredAction<C> step;
+    private final StepAction<C> action;
+    private final CompiledPlan.Node<C> next;
+    private final boolean stopOnShortCircuit;
+
+    CompiledStep(Pipeline<C> pipeline,
+                 Pipeline.RegisteredAction<C> step,
+                 CompiledPlan.Node<C> next,
+                 boolean stopOnShortCircuit) {
+        this.pipeline = Objects.requireNonNull(pipeline, "pipeline");
+        this.step = Objects.requireNonNull(step, "step");
+        this.action = step.action();
+        this.next = Objects.requireNonNull(next, "next");
+        this.stopOnShortCircuit = stopOnShortCircuit;
+    }
+
+    @Override
+    public C run(C ctx, Pipeline.DefaultActionControl<C> control) {
+        long startNanos = pipeline.enterStep(control, step);
+        C out;
+        try {
+            out = action.apply(ctx, control);
+        } catch (Exception ex) {
+            out = pipeline.failStep(control, step, ctx, ex, startNanos);
+            if (stopOnShortCircuit && control.isShortCircuited()) return out;
+            return next.run(out, control);
+        }
+        out = pipeline.completeStep(control, step, ctx, out, startNanos);
+        if (stopOnShortCircuit && control.isShortCircuited()) return out;
+        return next.run(out, control);
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledStep(" + step.stepName() + ")";
+    }
+}
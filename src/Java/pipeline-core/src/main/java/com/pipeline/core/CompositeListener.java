@@ -0,0 +1,79 @@
+package com.pipeline.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/** {@link PipelineListener#of}: fans events out to the listeners that joined the run. */
+final class CompositeListener implements PipelineListener {
+    private final PipelineListener[] listeners;
+
+    private CompositeListener(PipelineListener[] listeners) {
+        this.listeners = listeners;
+    }
+
+    static PipelineListener of(PipelineListener... listeners) {
+        PipelineListener[] copy = Arrays.copyOf(Objects.requireNonNull(listeners, "listeners"), listeners.length);
+        for (PipelineListener listener : copy) Objects.requireNonNull(listener, "listener");
+        return (copy.length == 1) ? copy[0] : new CompositeListener(copy);
+    }
+
+    @Override
+    public RunListener onRunStart(String pipeline, long startNanos) {
+        RunListener[] runs = null;
+        int count = 0;
+        RunListener single = null;
+        for (PipelineListener listener : listeners) {
+            RunListener run = listener.onRunStart(pipeline, startNanos);
+            if (run == null) continue;
+            if (count == 0) {
+                single = run;
+            } else {
+                if (runs == null) {
+                    runs = new RunListener[listeners.length];
+                    runs[0] = single;
+                }
+                runs[count] = run;
+            }
+            count++;
+        }
+        if (count <= 1) return single;
+        return new CompositeRun(Arrays.copyOf(runs, count));
+    }
+
+    private record CompositeRun(RunListener[] runs) implements RunListener {
+        @Override
+        public void onStepStart(StepInfo step, long startNanos) {
+            for (RunListener run : runs) run.onStepStart(step, startNanos);
+        }
+
+        @Override
+        public void onStepResources(StepInfo step, long cpuNanos, long allocatedBytes) {
+            for (RunListener run : runs) run.onStepResources(step, cpuNanos, allocatedBytes);
+        }
+
+        @Override
+        public void onStepEnd(StepInfo step, long endNanos, long elapsedNanos, Throwable error) {
+            for (RunListener run : runs) run.onStepEnd(step, endNanos, elapsedNanos, error);
+        }
+
+        @Override
+        public void onShortCircuit(StepInfo step) {
+            for (RunListener run : runs) run.onShortCircuit(step);
+        }
+
+        @Override
+        public void onJump(StepInfo from, StepInfo to, long delayMillis) {
+            for (RunListener run : runs) run.onJump(from, to, delayMillis);
+        }
+
+        @Override
+        public void onRunResult(Object result) {
+            for (RunListener run : runs) run.onRunResult(result);
+        }
+
+        @Override
+        public void onRunEnd(long endNanos, long elapsedNanos, Throwable error) {
+            for (RunListener run : runs) run.onRunEnd(endNanos, elapsedNanos, error);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.pipeline.core;
+
+import com.pipeline.metrics.MetricsRecorder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable snapshot of a pipeline's registered actions, one array per phase.
+ *
+ * <p>{@link Pipeline} publishes its current plan through a single volatile field and replaces it copy-on-write when
+ * actions are added or swapped for pooled wrappers, so a run reads the field once and iterates a snapshot that can
+ * never change underneath it. The arrays are shared with the engine and must not be written to.
+ */
+final class ExecutionPlan<C> {
+    private static final ExecutionPlan<?> EMPTY = new ExecutionPlan<>(newArray(0), newArray(0), newArray(0));
+
+    final Pipeline.RegisteredAction<C>[] pre;
+    final Pipeline.RegisteredAction<C>[] main;
+    final Pipeline.RegisteredAction<C>[] post;
+
+    /** Compiled form of this exact snapshot; built on first use when the pipeline is compiled. */
+    private volatile CompiledPlan<C> compiled;
+
+    private ExecutionPlan(Pipeline.RegisteredAction<C>[] pre,
+                          Pipeline.RegisteredAction<C>[] main,
+                          Pipeline.RegisteredAction<C>[] post) {
+        this.pre = pre;
+        this.main = main;
+        this.post = post;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <C> ExecutionPlan<C> empty() {
+        return (ExecutionPlan<C>) EMPTY;
+    }
+
+    static <C> ExecutionPlan<C> of(List<Pipeline.RegisteredAction<C>> pre,
+                                   List<Pipeline.RegisteredAction<C>> main,
+                                   List<Pipeline.RegisteredAction<C>> post) {
+        return positioned(toArray(pre), toArray(main), toArray(post));
+    }
+
+    Pipeline.RegisteredAction<C>[] phase(StepPhase phase) {
+        return switch (phase) {
+            case PRE -> pre;
+            case MAIN -> main;
+            case POST -> post;
+        };
+    }
+
+    int stepCount() {
+        return pre.length + main.length + post.length;
+    }
+
+    /** Binds every step's meters for {@code recorder} now rather than on the step's first run. */
+    void bindMeters(String pipelineName, MetricsRecorder recorder) {
+        for (StepPhase phase : StepPhase.values()) {
+            for (Pipeline.RegisteredAction<C> step : phase(phase)) step.meters(recorder, pipelineName);
+        }
+    }
+
+    /** Returns a new plan with {@code action} appended to {@code phase}. */
+    ExecutionPlan<C> append(StepPhase phase, String name, StepAction<C> action) {
+        Pipeline.RegisteredAction<C>[] current = phase(phase);
+        Pipeline.RegisteredAction<C>[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = Pipeline.RegisteredAction.named(phase, current.length, name, action);
+        return with(phase, next);
+    }
+
+    /** Returns a plan with every action passed through {@code rewrite}, or {@code this} if nothing changed. */
+    ExecutionPlan<C> rewrite(UnaryOperator<Pipeline.RegisteredAction<C>> rewrite) {
+        Pipeline.RegisteredAction<C>[] nextPre = rewrite(pre, rewrite);
+        Pipeline.RegisteredAction<C>[] nextMain = rewrite(main, rewrite);
+        Pipeline.RegisteredAction<C>[] nextPost = rewrite(post, rewrite);
+        if (nextPre == pre && nextMain == main && nextPost == post) return this;
+        return new ExecutionPlan<>(nextPre, nextMain, nextPost);
+    }
+
+    CompiledPlan<C> compiled(Pipeline<C> pipeline) {
+        CompiledPlan<C> plan = compiled;
+        if (plan == null) {
+            // Racing threads may each build one; they are equivalent and the last write wins.
+            plan = CompiledPlan.compile(pipeline, this);
+            compiled = plan;
+        }
+        return plan;
+    }
+
+    private ExecutionPlan<C> with(StepPhase phase, Pipeline.RegisteredAction<C>[] actions) {
+        return switch (phase) {
+            case PRE -> positioned(actions, main, post);
+            case MAIN -> positioned(pre, actions, post);
+            case POST -> positioned(pre, main, actions);
+        };
+    }
+
+    /** Plan whose steps report their run-order position; only steps that moved are replaced. */
+    private static <C> ExecutionPlan<C> positioned(Pipeline.RegisteredAction<C>[] pre,
+                                                   Pipeline.RegisteredAction<C>[] main,
+                                                   Pipeline.RegisteredAction<C>[] post) {
+        return new ExecutionPlan<>(
+            rewrite(pre, step -> at(step, step.index())),
+            rewrite(main, step -> at(step, pre.length + step.index())),
+            rewrite(post, step -> at(step, pre.length + main.length + step.index())));
+    }
+
+    private static <C> Pipeline.RegisteredAction<C> at(Pipeline.RegisteredAction<C> step, int position) {
+        return (step.position() == position) ? step : step.withPosition(position);
+    }
+
+    private static <C> Pipeline.RegisteredAction<C>[] rewrite(Pipeline.RegisteredAction<C>[] actions,
+                                                              UnaryOperator<Pipeline.RegisteredAction<C>> rewrite) {
+        Pipeline.RegisteredAction<C>[] out = actions;
+        for (int i = 0; i < actions.length; i++) {
+            Pipeline.RegisteredAction<C> replacement = Objects.requireNonNull(rewrite.apply(actions[i]), "rewrite");
+            if (replacement == actions[i]) continue;
+            if (out == actions) out = actions.clone();
+            out[i] = replacement;
+        }
+        return out;
+    }
+
+    private static <C> Pipeline.RegisteredAction<C>[] toArray(List<Pipeline.RegisteredAction<C>> actions) {
+        return actions.toArray(newArray(actions.size()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C> Pipeline.RegisteredAction<C>[] newArray(int length) {
+        return (Pipeline.RegisteredAction<C>[]) new Pipeline.RegisteredAction<?>[length];
+    }
+}
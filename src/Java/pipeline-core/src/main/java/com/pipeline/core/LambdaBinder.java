@@ -0,0 +1,135 @@
+package com.pipeline.core;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Turns reflectively discovered constructors and methods into real functional-interface instances via
+ * {@link LambdaMetafactory}, so config-driven steps are as inlinable as steps written in code.
+ *
+ * <p>Binding happens once, at load time. Targets the metafactory cannot bind (hidden classes, inaccessible modules)
+ * fall back to reflection. Exceptions thrown by a bound target propagate unchanged; the reflective fallback unwraps
+ * {@link InvocationTargetException} so both paths behave the same.
+ */
+public final class LambdaBinder {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private LambdaBinder() {}
+
+    /** No-arg constructor as a {@link Supplier}. */
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> constructor(Constructor<T> constructor) {
+        Objects.requireNonNull(constructor, "constructor");
+        Class<T> type = constructor.getDeclaringClass();
+        if (constructor.getParameterCount() != 0) {
+            throw new IllegalArgumentException("Constructor takes parameters: " + constructor);
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, LOOKUP);
+            MethodHandle target = lookup.unreflectConstructor(constructor);
+            return (Supplier<T>) LambdaMetafactory.metafactory(
+                    lookup,
+                    "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    target,
+                    MethodType.methodType(type))
+                .getTarget()
+                .invoke();
+        } catch (Throwable unbindable) {
+            return reflectiveConstructor(constructor);
+        }
+    }
+
+    /** Static one-argument method as a {@link ThrowingFn}; primitive results are boxed. */
+    public static ThrowingFn<Object, Object> staticMethod(Method method) {
+        requireUnary(method);
+        if (!Modifier.isStatic(method.getModifiers())) throw new IllegalArgumentException("Method is not static: " + method);
+        return bind(method, null);
+    }
+
+    /** One-argument instance method bound to {@code receiver} as a {@link ThrowingFn}; primitive results are boxed. */
+    public static ThrowingFn<Object, Object> instanceMethod(Object receiver, Method method) {
+        requireUnary(method);
+        Objects.requireNonNull(receiver, "receiver");
+        if (Modifier.isStatic(method.getModifiers())) throw new IllegalArgumentException("Method is static: " + method);
+        if (!method.getDeclaringClass().isInstance(receiver)) {
+            throw new IllegalArgumentException("Receiver " + receiver.getClass().getName() + " does not declare " + method);
+        }
+        return bind(method, receiver);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ThrowingFn<Object, Object> bind(Method method, Object receiverOrNull) {
+        Class<?> owner = method.getDeclaringClass();
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class) return reflectiveMethod(method, receiverOrNull);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, LOOKUP);
+            MethodHandle target = lookup.unreflect(method);
+            MethodType factoryType = (receiverOrNull == null)
+                ? MethodType.methodType(ThrowingFn.class)
+                : MethodType.methodType(ThrowingFn.class, owner);
+            MethodHandle factory = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    factoryType,
+                    MethodType.methodType(Object.class, Object.class),
+                    target,
+                    MethodType.methodType(boxed(returnType), boxed(method.getParameterTypes()[0])))
+                .getTarget();
+            return (ThrowingFn<Object, Object>) ((receiverOrNull == null) ? factory.invoke() : factory.invoke(receiverOrNull));
+        } catch (Throwable unbindable) {
+            return reflectiveMethod(method, receiverOrNull);
+        }
+    }
+
+    private static void requireUnary(Method method) {
+        Objects.requireNonNull(method, "method");
+        if (method.getParameterCount() != 1) throw new IllegalArgumentException("Method must take one parameter: " + method);
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    private static <T> Supplier<T> reflectiveConstructor(Constructor<T> constructor) {
+        constructor.setAccessible(true);
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (InvocationTargetException invocationFailure) {
+                throw sneaky(invocationFailure.getCause());
+            } catch (ReflectiveOperationException reflectionFailure) {
+                throw new IllegalStateException("Failed to instantiate " + constructor.getDeclaringClass().getName(), reflectionFailure);
+            }
+        };
+    }
+
+    private static ThrowingFn<Object, Object> reflectiveMethod(Method method, Object receiverOrNull) {
+        method.setAccessible(true);
+        return in -> {
+            try {
+                return method.invoke(receiverOrNull, in);
+            } catch (InvocationTargetException invocationFailure) {
+                Throwable cause = invocationFailure.getCause();
+                if (cause instanceof Exception exception) throw exception;
+                throw sneaky(cause);
+            }
+        };
+    }
+
+    // Rethrows as-is, matching what a bound lambda would let escape.
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException sneaky(Throwable failure) throws E {
+        throw (E) failure;
+    }
+}
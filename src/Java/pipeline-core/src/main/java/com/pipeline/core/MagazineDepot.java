@@ -0,0 +1,237 @@
+package com.pipeline.core;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle-instance store behind {@link ActionPool}, laid out like a slab allocator's magazine layer.
+ *
+ * <p>Each platform thread gets a small magazine of slots that only it fills and empties in the common case, so a
+ * thread that releases what it borrowed never touches shared state. Overflow goes to a lock-free LIFO depot. Slots
+ * are atomic so that a borrower finding nothing in its own magazine or the depot can steal from other threads'
+ * magazines; an idle instance is therefore never stranded with a thread that stopped using the pool. Virtual threads
+ * (and threads beyond {@code maxMagazines}) bypass magazines and use the depot directly.
+ *
+ * <p>Only a borrower that finds nothing anywhere waits, and while anyone waits releases go straight to the depot and
+ * unpark the oldest waiter; waiters do not poll. When {@code trackIdleTime} is set, every release is stamped so
+ * {@link #evictIdle} can drop long-idle instances wherever they sit.
+ */
+final class MagazineDepot<T> {
+    static final int MAGAZINE_SIZE = 4;
+
+    private final Magazine<T> noMagazine = new Magazine<>(0);
+    private final ConcurrentLinkedDeque<Idle<T>> depot = new ConcurrentLinkedDeque<>();
+    private final ThreadLocal<Magazine<T>> magazines = new ThreadLocal<>();
+    private final CopyOnWriteArrayList<Magazine<T>> allMagazines = new CopyOnWriteArrayList<>();
+    private final int maxMagazines;
+    private final boolean trackIdleTime;
+    private final AtomicInteger waiting = new AtomicInteger(0);
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    /** Runs inside {@link #put} between its waiting check and the magazine push; for tests. */
+    Runnable beforeMagazinePush;
+
+    MagazineDepot(boolean trackIdleTime) {
+        this(Math.max(4, Runtime.getRuntime().availableProcessors() * 4), trackIdleTime);
+    }
+
+    MagazineDepot(int maxMagazines, boolean trackIdleTime) {
+        if (maxMagazines < 0) throw new IllegalArgumentException("maxMagazines must be >= 0");
+        this.maxMagazines = maxMagazines;
+        this.trackIdleTime = trackIdleTime;
+    }
+
+    /** Returns an idle instance, or {@code null} if there is none anywhere right now. */
+    T poll() {
+        T instance = magazine().pop();
+        if (instance != null) return instance;
+        instance = pollDepot();
+        if (instance != null) return instance;
+        return steal();
+    }
+
+    /**
+     * Returns an idle instance, waiting up to {@code timeoutNanos} for a {@link #put} (indefinitely when negative).
+     * Returns {@code null} on timeout.
+     */
+    T take(long timeoutNanos) {
+        T instance = poll();
+        if (instance != null || timeoutNanos == 0) return instance;
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        Waiter waiter = new Waiter(Thread.currentThread());
+        waiting.incrementAndGet();
+        // Queued before looking again, so a put that lands after the look below is bound to signal us.
+        waiters.offer(waiter);
+        try {
+            while (true) {
+                instance = pollDepot();
+                if (instance != null) return instance;
+                instance = steal();
+                if (instance != null) return instance;
+                if (Thread.interrupted()) {
+                    waiter.thread.interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for an action instance from the pool");
+                }
+                if (timeoutNanos > 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) return null;
+                    LockSupport.parkNanos(this, remaining);
+                } else {
+                    LockSupport.park(this);
+                }
+                // A signal took us off the queue; another borrower may have won the instance, so queue up again.
+                if (waiter.state.compareAndSet(Waiter.SIGNALLED, Waiter.WAITING)) waiters.offer(waiter);
+            }
+        } finally {
+            waiting.decrementAndGet();
+            // Leaving lazily: a put discards the node when it reaches it. A signal that raced with leaving is passed on.
+            if (!waiter.state.compareAndSet(Waiter.WAITING, Waiter.LEFT)) signalNext();
+            Waiter head;
+            while ((head = waiters.peek()) != null && head.state.get() == Waiter.LEFT) waiters.remove(head);
+        }
+    }
+
+    /** Returns {@code instance} to the caller's magazine, or to the depot if it is full or someone is waiting. */
+    void put(T instance) {
+        Objects.requireNonNull(instance, "instance");
+        long now = trackIdleTime ? System.nanoTime() : 0L;
+        if (waiting.get() == 0) {
+            Magazine<T> magazine = magazine();
+            Runnable hook = beforeMagazinePush;
+            if (hook != null) hook.run();
+            if (magazine.push(instance, now)) {
+                // A borrower that started waiting before the push may have looked everywhere already and parked, so
+                // look again now that the instance is published; one that starts later is bound to steal it.
+                if (waiting.get() == 0) return;
+                instance = magazine.pop();
+                if (instance == null) return; // a borrower already took it
+            }
+        }
+        depot.push(new Idle<>(instance, now));
+        if (waiting.get() > 0) signalNext();
+    }
+
+    /** Unparks the oldest borrower still waiting, dropping the nodes of those that left. */
+    private void signalNext() {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.SIGNALLED)) {
+                LockSupport.unpark(waiter.thread);
+                return;
+            }
+        }
+    }
+
+    /** Drops up to {@code limit} instances released before {@code cutoffNanos}; returns how many were dropped. */
+    int evictIdle(long cutoffNanos, int limit) {
+        int evicted = 0;
+        // The depot is LIFO, so its tail holds the longest-idle entries.
+        while (evicted < limit) {
+            Idle<T> oldest = depot.peekLast();
+            if (oldest == null || oldest.since - cutoffNanos > 0) break;
+            if (depot.removeLastOccurrence(oldest)) evicted++;
+        }
+        for (Magazine<T> magazine : allMagazines) {
+            if (evicted >= limit) break;
+            evicted += magazine.evictIdle(cutoffNanos, limit - evicted);
+        }
+        return evicted;
+    }
+
+    private T pollDepot() {
+        Idle<T> idle = depot.poll();
+        return (idle == null) ? null : idle.instance;
+    }
+
+    private T steal() {
+        for (Magazine<T> magazine : allMagazines) {
+            T instance = magazine.pop();
+            if (instance != null) return instance;
+        }
+        return null;
+    }
+
+    private Magazine<T> magazine() {
+        Magazine<T> magazine = magazines.get();
+        if (magazine != null) return magazine;
+        if (Thread.currentThread().isVirtual()) return noMagazine;
+
+        // Registration is rare (once per thread); the registry only ever grows to maxMagazines.
+        synchronized (allMagazines) {
+            magazine = (allMagazines.size() < maxMagazines) ? new Magazine<>(MAGAZINE_SIZE) : noMagazine;
+            if (magazine != noMagazine) allMagazines.add(magazine);
+        }
+        magazines.set(magazine);
+        return magazine;
+    }
+
+    /** A borrower parked in {@link #take}; queued while {@code WAITING}, dequeued by the put that signals it. */
+    private static final class Waiter {
+        static final int WAITING = 0;
+        static final int SIGNALLED = 1;
+        static final int LEFT = 2;
+
+        private final Thread thread;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    /** Depot entry; identity equality so eviction removes exactly the entry it inspected. */
+    private static final class Idle<T> {
+        private final T instance;
+        private final long since;
+
+        private Idle(T instance, long since) {
+            this.instance = instance;
+            this.since = since;
+        }
+    }
+
+    /** A handful of slots owned by one thread; atomic only so other threads can steal and evict. */
+    private static final class Magazine<T> {
+        private final AtomicReferenceArray<T> slots;
+        private final AtomicLongArray since;
+
+        private Magazine(int size) {
+            this.slots = new AtomicReferenceArray<>(size);
+            this.since = new AtomicLongArray(size);
+        }
+
+        T pop() {
+            for (int i = slots.length() - 1; i >= 0; i--) {
+                if (slots.get(i) == null) continue;
+                T instance = slots.getAndSet(i, null);
+                if (instance != null) return instance;
+            }
+            return null;
+        }
+
+        boolean push(T instance, long nowNanos) {
+            for (int i = 0; i < slots.length(); i++) {
+                if (slots.get(i) != null) continue;
+                since.lazySet(i, nowNanos);
+                if (slots.compareAndSet(i, null, instance)) return true;
+            }
+            return false;
+        }
+
+        int evictIdle(long cutoffNanos, int limit) {
+            int evicted = 0;
+            for (int i = 0; i < slots.length() && evicted < limit; i++) {
+                if (slots.get(i) == null || since.get(i) - cutoffNanos > 0) continue;
+                if (slots.getAndSet(i, null) != null) evicted++;
+            }
+            return evicted;
+        }
+    }
+}
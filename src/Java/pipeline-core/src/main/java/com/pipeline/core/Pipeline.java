@@ -1,27 +1,50 @@
 package com.pipeline.core;
 
+import com.pipeline.core.jfr.FlightRecorderListener;
 import com.pipeline.metrics.Metrics;
+import com.pipeline.metrics.MetricsRecorder;
+import com.pipeline.metrics.StepMeters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.UnaryOperator;
 
 public final class Pipeline<C> {
     private static final Logger log = LoggerFactory.getLogger(Pipeline.class);
+    // Present on every pipeline; unless a JFR recording enables pipeline events it sits out each run.
+    private static final PipelineListener[] ENGINE_LISTENERS = {FlightRecorderListener.INSTANCE};
 
     private final String name;
     private final boolean shortCircuitOnException;
     private volatile BiFunction<C, PipelineError, C> onError = (ctx, err) -> ctx;
 
     private volatile boolean pooledLocalActionsEnabled;
-
-    private final List<RegisteredAction<C>> preActions = new ArrayList<>();
-    private final List<RegisteredAction<C>> actions = new ArrayList<>();
-    private final List<RegisteredAction<C>> postActions = new ArrayList<>();
+    private volatile boolean recycleRunState;
+    private volatile boolean compiled;
+    private volatile double resourceSampleRate;
+    private final ThreadLocal<DefaultActionControl<C>> recycledControl = new ThreadLocal<>();
+    private volatile PipelineListener[] listeners = ENGINE_LISTENERS;
+    private volatile RecorderListener recorderListener;
+
+    /**
+     * Current actions, replaced copy-on-write (under this pipeline's monitor) and never mutated in place; runs read
+     * it once and need no lock.
+     */
+    private volatile ExecutionPlan<C> plan = ExecutionPlan.empty();
 
     public Pipeline(String name) {
         this(name, true);
@@ -53,42 +76,60 @@ public final class Pipeline<C> {
     public static final class Builder<C> {
         private final String name;
         private boolean shortCircuitOnException = true;
+        private boolean recycleRunState;
+        private double resourceSampleRate;
         private BiFunction<C, PipelineError, C> onError = (ctx, err) -> ctx;
         private final List<RegisteredAction<C>> pre = new ArrayList<>();
         private final List<RegisteredAction<C>> main = new ArrayList<>();
         private final List<RegisteredAction<C>> post = new ArrayList<>();
+        private final List<PipelineListener> listeners = new ArrayList<>();
 
         public Builder(String name) { this.name = name; }
 
+        /** See {@link Pipeline#addListener(PipelineListener)}. */
+        public Builder<C> addListener(PipelineListener listener) {
+            listeners.add(Objects.requireNonNull(listener, "listener"));
+            return this;
+        }
+
         public Builder<C> shortCircuitOnException(boolean b) { this.shortCircuitOnException = b; return this; }
         public Builder<C> shortCircuit(boolean b) { return shortCircuitOnException(b); } // legacy alias
 
+        /** See {@link Pipeline#recycleRunState(boolean)}. */
+        public Builder<C> recycleRunState(boolean b) { this.recycleRunState = b; return this; }
+
+        /** See {@link Pipeline#sampleResources(double)}. */
+        public Builder<C> sampleResources(double rate) {
+            this.resourceSampleRate = checkSampleRate(rate);
+            return this;
+        }
+
         public Builder<C> onError(BiFunction<C, PipelineError, C> handler) {
             this.onError = (handler == null) ? ((ctx, err) -> ctx) : handler;
             return this;
         }
 
         public Builder<C> addPreAction(String name, StepAction<C> action) {
-            pre.add(RegisteredAction.named(name, action));
+            pre.add(RegisteredAction.named(StepPhase.PRE, pre.size(), name, action));
             return this;
         }
         public Builder<C> addAction(String name, StepAction<C> action) {
-            main.add(RegisteredAction.named(name, action));
+            main.add(RegisteredAction.named(StepPhase.MAIN, main.size(), name, action));
             return this;
         }
         public Builder<C> addPostAction(String name, StepAction<C> action) {
-            post.add(RegisteredAction.named(name, action));
+            post.add(RegisteredAction.named(StepPhase.POST, post.size(), name, action));
             return this;
         }
 
         /** Convenience placeholder: registers an identity action with the provided name. */
-        public Builder<C> addPreAction(String name) { pre.add(RegisteredAction.named(name, identity())); return this; }
+        public Builder<C> addPreAction(String name) { return addPreAction(name, identity()); }
 
         /** Convenience placeholder: registers an identity action with the provided name. */
-        public Builder<C> addAction(String name) { main.add(RegisteredAction.named(name, identity())); return this; }
+        public Builder<C> addAction(String name) { return addAction(name, identity()); }
 
         /** Convenience placeholder: registers an identity action with the provided name. */
-        public Builder<C> addPostAction(String name) { post.add(RegisteredAction.named(name, identity())); return this; }
+        public Builder<C> addPostAction(String name) { return addPostAction(name, identity()); }
 
         public Builder<C> addPreAction(StepAction<C> action) { return addPreAction(null, action); }
         public Builder<C> addAction(StepAction<C> action) { return addAction(null, action); }
@@ -105,9 +146,11 @@ public final class Pipeline<C> {
         public Pipeline<C> build() {
             Pipeline<C> p = new Pipeline<>(name, shortCircuitOnException);
             p.onError(onError);
-            for (var a : pre) p.preActions.add(a);
-            for (var a : main) p.actions.add(a);
-            for (var a : post) p.postActions.add(a);
+            p.recycleRunState(recycleRunState);
+            p.sampleResources(resourceSampleRate);
+            for (PipelineListener listener : listeners) p.addListener(listener);
+            p.plan = ExecutionPlan.of(pre, main, post);
+            p.plan.bindMeters(name, Metrics.recorder());
             return p;
         }
 
@@ -118,6 +161,59 @@ public final class Pipeline<C> {
         return this;
     }
 
+    /**
+     * Reuse one per-thread {@link ActionControl} (and its timing buffer) across runs instead of allocating a fresh
+     * one per run. With no errors, a run then allocates nothing beyond what the actions themselves allocate.
+     *
+     * <p>The returned {@link PipelineResult} and its {@link PipelineResult#actionTimings()} view are owned by that
+     * recycled control and are only valid until the next run of this pipeline on the same thread; copy what must
+     * outlive that.
+     */
+    public Pipeline<C> recycleRunState(boolean enabled) {
+        this.recycleRunState = enabled;
+        return this;
+    }
+
+    public boolean recycleRunState() { return recycleRunState; }
+
+    /**
+     * Measures CPU time and allocated bytes of every synchronous step in a {@code rate} fraction of runs (for example
+     * {@code 0.01}), on top of wall time. Sampled values show up in {@link ActionTiming#cpuNanos()} and
+     * {@link ActionTiming#allocatedBytes()}, and reach listeners and the metrics recorder through
+     * {@link PipelineListener.RunListener#onStepResources}. Unsampled runs pay one random draw; {@code 0} (the
+     * default) turns sampling off.
+     */
+    public Pipeline<C> sampleResources(double rate) {
+        this.resourceSampleRate = checkSampleRate(rate);
+        return this;
+    }
+
+    public double resourceSampleRate() { return resourceSampleRate; }
+
+    private static double checkSampleRate(double rate) {
+        if (!(rate >= 0.0 && rate <= 1.0)) throw new IllegalArgumentException("sample rate must be in [0, 1]");
+        return rate;
+    }
+
+    private boolean sampleThisRun() {
+        double rate = resourceSampleRate;
+        if (rate <= 0.0 || !ResourceSampler.SUPPORTED) return false;
+        return rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * Adds a listener for run and step boundaries, alongside the global {@link Metrics#recorder()} which is always
+     * notified first. Listeners returning {@code null} from {@link PipelineListener#onRunStart} cost nothing per step.
+     */
+    public synchronized Pipeline<C> addListener(PipelineListener listener) {
+        Objects.requireNonNull(listener, "listener");
+        PipelineListener[] current = listeners;
+        PipelineListener[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = listener;
+        listeners = next;
+        return this;
+    }
+
     public Pipeline<C> addPreAction(StepAction<C> action) { return addPreAction(null, action); }
     public Pipeline<C> addAction(StepAction<C> action) { return addAction(null, action); }
     public Pipeline<C> addPostAction(StepAction<C> action) { return addPostAction(null, action); }
@@ -136,15 +232,17 @@ public final class Pipeline<C> {
     public Pipeline<C> addPostAction(String actionName) { return addPostAction(actionName, identity()); }
 
     public Pipeline<C> addPreAction(String actionName, StepAction<C> action) {
-        preActions.add(RegisteredAction.named(actionName, action));
-        return this;
+        return append(StepPhase.PRE, actionName, action);
     }
     public Pipeline<C> addAction(String actionName, StepAction<C> action) {
-        actions.add(RegisteredAction.named(actionName, action));
-        return this;
+        return append(StepPhase.MAIN, actionName, action);
     }
     public Pipeline<C> addPostAction(String actionName, StepAction<C> action) {
-        postActions.add(RegisteredAction.named(actionName, action));
+        return append(StepPhase.POST, actionName, action);
+    }
+
+    private synchronized Pipeline<C> append(StepPhase phase, String actionName, StepAction<C> action) {
+        plan = plan.append(phase, actionName, action);
         return this;
     }
 
@@ -153,26 +251,145 @@ public final class Pipeline<C> {
     public Pipeline<C> addPostAction(String actionName, UnaryOperator<C> fn) { return addPostAction(actionName, adapt(fn)); }
 
     public PipelineResult<C> run(C input) {
-        var rec = Metrics.recorder();
+        C ctx = Objects.requireNonNull(input, "input");
+        ExecutionPlan<C> current = plan;
+        DefaultActionControl<C> control = acquireControl();
+        control.beginRun(System.nanoTime(), onError, recorderListener(), listeners, current.stepCount(), sampleThisRun());
+        try {
+            ctx = runPhases(current, control, ctx);
+            // The last step boundary is the end of the run; no extra clock read.
+            return control.result(ctx, control.boundaryNanos);
+        } catch (RuntimeException | Error failure) {
+            control.abortRun(failure);
+            throw failure;
+        } finally {
+            control.endRun();
+        }
+    }
 
-        long runStartNanos = System.nanoTime();
+    /**
+     * Runs the pipeline without blocking on {@link AsyncStepAction}s: the run is suspended while an async step is
+     * pending and resumed on the thread that completes its stage. Synchronous steps run inline on whichever thread
+     * is driving the run at that point. Pre/main/post ordering, short-circuiting and {@code onError} behave exactly
+     * as in {@link #run(Object)}.
+     *
+     * <p>The future completes with the run's result; it only completes exceptionally when the engine itself fails
+     * (for example an {@code onError} handler returning {@code null}) or a step throws an {@link Error}. Async runs
+     * always use fresh run state and the interpreted step loop.
+     */
+    public CompletableFuture<PipelineResult<C>> runAsync(C input) {
         C ctx = Objects.requireNonNull(input, "input");
-        DefaultActionControl<C> control = new DefaultActionControl<>(name, onError);
-        control.beginRun(runStartNanos);
+        ExecutionPlan<C> current = plan;
+        DefaultActionControl<C> control = new DefaultActionControl<>(name, false);
+        control.beginRun(System.nanoTime(), onError, recorderListener(), listeners, current.stepCount(), sampleThisRun());
+        AsyncRun run = new AsyncRun(current, control, ctx);
+        run.resume();
+        return run.result;
+    }
+
+    /**
+     * Runs every input through the pipeline step-major: each step is applied to the whole batch before the next
+     * step starts, so an action's code and data stay hot across elements. Short-circuiting and errors are tracked per
+     * element exactly as in {@link #run(Object)}; an element that short-circuits skips the remaining main actions
+     * while the rest of the batch carries on. Steps implementing {@link BatchStepAction} are called once per step
+     * with all active elements.
+     *
+     * <p>Results are returned in input order. Every element's {@link PipelineResult#totalNanos()} is the wall time
+     * of the whole batch, and a batch step's timing is split evenly across the elements it processed. Batch runs
+     * always use fresh run state, even with {@link #recycleRunState(boolean)} enabled.
+     */
+    public List<PipelineResult<C>> runBatch(List<C> inputs) {
+        Objects.requireNonNull(inputs, "inputs");
+        int count = inputs.size();
+        if (count == 0) return List.of();
+
+        List<C> contexts = new ArrayList<>(count);
+        for (C input : inputs) contexts.add(Objects.requireNonNull(input, "input"));
+
+        ExecutionPlan<C> current = plan;
+        RecorderListener recorder = recorderListener();
+        PipelineListener[] runListeners = listeners;
+        int stepCount = current.stepCount();
+        long batchStartNanos = System.nanoTime();
+        List<DefaultActionControl<C>> controls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DefaultActionControl<C> control = new DefaultActionControl<>(name, false);
+            control.beginRun(batchStartNanos, onError, recorder, runListeners, stepCount, sampleThisRun());
+            controls.add(control);
+        }
+
+        // pre: always run all pre-actions
+        runBatchPhase(controls, contexts, current.pre, /*skipShortCircuited=*/false);
+
+        // main: each element stops once its control short-circuits
+        runBatchPhase(controls, contexts, current.main, /*skipShortCircuited=*/true);
+
+        // post: always run all post-actions
+        runBatchPhase(controls, contexts, current.post, /*skipShortCircuited=*/false);
+
+        long batchEndNanos = System.nanoTime();
+        List<PipelineResult<C>> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(controls.get(i).result(contexts.get(i), batchEndNanos));
+        }
+        return results;
+    }
+
+    /** Array form of {@link #runBatch(List)}. */
+    public List<PipelineResult<C>> runBatch(C[] inputs) {
+        return runBatch(Arrays.asList(Objects.requireNonNull(inputs, "inputs")));
+    }
+
+    private C runPhases(ExecutionPlan<C> current, DefaultActionControl<C> control, C input) {
+        if (compiled) return current.compiled(this).run(input, control);
 
         // pre: always run all pre-actions
-        ctx = runPhase(control, rec, StepPhase.PRE, ctx, preActions, /*stopOnShortCircuit=*/false);
+        C ctx = runPhase(control, input, current.pre, /*stopOnShortCircuit=*/false);
 
         // main: stop when control short-circuits
         if (!control.isShortCircuited()) {
-            ctx = runPhase(control, rec, StepPhase.MAIN, ctx, actions, /*stopOnShortCircuit=*/true);
+            ctx = runPhase(control, ctx, current.main, /*stopOnShortCircuit=*/true);
         }
 
         // post: always run all post-actions
-        ctx = runPhase(control, rec, StepPhase.POST, ctx, postActions, /*stopOnShortCircuit=*/false);
+        return runPhase(control, ctx, current.post, /*stopOnShortCircuit=*/false);
+    }
+
+    /**
+     * Switch this pipeline to a compiled execution plan: every step gets its own call site (see
+     * {@link CompiledPlan}) instead of sharing the interpreted loop's, so the JIT can inline across steps even when
+     * a service hosts many pipelines. Pre/main/post ordering, short-circuiting and {@code onError} behave exactly as
+     * in the interpreted loop. Adding actions afterwards is allowed; the plan is rebuilt on the next run.
+     */
+    public Pipeline<C> compile() {
+        compiled = true;
+        plan.bindMeters(name, Metrics.recorder());
+        plan.compiled(this);
+        return this;
+    }
+
+    public boolean isCompiled() { return compiled; }
+
+    /** Adapter for the current global recorder, rebuilt only when {@code Metrics.setRecorder} swaps it. */
+    private RecorderListener recorderListener() {
+        MetricsRecorder recorder = Metrics.recorder();
+        RecorderListener listener = recorderListener;
+        if (listener == null || listener.recorder() != recorder) {
+            listener = new RecorderListener(recorder, name);
+            recorderListener = listener;
+        }
+        return listener;
+    }
 
-        long totalNanos = System.nanoTime() - runStartNanos;
-        return new PipelineResult<>(ctx, control.isShortCircuited(), control.errors(), control.actionTimings(), totalNanos);
+    private DefaultActionControl<C> acquireControl() {
+        if (!recycleRunState) return new DefaultActionControl<>(name, false);
+        DefaultActionControl<C> control = recycledControl.get();
+        if (control == null) {
+            control = new DefaultActionControl<>(name, true);
+            recycledControl.set(control);
+        }
+        // Re-entrant run of this pipeline on the same thread: the recycled control is busy, use a private one.
+        return control.inRun ? new DefaultActionControl<>(name, false) : control;
     }
 
     /** @deprecated Renamed to {@link #run(Object)}. */
@@ -183,94 +400,346 @@ public final class Pipeline<C> {
 
     public String name() { return name; }
     public boolean shortCircuitOnException() { return shortCircuitOnException; }
-    public int size() { return actions.size(); }
+    public int size() { return plan.main.length; }
+
+    /** Pool counters of every pooled step (see {@link PooledAction}), keyed by step display name in run order. */
+    public Map<String, ActionPoolStats> poolStats() {
+        ExecutionPlan<C> current = plan;
+        Map<String, ActionPoolStats> stats = new LinkedHashMap<>();
+        for (StepPhase phase : StepPhase.values()) {
+            for (RegisteredAction<C> step : current.phase(phase)) {
+                if (step.action() instanceof PooledAction<?> pooled) stats.put(step.stepName(), pooled.poolStats());
+            }
+        }
+        return stats;
+    }
 
     void enablePooledLocalActions(ActionPoolCache actionPoolCache) {
         Objects.requireNonNull(actionPoolCache, "actionPoolCache");
         if (pooledLocalActionsEnabled) return;
         synchronized (this) {
             if (pooledLocalActionsEnabled) return;
+            // Swap in a rewritten plan rather than editing the live one: concurrent runs keep their snapshot.
+            plan = plan.rewrite(registeredAction -> pooledLocalAction(actionPoolCache, registeredAction));
             pooledLocalActionsEnabled = true;
         }
-
-        enablePooledLocalActionsForPhase(actionPoolCache, StepPhase.PRE, preActions);
-        enablePooledLocalActionsForPhase(actionPoolCache, StepPhase.MAIN, actions);
-        enablePooledLocalActionsForPhase(actionPoolCache, StepPhase.POST, postActions);
     }
 
-    private void enablePooledLocalActionsForPhase(
-        ActionPoolCache actionPoolCache,
-        StepPhase phase,
-        List<RegisteredAction<C>> registeredActions
-    ) {
-        for (int index = 0; index < registeredActions.size(); index++) {
-            RegisteredAction<C> registeredAction = registeredActions.get(index);
-            StepAction<C> action = registeredAction.action();
-            if (action instanceof PooledAction<?>) continue;
+    private RegisteredAction<C> pooledLocalAction(ActionPoolCache actionPoolCache, RegisteredAction<C> registeredAction) {
+        StepAction<C> action = registeredAction.action();
+        if (action instanceof PooledAction<?>) return registeredAction;
 
-            PoolablePrototype poolablePrototype = poolablePrototype(action);
-            if (poolablePrototype == null) continue;
+        PoolablePrototype poolablePrototype = poolablePrototype(action);
+        if (poolablePrototype == null) return registeredAction;
 
-            String actionLabel = registeredAction.name();
-            String normalizedLabel = (actionLabel == null) ? "" : actionLabel.strip();
+        String actionLabel = registeredAction.name();
+        String normalizedLabel = (actionLabel == null) ? "" : actionLabel.strip();
 
-            ActionCacheKey actionCacheKey = new ActionCacheKey(name, phase, index, normalizedLabel);
-            ActionPoolCache.ActionPoolEntry entry = actionPoolCache.entry(
-                actionCacheKey,
-                poolablePrototype.actionClass(),
-                poolablePrototype.invokeStyle());
-            entry.pool().trySeed(poolablePrototype.prototype());
+        ActionCacheKey actionCacheKey = new ActionCacheKey(name, registeredAction.phase(), registeredAction.index(), normalizedLabel);
+        ActionPoolCache.ActionPoolEntry entry = actionPoolCache.entry(
+            actionCacheKey,
+            poolablePrototype.actionClass(),
+            poolablePrototype.invokeStyle());
+        entry.pool().trySeed(poolablePrototype.prototype());
 
-            StepAction<C> pooledAction = new PooledAction<>(entry.pool(), poolablePrototype.invokeStyle(), actionCacheKey.toString());
-            registeredActions.set(index, RegisteredAction.named(actionLabel, pooledAction));
-        }
+        StepAction<C> pooledAction = new PooledAction<>(entry.pool(), poolablePrototype.invokeStyle(), actionCacheKey.toString());
+        return registeredAction.withAction(pooledAction);
     }
 
     private C runPhase(DefaultActionControl<C> control,
-                       com.pipeline.metrics.MetricsRecorder rec,
-                       StepPhase phase,
                        C start,
-                       List<RegisteredAction<C>> list,
+                       RegisteredAction<C>[] steps,
                        boolean stopOnShortCircuit) {
         C ctx = start;
-        for (int i = 0; i < list.size(); i++) {
-            RegisteredAction<C> reg = list.get(i);
-            String actionName = formatStepName(phase, i, reg.name());
-            control.beginStep(phase, i, actionName);
+        for (RegisteredAction<C> step : steps) {
+            ctx = runStep(control, step, ctx);
+            if (stopOnShortCircuit && control.isShortCircuited()) break;
+        }
+        return ctx;
+    }
 
-            boolean wasShortCircuited = control.isShortCircuited();
+    private C runStep(DefaultActionControl<C> control, RegisteredAction<C> step, C ctx) {
+        long startNanos = enterStep(control, step);
+        C next;
+        try {
+            next = step.action().apply(ctx, control);
+        } catch (Exception ex) {
+            return failStep(control, step, ctx, ex, startNanos);
+        }
+        return completeStep(control, step, ctx, next, startNanos);
+    }
 
-            long actionStartNanos = System.nanoTime();
-            boolean actionSucceeded = true;
-            long elapsedNanos;
+    private void runBatchPhase(List<DefaultActionControl<C>> controls,
+                               List<C> contexts,
+                               RegisteredAction<C>[] steps,
+                               boolean skipShortCircuited) {
+        int[] active = new int[contexts.size()];
+        int activeCount = 0;
+        for (int e = 0; e < active.length; e++) {
+            if (!skipShortCircuited || !controls.get(e).isShortCircuited()) active[activeCount++] = e;
+        }
+
+        for (int i = 0; i < steps.length && activeCount > 0; i++) {
+            RegisteredAction<C> step = steps[i];
+            if (step.action() instanceof BatchStepAction<C> batchAction) {
+                runBatchStep(batchAction, step, controls, contexts, active, activeCount);
+            } else {
+                for (int k = 0; k < activeCount; k++) {
+                    int e = active[k];
+                    DefaultActionControl<C> control = controls.get(e);
+                    // Other elements ran since this one's last boundary; start its step from now.
+                    control.boundaryNanos = System.nanoTime();
+                    contexts.set(e, runStep(control, step, contexts.get(e)));
+                }
+            }
+
+            if (skipShortCircuited) {
+                int kept = 0;
+                for (int k = 0; k < activeCount; k++) {
+                    if (!controls.get(active[k]).isShortCircuited()) active[kept++] = active[k];
+                }
+                activeCount = kept;
+            }
+        }
+    }
+
+    private void runBatchStep(BatchStepAction<C> action,
+                              RegisteredAction<C> step,
+                              List<DefaultActionControl<C>> controls,
+                              List<C> contexts,
+                              int[] active,
+                              int activeCount) {
+        List<C> stepInputs = new ArrayList<>(activeCount);
+        List<DefaultActionControl<C>> stepControls = new ArrayList<>(activeCount);
+        long startNanos = System.nanoTime();
+        for (int k = 0; k < activeCount; k++) {
+            DefaultActionControl<C> control = controls.get(active[k]);
+            control.beginStep(step);
+            control.stepStarted(step, startNanos);
+            stepInputs.add(contexts.get(active[k]));
+            stepControls.add(control);
+        }
+
+        List<C> outputs = null;
+        Exception failure = null;
+        try {
+            outputs = action.applyBatch(Collections.unmodifiableList(stepInputs), Collections.unmodifiableList(stepControls));
+            if (outputs == null || outputs.size() != activeCount) {
+                failure = new IllegalStateException("Batch step returned " + ((outputs == null) ? "null" : outputs.size() + " results")
+                    + " for " + activeCount + " inputs: " + step.stepName());
+            }
+        } catch (Exception ex) {
+            failure = ex;
+        }
+        long endNanos = System.nanoTime();
+        long elapsedPerElement = (endNanos - startNanos) / activeCount;
+
+        for (int k = 0; k < activeCount; k++) {
+            DefaultActionControl<C> control = stepControls.get(k);
+            C ctx = stepInputs.get(k);
+            C next = (failure == null) ? outputs.get(k) : null;
+            if (failure == null && next != null) {
+                next = stepSucceeded(control, step, next, endNanos, elapsedPerElement);
+            } else {
+                Exception cause = (failure != null) ? failure : nullResult(step);
+                next = stepFailed(control, step, ctx, cause, startNanos, endNanos, elapsedPerElement);
+            }
+            contexts.set(active[k], next);
+        }
+    }
+
+    /**
+     * State of one {@link #runAsync} run. {@link #resume()} steps through the phases until an async step is still
+     * pending, then returns; the stage's completion calls {@code resume()} again. Stages that are already complete
+     * are continued inline, so long chains of completed stages do not grow the stack.
+     */
+    private final class AsyncRun {
+        private static final StepPhase[] PHASES = {StepPhase.PRE, StepPhase.MAIN, StepPhase.POST};
+
+        private final CompletableFuture<PipelineResult<C>> result = new CompletableFuture<>();
+        private final DefaultActionControl<C> control;
+        private final ExecutionPlan<C> plan;
+
+        private C ctx;
+        private int phase;
+        private int index;
+
+        private AsyncRun(ExecutionPlan<C> plan, DefaultActionControl<C> control, C input) {
+            this.plan = plan;
+            this.control = control;
+            this.ctx = input;
+        }
+
+        private void resume() {
             try {
-                C next = reg.action().apply(ctx, control);
-                if (next == null) throw new IllegalStateException("Step returned null: " + actionName);
-                ctx = next;
-            } catch (Exception ex) {
-                actionSucceeded = false;
-                rec.onStepError(name, actionName, ex);
-                ctx = control.recordError(ctx, ex);
-                if (shortCircuitOnException) {
-                    control.shortCircuit();
-                    log.debug("short-circuit '{}' at {} due to exception", name, actionName, ex);
+                while (phase < PHASES.length) {
+                    RegisteredAction<C>[] steps = plan.phase(PHASES[phase]);
+                    // main: stop when control short-circuits; pre/post always run every action
+                    if (index >= steps.length || (PHASES[phase] == StepPhase.MAIN && control.isShortCircuited())) {
+                        phase++;
+                        index = 0;
+                        continue;
+                    }
+                    RegisteredAction<C> step = steps[index++];
+                    if (!(step.action() instanceof AsyncStepAction<C> asyncAction)) {
+                        ctx = runStep(control, step, ctx);
+                        continue;
+                    }
+                    if (startAsyncStep(asyncAction, step)) return;
                 }
-            } finally {
-                elapsedNanos = System.nanoTime() - actionStartNanos;
-                control.recordTiming(elapsedNanos, actionSucceeded);
-                if (actionSucceeded) {
-                    rec.onStepSuccess(name, actionName, elapsedNanos);
+                // result() notifies the run's listeners, so it must come before endRun() drops them.
+                PipelineResult<C> out = control.result(ctx, control.boundaryNanos);
+                control.endRun();
+                result.complete(out);
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        /** Returns {@code true} when the step is still pending and this run will be resumed by its completion. */
+        private boolean startAsyncStep(AsyncStepAction<C> asyncAction, RegisteredAction<C> step) {
+            long startNanos = enterStep(control, step);
+            CompletionStage<C> stage;
+            try {
+                stage = asyncAction.applyAsync(ctx, control);
+            } catch (Exception ex) {
+                ctx = failStep(control, step, ctx, ex, startNanos);
+                return false;
+            }
+            if (stage == null) {
+                ctx = failStep(control, step, ctx, new IllegalStateException("Async step returned a null stage: " + step.stepName()), startNanos);
+                return false;
+            }
+
+            StepCompletion completion = new StepCompletion(step, startNanos);
+            stage.whenComplete(completion);
+            if (completion.detach()) return true;
+            finishAsyncStep(step, completion.value, completion.failure, startNanos);
+            return false;
+        }
+
+        private void finishAsyncStep(RegisteredAction<C> step, C next, Throwable failure, long startNanos) {
+            Throwable cause = (failure instanceof CompletionException && failure.getCause() != null) ? failure.getCause() : failure;
+            if (cause == null) {
+                ctx = completeStep(control, step, ctx, next, startNanos);
+            } else if (cause instanceof Exception ex) {
+                ctx = failStep(control, step, ctx, ex, startNanos);
+            } else {
+                throw (Error) cause;
+            }
+        }
+
+        private void fail(Throwable t) {
+            control.abortRun(t);
+            control.endRun();
+            result.completeExceptionally(t);
+        }
+
+        /** Hands a stage's outcome either back to the registering thread or, once it has left, to a fresh resume. */
+        private final class StepCompletion implements BiConsumer<C, Throwable> {
+            private static final int REGISTERING = 0;
+            private static final int COMPLETED_INLINE = 1;
+            private static final int DETACHED = 2;
+
+            private final AtomicInteger state = new AtomicInteger(REGISTERING);
+            private final RegisteredAction<C> step;
+            private final long startNanos;
+            private C value;
+            private Throwable failure;
+
+            private StepCompletion(RegisteredAction<C> step, long startNanos) {
+                this.step = step;
+                this.startNanos = startNanos;
+            }
+
+            @Override
+            public void accept(C next, Throwable error) {
+                this.value = next;
+                this.failure = error;
+                if (state.compareAndSet(REGISTERING, COMPLETED_INLINE)) return;
+                try {
+                    finishAsyncStep(step, next, error, startNanos);
+                } catch (Throwable t) {
+                    fail(t);
+                    return;
                 }
+                resume();
             }
 
-            boolean isShortCircuitedNow = control.isShortCircuited();
-            if (!wasShortCircuited && isShortCircuitedNow) {
-                rec.onShortCircuit(name, actionName);
+            private boolean detach() {
+                return state.compareAndSet(REGISTERING, DETACHED);
             }
+        }
+    }
 
-            if (stopOnShortCircuit && isShortCircuitedNow) break;
+    // ---- step boundaries: shared by the interpreted loop above and compiled steps (see CompiledStep) ----
+
+    // One clock read per boundary: a step starts where the previous one ended (see DefaultActionControl#boundaryNanos).
+
+    long enterStep(DefaultActionControl<C> control, RegisteredAction<C> step) {
+        control.beginStep(step);
+        long startNanos = control.boundaryNanos;
+        control.stepStarted(step, startNanos);
+        if (control.sampleResources) control.markResources();
+        return startNanos;
+    }
+
+    C completeStep(DefaultActionControl<C> control, RegisteredAction<C> step, C ctx, C next, long startNanos) {
+        if (next == null) {
+            return failStep(control, step, ctx, nullResult(step), startNanos);
+        }
+        long endNanos = System.nanoTime();
+        return stepSucceeded(control, step, next, endNanos, endNanos - startNanos);
+    }
+
+    C failStep(DefaultActionControl<C> control, RegisteredAction<C> step, C ctx, Exception ex, long startNanos) {
+        return stepFailed(control, step, ctx, ex, startNanos, /*endNanos=*/0L, /*elapsedNanos=*/-1L);
+    }
+
+    private C stepSucceeded(DefaultActionControl<C> control, RegisteredAction<C> step, C next, long endNanos, long elapsedNanos) {
+        control.boundaryNanos = endNanos;
+        control.recordTiming(elapsedNanos, true);
+        control.stepEnded(step, endNanos, elapsedNanos, null);
+        noteShortCircuit(control, step);
+        return next;
+    }
+
+    /** {@code elapsedNanos < 0} means "measure from {@code startNanos} once error handling is done". */
+    private C stepFailed(DefaultActionControl<C> control,
+                         RegisteredAction<C> step,
+                         C ctx,
+                         Exception ex,
+                         long startNanos,
+                         long endNanos,
+                         long elapsedNanos) {
+        C next;
+        try {
+            next = control.recordError(ctx, ex);
+            if (shortCircuitOnException) {
+                control.shortCircuit();
+                log.debug("short-circuit '{}' at {} due to exception", name, step.stepName(), ex);
+            }
+        } finally {
+            if (elapsedNanos < 0) {
+                endNanos = System.nanoTime();
+                elapsedNanos = endNanos - startNanos;
+            }
+            control.boundaryNanos = endNanos;
+            control.recordTiming(elapsedNanos, false);
+        }
+        control.stepEnded(step, endNanos, elapsedNanos, ex);
+        noteShortCircuit(control, step);
+        return next;
+    }
+
+    private static IllegalStateException nullResult(RegisteredAction<?> step) {
+        return new IllegalStateException("Step returned null: " + step.stepName());
+    }
+
+    private void noteShortCircuit(DefaultActionControl<C> control, RegisteredAction<C> step) {
+        if (control.isShortCircuited() && !control.shortCircuitedAtStepStart) {
+            control.stepShortCircuited(step);
         }
-        return ctx;
     }
 
     private static String formatStepName(StepPhase phase, int idx, String labelOrNull) {
@@ -304,13 +773,44 @@ public final class Pipeline<C> {
         return new PoolablePrototype(action, action.getClass(), ActionInvokeStyle.STEP_ACTION);
     }
 
-    private record RegisteredAction<C>(String name, StepAction<C> action) {
-        private RegisteredAction {
+    /**
+     * A registered action plus its position and display name, computed once at registration time. {@code position}
+     * is kept current by {@link ExecutionPlan} as steps are added to earlier phases.
+     */
+    record RegisteredAction<C>(String name,
+                               StepPhase phase,
+                               int index,
+                               int position,
+                               String stepName,
+                               StepAction<C> action,
+                               StepMetersBinding metersBinding) implements StepInfo {
+        RegisteredAction {
+            phase = Objects.requireNonNull(phase, "phase");
+            stepName = Objects.requireNonNull(stepName, "stepName");
             action = Objects.requireNonNull(action, "action");
+            metersBinding = Objects.requireNonNull(metersBinding, "metersBinding");
+        }
+
+        static <C> RegisteredAction<C> named(StepPhase phase, int index, String name, StepAction<C> action) {
+            return new RegisteredAction<>(name, phase, index, index, formatStepName(phase, index, name), action, new StepMetersBinding());
+        }
+
+        /** Same step with a different action; keeps the step's meters. */
+        RegisteredAction<C> withAction(StepAction<C> replacement) {
+            return new RegisteredAction<>(name, phase, index, position, stepName, replacement, metersBinding);
+        }
+
+        RegisteredAction<C> withPosition(int newPosition) {
+            return new RegisteredAction<>(name, phase, index, newPosition, stepName, action, metersBinding);
         }
 
-        static <C> RegisteredAction<C> named(String name, StepAction<C> action) {
-            return new RegisteredAction<>(name, action);
+        StepMeters meters(com.pipeline.metrics.MetricsRecorder recorder, String pipelineName) {
+            return metersBinding.meters(recorder, pipelineName, stepName);
+        }
+
+        @Override
+        public boolean async() {
+            return action instanceof AsyncStepAction;
         }
     }
 
@@ -331,36 +831,151 @@ public final class Pipeline<C> {
         }
     }
 
-    private static final class DefaultActionControl<C> implements ActionControl<C> {
+    static final class DefaultActionControl<C> implements ActionControl<C> {
         private final String pipelineName;
-        private final BiFunction<C, PipelineError, C> onError;
-        private final List<PipelineError> errors = new ArrayList<>();
-        private final List<ActionTiming> actionTimings = new ArrayList<>();
+        private final boolean recycled;
+        private BiFunction<C, PipelineError, C> onError;
+        private RecorderListener recorder;
+        private PipelineListener.RunListener[] extraListeners;
+        private int extraListenerCount;
+        private boolean sampleResources;
+        /** Thread that took the step's starting readings; {@code null} when the current step is not measured. */
+        private Thread resourceThread;
+        private long cpuAtStepStart;
+        private long allocatedAtStepStart;
+        private long stepCpuNanos = -1L;
+        private long stepAllocatedBytes = -1L;
+        private List<PipelineError> errors;
+        private ActionTimingBuffer timings;
+        private PipelineResult<C> recycledResult;
 
         private boolean shortCircuited;
+        private boolean shortCircuitedAtStepStart;
+        private boolean inRun;
 
         private StepPhase phase = StepPhase.MAIN;
         private int index = 0;
         private String stepName = "?";
         private long runStartNanos;
+        /** Clock reading at the latest step boundary (run start, then each step's end). */
+        long boundaryNanos;
 
-        private DefaultActionControl(String pipelineName, BiFunction<C, PipelineError, C> onError) {
+        private DefaultActionControl(String pipelineName, boolean recycled) {
             this.pipelineName = Objects.requireNonNull(pipelineName, "pipelineName");
-            this.onError = Objects.requireNonNull(onError, "onError");
+            this.recycled = recycled;
         }
 
-        private void beginRun(long startNanos) {
+        private void beginRun(long startNanos,
+                              BiFunction<C, PipelineError, C> onError,
+                              RecorderListener recorder,
+                              PipelineListener[] listeners,
+                              int stepCount,
+                              boolean sampleResources) {
+            this.onError = Objects.requireNonNull(onError, "onError");
+            this.recorder = Objects.requireNonNull(recorder, "recorder");
             this.runStartNanos = startNanos;
+            this.boundaryNanos = startNanos;
+            this.sampleResources = sampleResources;
+            this.resourceThread = null;
+            this.extraListenerCount = 0;
+            for (PipelineListener listener : listeners) {
+                PipelineListener.RunListener run = listener.onRunStart(pipelineName, startNanos);
+                if (run == null) continue;
+                if (extraListeners == null || extraListenerCount == extraListeners.length) {
+                    extraListeners = Arrays.copyOf((extraListeners == null) ? new PipelineListener.RunListener[0] : extraListeners,
+                        Math.max(2, extraListenerCount * 2));
+                }
+                extraListeners[extraListenerCount++] = run;
+            }
+            this.shortCircuited = false;
+            this.inRun = true;
+            this.phase = StepPhase.MAIN;
+            this.index = 0;
+            this.stepName = "?";
+            if (errors != null) errors.clear();
+            if (timings == null) timings = new ActionTimingBuffer(stepCount);
+            else timings.reset(stepCount);
         }
 
-        private void beginStep(StepPhase phase, int index, String stepName) {
-            this.phase = Objects.requireNonNull(phase, "phase");
-            this.index = index;
-            this.stepName = Objects.requireNonNull(stepName, "stepName");
+        private void endRun() {
+            this.inRun = false;
+            // Per-run listeners may hold run state; a recycled control must not keep them alive.
+            if (extraListeners != null) Arrays.fill(extraListeners, 0, extraListenerCount, null);
+            this.extraListenerCount = 0;
+        }
+
+        private PipelineResult<C> result(C ctx, long endNanos) {
+            // Every run path (sync, async, batch) ends here exactly once per run.
+            long totalNanos = endNanos - runStartNanos;
+            for (int i = 0; i < extraListenerCount; i++) extraListeners[i].onRunResult(ctx);
+            runEnded(endNanos, totalNanos, (errors == null || errors.isEmpty()) ? null : errors.getFirst().exception());
+            if (!recycled) {
+                return PipelineResult.ofRun(ctx, shortCircuited, recordedErrors(), timings.view(), totalNanos);
+            }
+            if (recycledResult == null) recycledResult = PipelineResult.recycled(timings.view());
+            return recycledResult.refill(ctx, shortCircuited, recordedErrors(), totalNanos);
+        }
+
+        private void beginStep(RegisteredAction<C> step) {
+            this.phase = step.phase();
+            this.index = step.index();
+            this.stepName = step.stepName();
+            this.shortCircuitedAtStepStart = shortCircuited;
+        }
+
+        /** The run failed outside any step (for example an {@code onError} handler returning {@code null}). */
+        private void abortRun(Throwable failure) {
+            long endNanos = System.nanoTime();
+            runEnded(endNanos, endNanos - runStartNanos, failure);
+        }
+
+        private void stepStarted(RegisteredAction<C> step, long startNanos) {
+            recorder.onStepStart(step, startNanos);
+            for (int i = 0; i < extraListenerCount; i++) extraListeners[i].onStepStart(step, startNanos);
+        }
+
+        private void stepEnded(RegisteredAction<C> step, long endNanos, long elapsedNanos, Throwable error) {
+            if (stepCpuNanos >= 0 || stepAllocatedBytes >= 0) {
+                recorder.onStepResources(step, stepCpuNanos, stepAllocatedBytes);
+                for (int i = 0; i < extraListenerCount; i++) extraListeners[i].onStepResources(step, stepCpuNanos, stepAllocatedBytes);
+            }
+            recorder.onStepEnd(step, endNanos, elapsedNanos, error);
+            for (int i = 0; i < extraListenerCount; i++) extraListeners[i].onStepEnd(step, endNanos, elapsedNanos, error);
+        }
+
+        private void stepShortCircuited(RegisteredAction<C> step) {
+            recorder.onShortCircuit(step);
+            for (int i = 0; i < extraListenerCount; i++) extraListeners[i].onShortCircuit(step);
+        }
+
+        private void runEnded(long endNanos, long totalNanos, Throwable error) {
+            recorder.onRunEnd(endNanos, totalNanos, error);
+            for (int i = 0; i < extraListenerCount; i++) extraListeners[i].onRunEnd(endNanos, totalNanos, error);
+        }
+
+        /** Starting readings for a sampled step; the step must end on this thread to be measured. */
+        private void markResources() {
+            resourceThread = Thread.currentThread();
+            cpuAtStepStart = ResourceSampler.cpuNanos();
+            allocatedAtStepStart = ResourceSampler.allocatedBytes();
         }
 
         private void recordTiming(long elapsedNanos, boolean success) {
-            actionTimings.add(new ActionTiming(phase, index, stepName, elapsedNanos, success));
+            stepCpuNanos = -1L;
+            stepAllocatedBytes = -1L;
+            if (resourceThread != null) {
+                if (resourceThread == Thread.currentThread()) {
+                    if (cpuAtStepStart >= 0) stepCpuNanos = ResourceSampler.cpuNanos() - cpuAtStepStart;
+                    if (allocatedAtStepStart >= 0) stepAllocatedBytes = ResourceSampler.allocatedBytes() - allocatedAtStepStart;
+                }
+                resourceThread = null;
+            }
+            timings.add(phase, index, stepName, elapsedNanos, success, stepCpuNanos, stepAllocatedBytes);
+        }
+
+        /** Errors recorded so far, without copying; {@link PipelineResult} takes its own copy. */
+        private List<PipelineError> recordedErrors() {
+            return (errors == null) ? List.of() : errors;
         }
 
         @Override
@@ -376,6 +991,7 @@ public final class Pipeline<C> {
         @Override
         public C recordError(C ctx, Exception exception) {
             PipelineError err = new PipelineError(pipelineName, phase, index, stepName, exception);
+            if (errors == null) errors = new ArrayList<>();
             errors.add(err);
             C next = onError.apply(ctx, err);
             if (next == null) throw new IllegalStateException("onError returned null");
@@ -384,7 +1000,7 @@ public final class Pipeline<C> {
 
         @Override
         public List<PipelineError> errors() {
-            return List.copyOf(errors);
+            return List.copyOf(recordedErrors());
         }
 
         @Override
@@ -399,7 +1015,46 @@ public final class Pipeline<C> {
 
         @Override
         public List<ActionTiming> actionTimings() {
-            return List.copyOf(actionTimings);
+            return timings.view(timings.size());
+        }
+
+        @Override
+        public int errorCount() {
+            return (errors == null) ? 0 : errors.size();
+        }
+
+        @Override
+        public int actionTimingCount() {
+            return timings.size();
+        }
+
+        @Override
+        public StepPhase actionPhase(int position) {
+            return timings.phase(checkTiming(position));
+        }
+
+        @Override
+        public int actionIndex(int position) {
+            return timings.index(checkTiming(position));
+        }
+
+        @Override
+        public String actionName(int position) {
+            return timings.name(checkTiming(position));
+        }
+
+        @Override
+        public long actionElapsedNanos(int position) {
+            return timings.elapsedNanos(checkTiming(position));
+        }
+
+        @Override
+        public boolean actionSucceeded(int position) {
+            return timings.success(checkTiming(position));
+        }
+
+        private int checkTiming(int position) {
+            return Objects.checkIndex(position, timings.size());
         }
     }
 }
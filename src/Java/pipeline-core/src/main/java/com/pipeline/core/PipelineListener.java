@@ -0,0 +1,44 @@
+package com.pipeline.core;
+
+/**
+ * Observer of run and step boundaries. The engine reads the clock once per boundary and hands that timestamp to
+ * every listener, so listeners never time steps themselves; a step starts at the instant the previous one ended.
+ *
+ * <p>{@code Metrics.recorder()} and the api's {@code core.metrics.Metrics} are both adapters on top of this SPI.
+ * Callbacks run on the thread driving the run and must not block.
+ */
+public interface PipelineListener {
+  /** Start of a run. Returns the listener for that run's events, or {@code null} to skip the run entirely. */
+  RunListener onRunStart(String pipeline, long startNanos);
+
+  /** Notifies {@code listeners} in order; a run they all sit out yields {@code null} as well. */
+  static PipelineListener of(PipelineListener... listeners) {
+    return CompositeListener.of(listeners);
+  }
+
+  /** Events of a single run, delivered in order. */
+  interface RunListener {
+    default void onStepStart(StepInfo step, long startNanos) {}
+
+    /**
+     * CPU time and allocated bytes of a step in a run sampled by {@link Pipeline#sampleResources(double)}, raised
+     * just before its {@link #onStepEnd}; either is {@code -1} when it could not be measured.
+     */
+    default void onStepResources(StepInfo step, long cpuNanos, long allocatedBytes) {}
+
+    /** {@code error} is {@code null} when the step succeeded. */
+    default void onStepEnd(StepInfo step, long endNanos, long elapsedNanos, Throwable error) {}
+
+    /** {@code step} short-circuited the run. */
+    default void onShortCircuit(StepInfo step) {}
+
+    /** Only raised by engines that support jumps. */
+    default void onJump(StepInfo from, StepInfo to, long delayMillis) {}
+
+    /** Final context (or typed output) of a run that produced one; raised just before {@link #onRunEnd}. */
+    default void onRunResult(Object result) {}
+
+    /** {@code error} is the first step error, or what aborted the run; {@code null} for a clean run. */
+    default void onRunEnd(long endNanos, long elapsedNanos, Throwable error) {}
+  }
+}
@@ -3,20 +3,116 @@ package com.pipeline.core;
 import java.util.List;
 import java.util.Objects;
 
-public record PipelineResult<C>(
-    C context,
-    boolean shortCircuited,
-    List<PipelineError> errors,
-    List<ActionTiming> actionTimings,
-    long totalNanos
-) {
-  public PipelineResult {
-    context = Objects.requireNonNull(context, "context");
-    errors = List.copyOf(Objects.requireNonNull(errors, "errors"));
-    actionTimings = List.copyOf(Objects.requireNonNull(actionTimings, "actionTimings"));
+/**
+ * Outcome of a single {@link Pipeline#run(Object)}: an immutable value with record-style accessors and value-based
+ * {@code equals}/{@code hashCode}. The public constructor copies the lists it is given.
+ *
+ * <p>{@code actionTimings} is a lazy view over the run's primitive timing buffer when produced by the engine;
+ * records are materialized on access. The buffer belongs to that run alone and is never written again.
+ *
+ * <p>The one exception is opt-in: for pipelines with {@link Pipeline#recycleRunState(boolean) recycled run state},
+ * the engine hands out one result instance per thread and refills it on every run, so such a result (and its timing
+ * view) is only valid until the next run of the same pipeline on the same thread. Because its state changes, a
+ * recycled result compares by identity; copy it with the public constructor to keep it.
+ */
+public final class PipelineResult<C> {
+  private final boolean recycled;
+  private C context;
+  private boolean shortCircuited;
+  private List<PipelineError> errors;
+  private List<ActionTiming> actionTimings;
+  private long totalNanos;
+
+  public PipelineResult(
+      C context,
+      boolean shortCircuited,
+      List<PipelineError> errors,
+      List<ActionTiming> actionTimings,
+      long totalNanos
+  ) {
+    this(false, List.copyOf(Objects.requireNonNull(actionTimings, "actionTimings")));
+    fill(context, shortCircuited, errors, totalNanos);
+  }
+
+  private PipelineResult(boolean recycled, List<ActionTiming> actionTimings) {
+    this.recycled = recycled;
+    this.errors = List.of();
+    this.actionTimings = actionTimings;
+  }
+
+  /** Engine result of a fresh run, adopting the run's own timing view without copying it. */
+  static <C> PipelineResult<C> ofRun(C context, boolean shortCircuited, List<PipelineError> errors,
+                                     List<ActionTiming> timingView, long totalNanos) {
+    PipelineResult<C> result = new PipelineResult<>(false, Objects.requireNonNull(timingView, "timingView"));
+    result.fill(context, shortCircuited, errors, totalNanos);
+    return result;
+  }
+
+  /** Engine-owned result bound to a recycled timing view; see {@link #refill}. */
+  static <C> PipelineResult<C> recycled(List<ActionTiming> timingView) {
+    return new PipelineResult<>(true, Objects.requireNonNull(timingView, "timingView"));
+  }
+
+  /** Reuses this instance for the next run on the owning thread (recycled results only). */
+  PipelineResult<C> refill(C context, boolean shortCircuited, List<PipelineError> errors, long totalNanos) {
+    fill(context, shortCircuited, errors, totalNanos);
+    return this;
+  }
+
+  private void fill(C context, boolean shortCircuited, List<PipelineError> errors, long totalNanos) {
+    this.context = Objects.requireNonNull(context, "context");
+    this.shortCircuited = shortCircuited;
+    this.errors = List.copyOf(Objects.requireNonNull(errors, "errors"));
+    this.totalNanos = totalNanos;
+  }
+
+  public C context() {
+    return context;
+  }
+
+  public boolean shortCircuited() {
+    return shortCircuited;
+  }
+
+  public List<PipelineError> errors() {
+    return errors;
+  }
+
+  public List<ActionTiming> actionTimings() {
+    return actionTimings;
+  }
+
+  public long totalNanos() {
+    return totalNanos;
   }
 
   public boolean hasErrors() {
     return !errors.isEmpty();
   }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) return true;
+    if (!(other instanceof PipelineResult<?> that) || recycled || that.recycled) return false;
+    return shortCircuited == that.shortCircuited
+        && totalNanos == that.totalNanos
+        && context.equals(that.context)
+        && errors.equals(that.errors)
+        && actionTimings.equals(that.actionTimings);
+  }
+
+  @Override
+  public int hashCode() {
+    if (recycled) return System.identityHashCode(this);
+    return Objects.hash(context, shortCircuited, errors, actionTimings, totalNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "PipelineResult[context=" + context
+        + ", shortCircuited=" + shortCircuited
+        + ", errors=" + errors
+        + ", actionTimings=" + actionTimings
+        + ", totalNanos=" + totalNanos + "]";
+  }
 }
@@ -14,6 +14,11 @@ public final class PooledAction<C> implements StepAction<C> {
         this.actionReference = Objects.requireNonNull(actionReference, "actionReference");
     }
 
+    /** Borrow-wait, in-use, created and evicted counters of the backing pool. */
+    public ActionPoolStats poolStats() {
+        return pool.stats();
+    }
+
     @Override
     public C apply(C ctx, ActionControl<C> control) {
         Object instance = pool.borrow();
@@ -0,0 +1,48 @@
+package com.pipeline.core;
+
+import com.pipeline.metrics.MetricsRecorder;
+
+/**
+ * Feeds a {@link MetricsRecorder} from step boundaries through each step's bound {@code StepMeters}. Stateless per
+ * run, so it serves as its own {@link PipelineListener.RunListener}.
+ */
+final class RecorderListener implements PipelineListener, PipelineListener.RunListener {
+    private final MetricsRecorder recorder;
+    private final String pipeline;
+
+    RecorderListener(MetricsRecorder recorder, String pipeline) {
+        this.recorder = recorder;
+        this.pipeline = pipeline;
+    }
+
+    MetricsRecorder recorder() {
+        return recorder;
+    }
+
+    @Override
+    public RunListener onRunStart(String pipelineName, long startNanos) {
+        return this;
+    }
+
+    @Override
+    public void onStepResources(StepInfo step, long cpuNanos, long allocatedBytes) {
+        if (step instanceof Pipeline.RegisteredAction<?> action) action.meters(recorder, pipeline).onResources(cpuNanos, allocatedBytes);
+    }
+
+    @Override
+    public void onStepEnd(StepInfo step, long endNanos, long elapsedNanos, Throwable error) {
+        if (!(step instanceof Pipeline.RegisteredAction<?> action)) return;
+        if (error == null) action.meters(recorder, pipeline).onSuccess(elapsedNanos);
+        else action.meters(recorder, pipeline).onError(error);
+    }
+
+    @Override
+    public void onShortCircuit(StepInfo step) {
+        if (step instanceof Pipeline.RegisteredAction<?> action) action.meters(recorder, pipeline).onShortCircuit();
+    }
+
+    @Override
+    public void onRunEnd(long endNanos, long elapsedNanos, Throwable error) {
+        recorder.onPipelineRun(pipeline, elapsedNanos, error == null);
+    }
+}
@@ -0,0 +1,48 @@
+package com.pipeline.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the current thread's CPU time and allocated bytes for runs sampled by
+ * {@link Pipeline#sampleResources(double)}. Either reading is {@code -1} where the JVM cannot provide it, including
+ * on virtual threads.
+ */
+final class ResourceSampler {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean EXTENDED =
+        (THREADS instanceof com.sun.management.ThreadMXBean extended) ? extended : null;
+    private static final boolean CPU = cpuTimeEnabled();
+    private static final boolean ALLOCATION = allocationEnabled();
+
+    /** Whether sampling can produce anything at all on this JVM. */
+    static final boolean SUPPORTED = CPU || ALLOCATION;
+
+    private ResourceSampler() {}
+
+    static long cpuNanos() {
+        if (!CPU || Thread.currentThread().isVirtual()) return -1L;
+        return THREADS.getCurrentThreadCpuTime();
+    }
+
+    static long allocatedBytes() {
+        if (!ALLOCATION || Thread.currentThread().isVirtual()) return -1L;
+        return EXTENDED.getCurrentThreadAllocatedBytes();
+    }
+
+    private static boolean cpuTimeEnabled() {
+        try {
+            return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+        } catch (UnsupportedOperationException unsupported) {
+            return false;
+        }
+    }
+
+    private static boolean allocationEnabled() {
+        try {
+            return EXTENDED != null && EXTENDED.isThreadAllocatedMemorySupported() && EXTENDED.isThreadAllocatedMemoryEnabled();
+        } catch (UnsupportedOperationException unsupported) {
+            return false;
+        }
+    }
+}
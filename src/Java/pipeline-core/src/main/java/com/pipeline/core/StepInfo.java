@@ -0,0 +1,23 @@
+package com.pipeline.core;
+
+/** Identity of one step as reported to {@link PipelineListener}s. */
+public interface StepInfo {
+  StepPhase phase();
+
+  /** Position within {@link #phase()}. */
+  int index();
+
+  /** Position in run order across all phases, pre-actions first. */
+  int position();
+
+  /** Label given at registration; may be {@code null}. */
+  String name();
+
+  /** Display name such as {@code s2:validate}. */
+  String stepName();
+
+  /** Whether the step is an {@link AsyncStepAction}, whose run may continue on another thread than it started on. */
+  default boolean async() {
+    return false;
+  }
+}
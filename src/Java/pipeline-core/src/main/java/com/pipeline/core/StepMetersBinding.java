@@ -0,0 +1,24 @@
+package com.pipeline.core;
+
+import com.pipeline.metrics.MetricsRecorder;
+import com.pipeline.metrics.StepMeters;
+
+/**
+ * One step's {@link StepMeters}, bound for whichever recorder was current when the step last recorded. The pipeline
+ * rebinds only when {@code Metrics.setRecorder} swaps the recorder, so steady-state recording is one volatile read
+ * and an identity check.
+ */
+final class StepMetersBinding {
+    private volatile Bound bound;
+
+    StepMeters meters(MetricsRecorder recorder, String pipeline, String stepName) {
+        Bound current = bound;
+        if (current != null && current.recorder == recorder) return current.meters;
+        // Racing threads may each bind; recorders return equivalent handles for the same step.
+        StepMeters meters = recorder.bind(pipeline, stepName);
+        bound = new Bound(recorder, meters);
+        return meters;
+    }
+
+    private record Bound(MetricsRecorder recorder, StepMeters meters) {}
+}
@@ -0,0 +1,129 @@
+package com.pipeline.core.actions;
+
+import com.pipeline.core.ActionControl;
+import com.pipeline.core.StepAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Post action that folds every run into preallocated per-action totals and hands the sink one {@link MetricsWindow}
+ * every {@code everyRuns} runs or {@code every} elapsed, whichever comes first. Unlike {@link MetricsOutputAction},
+ * a run builds no maps and boxes nothing: timings are read through {@link ActionControl}'s positional accessors.
+ *
+ * <p>Concurrent runs serialize briefly on the accumulator. Windows are double-buffered, so the sink runs outside that
+ * lock while the next window fills; if the sink is still busy when another window is due, the current one keeps
+ * accumulating. The time trigger is checked when a run ends; call {@link #flush()} to emit a quiet pipeline's
+ * window. Use one instance per pipeline.
+ */
+public final class AggregatingMetricsAction<C> implements StepAction<C> {
+  private static final Logger log = LoggerFactory.getLogger(AggregatingMetricsAction.class);
+
+  private final LongSupplier nanoClock;
+  private final Consumer<MetricsWindow> sink;
+  private final long everyRuns;
+  private final long everyNanos;
+  private final ReentrantLock lock = new ReentrantLock(); // not synchronized: the sink may block on virtual threads
+
+  // Guarded by lock.
+  private MetricsWindow active;
+  private MetricsWindow spare;
+
+  /** Logs each window's {@link MetricsWindow#toMap()} at INFO every 10,000 runs or 10 seconds. */
+  public AggregatingMetricsAction() {
+    this("Metrics", 10_000, Duration.ofSeconds(10), window -> {
+      if (log.isInfoEnabled()) log.info("{}", window.toMap());
+    });
+  }
+
+  public AggregatingMetricsAction(long everyRuns, Duration every, Consumer<MetricsWindow> sink) {
+    this("Metrics", everyRuns, every, sink);
+  }
+
+  public AggregatingMetricsAction(String name, long everyRuns, Duration every, Consumer<MetricsWindow> sink) {
+    this(name, everyRuns, every, System::nanoTime, sink);
+  }
+
+  /**
+   * @param everyRuns emit after this many runs; 0 disables the count trigger
+   * @param every emit once this much time has passed since the window started; {@code null} or zero disables it
+   */
+  public AggregatingMetricsAction(String name, long everyRuns, Duration every, LongSupplier nanoClock,
+                                  Consumer<MetricsWindow> sink) {
+    Objects.requireNonNull(name, "name");
+    if (everyRuns < 0) throw new IllegalArgumentException("everyRuns must be >= 0");
+    long nanos = (every == null) ? 0L : every.toNanos();
+    if (nanos < 0) throw new IllegalArgumentException("every must not be negative");
+    if (everyRuns == 0 && nanos == 0) throw new IllegalArgumentException("either everyRuns or every must be set");
+    this.everyRuns = everyRuns;
+    this.everyNanos = nanos;
+    this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+    this.sink = Objects.requireNonNull(sink, "sink");
+    long now = nanoClock.getAsLong();
+    this.active = new MetricsWindow(name);
+    this.spare = new MetricsWindow(name);
+    active.reset(now);
+  }
+
+  @Override
+  public C apply(C ctx, ActionControl<C> control) {
+    long nowNanos = nanoClock.getAsLong();
+    long startNanos = control.runStartNanos();
+    long runNanos = (startNanos == 0L) ? 0L : nowNanos - startNanos;
+    MetricsWindow due;
+    lock.lock();
+    try {
+      active.addRun(control, runNanos);
+      due = rotateIfDue(nowNanos, false);
+    } finally {
+      lock.unlock();
+    }
+    if (due != null) emit(due);
+    return ctx;
+  }
+
+  /** Emits the current window now if it holds any runs (for example before shutdown). */
+  public void flush() {
+    MetricsWindow due;
+    lock.lock();
+    try {
+      due = rotateIfDue(nanoClock.getAsLong(), true);
+    } finally {
+      lock.unlock();
+    }
+    if (due != null) emit(due);
+  }
+
+  /** Swaps in the spare window when a trigger fired and the sink is idle; returns the window to emit. */
+  private MetricsWindow rotateIfDue(long nowNanos, boolean force) {
+    MetricsWindow current = active;
+    if (current.runs() == 0 || spare == null) return null;
+    boolean due = force
+        || (everyRuns > 0 && current.runs() >= everyRuns)
+        || (everyNanos > 0 && nowNanos - current.startNanos() >= everyNanos);
+    if (!due) return null;
+    current.setEndNanos(nowNanos);
+    active = spare;
+    active.resetAfter(current, nowNanos);
+    spare = null; // the sink owns `current` until emit hands it back
+    return current;
+  }
+
+  private void emit(MetricsWindow window) {
+    try {
+      sink.accept(window);
+    } finally {
+      lock.lock();
+      try {
+        spare = window;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
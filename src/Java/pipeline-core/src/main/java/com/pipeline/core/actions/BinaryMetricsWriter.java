@@ -0,0 +1,141 @@
+package com.pipeline.core.actions;
+
+import com.pipeline.core.StepPhase;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * {@link AggregatingMetricsAction} sink that appends each window to a channel (typically a {@code FileChannel}) as
+ * one length-prefixed binary record, big-endian:
+ *
+ * <pre>
+ * int   length of the rest of the record
+ * int   magic 0x50534D57 ("PSMW"), short version (1), short action count
+ * long  startNanos, endNanos, runs, shortCircuitedRuns, failedRuns, runTotalNanos, runMaxNanos
+ * str   name, pipeline                       (str = unsigned short byte length + UTF-8 bytes)
+ * per action:
+ *   byte phase ordinal, int index, str name, long calls, errors, totalNanos, maxNanos
+ * </pre>
+ *
+ * Records are encoded into a reused buffer and names are encoded once, so steady-state writes allocate nothing.
+ * Read records back with {@link #read(ByteBuffer)}. Not thread-safe; one action's windows arrive one at a time.
+ */
+public final class BinaryMetricsWriter implements Consumer<MetricsWindow>, AutoCloseable {
+  public static final int MAGIC = 0x50534D57;
+  public static final short VERSION = 1;
+
+  private static final int FIXED_BYTES = 4 + 2 + 2 + 7 * 8;
+  private static final int ACTION_FIXED_BYTES = 1 + 4 + 4 * 8;
+  private static final StepPhase[] PHASES = StepPhase.values();
+
+  private final WritableByteChannel channel;
+  private ByteBuffer buffer = ByteBuffer.allocate(1024);
+  // Encoded names by position: 0 is the window name, 1 the pipeline, 2.. the actions.
+  private String[] encodedFrom = new String[16];
+  private byte[][] encoded = new byte[16][];
+
+  public BinaryMetricsWriter(WritableByteChannel channel) {
+    this.channel = Objects.requireNonNull(channel, "channel");
+  }
+
+  @Override
+  public void accept(MetricsWindow window) {
+    int actions = window.actionCount();
+    if (actions > 0xFFFF) throw new IllegalStateException("too many actions for one record: " + actions);
+    byte[] name = utf8(0, window.name());
+    byte[] pipeline = utf8(1, window.pipeline());
+    int length = FIXED_BYTES + 2 + name.length + 2 + pipeline.length;
+    for (int i = 0; i < actions; i++) length += ACTION_FIXED_BYTES + 2 + utf8(i + 2, window.actionName(i)).length;
+
+    ByteBuffer out = buffer(4 + length);
+    out.putInt(length).putInt(MAGIC).putShort(VERSION).putShort((short) actions);
+    out.putLong(window.startNanos()).putLong(window.endNanos()).putLong(window.runs())
+        .putLong(window.shortCircuitedRuns()).putLong(window.failedRuns())
+        .putLong(window.runTotalNanos()).putLong(window.runMaxNanos());
+    putString(out, name);
+    putString(out, pipeline);
+    for (int i = 0; i < actions; i++) {
+      out.put((byte) window.phase(i).ordinal()).putInt(window.index(i));
+      putString(out, encoded[i + 2]);
+      out.putLong(window.calls(i)).putLong(window.errors(i)).putLong(window.totalNanos(i)).putLong(window.maxNanos(i));
+    }
+    out.flip();
+    try {
+      while (out.hasRemaining()) channel.write(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Decodes the record at {@code in}'s position (length prefix included) and advances past it; returns {@code null}
+   * when fewer bytes than a whole record remain.
+   */
+  public static MetricsWindow read(ByteBuffer in) {
+    if (in.remaining() < 4 || in.remaining() < 4 + in.getInt(in.position())) return null;
+    in.getInt();
+    if (in.getInt() != MAGIC) throw new IllegalArgumentException("not a metrics window record");
+    short version = in.getShort();
+    if (version != VERSION) throw new IllegalArgumentException("unsupported record version " + version);
+    int actions = Short.toUnsignedInt(in.getShort());
+    long start = in.getLong();
+    long end = in.getLong();
+    long runs = in.getLong();
+    long shortCircuited = in.getLong();
+    long failed = in.getLong();
+    long runTotal = in.getLong();
+    long runMax = in.getLong();
+    String name = getString(in);
+    MetricsWindow window = new MetricsWindow(name);
+    window.load(name, getString(in), start, end, runs, shortCircuited, failed, runTotal, runMax);
+    for (int i = 0; i < actions; i++) {
+      StepPhase phase = PHASES[in.get()];
+      int index = in.getInt();
+      String actionName = getString(in);
+      window.loadAction(phase, index, actionName, in.getLong(), in.getLong(), in.getLong(), in.getLong());
+    }
+    return window;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /** UTF-8 of {@code s}, re-encoded only when the string at {@code slot} changed. */
+  private byte[] utf8(int slot, String s) {
+    if (slot >= encoded.length) {
+      encodedFrom = Arrays.copyOf(encodedFrom, Math.max(slot + 1, encoded.length * 2));
+      encoded = Arrays.copyOf(encoded, encodedFrom.length);
+    }
+    if (encodedFrom[slot] != s) {
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      if (bytes.length > 0xFFFF) throw new IllegalArgumentException("name longer than 65535 bytes");
+      encoded[slot] = bytes;
+      encodedFrom[slot] = s;
+    }
+    return encoded[slot];
+  }
+
+  private ByteBuffer buffer(int capacity) {
+    if (buffer.capacity() < capacity) buffer = ByteBuffer.allocate(Math.max(capacity, buffer.capacity() * 2));
+    return buffer.clear();
+  }
+
+  private static void putString(ByteBuffer out, byte[] bytes) {
+    out.putShort((short) bytes.length).put(bytes);
+  }
+
+  private static String getString(ByteBuffer in) {
+    byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
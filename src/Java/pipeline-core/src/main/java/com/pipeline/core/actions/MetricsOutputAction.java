@@ -13,6 +13,9 @@ import java.util.function.LongSupplier;
 /**
  * Minimal out-of-the-box metrics as a post action (UBS-style):
  * measure per-action timings and emit a single metrics map to a sink.
+ *
+ * <p>Builds the maps on every run; for high-throughput pipelines use {@link AggregatingMetricsAction}, which emits
+ * periodic summaries instead.
  */
 public final class MetricsOutputAction<C> implements StepAction<C> {
   private final String name;
@@ -0,0 +1,201 @@
+package com.pipeline.core.actions;
+
+import com.pipeline.core.ActionControl;
+import com.pipeline.core.StepPhase;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Run and per-action totals accumulated by {@link AggregatingMetricsAction} over one emission window.
+ *
+ * <p>Actions are numbered in the order they were first seen and keep their position across windows, so an action
+ * that did not run in a window reports zero calls. Instances are reused: a sink must read a window before returning
+ * and must not keep it.
+ */
+public final class MetricsWindow {
+  private static final int PHASES = StepPhase.values().length;
+  private static final double NANOS_PER_MS = 1_000_000.0;
+
+  private String name;
+  private String pipeline = "";
+  private long startNanos;
+  private long endNanos;
+  private long runs;
+  private long shortCircuitedRuns;
+  private long failedRuns;
+  private long runTotalNanos;
+  private long runMaxNanos;
+
+  private int actionCount;
+  private StepPhase[] phases = new StepPhase[8];
+  private int[] indices = new int[8];
+  private String[] names = new String[8];
+  private long[] calls = new long[8];
+  private long[] errors = new long[8];
+  private long[] totalNanos = new long[8];
+  private long[] maxNanos = new long[8];
+  /** Position + 1 of each action keyed by {@code index * PHASES + phase}; 0 when not seen yet. */
+  private int[] positionByKey = new int[8 * PHASES];
+
+  MetricsWindow(String name) {
+    this.name = name;
+  }
+
+  public String name() { return name; }
+  public String pipeline() { return pipeline; }
+  public long startNanos() { return startNanos; }
+  public long endNanos() { return endNanos; }
+  public long runs() { return runs; }
+  public long shortCircuitedRuns() { return shortCircuitedRuns; }
+  /** Runs that recorded at least one error. */
+  public long failedRuns() { return failedRuns; }
+  public long runTotalNanos() { return runTotalNanos; }
+  public long runMaxNanos() { return runMaxNanos; }
+
+  public int actionCount() { return actionCount; }
+  public StepPhase phase(int action) { return phases[Objects.checkIndex(action, actionCount)]; }
+  public int index(int action) { return indices[Objects.checkIndex(action, actionCount)]; }
+  public String actionName(int action) { return names[Objects.checkIndex(action, actionCount)]; }
+  public long calls(int action) { return calls[Objects.checkIndex(action, actionCount)]; }
+  /** Calls that did not succeed. */
+  public long errors(int action) { return errors[Objects.checkIndex(action, actionCount)]; }
+  public long totalNanos(int action) { return totalNanos[Objects.checkIndex(action, actionCount)]; }
+  public long maxNanos(int action) { return maxNanos[Objects.checkIndex(action, actionCount)]; }
+
+  /**
+   * The window as nested maps in the spirit of {@link MetricsOutputAction}: run totals plus an {@code actions} map of
+   * per-action {@code calls}, {@code errors}, {@code meanLatencyMs} and {@code maxLatencyMs}, keyed by action name.
+   */
+  public Map<String, Object> toMap() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("name", name);
+    map.put("pipeline", pipeline);
+    map.put("windowMs", (endNanos - startNanos) / NANOS_PER_MS);
+    map.put("runs", runs);
+    map.put("shortCircuitedRuns", shortCircuitedRuns);
+    map.put("failedRuns", failedRuns);
+    map.put("meanPipelineLatencyMs", mean(runTotalNanos, runs));
+    map.put("maxPipelineLatencyMs", runMaxNanos / NANOS_PER_MS);
+    Map<String, Map<String, Object>> actions = new LinkedHashMap<>();
+    for (int i = 0; i < actionCount; i++) {
+      Map<String, Object> action = new LinkedHashMap<>();
+      action.put("calls", calls[i]);
+      action.put("errors", errors[i]);
+      action.put("meanLatencyMs", mean(totalNanos[i], calls[i]));
+      action.put("maxLatencyMs", maxNanos[i] / NANOS_PER_MS);
+      actions.put(names[i], action);
+    }
+    map.put("actions", actions);
+    return map;
+  }
+
+  @Override
+  public String toString() {
+    return toMap().toString();
+  }
+
+  /** Zeroes every counter and starts a window at {@code nowNanos}; known actions keep their positions. */
+  void reset(long nowNanos) {
+    startNanos = nowNanos;
+    endNanos = nowNanos;
+    runs = 0;
+    shortCircuitedRuns = 0;
+    failedRuns = 0;
+    runTotalNanos = 0;
+    runMaxNanos = 0;
+    Arrays.fill(calls, 0, actionCount, 0L);
+    Arrays.fill(errors, 0, actionCount, 0L);
+    Arrays.fill(totalNanos, 0, actionCount, 0L);
+    Arrays.fill(maxNanos, 0, actionCount, 0L);
+  }
+
+  /**
+   * Like {@link #reset}, after first numbering the actions {@code previous} saw since this window last filled. The
+   * two windows of {@link AggregatingMetricsAction} take turns and each starts from the other's layout, so this one's
+   * actions are always a prefix of {@code previous}'s and positions stay the same in every window.
+   */
+  void resetAfter(MetricsWindow previous, long nowNanos) {
+    for (int p = actionCount; p < previous.actionCount; p++) {
+      position(previous.phases[p], previous.indices[p], previous.names[p]);
+    }
+    reset(nowNanos);
+  }
+
+  /** Adds one run; allocates only when an action is seen for the first time. */
+  void addRun(ActionControl<?> control, long runNanos) {
+    if (runs == 0) pipeline = control.pipelineName();
+    runs++;
+    if (control.isShortCircuited()) shortCircuitedRuns++;
+    if (control.errorCount() > 0) failedRuns++;
+    runTotalNanos += runNanos;
+    if (runNanos > runMaxNanos) runMaxNanos = runNanos;
+    int count = control.actionTimingCount();
+    for (int t = 0; t < count; t++) {
+      int action = position(control.actionPhase(t), control.actionIndex(t), control.actionName(t));
+      long elapsed = control.actionElapsedNanos(t);
+      calls[action]++;
+      if (!control.actionSucceeded(t)) errors[action]++;
+      totalNanos[action] += elapsed;
+      if (elapsed > maxNanos[action]) maxNanos[action] = elapsed;
+    }
+  }
+
+  void setEndNanos(long nowNanos) {
+    endNanos = nowNanos;
+  }
+
+  /** Refills this window from decoded values; see {@link BinaryMetricsWriter#read}. */
+  void load(String name, String pipeline, long startNanos, long endNanos, long runs, long shortCircuitedRuns,
+            long failedRuns, long runTotalNanos, long runMaxNanos) {
+    this.name = name;
+    this.pipeline = pipeline;
+    this.startNanos = startNanos;
+    this.endNanos = endNanos;
+    this.runs = runs;
+    this.shortCircuitedRuns = shortCircuitedRuns;
+    this.failedRuns = failedRuns;
+    this.runTotalNanos = runTotalNanos;
+    this.runMaxNanos = runMaxNanos;
+  }
+
+  void loadAction(StepPhase phase, int index, String actionName, long calls, long errors, long totalNanos,
+                  long maxNanos) {
+    int action = position(phase, index, actionName);
+    this.calls[action] = calls;
+    this.errors[action] = errors;
+    this.totalNanos[action] = totalNanos;
+    this.maxNanos[action] = maxNanos;
+  }
+
+  private int position(StepPhase phase, int index, String actionName) {
+    int key = index * PHASES + phase.ordinal();
+    if (key >= positionByKey.length) positionByKey = Arrays.copyOf(positionByKey, Math.max(key + 1, positionByKey.length * 2));
+    int position = positionByKey[key] - 1;
+    if (position >= 0) return position;
+    if (actionCount == phases.length) grow();
+    position = actionCount++;
+    phases[position] = phase;
+    indices[position] = index;
+    names[position] = actionName;
+    positionByKey[key] = position + 1;
+    return position;
+  }
+
+  private void grow() {
+    int capacity = phases.length * 2;
+    phases = Arrays.copyOf(phases, capacity);
+    indices = Arrays.copyOf(indices, capacity);
+    names = Arrays.copyOf(names, capacity);
+    calls = Arrays.copyOf(calls, capacity);
+    errors = Arrays.copyOf(errors, capacity);
+    totalNanos = Arrays.copyOf(totalNanos, capacity);
+    maxNanos = Arrays.copyOf(maxNanos, capacity);
+  }
+
+  private static double mean(long total, long count) {
+    return (count == 0) ? 0.0 : total / (double) count / NANOS_PER_MS;
+  }
+}
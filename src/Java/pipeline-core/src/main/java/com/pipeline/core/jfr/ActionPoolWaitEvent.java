@@ -0,0 +1,35 @@
+package com.pipeline.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A borrow that found its action pool exhausted and had to wait (or grow the pool). */
+@Name("com.pipeline.ActionPoolWait")
+@Label("Action Pool Wait")
+@Category("Pipeline Services")
+@Description("Borrow from an exhausted ActionPool")
+public final class ActionPoolWaitEvent extends Event {
+    @Label("Outcome")
+    @Description("acquired, grown, timeout or failed")
+    String outcome;
+
+    @Label("Pool Max")
+    int poolMax;
+
+    @Label("Created")
+    @Description("Live instances when the wait ended")
+    int created;
+
+    /** Ends the wait and commits it if the event is enabled and over its threshold. */
+    public void complete(String outcome, int poolMax, int created) {
+        end();
+        if (!shouldCommit()) return;
+        this.outcome = outcome;
+        this.poolMax = poolMax;
+        this.created = created;
+        commit();
+    }
+}
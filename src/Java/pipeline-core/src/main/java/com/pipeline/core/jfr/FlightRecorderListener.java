@@ -0,0 +1,121 @@
+package com.pipeline.core.jfr;
+
+import com.pipeline.core.PipelineListener;
+import com.pipeline.core.StepInfo;
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+/**
+ * Turns run and step boundaries into JFR events. Runs are only observed while a recording has at least one of the
+ * run, step, jump or short-circuit events enabled; otherwise {@link #onRunStart} returns {@code null} and the run
+ * pays three flag reads.
+ */
+public final class FlightRecorderListener implements PipelineListener {
+    public static final FlightRecorderListener INSTANCE = new FlightRecorderListener();
+
+    private static final EventType RUN = EventType.getEventType(PipelineRunEvent.class);
+    private static final EventType STEP = EventType.getEventType(PipelineStepEvent.class);
+    private static final EventType JUMP = EventType.getEventType(PipelineJumpEvent.class);
+    private static final EventType SHORT_CIRCUIT = EventType.getEventType(PipelineShortCircuitEvent.class);
+
+    private FlightRecorderListener() {}
+
+    /**
+     * The bundled {@code pipeline.jfc} profile, for {@code new Recording(configuration())} or to copy settings from;
+     * on the command line the same file goes after a JDK profile in {@code -XX:StartFlightRecording:settings=...}.
+     */
+    public static Configuration configuration() {
+        try (InputStream in = FlightRecorderListener.class.getResourceAsStream("pipeline.jfc")) {
+            if (in == null) throw new IllegalStateException("pipeline.jfc is missing from the classpath");
+            return Configuration.create(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("pipeline.jfc does not parse", e);
+        }
+    }
+
+    @Override
+    public RunListener onRunStart(String pipeline, long startNanos) {
+        if (!RUN.isEnabled() && !STEP.isEnabled() && !JUMP.isEnabled() && !SHORT_CIRCUIT.isEnabled()) return null;
+        return new RecordedRun(pipeline);
+    }
+
+    private static String label(StepInfo step) {
+        return (step.name() != null) ? step.name() : step.stepName();
+    }
+
+    /** Events of one run; steps of a run never overlap, so one pending step event is enough. */
+    private static final class RecordedRun implements RunListener {
+        private final String pipeline;
+        private final PipelineRunEvent run = new PipelineRunEvent();
+        private PipelineStepEvent step;
+
+        private RecordedRun(String pipeline) {
+            this.pipeline = pipeline;
+            run.begin();
+        }
+
+        @Override
+        public void onStepStart(StepInfo info, long startNanos) {
+            PipelineStepEvent event = new PipelineStepEvent();
+            if (!event.isEnabled()) return;
+            event.begin();
+            step = event;
+        }
+
+        @Override
+        public void onStepEnd(StepInfo info, long endNanos, long elapsedNanos, Throwable error) {
+            PipelineStepEvent event = step;
+            if (event == null) return;
+            step = null;
+            event.end();
+            if (!event.shouldCommit()) return;
+            event.pipeline = pipeline;
+            event.step = label(info);
+            event.phase = info.phase().name();
+            event.position = info.position();
+            event.outcome = (error == null) ? "success" : "error";
+            event.error = (error == null) ? null : error.getClass().getName();
+            event.commit();
+        }
+
+        @Override
+        public void onShortCircuit(StepInfo info) {
+            PipelineShortCircuitEvent event = new PipelineShortCircuitEvent();
+            if (!event.shouldCommit()) return;
+            event.pipeline = pipeline;
+            event.step = label(info);
+            event.phase = info.phase().name();
+            event.commit();
+        }
+
+        @Override
+        public void onJump(StepInfo from, StepInfo to, long delayMillis) {
+            PipelineJumpEvent event = new PipelineJumpEvent();
+            if (!event.shouldCommit()) return;
+            event.pipeline = pipeline;
+            event.fromStep = label(from);
+            event.toStep = label(to);
+            event.delay = delayMillis;
+            event.commit();
+        }
+
+        @Override
+        public void onRunEnd(long endNanos, long elapsedNanos, Throwable error) {
+            run.end();
+            if (!run.shouldCommit()) return;
+            run.pipeline = pipeline;
+            run.outcome = (error == null) ? "success" : "error";
+            run.error = (error == null) ? null : error.getClass().getName();
+            run.commit();
+        }
+    }
+}
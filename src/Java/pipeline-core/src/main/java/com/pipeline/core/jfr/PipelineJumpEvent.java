@@ -0,0 +1,27 @@
+package com.pipeline.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.pipeline.Jump")
+@Label("Pipeline Jump")
+@Category("Pipeline Services")
+@StackTrace(false)
+public final class PipelineJumpEvent extends Event {
+    @Label("Pipeline")
+    String pipeline;
+
+    @Label("From Step")
+    String fromStep;
+
+    @Label("To Step")
+    String toStep;
+
+    @Label("Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    long delay;
+}
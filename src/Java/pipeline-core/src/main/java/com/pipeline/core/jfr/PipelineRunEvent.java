@@ -0,0 +1,26 @@
+package com.pipeline.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.pipeline.Run")
+@Label("Pipeline Run")
+@Category("Pipeline Services")
+@Description("One pipeline run, from its first step boundary to its last")
+@StackTrace(false)
+public final class PipelineRunEvent extends Event {
+    @Label("Pipeline")
+    String pipeline;
+
+    @Label("Outcome")
+    @Description("success, or error when a step failed or the run was aborted")
+    String outcome;
+
+    @Label("Error")
+    @Description("Class of the first step error or of the failure that aborted the run")
+    String error;
+}
@@ -0,0 +1,22 @@
+package com.pipeline.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.pipeline.ShortCircuit")
+@Label("Pipeline Short-Circuit")
+@Category("Pipeline Services")
+@StackTrace(false)
+public final class PipelineShortCircuitEvent extends Event {
+    @Label("Pipeline")
+    String pipeline;
+
+    @Label("Step")
+    String step;
+
+    @Label("Phase")
+    String phase;
+}
@@ -0,0 +1,35 @@
+package com.pipeline.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.pipeline.Step")
+@Label("Pipeline Step")
+@Category("Pipeline Services")
+@Description("One step of a pipeline run, including its error handling")
+@StackTrace(false)
+public final class PipelineStepEvent extends Event {
+    @Label("Pipeline")
+    String pipeline;
+
+    @Label("Step")
+    @Description("Step label, or its display name when unlabeled")
+    String step;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Position")
+    @Description("Position in run order across all phases")
+    int position;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Error")
+    String error;
+}
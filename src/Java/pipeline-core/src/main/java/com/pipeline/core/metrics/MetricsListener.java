@@ -0,0 +1,68 @@
+package com.pipeline.core.metrics;
+
+import com.pipeline.core.PipelineListener;
+import com.pipeline.core.StepInfo;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Adapts a {@link Metrics} sink to {@link PipelineListener}: every run opens a {@link Metrics.RunScope} and step
+ * events report {@link StepInfo#position()} with the step's label (its display name when unlabeled).
+ *
+ * <p>The sink is looked up at each run start, so it may be swapped at any time. {@link NoopMetrics} opts out of the
+ * run altogether, leaving no per-step work behind.
+ */
+public final class MetricsListener implements PipelineListener {
+  private final Supplier<Metrics> metrics;
+
+  public MetricsListener(Metrics metrics) {
+    Objects.requireNonNull(metrics, "metrics");
+    this.metrics = () -> metrics;
+  }
+
+  public MetricsListener(Supplier<Metrics> metrics) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+  }
+
+  @Override
+  public RunListener onRunStart(String pipeline, long startNanos) {
+    return onRunStart(pipeline, null, startNanos);
+  }
+
+  /** As {@link #onRunStart(String, long)}, for engines that can start a run at a label. */
+  public RunListener onRunStart(String pipeline, String startLabel, long startNanos) {
+    Metrics sink = metrics.get();
+    if (sink == null || sink == NoopMetrics.INSTANCE) return null;
+    String runId = Long.toHexString(startNanos) + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+    return new ScopeListener(sink.onPipelineStart(pipeline, runId, startLabel));
+  }
+
+  private static String label(StepInfo step) {
+    return (step.name() != null) ? step.name() : step.stepName();
+  }
+
+  private record ScopeListener(Metrics.RunScope scope) implements RunListener {
+    @Override
+    public void onStepStart(StepInfo step, long startNanos) {
+      scope.onStepStart(step.position(), label(step));
+    }
+
+    @Override
+    public void onStepEnd(StepInfo step, long endNanos, long elapsedNanos, Throwable error) {
+      if (error != null) scope.onStepError(step.position(), label(step), error);
+      scope.onStepEnd(step.position(), label(step), elapsedNanos, error == null);
+    }
+
+    @Override
+    public void onJump(StepInfo from, StepInfo to, long delayMillis) {
+      scope.onJump(label(from), label(to), delayMillis);
+    }
+
+    @Override
+    public void onRunEnd(long endNanos, long elapsedNanos, Throwable error) {
+      scope.onPipelineEnd(error == null, elapsedNanos, error);
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package com.pipeline.metrics;
+
+import com.pipeline.core.ActionPoolStats;
+import com.pipeline.core.Pipeline;
+import com.pipeline.core.PipelineRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Ranks the steps of each pipeline by how much they contribute to its latency, from a
+ * {@link HistogramMetricsRecorder.Snapshot} (live, or read back with {@link MetricsSnapshots}) plus optional pool
+ * counters. Per step it reports:
+ *
+ * <ul>
+ *   <li>{@code timeShare}: the step's total successful time over the sum for all steps of the pipeline (throughput);</li>
+ *   <li>{@code p99Share}: the step's p99 over the sum of the steps' p99s, the usual first-order attribution of a
+ *       sequential pipeline's tail;</li>
+ *   <li>{@code varianceShare}: the step's latency variance over the sum of step variances (steps taken as
+ *       independent), i.e. how much of the run-to-run jitter it explains;</li>
+ *   <li>error and short-circuit rates per call;</li>
+ *   <li>for pooled steps, the share of the step's time spent waiting for an instance, and the mean service time left
+ *       once that wait is taken out (a step's timing already includes its borrow).</li>
+ * </ul>
+ *
+ * Steps are ranked by {@code score}, the mean of the time and p99 shares.
+ */
+public final class BottleneckAnalyzer {
+    private static final Comparator<StepFinding> RANKING =
+        Comparator.comparingDouble(StepFinding::score).reversed().thenComparing(StepFinding::step);
+
+    private BottleneckAnalyzer() {}
+
+    public static BottleneckReport analyze(HistogramMetricsRecorder.Snapshot snapshot) {
+        return analyze(snapshot, List.of());
+    }
+
+    public static BottleneckReport analyze(HistogramMetricsRecorder.Snapshot snapshot, List<PoolWait> pools) {
+        Objects.requireNonNull(snapshot, "snapshot");
+        Map<String, PoolWait> poolByStep = new HashMap<>();
+        for (PoolWait pool : Objects.requireNonNull(pools, "pools")) poolByStep.put(key(pool.pipeline(), pool.step()), pool);
+
+        Map<String, List<HistogramMetricsRecorder.StepLatency>> stepsByPipeline = new HashMap<>();
+        for (HistogramMetricsRecorder.StepLatency step : snapshot.steps()) {
+            stepsByPipeline.computeIfAbsent(step.pipeline(), ignored -> new ArrayList<>()).add(step);
+        }
+        Map<String, HistogramMetricsRecorder.PipelineLatency> runs = new HashMap<>();
+        for (HistogramMetricsRecorder.PipelineLatency run : snapshot.pipelines()) runs.put(run.pipeline(), run);
+
+        List<String> names = new ArrayList<>(stepsByPipeline.keySet());
+        for (String pipeline : runs.keySet()) if (!stepsByPipeline.containsKey(pipeline)) names.add(pipeline);
+        names.sort(Comparator.naturalOrder());
+
+        List<PipelineReport> reports = new ArrayList<>(names.size());
+        for (String pipeline : names) {
+            reports.add(analyzePipeline(pipeline, runs.get(pipeline), stepsByPipeline.getOrDefault(pipeline, List.of()), poolByStep));
+        }
+        return new BottleneckReport(List.copyOf(reports));
+    }
+
+    /** Pool counters of every pooled step of every registered pipeline (named by {@link Pipeline#name()}, as in metrics). */
+    public static List<PoolWait> poolWaits(PipelineRegistry registry) {
+        List<PoolWait> pools = new ArrayList<>();
+        registry.asMap().forEach((key, pipeline) -> pools.addAll(poolWaits(pipeline)));
+        return pools;
+    }
+
+    /** Pool counters of the pooled steps of {@code pipeline}. */
+    public static List<PoolWait> poolWaits(Pipeline<?> pipeline) {
+        List<PoolWait> pools = new ArrayList<>();
+        pipeline.poolStats().forEach((step, stats) -> pools.add(PoolWait.of(pipeline.name(), step, stats)));
+        return pools;
+    }
+
+    private static PipelineReport analyzePipeline(String pipeline,
+                                                  HistogramMetricsRecorder.PipelineLatency run,
+                                                  List<HistogramMetricsRecorder.StepLatency> steps,
+                                                  Map<String, PoolWait> pools) {
+        double totalTime = 0.0;
+        double totalP99 = 0.0;
+        double totalVariance = 0.0;
+        for (HistogramMetricsRecorder.StepLatency step : steps) {
+            totalTime += step.latency().totalNanos();
+            totalP99 += step.latency().p99Nanos();
+            totalVariance += step.latency().varianceNanos2();
+        }
+        List<StepFinding> findings = new ArrayList<>(steps.size());
+        for (HistogramMetricsRecorder.StepLatency step : steps) {
+            LatencySnapshot latency = step.latency();
+            long calls = latency.count() + step.errors();
+            double timeShare = share(latency.totalNanos(), totalTime);
+            double p99Share = share(latency.p99Nanos(), totalP99);
+            PoolWait pool = pools.get(key(pipeline, step.step()));
+            findings.add(new StepFinding(
+                step.step(),
+                calls,
+                latency.meanNanos(),
+                latency.p99Nanos(),
+                timeShare,
+                p99Share,
+                share(latency.varianceNanos2(), totalVariance),
+                share(step.errors(), calls),
+                share(step.shortCircuits(), calls),
+                (pool == null) ? 0.0 : pool.meanWaitNanos(),
+                (pool == null) ? 0.0 : Math.min(1.0, share(pool.totalWaitNanos(), latency.totalNanos())),
+                (pool == null) ? latency.meanNanos() : serviceNanos(latency, pool),
+                (timeShare + p99Share) / 2.0));
+        }
+        findings.sort(RANKING);
+        long runs = (run == null) ? 0L : run.latency().count();
+        return new PipelineReport(pipeline, runs, (run == null) ? 0L : run.latency().p99Nanos(),
+            share((run == null) ? 0L : run.failures(), runs), List.copyOf(findings));
+    }
+
+    /**
+     * Mean time in the step without the pool wait. The pool counters are cumulative and the latency may cover a
+     * shorter window, so the result is floored at zero.
+     */
+    private static double serviceNanos(LatencySnapshot latency, PoolWait pool) {
+        long calls = latency.count();
+        return (calls == 0) ? 0.0 : Math.max(0.0, latency.totalNanos() - (double) pool.totalWaitNanos()) / calls;
+    }
+
+    private static double share(double part, double whole) {
+        return (whole <= 0.0) ? 0.0 : part / whole;
+    }
+
+    private static String key(String pipeline, String step) {
+        return pipeline + '\u0000' + step;
+    }
+
+    /** Borrow counters of one pooled step. */
+    public record PoolWait(String pipeline, String step, long borrows, long waitedBorrows, long totalWaitNanos, long timeouts) {
+        public PoolWait {
+            Objects.requireNonNull(pipeline, "pipeline");
+            Objects.requireNonNull(step, "step");
+        }
+
+        public static PoolWait of(String pipeline, String step, ActionPoolStats stats) {
+            return new PoolWait(pipeline, step, stats.borrows(), stats.waitedBorrows(), stats.totalWaitNanos(), stats.timeouts());
+        }
+
+        /** Mean wait per borrow, counting the borrows that did not wait at all. */
+        public double meanWaitNanos() {
+            return (borrows == 0) ? 0.0 : totalWaitNanos / (double) borrows;
+        }
+    }
+
+    /** Reports of every pipeline in the snapshot, by name. */
+    public record BottleneckReport(List<PipelineReport> pipelines) {
+        /** Plain-text rendering, at most {@code topSteps} steps per pipeline. */
+        public String toText(int topSteps) {
+            StringBuilder out = new StringBuilder();
+            for (PipelineReport pipeline : pipelines) {
+                out.append(String.format(Locale.ROOT, "pipeline %s  runs=%d  p99=%s  failureRate=%.2f%%%n",
+                    pipeline.pipeline(), pipeline.runs(), duration(pipeline.runP99Nanos()), 100 * pipeline.failureRate()));
+                out.append(String.format(Locale.ROOT, "  %-4s %-32s %9s %9s %7s %7s %7s %7s %7s %9s %7s %9s%n",
+                    "rank", "step", "mean", "p99", "time%", "p99%", "var%", "err%", "sc%", "poolWait", "wait%", "service"));
+                int rank = 0;
+                for (StepFinding step : pipeline.steps()) {
+                    if (rank == topSteps) break;
+                    rank++;
+                    out.append(String.format(Locale.ROOT, "  %-4d %-32s %9s %9s %7.1f %7.1f %7.1f %7.2f %7.2f %9s %7.1f %9s%n",
+                        rank, step.step(), duration(Math.round(step.meanNanos())), duration(step.p99Nanos()),
+                        100 * step.timeShare(), 100 * step.p99Share(), 100 * step.varianceShare(),
+                        100 * step.errorRate(), 100 * step.shortCircuitRate(),
+                        duration(Math.round(step.meanPoolWaitNanos())), 100 * step.poolWaitShare(),
+                        duration(Math.round(step.meanServiceNanos()))));
+                }
+                out.append(System.lineSeparator());
+            }
+            return out.toString();
+        }
+
+        @Override
+        public String toString() {
+            return toText(Integer.MAX_VALUE);
+        }
+    }
+
+    /** Ranked steps of one pipeline; {@code failureRate} is the share of runs that recorded an error. */
+    public record PipelineReport(String pipeline, long runs, long runP99Nanos, double failureRate, List<StepFinding> steps) {}
+
+    /** One step's contribution; shares and rates are fractions in [0, 1]. */
+    public record StepFinding(
+        String step,
+        long calls,
+        double meanNanos,
+        long p99Nanos,
+        double timeShare,
+        double p99Share,
+        double varianceShare,
+        double errorRate,
+        double shortCircuitRate,
+        double meanPoolWaitNanos,
+        double poolWaitShare,
+        double meanServiceNanos,
+        double score
+    ) {}
+
+    private static String duration(long nanos) {
+        if (nanos < 10_000L) return nanos + "ns";
+        if (nanos < 10_000_000L) return String.format(Locale.ROOT, "%.1fus", nanos / 1e3);
+        if (nanos < 10_000_000_000L) return String.format(Locale.ROOT, "%.1fms", nanos / 1e6);
+        return String.format(Locale.ROOT, "%.1fs", nanos / 1e9);
+    }
+}
@@ -0,0 +1,67 @@
+package com.pipeline.metrics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prints a {@link BottleneckAnalyzer} report for snapshot files written by {@link MetricsSnapshots}:
+ *
+ * <pre>
+ * java -cp pipeline-core.jar com.pipeline.metrics.BottleneckCli [--top N] snapshot.tsv...
+ * </pre>
+ *
+ * Several files are merged as if recorded by one recorder (for example one per host).
+ */
+public final class BottleneckCli {
+    private static final String USAGE = "usage: BottleneckCli [--top N] snapshot-file...";
+
+    private BottleneckCli() {}
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /** Returns the process exit code: 0 on success, 1 when a file cannot be read, 2 on bad arguments. */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        int top = Integer.MAX_VALUE;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--top") && i + 1 < args.length) {
+                try {
+                    top = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException notANumber) {
+                    top = -1;
+                }
+                if (top < 1) {
+                    err.println(USAGE);
+                    return 2;
+                }
+            } else if (args[i].startsWith("--")) {
+                err.println(USAGE);
+                return 2;
+            } else {
+                files.add(Path.of(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            err.println(USAGE);
+            return 2;
+        }
+
+        List<MetricsSnapshots.Contents> snapshots = new ArrayList<>(files.size());
+        for (Path file : files) {
+            try {
+                snapshots.add(MetricsSnapshots.read(file));
+            } catch (IOException unreadable) {
+                err.println(file + ": " + unreadable.getMessage());
+                return 1;
+            }
+        }
+        MetricsSnapshots.Contents merged = MetricsSnapshots.merge(snapshots);
+        out.print(BottleneckAnalyzer.analyze(merged.snapshot(), merged.pools()).toText(top));
+        return 0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.pipeline.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency histogram written without locks: threads record atomically into one of a fixed number of stripes, picked
+ * by thread id, so concurrent writers mostly touch different cache lines. Readers merge all stripes.
+ *
+ * <p>Memory is bounded per histogram, whatever the number of platform or virtual threads: a stripe holds one counter
+ * per {@link LogLinearBuckets} bucket (about 9.5 KB) and is allocated on its first sample, and there are at most
+ * {@link #STRIPES} of them, one per processor. A series costs 9.5 KB per stripe its writers actually landed on, and
+ * up to {@code STRIPES} x 9.5 KB once many threads record into it.
+ *
+ * <p>Interval snapshots are the difference between the current merge and the previous one, so writers never have
+ * to coordinate with a buffer swap. Snapshots are not atomic with respect to concurrent recording.
+ */
+final class ConcurrentLatencyHistogram {
+    /** Stripes per histogram: the available processors rounded up to a power of two, at most 64. */
+    static final int STRIPES = Math.min(64, 1 << -Integer.numberOfLeadingZeros(Runtime.getRuntime().availableProcessors() - 1));
+
+    private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    // Reader state, guarded by this.
+    private long[] previous = new long[LogLinearBuckets.COUNT];
+    private long previousSum;
+    private long mergedMax; // max seen by the latest merge
+
+    void record(long nanos) {
+        int index = stripeIndex(Thread.currentThread().threadId());
+        Stripe stripe = stripes.get(index);
+        if (stripe == null) stripe = allocate(index);
+        stripe.record(Math.max(0L, nanos));
+    }
+
+    /** Everything recorded so far. */
+    synchronized LatencySnapshot cumulative() {
+        long[] counts = new long[LogLinearBuckets.COUNT];
+        long sum = merge(counts);
+        return LatencySnapshot.of(counts, sum, mergedMax);
+    }
+
+    /** Overwrites {@code counts} with everything recorded so far and returns the sum of the recorded values. */
+    synchronized long cumulativeInto(long[] counts) {
+        return merge(counts);
+    }
+
+    /** What was recorded since the previous call (since creation for the first call). */
+    synchronized LatencySnapshot interval() {
+        long[] counts = new long[LogLinearBuckets.COUNT];
+        long total = merge(counts);
+        long[] delta = new long[counts.length];
+        int highest = -1;
+        for (int i = 0; i < counts.length; i++) {
+            delta[i] = counts[i] - previous[i];
+            if (delta[i] > 0) highest = i;
+        }
+        long sum = total - previousSum;
+        previous = counts;
+        previousSum = total;
+        // Only the all-time max is exact; bound it by the interval's highest occupied bucket.
+        long max = (highest < 0) ? 0L : Math.min(mergedMax, LogLinearBuckets.highestValue(highest));
+        return LatencySnapshot.of(delta, sum, max);
+    }
+
+    /** Stripes allocated so far; for tests. */
+    int allocatedStripes() {
+        int allocated = 0;
+        for (int i = 0; i < STRIPES; i++) if (stripes.get(i) != null) allocated++;
+        return allocated;
+    }
+
+    static int stripeIndex(long threadId) {
+        long mixed = threadId * 0x9E3779B97F4A7C15L; // thread ids are sequential; spread them over the stripes
+        return (int) (mixed >>> 32) & (STRIPES - 1);
+    }
+
+    private Stripe allocate(int index) {
+        Stripe stripe = new Stripe();
+        return stripes.compareAndSet(index, null, stripe) ? stripe : stripes.get(index);
+    }
+
+    /** Overwrites {@code counts} with the merge of every stripe; returns the sum and sets {@link #mergedMax}. */
+    private long merge(long[] counts) {
+        Arrays.fill(counts, 0L);
+        long sum = 0L;
+        long max = 0L;
+        for (int i = 0; i < STRIPES; i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe == null) continue;
+            stripe.addTo(counts);
+            sum += stripe.sum.get();
+            max = Math.max(max, stripe.max.get());
+        }
+        mergedMax = max;
+        return sum;
+    }
+
+    private static final class Stripe {
+        private final AtomicLongArray counts = new AtomicLongArray(LogLinearBuckets.COUNT);
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            counts.getAndIncrement(LogLinearBuckets.index(nanos));
+            sum.getAndAdd(nanos);
+            long current = max.get();
+            while (nanos > current && !max.weakCompareAndSetVolatile(current, nanos)) current = max.get();
+        }
+
+        void addTo(long[] target) {
+            for (int i = 0; i < target.length; i++) target[i] += counts.get(i);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.pipeline.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hands {@link HistogramMetricsRecorder#intervalSnapshot()} to a sink on a fixed period from one daemon thread.
+ * Sink failures are logged and do not stop the schedule; {@link #close()} stops it.
+ */
+public final class HistogramEmitter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(HistogramEmitter.class);
+
+    private final ScheduledExecutorService scheduler;
+
+    private HistogramEmitter(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public static HistogramEmitter start(HistogramMetricsRecorder recorder, Duration interval,
+                                         Consumer<HistogramMetricsRecorder.Snapshot> sink) {
+        Objects.requireNonNull(recorder, "recorder");
+        Objects.requireNonNull(sink, "sink");
+        long periodNanos = Objects.requireNonNull(interval, "interval").toNanos();
+        if (periodNanos <= 0) throw new IllegalArgumentException("interval must be positive");
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("pipeline-histogram-emitter").daemon(true).factory());
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                sink.accept(recorder.intervalSnapshot());
+            } catch (RuntimeException sinkFailure) {
+                log.warn("Histogram sink failed", sinkFailure);
+            }
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        return new HistogramEmitter(scheduler);
+    }
+
+    /** Logs p50/p99/p99.9/max of every pipeline and step that saw traffic in the interval. */
+    public static HistogramEmitter logging(HistogramMetricsRecorder recorder, Duration interval) {
+        return start(recorder, interval, HistogramEmitter::log);
+    }
+
+    private static void log(HistogramMetricsRecorder.Snapshot snapshot) {
+        for (HistogramMetricsRecorder.PipelineLatency run : snapshot.pipelines()) {
+            if (run.latency().count() > 0) log.info("pipeline={} failures={} {}", run.pipeline(), run.failures(), run.latency());
+        }
+        for (HistogramMetricsRecorder.StepLatency step : snapshot.steps()) {
+            if (step.latency().count() > 0 || step.errors() > 0 || step.shortCircuits() > 0) {
+                log.info("pipeline={} step={} errors={} shortCircuits={} {}",
+                    step.pipeline(), step.step(), step.errors(), step.shortCircuits(), step.latency());
+            }
+            HistogramMetricsRecorder.StepResources resources = step.resources();
+            if (resources.samples() > 0) {
+                log.info("pipeline={} step={} resourceSamples={} meanCpuNanos={} meanAllocatedBytes={}",
+                    step.pipeline(), step.step(), resources.samples(),
+                    Math.round(resources.meanCpuNanos()), Math.round(resources.meanAllocatedBytes()));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,214 @@
+package com.pipeline.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a log-linear latency histogram per step and per pipeline run, recorded lock-free into thread-striped cells
+ * (9.5 KB per stripe in use, at most one stripe per processor and 64 in all) and merged only when a snapshot is
+ * taken. Install with {@link Metrics#setRecorder} and read percentiles through
+ * {@link #snapshot()} (since creation) or {@link #intervalSnapshot()} (since the previous interval, as used by
+ * {@link HistogramEmitter}). Recording a bound step allocates nothing once its stripes exist.
+ *
+ * <p>Nothing is published to {@link #registry()}; the registry only exists to satisfy {@link MetricsRecorder}.
+ */
+public final class HistogramMetricsRecorder implements MetricsRecorder {
+    private static final Comparator<StepLatency> STEP_ORDER =
+        Comparator.comparing(StepLatency::pipeline).thenComparing(StepLatency::step);
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, ConcurrentMap<String, StepHistogram>> steps = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RunHistogram> runs = new ConcurrentHashMap<>();
+
+    public HistogramMetricsRecorder() {
+        this(new SimpleMeterRegistry());
+    }
+
+    public HistogramMetricsRecorder(MeterRegistry registry) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+    }
+
+    @Override
+    public void onStepSuccess(String pipeline, String stepName, long nanos) {
+        bind(pipeline, stepName).onSuccess(nanos);
+    }
+
+    @Override
+    public void onStepError(String pipeline, String stepName, Throwable t) {
+        bind(pipeline, stepName).onError(t);
+    }
+
+    @Override
+    public void onShortCircuit(String pipeline, String stepName) {
+        bind(pipeline, stepName).onShortCircuit();
+    }
+
+    @Override
+    public void onPipelineRun(String pipeline, long nanos, boolean success) {
+        RunHistogram run = runs.get(pipeline);
+        if (run == null) run = runs.computeIfAbsent(pipeline, ignored -> new RunHistogram());
+        run.latency.record(nanos);
+        if (!success) run.failures.increment();
+    }
+
+    @Override
+    public StepMeters bind(String pipeline, String stepName) {
+        ConcurrentMap<String, StepHistogram> pipelineSteps = steps.get(pipeline);
+        if (pipelineSteps == null) pipelineSteps = steps.computeIfAbsent(pipeline, ignored -> new ConcurrentHashMap<>());
+        StepHistogram bound = pipelineSteps.get(stepName);
+        if (bound == null) bound = pipelineSteps.computeIfAbsent(stepName, ignored -> new StepHistogram());
+        return bound;
+    }
+
+    @Override
+    public MeterRegistry registry() { return registry; }
+
+    /** Everything recorded since this recorder was created. */
+    public Snapshot snapshot() {
+        return collect(false);
+    }
+
+    /** Everything recorded since the previous call (since creation for the first); starts the next interval. */
+    public synchronized Snapshot intervalSnapshot() {
+        return collect(true);
+    }
+
+    /**
+     * Streams the cumulative state of every histogram to {@code visitor} without building a {@link Snapshot}: each
+     * distribution is merged into one scratch array and reported as counts at or below {@code upperBoundsNanos}
+     * (ascending), so a pass allocates a constant amount however many series there are. The {@code cumulative}
+     * array handed to the visitor is reused; read it before returning.
+     */
+    public void visit(long[] upperBoundsNanos, SeriesVisitor visitor) {
+        Objects.requireNonNull(visitor, "visitor");
+        long[] counts = new long[LogLinearBuckets.COUNT];
+        long[] cumulative = new long[upperBoundsNanos.length];
+        runs.forEach((pipeline, run) -> {
+            long total = run.latency.cumulativeInto(counts);
+            long count = LogLinearBuckets.cumulate(counts, upperBoundsNanos, cumulative);
+            visitor.pipeline(pipeline, cumulative, count, total, run.failures.sum());
+        });
+        steps.forEach((pipeline, byStep) -> byStep.forEach((step, histogram) -> {
+            long total = histogram.latency.cumulativeInto(counts);
+            long count = LogLinearBuckets.cumulate(counts, upperBoundsNanos, cumulative);
+            visitor.step(pipeline, step, cumulative, count, total, histogram.errors.sum(), histogram.shortCircuits.sum());
+            visitor.stepResources(pipeline, step, histogram.resourceSamples.sum(), histogram.cpuNanos.sum(),
+                histogram.allocatedBytes.sum());
+        }));
+    }
+
+    /** Receives the series of a {@link #visit} pass, in no particular order. */
+    public interface SeriesVisitor {
+        /** Whole-run latency of {@code pipeline}: {@code count} runs taking {@code totalNanos} in all. */
+        void pipeline(String pipeline, long[] cumulative, long count, long totalNanos, long failures);
+
+        /** Successful-call latency of one step plus its error and short-circuit counts. */
+        void step(String pipeline, String step, long[] cumulative, long count, long totalNanos, long errors,
+                  long shortCircuits);
+
+        /** Resource totals of one step, following its {@link #step} call. */
+        default void stepResources(String pipeline, String step, long samples, long cpuNanos, long allocatedBytes) {}
+    }
+
+    private Snapshot collect(boolean interval) {
+        List<PipelineLatency> pipelines = new ArrayList<>();
+        runs.forEach((pipeline, run) -> pipelines.add(run.read(pipeline, interval)));
+        pipelines.sort(Comparator.comparing(PipelineLatency::pipeline));
+        List<StepLatency> stepLatencies = new ArrayList<>();
+        steps.forEach((pipeline, byStep) ->
+            byStep.forEach((step, histogram) -> stepLatencies.add(histogram.read(pipeline, step, interval))));
+        stepLatencies.sort(STEP_ORDER);
+        return new Snapshot(List.copyOf(pipelines), List.copyOf(stepLatencies));
+    }
+
+    /** Per-pipeline and per-step distributions, sorted by name. */
+    public record Snapshot(List<PipelineLatency> pipelines, List<StepLatency> steps) {}
+
+    /** Whole-run latency of one pipeline; {@code failures} counts runs that recorded an error. */
+    public record PipelineLatency(String pipeline, LatencySnapshot latency, long failures) {}
+
+    /**
+     * Successful-call latency of one step plus its error and short-circuit counts, and the CPU time and allocation
+     * totals of its resource-sampled executions.
+     */
+    public record StepLatency(String pipeline, String step, LatencySnapshot latency, long errors, long shortCircuits,
+                              StepResources resources) {}
+
+    /** Totals over {@code samples} resource-sampled executions of a step. */
+    public record StepResources(long samples, long cpuNanos, long allocatedBytes) {
+        public double meanCpuNanos() { return (samples == 0) ? 0.0 : cpuNanos / (double) samples; }
+        public double meanAllocatedBytes() { return (samples == 0) ? 0.0 : allocatedBytes / (double) samples; }
+    }
+
+    private static final class RunHistogram {
+        private final ConcurrentLatencyHistogram latency = new ConcurrentLatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+        private long previousFailures; // guarded by the recorder's interval lock
+
+        private PipelineLatency read(String pipeline, boolean interval) {
+            long failed = failures.sum();
+            if (!interval) return new PipelineLatency(pipeline, latency.cumulative(), failed);
+            long delta = failed - previousFailures;
+            previousFailures = failed;
+            return new PipelineLatency(pipeline, latency.interval(), delta);
+        }
+    }
+
+    private static final class StepHistogram implements StepMeters {
+        private final ConcurrentLatencyHistogram latency = new ConcurrentLatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder shortCircuits = new LongAdder();
+        private final LongAdder resourceSamples = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private long previousErrors; // guarded by the recorder's interval lock
+        private long previousShortCircuits;
+        private StepResources previousResources = new StepResources(0, 0, 0);
+
+        @Override
+        public void onSuccess(long nanos) {
+            latency.record(nanos);
+        }
+
+        @Override
+        public void onResources(long cpu, long allocated) {
+            resourceSamples.increment();
+            if (cpu > 0) cpuNanos.add(cpu);
+            if (allocated > 0) allocatedBytes.add(allocated);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            errors.increment();
+        }
+
+        @Override
+        public void onShortCircuit() {
+            shortCircuits.increment();
+        }
+
+        private StepLatency read(String pipeline, String step, boolean interval) {
+            long failed = errors.sum();
+            long skipped = shortCircuits.sum();
+            StepResources resources = new StepResources(resourceSamples.sum(), cpuNanos.sum(), allocatedBytes.sum());
+            if (!interval) return new StepLatency(pipeline, step, latency.cumulative(), failed, skipped, resources);
+            StepLatency latest = new StepLatency(
+                pipeline, step, latency.interval(), failed - previousErrors, skipped - previousShortCircuits,
+                new StepResources(resources.samples() - previousResources.samples(),
+                    resources.cpuNanos() - previousResources.cpuNanos(),
+                    resources.allocatedBytes() - previousResources.allocatedBytes()));
+            previousErrors = failed;
+            previousShortCircuits = skipped;
+            previousResources = resources;
+            return latest;
+        }
+    }
+}
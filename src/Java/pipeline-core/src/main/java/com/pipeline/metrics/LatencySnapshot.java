@@ -0,0 +1,77 @@
+package com.pipeline.metrics;
+
+/** Immutable latency distribution taken from a {@link HistogramMetricsRecorder}; values are nanoseconds. */
+public final class LatencySnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    private LatencySnapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+        this.counts = counts;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /** Takes ownership of {@code counts}. */
+    static LatencySnapshot of(long[] counts, long totalNanos, long maxNanos) {
+        long count = 0;
+        for (long bucket : counts) count += bucket;
+        return new LatencySnapshot(counts, count, totalNanos, (count == 0) ? 0L : maxNanos);
+    }
+
+    public long count() { return count; }
+    public long totalNanos() { return totalNanos; }
+    public long maxNanos() { return maxNanos; }
+    public double meanNanos() { return (count == 0) ? 0.0 : totalNanos / (double) count; }
+
+    /**
+     * Smallest recorded value such that {@code percentile}% of samples are at or below it, reported as the highest
+     * value of its bucket (never above {@link #maxNanos()}); 0 when empty.
+     */
+    public long percentileNanos(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) throw new IllegalArgumentException("percentile must be in [0, 100]");
+        if (count == 0) return 0L;
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(maxNanos, LogLinearBuckets.highestValue(i));
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Variance in nanos squared, estimated by placing every sample at its bucket's midpoint (capped at
+     * {@link #maxNanos()}); 0 when empty.
+     */
+    public double varianceNanos2() {
+        if (count == 0) return 0.0;
+        double mean = meanNanos();
+        double sum = 0.0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            long low = (i == 0) ? 0L : LogLinearBuckets.highestValue(i - 1) + 1;
+            long high = Math.min(maxNanos, LogLinearBuckets.highestValue(i));
+            double deviation = (Math.min(low, high) + high) / 2.0 - mean;
+            sum += counts[i] * deviation * deviation;
+        }
+        return sum / count;
+    }
+
+    /** Copy of the per-bucket counts, indexed like {@link LogLinearBuckets}. */
+    long[] bucketCounts() {
+        return counts.clone();
+    }
+
+    public long p50Nanos() { return percentileNanos(50.0); }
+    public long p99Nanos() { return percentileNanos(99.0); }
+    public long p999Nanos() { return percentileNanos(99.9); }
+
+    @Override
+    public String toString() {
+        return "count=" + count + " p50=" + p50Nanos() + "ns p99=" + p99Nanos() + "ns p99.9=" + p999Nanos()
+            + "ns max=" + maxNanos + "ns";
+    }
+}
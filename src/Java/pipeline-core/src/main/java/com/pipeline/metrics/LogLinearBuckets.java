@@ -0,0 +1,46 @@
+package com.pipeline.metrics;
+
+/**
+ * HDR-style log-linear bucketing of non-negative nanosecond values: exact below {@link #SUB_BUCKETS}, then every
+ * power of two is split into {@link #SUB_BUCKETS} linear sub-buckets, bounding the relative error at about 3%.
+ * Values from 2^41 ns (~37 minutes) up land in the last bucket.
+ */
+final class LogLinearBuckets {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int MAX_EXPONENT = 40;
+    static final int COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private LogLinearBuckets() {}
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (value < 0) ? 0 : (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) return COUNT - 1;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /** Largest value that maps to {@code index}. */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Fills {@code into[i]} with the samples of {@code counts} whose whole bucket lies at or below
+     * {@code upperBounds[i]} (bounds ascending) and returns the total sample count.
+     */
+    static long cumulate(long[] counts, long[] upperBounds, long[] into) {
+        long seen = 0;
+        int bucket = 0;
+        for (int i = 0; i < upperBounds.length; i++) {
+            while (bucket < counts.length && highestValue(bucket) <= upperBounds[i]) seen += counts[bucket++];
+            into[i] = seen;
+        }
+        while (bucket < counts.length) seen += counts[bucket++];
+        return seen;
+    }
+}
@@ -7,5 +7,28 @@ public interface MetricsRecorder {
     void onStepError(String pipeline, String stepName, Throwable t);
     void onShortCircuit(String pipeline, String stepName);
     MeterRegistry registry();
-}
 
+    /** Whole-run latency, reported once when a run completes ({@code success}: no step recorded an error). */
+    default void onPipelineRun(String pipeline, long nanos, boolean success) {}
+
+    /** CPU time and allocated bytes of a resource-sampled step execution; either is {@code -1} when unknown. */
+    default void onStepResources(String pipeline, String stepName, long cpuNanos, long allocatedBytes) {}
+
+    /** A step still in flight past its {@link StepWatchdog} threshold; called from the watchdog's thread. */
+    default void onStuckStep(StuckStep stuck) {}
+
+    /**
+     * Resolves the meters for one step up front. Pipelines call this once per step (again only if the recorder is
+     * swapped) and record into the handle; the default forwards to the name-based methods above.
+     */
+    default StepMeters bind(String pipeline, String stepName) {
+        return new StepMeters() {
+            @Override public void onSuccess(long nanos) { onStepSuccess(pipeline, stepName, nanos); }
+            @Override public void onError(Throwable t) { onStepError(pipeline, stepName, t); }
+            @Override public void onShortCircuit() { MetricsRecorder.this.onShortCircuit(pipeline, stepName); }
+            @Override public void onResources(long cpuNanos, long allocatedBytes) {
+                onStepResources(pipeline, stepName, cpuNanos, allocatedBytes);
+            }
+        };
+    }
+}
@@ -0,0 +1,191 @@
+package com.pipeline.metrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Line-oriented text format for a {@link HistogramMetricsRecorder.Snapshot} plus pool counters, so snapshots taken
+ * in production can be analyzed offline by {@link BottleneckCli}. One tab-separated record per line:
+ *
+ * <pre>
+ * pipeline-metrics-snapshot  1
+ * run   pipeline  failures  totalNanos  maxNanos  buckets
+ * step  pipeline  step  errors  shortCircuits  resourceSamples  cpuNanos  allocatedBytes  totalNanos  maxNanos  buckets
+ * pool  pipeline  step  borrows  waitedBorrows  totalWaitNanos  timeouts
+ * </pre>
+ *
+ * {@code buckets} lists the non-empty histogram buckets as {@code index:count} pairs separated by commas. Names must
+ * not contain tabs or line breaks.
+ */
+public final class MetricsSnapshots {
+    private static final String HEADER = "pipeline-metrics-snapshot";
+    private static final int VERSION = 1;
+
+    private MetricsSnapshots() {}
+
+    /** What a snapshot file holds. */
+    public record Contents(HistogramMetricsRecorder.Snapshot snapshot, List<BottleneckAnalyzer.PoolWait> pools) {}
+
+    public static void write(Path file, HistogramMetricsRecorder.Snapshot snapshot, List<BottleneckAnalyzer.PoolWait> pools)
+        throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            write(writer, snapshot, pools);
+        }
+    }
+
+    public static void write(Writer out, HistogramMetricsRecorder.Snapshot snapshot, List<BottleneckAnalyzer.PoolWait> pools)
+        throws IOException {
+        Objects.requireNonNull(snapshot, "snapshot");
+        out.write(HEADER + "\t" + VERSION + "\n");
+        for (HistogramMetricsRecorder.PipelineLatency run : snapshot.pipelines()) {
+            out.write(String.join("\t", "run", name(run.pipeline()), Long.toString(run.failures()),
+                Long.toString(run.latency().totalNanos()), Long.toString(run.latency().maxNanos()), buckets(run.latency())));
+            out.write('\n');
+        }
+        for (HistogramMetricsRecorder.StepLatency step : snapshot.steps()) {
+            HistogramMetricsRecorder.StepResources resources = step.resources();
+            out.write(String.join("\t", "step", name(step.pipeline()), name(step.step()),
+                Long.toString(step.errors()), Long.toString(step.shortCircuits()),
+                Long.toString(resources.samples()), Long.toString(resources.cpuNanos()), Long.toString(resources.allocatedBytes()),
+                Long.toString(step.latency().totalNanos()), Long.toString(step.latency().maxNanos()), buckets(step.latency())));
+            out.write('\n');
+        }
+        for (BottleneckAnalyzer.PoolWait pool : Objects.requireNonNull(pools, "pools")) {
+            out.write(String.join("\t", "pool", name(pool.pipeline()), name(pool.step()), Long.toString(pool.borrows()),
+                Long.toString(pool.waitedBorrows()), Long.toString(pool.totalWaitNanos()), Long.toString(pool.timeouts())));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    public static Contents read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    public static Contents read(Reader in) throws IOException {
+        BufferedReader reader = (in instanceof BufferedReader buffered) ? buffered : new BufferedReader(in);
+        String header = reader.readLine();
+        if (header == null || !header.equals(HEADER + "\t" + VERSION)) {
+            throw new IOException("Not a pipeline metrics snapshot (version " + VERSION + "): " + header);
+        }
+        List<HistogramMetricsRecorder.PipelineLatency> runs = new ArrayList<>();
+        List<HistogramMetricsRecorder.StepLatency> steps = new ArrayList<>();
+        List<BottleneckAnalyzer.PoolWait> pools = new ArrayList<>();
+        int lineNumber = 1;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            String[] f = line.split("\t", -1);
+            try {
+                switch (f[0]) {
+                    case "run" -> {
+                        expect(f, 6);
+                        runs.add(new HistogramMetricsRecorder.PipelineLatency(f[1], latency(f[3], f[4], f[5]), Long.parseLong(f[2])));
+                    }
+                    case "step" -> {
+                        expect(f, 11);
+                        steps.add(new HistogramMetricsRecorder.StepLatency(f[1], f[2], latency(f[8], f[9], f[10]),
+                            Long.parseLong(f[3]), Long.parseLong(f[4]),
+                            new HistogramMetricsRecorder.StepResources(Long.parseLong(f[5]), Long.parseLong(f[6]), Long.parseLong(f[7]))));
+                    }
+                    case "pool" -> {
+                        expect(f, 7);
+                        pools.add(new BottleneckAnalyzer.PoolWait(f[1], f[2], Long.parseLong(f[3]), Long.parseLong(f[4]),
+                            Long.parseLong(f[5]), Long.parseLong(f[6])));
+                    }
+                    default -> throw new IllegalArgumentException("unknown record type '" + f[0] + "'");
+                }
+            } catch (IllegalArgumentException malformed) {
+                throw new IOException("Malformed snapshot line " + lineNumber + ": " + malformed.getMessage(), malformed);
+            }
+        }
+        return new Contents(new HistogramMetricsRecorder.Snapshot(List.copyOf(runs), List.copyOf(steps)), List.copyOf(pools));
+    }
+
+    /** Adds up snapshots of the same pipelines (for example from several hosts): histograms, counters and pools. */
+    public static Contents merge(List<Contents> parts) {
+        if (parts.size() == 1) return parts.getFirst();
+        Map<String, HistogramMetricsRecorder.PipelineLatency> runs = new LinkedHashMap<>();
+        Map<String, HistogramMetricsRecorder.StepLatency> steps = new LinkedHashMap<>();
+        Map<String, BottleneckAnalyzer.PoolWait> pools = new LinkedHashMap<>();
+        for (Contents part : parts) {
+            for (HistogramMetricsRecorder.PipelineLatency run : part.snapshot().pipelines()) {
+                runs.merge(run.pipeline(), run, (x, y) ->
+                    new HistogramMetricsRecorder.PipelineLatency(x.pipeline(), add(x.latency(), y.latency()), x.failures() + y.failures()));
+            }
+            for (HistogramMetricsRecorder.StepLatency step : part.snapshot().steps()) {
+                steps.merge(step.pipeline() + '\t' + step.step(), step, (x, y) -> new HistogramMetricsRecorder.StepLatency(
+                    x.pipeline(), x.step(), add(x.latency(), y.latency()),
+                    x.errors() + y.errors(), x.shortCircuits() + y.shortCircuits(),
+                    new HistogramMetricsRecorder.StepResources(x.resources().samples() + y.resources().samples(),
+                        x.resources().cpuNanos() + y.resources().cpuNanos(),
+                        x.resources().allocatedBytes() + y.resources().allocatedBytes())));
+            }
+            for (BottleneckAnalyzer.PoolWait pool : part.pools()) {
+                pools.merge(pool.pipeline() + '\t' + pool.step(), pool, (x, y) -> new BottleneckAnalyzer.PoolWait(
+                    x.pipeline(), x.step(), x.borrows() + y.borrows(), x.waitedBorrows() + y.waitedBorrows(),
+                    x.totalWaitNanos() + y.totalWaitNanos(), x.timeouts() + y.timeouts()));
+            }
+        }
+        return new Contents(
+            new HistogramMetricsRecorder.Snapshot(List.copyOf(runs.values()), List.copyOf(steps.values())),
+            List.copyOf(pools.values()));
+    }
+
+    private static LatencySnapshot add(LatencySnapshot x, LatencySnapshot y) {
+        long[] counts = x.bucketCounts();
+        long[] more = y.bucketCounts();
+        for (int i = 0; i < counts.length; i++) counts[i] += more[i];
+        return LatencySnapshot.of(counts, x.totalNanos() + y.totalNanos(), Math.max(x.maxNanos(), y.maxNanos()));
+    }
+
+    private static String name(String value) {
+        if (value.indexOf('\t') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Name contains a tab or line break: " + value);
+        }
+        return value;
+    }
+
+    private static String buckets(LatencySnapshot latency) {
+        long[] counts = latency.bucketCounts();
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            if (!out.isEmpty()) out.append(',');
+            out.append(i).append(':').append(counts[i]);
+        }
+        return out.toString();
+    }
+
+    private static LatencySnapshot latency(String totalNanos, String maxNanos, String buckets) {
+        long[] counts = new long[LogLinearBuckets.COUNT];
+        if (!buckets.isEmpty()) {
+            for (String entry : buckets.split(",")) {
+                int colon = entry.indexOf(':');
+                if (colon < 0) throw new IllegalArgumentException("bucket entry '" + entry + "' is not index:count");
+                int index = Integer.parseInt(entry.substring(0, colon));
+                if (index < 0 || index >= counts.length) throw new IllegalArgumentException("bucket index " + index + " out of range");
+                counts[index] = Long.parseLong(entry.substring(colon + 1));
+            }
+        }
+        return LatencySnapshot.of(counts, Long.parseLong(totalNanos), Long.parseLong(maxNanos));
+    }
+
+    private static void expect(String[] fields, int count) {
+        if (fields.length != count) {
+            throw new IllegalArgumentException("'" + fields[0] + "' expects " + count + " fields, got " + fields.length);
+        }
+    }
+}
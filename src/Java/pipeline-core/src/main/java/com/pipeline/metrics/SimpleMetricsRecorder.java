@@ -1,34 +1,62 @@
 package com.pipeline.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Records step durations into a {@link Timer} per step, registered on the step's first success and then held by its
+ * {@link #bind bound} handle, so recording skips the builder and registry lookup. Being a real timer, it keeps the
+ * registry's decaying max and any percentiles or histograms configured through {@code MeterFilter}s. Errors and
+ * short-circuits are rare and go to ordinary {@link Counter}s registered on first use, as do the {@code .cpu_nanos}
+ * and {@code .allocated_bytes} {@link DistributionSummary}s fed by resource-sampled runs.
+ */
 public final class SimpleMetricsRecorder implements MetricsRecorder {
-    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, ConcurrentMap<String, Meters>> meters = new ConcurrentHashMap<>();
+
+    public SimpleMetricsRecorder() {
+        this(new SimpleMeterRegistry());
+    }
+
+    public SimpleMetricsRecorder(MeterRegistry registry) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+    }
 
     @Override
     public void onStepSuccess(String pipeline, String stepName, long nanos) {
-        Timer.builder(metric(pipeline, stepName, "duration"))
-                .register(registry)
-                .record(nanos, TimeUnit.NANOSECONDS);
+        bind(pipeline, stepName).onSuccess(nanos);
     }
 
     @Override
     public void onStepError(String pipeline, String stepName, Throwable t) {
-        Counter.builder(metric(pipeline, stepName, "errors"))
-                .register(registry)
-                .increment();
+        bind(pipeline, stepName).onError(t);
     }
 
     @Override
     public void onShortCircuit(String pipeline, String stepName) {
-        Counter.builder(metric(pipeline, stepName, "short_circuits"))
-                .register(registry)
-                .increment();
+        bind(pipeline, stepName).onShortCircuit();
+    }
+
+    @Override
+    public void onStuckStep(StuckStep stuck) {
+        Counter.builder(metric(stuck.pipeline(), stuck.step(), "stuck")).register(registry).increment();
+    }
+
+    @Override
+    public StepMeters bind(String pipeline, String stepName) {
+        ConcurrentMap<String, Meters> steps = meters.get(pipeline);
+        if (steps == null) steps = meters.computeIfAbsent(pipeline, ignored -> new ConcurrentHashMap<>());
+        Meters bound = steps.get(stepName);
+        if (bound == null) bound = steps.computeIfAbsent(stepName, ignored -> new Meters(registry, pipeline, stepName));
+        return bound;
     }
 
     @Override
@@ -37,4 +65,65 @@ public final class SimpleMetricsRecorder implements MetricsRecorder {
     private static String metric(String pipeline, String step, String name) {
         return "ps.pipeline." + pipeline + ".step." + step + "." + name;
     }
+
+    private static final class Meters implements StepMeters {
+        private final MeterRegistry registry;
+        private final String pipeline;
+        private final String step;
+        private volatile Timer duration;
+        private volatile Counter errors;
+        private volatile Counter shortCircuits;
+        private volatile DistributionSummary cpuNanos;
+        private volatile DistributionSummary allocatedBytes;
+
+        private Meters(MeterRegistry registry, String pipeline, String step) {
+            this.registry = registry;
+            this.pipeline = pipeline;
+            this.step = step;
+        }
+
+        @Override
+        public void onSuccess(long nanos) {
+            Timer timer = duration;
+            // Registered on first success, as before binding, so unexercised steps publish nothing.
+            if (timer == null) timer = duration = Timer.builder(metric(pipeline, step, "duration")).register(registry);
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            Counter counter = errors;
+            if (counter == null) counter = errors = Counter.builder(metric(pipeline, step, "errors")).register(registry);
+            counter.increment();
+        }
+
+        @Override
+        public void onShortCircuit() {
+            Counter counter = shortCircuits;
+            if (counter == null) {
+                counter = shortCircuits = Counter.builder(metric(pipeline, step, "short_circuits")).register(registry);
+            }
+            counter.increment();
+        }
+
+        @Override
+        public void onResources(long cpu, long allocated) {
+            if (cpu >= 0) {
+                DistributionSummary summary = cpuNanos;
+                if (summary == null) {
+                    summary = cpuNanos = DistributionSummary.builder(metric(pipeline, step, "cpu_nanos"))
+                        .baseUnit("nanoseconds").register(registry);
+                }
+                summary.record(cpu);
+            }
+            if (allocated >= 0) {
+                DistributionSummary summary = allocatedBytes;
+                if (summary == null) {
+                    summary = allocatedBytes = DistributionSummary.builder(metric(pipeline, step, "allocated_bytes"))
+                        .baseUnit("bytes").register(registry);
+                }
+                summary.record(allocated);
+            }
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.pipeline.metrics;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Capture policy for a {@link SlowRunRecorder}.
+ *
+ * <ul>
+ *   <li>{@code capacity}: runs kept; the oldest capture is overwritten first.</li>
+ *   <li>{@code percentile}: runs slower than this percentile of recent runs are captured; {@code 0} disables the
+ *       dynamic threshold.</li>
+ *   <li>{@code minThreshold}: floor for the dynamic threshold, or the fixed threshold when {@code percentile} is
+ *       {@code 0}; {@code null} captures nothing by latency until a percentile is known.</li>
+ *   <li>{@code sampleOneIn}: additionally captures one run in this many regardless of latency; {@code 0} disables
+ *       sampling.</li>
+ *   <li>{@code maxSteps}: step timings kept per run (jump loops can run far more); the rest are only counted.</li>
+ *   <li>{@code summarizer} / {@code summaryMaxChars}: turns the final context of a captured run into the stored
+ *       summary, truncated to {@code summaryMaxChars}.</li>
+ * </ul>
+ */
+public record SlowRunOptions(
+    int capacity,
+    double percentile,
+    Duration minThreshold,
+    int sampleOneIn,
+    int maxSteps,
+    Function<Object, String> summarizer,
+    int summaryMaxChars
+) {
+  public SlowRunOptions {
+    if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+    if (!(percentile >= 0.0 && percentile < 100.0)) throw new IllegalArgumentException("percentile must be in [0, 100)");
+    if (minThreshold != null && minThreshold.isNegative()) throw new IllegalArgumentException("minThreshold must be >= 0");
+    if (sampleOneIn < 0) throw new IllegalArgumentException("sampleOneIn must be >= 0");
+    if (maxSteps < 0) throw new IllegalArgumentException("maxSteps must be >= 0");
+    Objects.requireNonNull(summarizer, "summarizer");
+    if (summaryMaxChars < 0) throw new IllegalArgumentException("summaryMaxChars must be >= 0");
+  }
+
+  /** Keeps the 128 latest runs slower than the recent p99 (and at least 1 ms); no sampling. */
+  public static SlowRunOptions defaults() {
+    return new SlowRunOptions(128, 99.0, Duration.ofMillis(1), 0, 64, String::valueOf, 256);
+  }
+
+  public SlowRunOptions withCapacity(int value) {
+    return new SlowRunOptions(value, percentile, minThreshold, sampleOneIn, maxSteps, summarizer, summaryMaxChars);
+  }
+
+  public SlowRunOptions withPercentile(double value) {
+    return new SlowRunOptions(capacity, value, minThreshold, sampleOneIn, maxSteps, summarizer, summaryMaxChars);
+  }
+
+  public SlowRunOptions withMinThreshold(Duration value) {
+    return new SlowRunOptions(capacity, percentile, value, sampleOneIn, maxSteps, summarizer, summaryMaxChars);
+  }
+
+  public SlowRunOptions withSampleOneIn(int value) {
+    return new SlowRunOptions(capacity, percentile, minThreshold, value, maxSteps, summarizer, summaryMaxChars);
+  }
+
+  public SlowRunOptions withMaxSteps(int value) {
+    return new SlowRunOptions(capacity, percentile, minThreshold, sampleOneIn, value, summarizer, summaryMaxChars);
+  }
+
+  public SlowRunOptions withSummarizer(Function<Object, String> value) {
+    return new SlowRunOptions(capacity, percentile, minThreshold, sampleOneIn, maxSteps, value, summaryMaxChars);
+  }
+
+  public SlowRunOptions withSummaryMaxChars(int value) {
+    return new SlowRunOptions(capacity, percentile, minThreshold, sampleOneIn, maxSteps, summarizer, value);
+  }
+}
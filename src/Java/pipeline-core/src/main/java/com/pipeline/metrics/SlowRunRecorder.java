@@ -0,0 +1,313 @@
+package com.pipeline.metrics;
+
+import com.pipeline.core.PipelineListener;
+import com.pipeline.core.StepInfo;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Flight recorder for outlier runs: a fixed-size ring of the latest runs that were slower than a threshold derived
+ * from recent run latencies (see {@link SlowRunOptions}) or picked by 1-in-N sampling, each with its step timings,
+ * errors and a summary of the final context. Register it on a pipeline with
+ * {@code addListener(recorder)} and read it back through {@link #captured()} or {@link #writeJson}.
+ *
+ * <p>Runs that are not captured record their latency into a thread-striped histogram and keep step timings in a
+ * per-thread scratch buffer, so they allocate nothing. The threshold is recomputed from the runs of the previous
+ * second by whichever run ends first after it goes stale.
+ */
+public final class SlowRunRecorder implements PipelineListener {
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MIN_REFRESH_SAMPLES = 100;
+    private static final Comparator<CapturedRun> BY_SEQUENCE = Comparator.comparingLong(CapturedRun::sequence);
+
+    private final SlowRunOptions options;
+    private final long floorNanos;
+    private final ConcurrentLatencyHistogram latencies = new ConcurrentLatencyHistogram();
+    private final AtomicReferenceArray<CapturedRun> ring;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong nextRefreshNanos = new AtomicLong(System.nanoTime() + REFRESH_NANOS);
+    private final ThreadLocal<Capture> scratch = new ThreadLocal<>();
+    private volatile long thresholdNanos;
+
+    public SlowRunRecorder() {
+        this(SlowRunOptions.defaults());
+    }
+
+    public SlowRunRecorder(SlowRunOptions options) {
+        this.options = Objects.requireNonNull(options, "options");
+        this.floorNanos = (options.minThreshold() == null) ? -1L : options.minThreshold().toNanos();
+        this.ring = new AtomicReferenceArray<>(options.capacity());
+        // Until a percentile is known only the floor applies (no floor: nothing is slow yet).
+        this.thresholdNanos = (floorNanos < 0) ? Long.MAX_VALUE : floorNanos;
+    }
+
+    public SlowRunOptions options() {
+        return options;
+    }
+
+    /** Runs at or above this many nanos are captured. */
+    public long thresholdNanos() {
+        return thresholdNanos;
+    }
+
+    @Override
+    public RunListener onRunStart(String pipeline, long startNanos) {
+        Capture capture = scratch.get();
+        if (capture == null || capture.busy) {
+            // Nested or still-running (async) run on this thread: use a one-off buffer.
+            Capture fresh = new Capture(options.maxSteps());
+            if (capture == null) scratch.set(fresh);
+            capture = fresh;
+        }
+        capture.begin(pipeline);
+        return capture;
+    }
+
+    /** Captured runs, oldest first. */
+    public List<CapturedRun> captured() {
+        List<CapturedRun> runs = new ArrayList<>(ring.length());
+        for (int i = 0; i < ring.length(); i++) {
+            CapturedRun run = ring.get(i);
+            if (run != null) runs.add(run);
+        }
+        runs.sort(BY_SEQUENCE);
+        return runs;
+    }
+
+    /** Drops every captured run. */
+    public void clear() {
+        for (int i = 0; i < ring.length(); i++) ring.set(i, null);
+    }
+
+    /**
+     * Recomputes the dynamic threshold from the runs recorded since the previous refresh; does nothing with fewer
+     * than 100 of them. Runs call this once a second on their own.
+     */
+    public void refreshThreshold() {
+        if (options.percentile() <= 0.0) return;
+        LatencySnapshot recent = latencies.interval();
+        if (recent.count() < MIN_REFRESH_SAMPLES) return;
+        thresholdNanos = Math.max(floorNanos, recent.percentileNanos(options.percentile()));
+    }
+
+    /** Writes {@link #captured()} as a JSON array; {@code out} is flushed, not closed. */
+    public void writeJson(Appendable out) throws IOException {
+        List<CapturedRun> runs = captured();
+        out.append('[');
+        for (int i = 0; i < runs.size(); i++) {
+            if (i > 0) out.append(',');
+            out.append('\n');
+            runs.get(i).writeJson(out);
+        }
+        out.append(runs.isEmpty() ? "]\n" : "\n]\n");
+        if (out instanceof Writer writer) writer.flush();
+    }
+
+    /** Replaces {@code file} with {@link #writeJson the JSON dump}. */
+    public void dumpJson(Path file) throws IOException {
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8)) {
+            writeJson(writer);
+        }
+    }
+
+    private void runEnded(Capture capture, long endNanos, long elapsedNanos, Throwable error) {
+        if (options.percentile() > 0.0) {
+            latencies.record(elapsedNanos);
+            long next = nextRefreshNanos.get();
+            if (endNanos - next >= 0 && nextRefreshNanos.compareAndSet(next, endNanos + REFRESH_NANOS)) {
+                refreshThreshold();
+            }
+        }
+        long threshold = thresholdNanos;
+        String reason = null;
+        if (elapsedNanos >= threshold) {
+            reason = "slow";
+        } else if (options.sampleOneIn() > 0 && ThreadLocalRandom.current().nextInt(options.sampleOneIn()) == 0) {
+            reason = "sampled";
+        }
+        if (reason == null) return;
+        long seq = sequence.getAndIncrement();
+        CapturedRun run = capture.toRun(seq, reason, elapsedNanos, threshold, error, summary(capture.result));
+        ring.set((int) (seq % ring.length()), run);
+    }
+
+    private String summary(Object result) {
+        if (result == null || options.summaryMaxChars() == 0) return null;
+        String text;
+        try {
+            text = options.summarizer().apply(result);
+        } catch (RuntimeException failure) {
+            text = "<summary failed: " + failure + ">";
+        }
+        if (text == null || text.length() <= options.summaryMaxChars()) return text;
+        return text.substring(0, options.summaryMaxChars()) + "...";
+    }
+
+    /** Per-run scratch state, reused by the thread that owns it once the previous run has ended. */
+    private final class Capture implements RunListener {
+        private final StepInfo[] steps;
+        private final long[] elapsed;
+        private final Throwable[] errors;
+        private volatile boolean busy;
+        private String pipeline;
+        private int stepCount;
+        private int droppedSteps;
+        private StepInfo shortCircuitedAt;
+        private Object result;
+
+        private Capture(int maxSteps) {
+            this.steps = new StepInfo[maxSteps];
+            this.elapsed = new long[maxSteps];
+            this.errors = new Throwable[maxSteps];
+        }
+
+        private void begin(String pipeline) {
+            this.busy = true;
+            this.pipeline = pipeline;
+            this.stepCount = 0;
+            this.droppedSteps = 0;
+            this.shortCircuitedAt = null;
+            this.result = null;
+        }
+
+        @Override
+        public void onStepEnd(StepInfo step, long endNanos, long elapsedNanos, Throwable error) {
+            if (stepCount == steps.length) {
+                droppedSteps++;
+                return;
+            }
+            steps[stepCount] = step;
+            elapsed[stepCount] = elapsedNanos;
+            errors[stepCount] = error;
+            stepCount++;
+        }
+
+        @Override
+        public void onShortCircuit(StepInfo step) {
+            shortCircuitedAt = step;
+        }
+
+        @Override
+        public void onRunResult(Object result) {
+            this.result = result;
+        }
+
+        @Override
+        public void onRunEnd(long endNanos, long elapsedNanos, Throwable error) {
+            try {
+                runEnded(this, endNanos, elapsedNanos, error);
+            } finally {
+                // Captured runs hold copies; the scratch buffer must not keep contexts or errors alive.
+                Arrays.fill(steps, 0, stepCount, null);
+                Arrays.fill(errors, 0, stepCount, null);
+                result = null;
+                shortCircuitedAt = null;
+                busy = false;
+            }
+        }
+
+        private CapturedRun toRun(long seq, String reason, long elapsedNanos, long threshold,
+                                  Throwable error, String summary) {
+            List<StepTiming> timings = new ArrayList<>(stepCount);
+            for (int i = 0; i < stepCount; i++) {
+                StepInfo step = steps[i];
+                timings.add(new StepTiming(step.phase().name(), step.position(), label(step), elapsed[i], describe(errors[i])));
+            }
+            Instant endedAt = Instant.now();
+            return new CapturedRun(seq, pipeline, reason, endedAt.minusNanos(elapsedNanos), elapsedNanos,
+                threshold, describe(error), (shortCircuitedAt == null) ? null : label(shortCircuitedAt), summary,
+                List.copyOf(timings), droppedSteps);
+        }
+    }
+
+    private static String label(StepInfo step) {
+        return (step.name() != null) ? step.name() : step.stepName();
+    }
+
+    private static String describe(Throwable error) {
+        if (error == null) return null;
+        return (error.getMessage() == null) ? error.getClass().getName() : error.getClass().getName() + ": " + error.getMessage();
+    }
+
+    /** One captured run; {@code thresholdNanos} is the threshold in force when it ended. */
+    public record CapturedRun(
+        long sequence,
+        String pipeline,
+        String reason,
+        Instant startedAt,
+        long elapsedNanos,
+        long thresholdNanos,
+        String error,
+        String shortCircuitedAt,
+        String summary,
+        List<StepTiming> steps,
+        int droppedSteps
+    ) {
+        void writeJson(Appendable out) throws IOException {
+            out.append("  {\"sequence\":").append(Long.toString(sequence));
+            field(out, "pipeline", pipeline);
+            field(out, "reason", reason);
+            field(out, "startedAt", startedAt.toString());
+            out.append(",\"elapsedNanos\":").append(Long.toString(elapsedNanos));
+            out.append(",\"thresholdNanos\":").append(Long.toString(thresholdNanos));
+            field(out, "error", error);
+            field(out, "shortCircuitedAt", shortCircuitedAt);
+            field(out, "summary", summary);
+            out.append(",\"droppedSteps\":").append(Integer.toString(droppedSteps));
+            out.append(",\"steps\":[");
+            for (int i = 0; i < steps.size(); i++) {
+                StepTiming step = steps.get(i);
+                out.append((i == 0) ? "\n    {" : ",\n    {");
+                out.append("\"position\":").append(Integer.toString(step.position()));
+                field(out, "phase", step.phase());
+                field(out, "step", step.step());
+                out.append(",\"elapsedNanos\":").append(Long.toString(step.elapsedNanos()));
+                field(out, "error", step.error());
+                out.append('}');
+            }
+            out.append(steps.isEmpty() ? "]}" : "\n  ]}");
+        }
+    }
+
+    /** A step of a captured run, in execution order; {@code error} is {@code null} when the step succeeded. */
+    public record StepTiming(String phase, int position, String step, long elapsedNanos, String error) {}
+
+    private static void field(Appendable out, String name, String value) throws IOException {
+        out.append(",\"").append(name).append("\":");
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+}
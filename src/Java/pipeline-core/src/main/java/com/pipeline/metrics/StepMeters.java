@@ -0,0 +1,14 @@
+package com.pipeline.metrics;
+
+/**
+ * Meters of one (pipeline, step) pair, bound once through {@link MetricsRecorder#bind} so the hot path records
+ * without building names or looking anything up.
+ */
+public interface StepMeters {
+    void onSuccess(long nanos);
+    void onError(Throwable t);
+    void onShortCircuit();
+
+    /** CPU time and allocation of a resource-sampled execution; either is {@code -1} when unknown. */
+    default void onResources(long cpuNanos, long allocatedBytes) {}
+}
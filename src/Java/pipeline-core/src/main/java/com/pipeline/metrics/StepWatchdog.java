@@ -0,0 +1,210 @@
+package com.pipeline.metrics;
+
+import com.pipeline.core.PipelineListener;
+import com.pipeline.core.StepInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reports steps that are still running past a threshold, while they run. Register it on pipelines with
+ * {@code addListener(watchdog)}: each run claims a slot of a fixed array on its first step and gives it back when it
+ * ends, its steps publish themselves into it (a few ordered stores per step), and one daemon thread scans the array
+ * every {@code scanInterval}. A step found over its threshold is reported once, with the stack of the thread running
+ * it (none for a pending async step; see {@link StuckStep}), to the sink; by default that is {@link MetricsRecorder#onStuckStep} of {@link Metrics#recorder()}, plus a
+ * warning in the log.
+ *
+ * <p>Slots belong to runs rather than threads, so a nested pipeline's run has a slot of its own and virtual threads
+ * hold one only while their run lasts. A run probes at most {@value #CLAIM_PROBES} slots, starting from a hash of its
+ * thread, and goes unwatched when all of them are taken (in practice once close to {@value #SLOTS} runs are active).
+ */
+public final class StepWatchdog implements PipelineListener, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(StepWatchdog.class);
+    static final int SLOTS = 1024;
+    static final int CLAIM_PROBES = 16;
+
+    private static final VarHandle START;
+    private static final VarHandle CLAIMED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            START = lookup.findVarHandle(Slot.class, "startNanos", long.class);
+            CLAIMED = lookup.findVarHandle(Slot.class, "claimed", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long thresholdNanos;
+    private final Map<String, Long> stepThresholds = new ConcurrentHashMap<>();
+    private final Consumer<StuckStep> sink;
+    private final Slot[] slots = new Slot[SLOTS];
+    private final ScheduledExecutorService scanner;
+
+    private StepWatchdog(Duration threshold, Duration scanInterval, Consumer<StuckStep> sink) {
+        this.thresholdNanos = requirePositive(threshold, "threshold");
+        this.sink = Objects.requireNonNull(sink, "sink");
+        for (int i = 0; i < SLOTS; i++) slots[i] = new Slot();
+        long periodNanos = requirePositive(scanInterval, "scanInterval");
+        this.scanner = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("pipeline-step-watchdog").daemon(true).factory());
+        scanner.scheduleWithFixedDelay(this::scan, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Reports to {@link Metrics#recorder()} (looked up on every report) and logs a warning. */
+    public static StepWatchdog start(Duration threshold, Duration scanInterval) {
+        return start(threshold, scanInterval, stuck -> Metrics.recorder().onStuckStep(stuck));
+    }
+
+    /** Logs a warning for every stuck step and hands it to {@code sink}. */
+    public static StepWatchdog start(Duration threshold, Duration scanInterval, Consumer<StuckStep> sink) {
+        return new StepWatchdog(threshold, scanInterval, sink);
+    }
+
+    /** Overrides the threshold for one step, matched by label (or display name when unlabeled). */
+    public StepWatchdog threshold(String pipeline, String step, Duration threshold) {
+        stepThresholds.put(key(Objects.requireNonNull(pipeline, "pipeline"), Objects.requireNonNull(step, "step")),
+            requirePositive(threshold, "threshold"));
+        return this;
+    }
+
+    @Override
+    public RunListener onRunStart(String pipeline, long startNanos) {
+        return new WatchedRun(pipeline);
+    }
+
+    @Override
+    public void close() {
+        scanner.shutdownNow();
+    }
+
+    /** Slots held by runs; for tests. */
+    int claimedSlots() {
+        int claimed = 0;
+        for (Slot slot : slots) if ((boolean) CLAIMED.getVolatile(slot)) claimed++;
+        return claimed;
+    }
+
+    private void scan() {
+        long now = System.nanoTime();
+        for (Slot slot : slots) {
+            long start = (long) START.getAcquire(slot);
+            if (start == 0L || start == slot.reportedStart) continue;
+            String pipeline = slot.pipeline;
+            StepInfo step = slot.step;
+            Thread thread = slot.thread;
+            if (step == null || thread == null || now - start < thresholdOf(pipeline, step)) continue;
+            // An async step's starting thread has moved on; its stack would belong to unrelated work.
+            List<StackTraceElement> stack = step.async() ? List.of() : List.of(thread.getStackTrace());
+            // The step may have finished (and another started) while the stack was taken.
+            if ((long) START.getAcquire(slot) != start) continue;
+            slot.reportedStart = start;
+            report(new StuckStep(pipeline, step.stepName(), step.phase().name(), step.position(), now - start,
+                thread.getName(), stack));
+        }
+    }
+
+    private void report(StuckStep stuck) {
+        log.warn("Step {} of pipeline {} has been running for {} ms {} thread {}",
+            stuck.step(), stuck.pipeline(), TimeUnit.NANOSECONDS.toMillis(stuck.elapsedNanos()),
+            stuck.stackTrace().isEmpty() ? "after starting on" : "on", stuck.thread());
+        try {
+            sink.accept(stuck);
+        } catch (RuntimeException sinkFailure) {
+            log.warn("Stuck-step sink failed", sinkFailure);
+        }
+    }
+
+    private long thresholdOf(String pipeline, StepInfo step) {
+        if (stepThresholds.isEmpty()) return thresholdNanos;
+        String label = (step.name() != null) ? step.name() : step.stepName();
+        Long override = stepThresholds.get(key(pipeline, label));
+        return (override == null) ? thresholdNanos : override;
+    }
+
+    /** A free slot for a run, or {@code null} when the {@value #CLAIM_PROBES} probed from this thread's hash are taken. */
+    private Slot claim() {
+        long mixed = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        int from = (int) (mixed >>> 32);
+        for (int n = 0; n < CLAIM_PROBES; n++) {
+            Slot slot = slots[(from + n) & (SLOTS - 1)];
+            if (!(boolean) CLAIMED.getOpaque(slot) && CLAIMED.compareAndSet(slot, false, true)) return slot;
+        }
+        return null;
+    }
+
+    private static String key(String pipeline, String step) {
+        return pipeline + '\u0000' + step;
+    }
+
+    private static long requirePositive(Duration value, String name) {
+        long nanos = Objects.requireNonNull(value, name).toNanos();
+        if (nanos <= 0) throw new IllegalArgumentException(name + " must be positive");
+        return nanos;
+    }
+
+    /** Step published by the run holding the slot; written only by that run, read by the scanner. */
+    private static final class Slot {
+        /** Set by a claiming run, cleared when it ends. */
+        private boolean claimed;
+        private String pipeline;
+        private StepInfo step;
+        private Thread thread;
+        /** Release-stored after the fields above; {@code 0} while no step runs. */
+        private long startNanos;
+        /** Scanner-only: start of the execution already reported. */
+        private long reportedStart;
+    }
+
+    /**
+     * Holds the run's slot from its first step to its end. Steps of one run never overlap, so a step always ends in
+     * the slot it started in, on whichever thread an async step completes.
+     */
+    private final class WatchedRun implements RunListener {
+        private final String pipeline;
+        private Slot slot;
+
+        private WatchedRun(String pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public void onStepStart(StepInfo step, long startNanos) {
+            if (slot == null) slot = claim();
+            if (slot == null) return;
+            slot.pipeline = pipeline;
+            slot.step = step;
+            slot.thread = Thread.currentThread();
+            // nanoTime can be 0; the slot treats 0 as idle, so shift by one.
+            START.setRelease(slot, (startNanos == 0L) ? 1L : startNanos);
+        }
+
+        @Override
+        public void onStepEnd(StepInfo step, long endNanos, long elapsedNanos, Throwable error) {
+            if (slot != null) START.setRelease(slot, 0L);
+        }
+
+        @Override
+        public void onRunEnd(long endNanos, long elapsedNanos, Throwable error) {
+            Slot held = slot;
+            if (held == null) return;
+            slot = null;
+            START.setRelease(held, 0L);
+            held.step = null;
+            held.thread = null;
+            CLAIMED.setRelease(held, false);
+        }
+    }
+}
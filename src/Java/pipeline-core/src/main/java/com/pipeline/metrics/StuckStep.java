@@ -0,0 +1,20 @@
+package com.pipeline.metrics;
+
+import java.util.List;
+
+/**
+ * A step found still running past its {@link StepWatchdog} threshold, with the stack of the thread running it at
+ * the time of the scan. Reported once per step execution; {@code step} is the display name used in metric names.
+ *
+ * <p>For an {@link com.pipeline.core.AsyncStepAction} no thread runs the pending stage: {@code thread} is the one
+ * that started the step and {@code stackTrace} is empty.
+ */
+public record StuckStep(
+    String pipeline,
+    String step,
+    String phase,
+    int position,
+    long elapsedNanos,
+    String thread,
+    List<StackTraceElement> stackTrace
+) {}
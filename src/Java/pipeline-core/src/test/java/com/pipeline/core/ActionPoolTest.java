@@ -0,0 +1,235 @@
+package com.pipeline.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class ActionPoolTest {
+
+    @Test
+    void releaseAndBorrowOnOneThreadReusesTheSameInstance() {
+        AtomicInteger created = new AtomicInteger();
+        ActionPool<Integer> pool = new ActionPool<>(4, created::incrementAndGet);
+
+        Integer first = pool.borrow();
+        pool.release(first);
+        for (int i = 0; i < 1_000; i++) {
+            Integer again = pool.borrow();
+            assertSame(first, again);
+            pool.release(again);
+        }
+        assertEquals(1, pool.createdCount());
+    }
+
+    @Test
+    void instancesIdleInAnotherThreadsMagazineAreStolenRatherThanLost() throws Exception {
+        ActionPool<Object> pool = new ActionPool<>(1, Object::new);
+        AtomicReference<Object> borrowedElsewhere = new AtomicReference<>();
+
+        Thread other = new Thread(() -> {
+            Object instance = pool.borrow();
+            borrowedElsewhere.set(instance);
+            pool.release(instance);
+        });
+        other.start();
+        other.join(2_000);
+
+        // The only instance now sits in the finished thread's magazine.
+        assertSame(borrowedElsewhere.get(), pool.borrow());
+        assertEquals(1, pool.createdCount());
+    }
+
+    @Test
+    void borrowersBlockAtMaxAndWakeOnRelease() throws Exception {
+        ActionPool<Object> pool = new ActionPool<>(1, Object::new);
+        Object held = pool.borrow();
+
+        CountDownLatch borrowed = new CountDownLatch(1);
+        AtomicReference<Object> received = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            received.set(pool.borrow());
+            borrowed.countDown();
+        });
+        waiter.start();
+
+        assertFalse(borrowed.await(50, TimeUnit.MILLISECONDS), "pool is exhausted; borrower must wait");
+        pool.release(held);
+        assertTrue(borrowed.await(2, TimeUnit.SECONDS));
+        assertSame(held, received.get());
+    }
+
+    @Test
+    void eachReleaseHandsOffToOneOfManyWaitingBorrowers() throws Exception {
+        ActionPool<Object> pool = new ActionPool<>(1, Object::new);
+        Object held = pool.borrow();
+        int borrowers = 8;
+        CountDownLatch done = new CountDownLatch(borrowers);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < borrowers; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                pool.release(pool.borrow());
+                done.countDown();
+            }));
+        }
+
+        assertFalse(done.await(50, TimeUnit.MILLISECONDS), "pool is exhausted; borrowers must wait");
+        pool.release(held);
+        assertTrue(done.await(2, TimeUnit.SECONDS), "every release must wake the next waiter");
+        for (Thread thread : threads) thread.join();
+        assertSame(held, pool.borrow());
+    }
+
+    @Test
+    void aBorrowerThatParksWhileAReleaseIsInFlightIsWoken() throws Exception {
+        MagazineDepot<Object> depot = new MagazineDepot<>(false);
+        AtomicReference<Object> taken = new AtomicReference<>();
+        Thread borrower = Thread.ofPlatform().unstarted(() -> taken.set(depot.take(-1)));
+        // The release has seen nobody waiting but not yet published; the borrower finds nothing and parks.
+        depot.beforeMagazinePush = () -> {
+            borrower.start();
+            while (borrower.getState() != Thread.State.WAITING) Thread.onSpinWait();
+        };
+
+        Object instance = new Object();
+        depot.put(instance);
+        borrower.join(2_000);
+
+        assertFalse(borrower.isAlive(), "the release must wake a borrower that parked before it published");
+        assertSame(instance, taken.get());
+    }
+
+    @Test
+    void concurrentBorrowersNeverShareAnInstanceAndNeverExceedMax() throws Exception {
+        int max = 3;
+        ActionPool<Object> pool = new ActionPool<>(max, Object::new);
+        Set<Object> inUse = ConcurrentHashMap.newKeySet();
+        AtomicInteger violations = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    Object instance = pool.borrow();
+                    if (!inUse.add(instance)) violations.incrementAndGet();
+                    inUse.remove(instance);
+                    pool.release(instance);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) thread.join(10_000);
+
+        assertEquals(0, violations.get());
+        assertTrue(pool.createdCount() <= max);
+    }
+
+    @Test
+    void seededPoolAcceptsAtMostMaxSeeds() {
+        ActionPoolCache.SeededPool<Object> pool = new ActionPoolCache.SeededPool<>(2);
+        assertTrue(pool.trySeed(new Object()));
+        assertTrue(pool.trySeed(new Object()));
+        assertFalse(pool.trySeed(new Object()));
+
+        Object first = pool.borrow();
+        Object second = pool.borrow();
+        assertNotSame(first, second);
+        pool.release(first);
+        assertSame(first, pool.borrow());
+    }
+
+    @Test
+    void elasticPoolGrowsOnlyAfterBorrowersWaitAndRecordsTheWait() {
+        ActionPool<Object> pool = new ActionPool<>(
+            new ActionPoolOptions(3, 1, Duration.ofMillis(20), null, null), Object::new);
+
+        Object first = pool.borrow();
+        assertEquals(1, pool.createdCount());
+
+        long startNanos = System.nanoTime();
+        Object second = pool.borrow();
+        long waitedNanos = System.nanoTime() - startNanos;
+
+        assertNotSame(first, second);
+        assertEquals(2, pool.createdCount());
+        assertTrue(waitedNanos >= Duration.ofMillis(20).toNanos(), "growth above core should wait growAfterWait");
+
+        ActionPoolStats stats = pool.stats();
+        assertEquals(2, stats.inUse());
+        assertEquals(2, stats.borrows());
+        assertEquals(1, stats.waitedBorrows());
+        assertTrue(stats.maxWaitNanos() >= Duration.ofMillis(20).toNanos());
+    }
+
+    @Test
+    void borrowTimesOutOnceThePoolIsAtMax() {
+        ActionPool<Object> pool = new ActionPool<>(
+            ActionPoolOptions.fixed(1).withBorrowTimeout(Duration.ofMillis(30)), Object::new);
+        pool.borrow();
+
+        IllegalStateException timeout = assertThrows(IllegalStateException.class, pool::borrow);
+        assertTrue(timeout.getMessage().startsWith("Timed out after 30ms"));
+        assertEquals(1, pool.stats().timeouts());
+    }
+
+    @Test
+    void idleInstancesAboveCoreAreEvictedAfterTheTtl() throws Exception {
+        ActionPool<Object> pool = new ActionPool<>(
+            new ActionPoolOptions(4, 1, Duration.ZERO, Duration.ofMillis(20), null), Object::new);
+
+        List<Object> borrowed = new ArrayList<>();
+        for (int i = 0; i < 4; i++) borrowed.add(pool.borrow());
+        borrowed.forEach(pool::release);
+        assertEquals(4, pool.createdCount());
+
+        // The shared evictor trims every ttl/2; give it a few rounds.
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (pool.createdCount() > 1 && System.nanoTime() < deadline) Thread.sleep(5);
+        assertEquals(1, pool.createdCount());
+        assertEquals(3, pool.stats().evicted());
+        assertEquals(0, pool.stats().inUse());
+    }
+
+    @Test
+    void seedOnlyCacheNeverInstantiatesActions() {
+        ActionPoolCache cache = new ActionPoolCache(ActionPoolOptions.fixed(4).withBorrowTimeout(Duration.ofMillis(20)));
+        ActionCacheKey key = new ActionCacheKey("seed_only", StepPhase.MAIN, 0, "counter");
+        ActionPoolCache.SeededPool<Object> pool = cache.entry(key, Counter.class, ActionInvokeStyle.STEP_ACTION).pool();
+        assertTrue(pool.trySeed(new Counter()));
+
+        pool.borrow();
+
+        assertThrows(IllegalStateException.class, pool::borrow);
+        assertEquals(1, cache.stats().get(key).created());
+    }
+
+    @Test
+    void cacheWithAFactoryGrowsBeyondItsSeedsInsteadOfBlockingForever() {
+        ActionPoolCache cache = new ActionPoolCache(
+            ActionPoolOptions.elastic(4, Duration.ofMillis(1), null), actionClass -> new Counter());
+        ActionCacheKey key = new ActionCacheKey("elastic_seeded", StepPhase.MAIN, 0, "counter");
+        ActionPoolCache.SeededPool<Object> pool = cache.entry(key, Counter.class, ActionInvokeStyle.STEP_ACTION).pool();
+        assertTrue(pool.trySeed(new Counter()));
+
+        Object seed = pool.borrow();
+        Object grown = pool.borrow();
+
+        assertNotSame(seed, grown);
+        assertInstanceOf(Counter.class, grown);
+        assertEquals(2, cache.stats().get(key).created());
+    }
+
+    private static final class Counter implements StepAction<String>, ResettableAction {
+        @Override public String apply(String ctx, ActionControl<String> control) { return ctx; }
+        @Override public void reset() {}
+    }
+}
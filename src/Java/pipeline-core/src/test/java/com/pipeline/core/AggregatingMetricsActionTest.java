@@ -0,0 +1,119 @@
+package com.pipeline.core;
+
+import com.pipeline.core.actions.AggregatingMetricsAction;
+import com.pipeline.core.actions.BinaryMetricsWriter;
+import com.pipeline.core.actions.MetricsWindow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class AggregatingMetricsActionTest {
+
+    @Test
+    void emitsOneWindowPerRunCountAndOnTime() {
+        AtomicLong clock = new AtomicLong(1_000);
+        List<Map<String, Object>> windows = new ArrayList<>();
+        var metrics = new AggregatingMetricsAction<String>("Metrics", 3, Duration.ofMillis(50), clock::get,
+            window -> windows.add(window.toMap()));
+        var pipeline = new Pipeline<String>("windowed", false)
+            .addAction("ok", s -> s + "A")
+            .addAction("boom", (s, control) -> {
+                if (s.startsWith("bad")) throw new IllegalStateException("boom");
+                return s;
+            })
+            .addPostAction(metrics);
+
+        pipeline.run("x");
+        pipeline.run("bad");
+        assertTrue(windows.isEmpty());
+        pipeline.run("y");
+        assertEquals(1, windows.size(), "third run completes the count window");
+
+        pipeline.run("z");
+        clock.addAndGet(Duration.ofMillis(60).toNanos());
+        pipeline.run("w");
+        assertEquals(2, windows.size(), "a run after the time window elapsed emits it");
+        metrics.flush();
+        assertEquals(2, windows.size(), "nothing to flush after an emission");
+
+        Map<String, Object> first = windows.getFirst();
+        assertEquals("windowed", first.get("pipeline"));
+        assertEquals(3L, first.get("runs"));
+        assertEquals(1L, first.get("failedRuns"));
+        @SuppressWarnings("unchecked")
+        var actions = (Map<String, Map<String, Object>>) first.get("actions");
+        assertEquals(List.of("s0:ok", "s1:boom"), List.copyOf(actions.keySet()));
+        assertEquals(3L, actions.get("s1:boom").get("calls"));
+        assertEquals(1L, actions.get("s1:boom").get("errors"));
+        assertEquals(2L, windows.get(1).get("runs"));
+    }
+
+    @Test
+    void actionsKeepTheirPositionInBothBuffers() {
+        List<Map<String, Object>> windows = new ArrayList<>();
+        var metrics = new AggregatingMetricsAction<String>("Metrics", 1, null, window -> windows.add(window.toMap()));
+        var pipeline = new Pipeline<String>("conditional", true)
+            .addAction("gate", s -> {
+                if (s.equals("stop")) throw new IllegalStateException("gated");
+                return s;
+            })
+            .addAction("late", s -> s + "L")
+            .addPostAction(metrics);
+
+        for (String input : List.of("stop", "go", "stop", "stop")) pipeline.run(input);
+
+        assertEquals(4, windows.size());
+        assertEquals(List.of("s0:gate"), List.copyOf(actions(windows.getFirst()).keySet()));
+        for (Map<String, Object> window : windows.subList(1, 4)) {
+            assertEquals(List.of("s0:gate", "s1:late"), List.copyOf(actions(window).keySet()));
+        }
+        assertEquals(1L, actions(windows.get(1)).get("s1:late").get("calls"));
+        assertEquals(0L, actions(windows.get(2)).get("s1:late").get("calls"), "seen by the other buffer, not run here");
+        assertEquals(0L, actions(windows.get(3)).get("s1:late").get("calls"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> actions(Map<String, Object> window) {
+        return (Map<String, Map<String, Object>>) window.get("actions");
+    }
+
+    @Test
+    void binaryRecordsRoundTrip() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        var writer = new BinaryMetricsWriter(Channels.newChannel(bytes));
+        var metrics = new AggregatingMetricsAction<String>("bin", 2, null, writer);
+        var pipeline = new Pipeline<String>("binary", true)
+            .addPreAction("pre", s -> s)
+            .addAction("upper", s -> s.toUpperCase())
+            .addPostAction(metrics);
+        for (int i = 0; i < 5; i++) pipeline.run("run" + i);
+        metrics.flush();
+
+        ByteBuffer in = ByteBuffer.wrap(bytes.toByteArray());
+        List<MetricsWindow> windows = new ArrayList<>();
+        for (MetricsWindow window = BinaryMetricsWriter.read(in); window != null; window = BinaryMetricsWriter.read(in)) {
+            windows.add(window);
+        }
+
+        assertEquals(3, windows.size());
+        assertEquals(List.of(2L, 2L, 1L), windows.stream().map(MetricsWindow::runs).toList());
+        MetricsWindow last = windows.getLast();
+        assertEquals("bin", last.name());
+        assertEquals("binary", last.pipeline());
+        assertEquals(2, last.actionCount());
+        assertEquals(StepPhase.PRE, last.phase(0));
+        assertEquals(StepPhase.MAIN, last.phase(1));
+        assertEquals("s0:upper", last.actionName(1));
+        assertEquals(1L, last.calls(1));
+        assertEquals(0, in.remaining());
+    }
+}
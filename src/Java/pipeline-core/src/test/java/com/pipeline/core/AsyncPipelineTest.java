@@ -0,0 +1,128 @@
+package com.pipeline.core;
+
+import com.pipeline.metrics.Metrics;
+import com.pipeline.metrics.SimpleMetricsRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class AsyncPipelineTest {
+
+    @BeforeEach
+    void setup() {
+        Metrics.setRecorder(new SimpleMetricsRecorder());
+    }
+
+    @Test
+    void runAsyncDoesNotBlockOnPendingStepsAndKeepsPhaseOrder() throws Exception {
+        CompletableFuture<String> remote = new CompletableFuture<>();
+        var pipeline = new Pipeline<String>("async_order", true)
+            .addPreAction("pre", s -> s + "<")
+            .addAction("remote", (AsyncStepAction<String>) (s, control) -> remote.thenApply(body -> s + body))
+            .addAction("local", s -> s + "L")
+            .addPostAction("post", s -> s + ">");
+
+        CompletableFuture<PipelineResult<String>> future = pipeline.runAsync("x");
+        assertFalse(future.isDone());
+
+        remote.complete("R");
+        PipelineResult<String> result = future.get(1, TimeUnit.SECONDS);
+        assertEquals("x<RL>", result.context());
+        assertEquals(List.of("pre0:pre", "s0:remote", "s1:local", "post0:post"), stepNames(result));
+        assertEquals(pipeline.run("x").context(), result.context());
+    }
+
+    @Test
+    void failedStageShortCircuitsLikeAThrowingStep() throws Exception {
+        Executor later = CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS);
+        var pipeline = new Pipeline<String>("async_failure", true)
+            .addAction("remote", (AsyncStepAction<String>) (s, control) ->
+                CompletableFuture.supplyAsync(() -> { throw new IllegalStateException("down"); }, later))
+            .addAction("never", s -> s + "N")
+            .addPostAction("post", s -> s + "|post");
+
+        PipelineResult<String> result = pipeline.runAsync("x").get(1, TimeUnit.SECONDS);
+
+        assertEquals("x|post", result.context());
+        assertTrue(result.shortCircuited());
+        assertEquals("s0:remote", result.errors().getFirst().stepName());
+        assertInstanceOf(IllegalStateException.class, result.errors().getFirst().exception());
+        assertEquals(pipeline.run("x").context(), result.context());
+    }
+
+    @Test
+    void aCheckedStageFailureIsReportedAlikeByRunAndRunAsync() throws Exception {
+        var pipeline = new Pipeline<String>("async_checked", true)
+            .addAction("remote", (AsyncStepAction<String>) (s, control) ->
+                CompletableFuture.failedFuture(new IOException("reset")));
+
+        Exception async = pipeline.runAsync("x").get(1, TimeUnit.SECONDS).errors().getFirst().exception();
+        Exception sync = pipeline.run("x").errors().getFirst().exception();
+
+        assertInstanceOf(IOException.class, async);
+        assertInstanceOf(IOException.class, sync);
+        assertEquals("reset", sync.getMessage());
+    }
+
+    @Test
+    void completedStagesContinueInlineWithoutGrowingTheStack() throws Exception {
+        var pipeline = new Pipeline<Integer>("async_inline", true);
+        for (int i = 0; i < 5_000; i++) {
+            pipeline.addAction((AsyncStepAction<Integer>) (n, control) -> CompletableFuture.completedFuture(n + 1));
+        }
+
+        CompletableFuture<PipelineResult<Integer>> future = pipeline.runAsync(0);
+        assertTrue(future.isDone());
+        assertEquals(5_000, future.get().context());
+    }
+
+    @Test
+    void manyRunsCanBeInFlightOnOneThread() throws Exception {
+        List<CompletableFuture<String>> pending = new ArrayList<>();
+        var pipeline = new Pipeline<String>("async_many", true)
+            .addAction((AsyncStepAction<String>) (s, control) -> {
+                CompletableFuture<String> stage = new CompletableFuture<>();
+                pending.add(stage);
+                return stage.thenApply(body -> s + body);
+            });
+
+        List<CompletableFuture<PipelineResult<String>>> runs = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) runs.add(pipeline.runAsync("r" + i));
+        assertEquals(1_000, pending.size());
+        assertTrue(runs.stream().noneMatch(CompletableFuture::isDone));
+
+        CountDownLatch done = new CountDownLatch(runs.size());
+        runs.forEach(run -> run.whenComplete((r, e) -> done.countDown()));
+        Thread completer = new Thread(() -> pending.forEach(stage -> stage.complete("!")));
+        completer.start();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("r999!", runs.get(999).get().context());
+    }
+
+    @Test
+    void engineFailureCompletesTheFutureExceptionally() {
+        var pipeline = Pipeline.<String>builder("async_engine_failure")
+            .onError((ctx, err) -> null)
+            .addAction("remote", (AsyncStepAction<String>) (s, control) -> CompletableFuture.failedFuture(new RuntimeException("x")))
+            .build();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> pipeline.runAsync("x").get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+
+    private static List<String> stepNames(PipelineResult<?> result) {
+        List<String> names = new ArrayList<>();
+        for (ActionTiming timing : result.actionTimings()) names.add(timing.actionName());
+        return names;
+    }
+}
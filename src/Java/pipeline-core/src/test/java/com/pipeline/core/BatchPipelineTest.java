@@ -0,0 +1,115 @@
+package com.pipeline.core;
+
+import com.pipeline.metrics.Metrics;
+import com.pipeline.metrics.SimpleMetricsRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class BatchPipelineTest {
+
+    @BeforeEach
+    void setup() {
+        Metrics.setRecorder(new SimpleMetricsRecorder());
+    }
+
+    @Test
+    void runBatchAppliesEachStepToTheWholeBatchBeforeTheNext() {
+        List<String> calls = new ArrayList<>();
+        var pipeline = new Pipeline<String>("batch_order", true)
+            .addAction("a", s -> { calls.add("a:" + s); return s + "A"; })
+            .addAction("b", s -> { calls.add("b:" + s); return s + "B"; });
+
+        List<PipelineResult<String>> results = pipeline.runBatch(List.of("1", "2", "3"));
+
+        assertEquals(List.of("a:1", "a:2", "a:3", "b:1A", "b:2A", "b:3A"), calls);
+        assertEquals(List.of("1AB", "2AB", "3AB"), results.stream().map(PipelineResult::context).toList());
+        assertEquals(2, results.get(1).actionTimings().size());
+    }
+
+    @Test
+    void runBatchKeepsShortCircuitAndErrorsPerElement() {
+        var pipeline = new Pipeline<String>("batch_errors", true)
+            .addPreAction("pre", s -> s)
+            .addAction("check", (s, control) -> {
+                if (s.startsWith("bad")) throw new IllegalArgumentException(s);
+                return s + "A";
+            })
+            .addAction("stop", (s, control) -> {
+                if (s.startsWith("stop")) control.shortCircuit();
+                return s + "B";
+            })
+            .addAction("tail", s -> s + "C")
+            .addPostAction("post", s -> s + "|");
+
+        String[] inputs = {"ok", "bad", "stop"};
+        List<PipelineResult<String>> batch = pipeline.runBatch(inputs);
+
+        for (int i = 0; i < inputs.length; i++) {
+            PipelineResult<String> single = pipeline.run(inputs[i]);
+            PipelineResult<String> batched = batch.get(i);
+            assertEquals(single.context(), batched.context());
+            assertEquals(single.shortCircuited(), batched.shortCircuited());
+            assertEquals(single.errors().size(), batched.errors().size());
+            assertEquals(single.actionTimings().size(), batched.actionTimings().size());
+        }
+        assertEquals("okABC|", batch.get(0).context());
+        assertEquals("bad|", batch.get(1).context());
+        assertEquals("s0:check", batch.get(1).errors().getFirst().stepName());
+        assertEquals("stopAB|", batch.get(2).context());
+    }
+
+    @Test
+    void batchStepActionIsCalledOncePerStepWithActiveElementsOnly() {
+        AtomicInteger batchCalls = new AtomicInteger();
+        List<Integer> batchSizes = new ArrayList<>();
+        BatchStepAction<String> upper = (contexts, controls) -> {
+            batchCalls.incrementAndGet();
+            batchSizes.add(contexts.size());
+            List<String> out = new ArrayList<>(contexts.size());
+            for (int i = 0; i < contexts.size(); i++) {
+                String ctx = contexts.get(i);
+                if (ctx.startsWith("x")) controls.get(i).shortCircuit();
+                out.add(ctx.toUpperCase());
+            }
+            return out;
+        };
+
+        var pipeline = Pipeline.<String>builder("batch_native")
+            .addAction("upper", upper)
+            .addAction("again", upper)
+            .build();
+
+        List<PipelineResult<String>> results = pipeline.runBatch(List.of("a", "x", "b"));
+
+        assertEquals(2, batchCalls.get());
+        assertEquals(List.of(3, 2), batchSizes);
+        assertEquals(List.of("A", "X", "B"), results.stream().map(PipelineResult::context).toList());
+        assertTrue(results.get(1).shortCircuited());
+
+        assertEquals("Q", pipeline.run("q").context());
+    }
+
+    @Test
+    void failingBatchStepFailsEveryElementInTheBatch() {
+        BatchStepAction<String> broken = (contexts, controls) -> List.of("only-one");
+        var pipeline = Pipeline.<String>builder("batch_broken")
+            .shortCircuitOnException(false)
+            .onError((ctx, err) -> ctx + "!")
+            .addAction("broken", broken)
+            .addAction("next", s -> s + "N")
+            .build();
+
+        List<PipelineResult<String>> results = pipeline.runBatch(List.of("a", "b"));
+
+        assertEquals(List.of("a!N", "b!N"), results.stream().map(PipelineResult::context).toList());
+        assertEquals("s0:broken", results.get(0).errors().getFirst().stepName());
+        assertFalse(results.get(0).actionTimings().getFirst().success());
+        assertTrue(pipeline.runBatch(List.of()).isEmpty());
+    }
+}
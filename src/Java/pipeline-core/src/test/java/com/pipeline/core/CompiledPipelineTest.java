@@ -0,0 +1,109 @@
+package com.pipeline.core;
+
+import com.pipeline.metrics.Metrics;
+import com.pipeline.metrics.SimpleMetricsRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class CompiledPipelineTest {
+
+    @BeforeEach
+    void setup() {
+        Metrics.setRecorder(new SimpleMetricsRecorder());
+    }
+
+    @Test
+    void compiledMatchesInterpretedForShortCircuitOnException() {
+        PipelineResult<String> interpreted = failingPipeline("c1", true).run("X");
+        PipelineResult<String> compiled = failingPipeline("c1", true).compile().run("X");
+
+        assertEquals("XA|post", compiled.context());
+        assertEquals(interpreted.context(), compiled.context());
+        assertTrue(compiled.shortCircuited());
+        assertEquals(stepNames(interpreted), stepNames(compiled));
+        assertEquals("s1:boom", compiled.errors().getFirst().stepName());
+    }
+
+    @Test
+    void compiledContinuesAfterErrorsWhenShortCircuitIsOff() {
+        PipelineResult<String> compiled = failingPipeline("c2", false).compile().run("X");
+
+        assertEquals("XAB|post", compiled.context());
+        assertFalse(compiled.shortCircuited());
+        assertEquals(1, compiled.errors().size());
+        assertEquals(List.of("pre0:pre", "s0:a", "s1:boom", "s2:b", "post0:post"), stepNames(compiled));
+    }
+
+    @Test
+    void compiledHonoursExplicitShortCircuitAndOnError() {
+        var pipeline = Pipeline.<String>builder("c3")
+            .shortCircuitOnException(false)
+            .onError((ctx, err) -> ctx + "!" + err.stepName())
+            .addAction("stop", (ctx, control) -> { control.shortCircuit(); return ctx + "S"; })
+            .addAction("never", s -> s + "N")
+            .build()
+            .compile();
+
+        PipelineResult<String> result = pipeline.run("X");
+        assertEquals("XS", result.context());
+        assertTrue(result.shortCircuited());
+
+        var recovering = Pipeline.<String>builder("c4")
+            .onError((ctx, err) -> ctx + "!" + err.stepName())
+            .addAction("nil", (ctx, control) -> null)
+            .build()
+            .compile();
+        assertEquals("X!s0:nil", recovering.run("X").context());
+    }
+
+    @Test
+    void veryLongPipelinesRunCompiledWithoutDeepStacks() {
+        int steps = 20_000;
+        int stopAt = CompiledPlan.MAX_CHAIN + 3;
+        var pipeline = new Pipeline<Integer>("c_long", true);
+        for (int i = 0; i < steps; i++) pipeline.addAction(n -> n + 1);
+        var stopping = new Pipeline<Integer>("c_long_stop", true);
+        for (int i = 0; i < 2 * CompiledPlan.MAX_CHAIN; i++) {
+            int index = i;
+            stopping.addAction((n, control) -> {
+                if (index == stopAt) control.shortCircuit();
+                return n + 1;
+            });
+        }
+
+        assertEquals(steps, pipeline.compile().run(0).context());
+        PipelineResult<Integer> stopped = stopping.compile().run(0);
+        assertEquals(stopAt + 1, stopped.context());
+        assertEquals(stopping.run(0).context(), stopped.context());
+    }
+
+    @Test
+    void actionsAddedAfterCompileAreIncludedOnTheNextRun() {
+        var pipeline = new Pipeline<String>("c5", true).addAction(s -> s + "1").compile();
+        assertEquals("x1", pipeline.run("x").context());
+
+        pipeline.addAction(s -> s + "2");
+        assertTrue(pipeline.isCompiled());
+        assertEquals("x12", pipeline.run("x").context());
+    }
+
+    private static Pipeline<String> failingPipeline(String name, boolean shortCircuit) {
+        return new Pipeline<String>(name, shortCircuit)
+            .addPreAction("pre", s -> s)
+            .addAction("a", s -> s + "A")
+            .addAction("boom", (s, control) -> { throw new IllegalStateException("boom"); })
+            .addAction("b", s -> s + "B")
+            .addPostAction("post", s -> s + "|post");
+    }
+
+    private static List<String> stepNames(PipelineResult<?> result) {
+        List<String> names = new ArrayList<>();
+        for (ActionTiming timing : result.actionTimings()) names.add(timing.actionName());
+        return names;
+    }
+}
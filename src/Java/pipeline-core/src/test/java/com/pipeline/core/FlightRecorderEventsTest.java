@@ -0,0 +1,89 @@
+package com.pipeline.core;
+
+import com.pipeline.core.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class FlightRecorderEventsTest {
+
+    @Test
+    void runsStepsAndShortCircuitsAreRecorded() throws Exception {
+        Pipeline<String> pipeline = new Pipeline<String>("jfr_events")
+            .addAction("upper", (String s) -> s.toUpperCase())
+            .addAction("boom", (s, control) -> { throw new IllegalStateException("boom"); })
+            .addAction("skipped", (String s) -> s);
+
+        List<RecordedEvent> events = record(() -> pipeline.run("x"),
+            "com.pipeline.Run", "com.pipeline.Step", "com.pipeline.ShortCircuit");
+
+        List<RecordedEvent> steps = named(events, "com.pipeline.Step");
+        assertEquals(2, steps.size());
+        assertEquals("upper", steps.get(0).getString("step"));
+        assertEquals("success", steps.get(0).getString("outcome"));
+        assertEquals("boom", steps.get(1).getString("step"));
+        assertEquals("MAIN", steps.get(1).getString("phase"));
+        assertEquals(1, steps.get(1).getInt("position"));
+        assertEquals(IllegalStateException.class.getName(), steps.get(1).getString("error"));
+
+        RecordedEvent shortCircuit = named(events, "com.pipeline.ShortCircuit").getFirst();
+        assertEquals("boom", shortCircuit.getString("step"));
+
+        RecordedEvent run = named(events, "com.pipeline.Run").getFirst();
+        assertEquals("jfr_events", run.getString("pipeline"));
+        assertEquals("error", run.getString("outcome"));
+        assertEquals(IllegalStateException.class.getName(), run.getString("error"));
+    }
+
+    @Test
+    void exhaustedPoolWaitsAreRecorded() throws Exception {
+        ActionPool<Object> pool = new ActionPool<>(1, Object::new);
+        Object held = pool.borrow();
+
+        List<RecordedEvent> events = record(() -> {
+            assertThrows(IllegalStateException.class, () -> pool.borrow(Duration.ofMillis(5)));
+        }, "com.pipeline.ActionPoolWait");
+        pool.release(held);
+
+        RecordedEvent wait = named(events, "com.pipeline.ActionPoolWait").getFirst();
+        assertEquals("timeout", wait.getString("outcome"));
+        assertEquals(1, wait.getInt("poolMax"));
+        assertTrue(wait.getDuration().toMillis() >= 5);
+    }
+
+    @Test
+    void bundledProfileEnablesEveryPipelineEvent() {
+        var settings = FlightRecorderListener.configuration().getSettings();
+
+        for (String event : List.of("Run", "Step", "Jump", "ShortCircuit", "ActionPoolWait", "HttpCall")) {
+            assertEquals("true", settings.get("com.pipeline." + event + "#enabled"), event);
+        }
+        assertEquals("1 ms", settings.get("com.pipeline.Step#threshold"));
+    }
+
+    private static List<RecordedEvent> record(Runnable body, String... eventNames) throws Exception {
+        Path file = Files.createTempFile("pipeline", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String eventName : eventNames) recording.enable(eventName).withThreshold(Duration.ZERO);
+            recording.start();
+            body.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String eventName) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(eventName)).toList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.pipeline.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class LambdaBinderTest {
+
+    @Test
+    void privateConstructorIsBoundToAGeneratedSupplier() throws Exception {
+        Supplier<Hidden> factory = LambdaBinder.constructor(Hidden.class.getDeclaredConstructor());
+
+        assertTrue(factory.getClass().isHidden(), "expected a metafactory-spun class, got " + factory.getClass());
+        assertNotSame(factory.get(), factory.get());
+        assertEquals("hidden", factory.get().name);
+    }
+
+    @Test
+    void staticAndInstanceMethodsAreBoundAndPrimitiveResultsBoxed() throws Exception {
+        ThrowingFn<Object, Object> isEmpty = LambdaBinder.staticMethod(LambdaBinderTest.class.getDeclaredMethod("isEmpty", String.class));
+        ThrowingFn<Object, Object> prefix = LambdaBinder.instanceMethod(new Prefixer("p:"), Prefixer.class.getDeclaredMethod("apply", String.class));
+
+        assertTrue(isEmpty.getClass().isHidden());
+        assertEquals(Boolean.TRUE, isEmpty.apply(""));
+        assertEquals(Boolean.FALSE, isEmpty.apply("x"));
+        assertEquals("p:x", prefix.apply("x"));
+    }
+
+    @Test
+    void primitiveParametersAreBoundAndUnboxed() throws Exception {
+        ThrowingFn<Object, Object> inc = LambdaBinder.staticMethod(LambdaBinderTest.class.getDeclaredMethod("inc", long.class));
+
+        assertTrue(inc.getClass().isHidden(), "expected a metafactory-spun class, got " + inc.getClass());
+        assertEquals(42L, inc.apply(41L));
+    }
+
+    @Test
+    void checkedExceptionsPropagateUnwrapped() throws Exception {
+        ThrowingFn<Object, Object> failing = LambdaBinder.staticMethod(LambdaBinderTest.class.getDeclaredMethod("fail", String.class));
+
+        IOException failure = assertThrows(IOException.class, () -> failing.apply("boom"));
+        assertEquals("boom", failure.getMessage());
+        assertThrows(ClassCastException.class, () -> failing.apply(42));
+    }
+
+    @Test
+    void voidMethodsFallBackToReflectionAndStaticnessIsChecked() throws Exception {
+        ThrowingFn<Object, Object> viaReflection =
+            LambdaBinder.staticMethod(LambdaBinderTest.class.getDeclaredMethod("sideEffect", String.class));
+
+        assertNull(viaReflection.apply("void methods are not bound"));
+        assertThrows(IllegalArgumentException.class,
+            () -> LambdaBinder.staticMethod(Prefixer.class.getDeclaredMethod("apply", String.class)));
+    }
+
+    private static boolean isEmpty(String value) {
+        return value.isEmpty();
+    }
+
+    private static long inc(long value) {
+        return value + 1;
+    }
+
+    private static String fail(String message) throws IOException {
+        throw new IOException(message);
+    }
+
+    private static void sideEffect(String ignored) {}
+
+    private static final class Hidden {
+        private final String name = "hidden";
+
+        private Hidden() {}
+    }
+
+    private static final class Prefixer {
+        private final String prefix;
+
+        private Prefixer(String prefix) {
+            this.prefix = prefix;
+        }
+
+        private String apply(String value) {
+            return prefix + value;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.pipeline.core;
+
+import com.pipeline.core.actions.AggregatingMetricsAction;
+import com.pipeline.core.actions.BinaryMetricsWriter;
+import com.pipeline.metrics.Metrics;
+import com.pipeline.metrics.MetricsRecorder;
+import com.pipeline.metrics.SimpleMetricsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+final class PipelineAllocationTest {
+
+    @BeforeEach
+    void setup() {
+        Metrics.setRecorder(new NoopRecorder());
+    }
+
+    @AfterEach
+    void restore() {
+        Metrics.setRecorder(new SimpleMetricsRecorder());
+    }
+
+    @Test
+    void recycledRunAllocatesNothingWhenNoErrorsOccur() {
+        var threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean, "allocated-bytes accounting unavailable");
+        var allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported(), "allocated-bytes accounting unsupported");
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        var pipeline = Pipeline.<String>builder("alloc_free")
+            .recycleRunState(true)
+            .addPreAction("pre", (ctx, control) -> ctx)
+            .addAction("first", (ctx, control) -> ctx)
+            .addAction("second", (ctx, control) -> ctx)
+            .addPostAction("post", (ctx, control) -> ctx)
+            .build();
+
+        long checksum = 0;
+        for (int warmup = 0; warmup < 200_000; warmup++) {
+            checksum += runOnce(pipeline, "x");
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        int iterations = 100_000;
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            checksum += runOnce(pipeline, "x");
+        }
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum > 0);
+        // A single PipelineResult per run would already be ~4MB here; allow a little noise from the JVM itself.
+        assertTrue(allocated < 64 * 1024, "expected no per-run allocation, got " + allocated + " bytes over " + iterations + " runs");
+    }
+
+    @Test
+    void aggregatingMetricsPostActionAllocatesNothingPerRun() {
+        var threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean, "allocated-bytes accounting unavailable");
+        var allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported(), "allocated-bytes accounting unsupported");
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        var written = new AtomicLong();
+        WritableByteChannel discard = new WritableByteChannel() {
+            @Override public int write(ByteBuffer src) { int n = src.remaining(); src.position(src.limit()); written.addAndGet(n); return n; }
+            @Override public boolean isOpen() { return true; }
+            @Override public void close() {}
+        };
+        var pipeline = Pipeline.<String>builder("alloc_free_metrics")
+            .recycleRunState(true)
+            .addAction("first", (ctx, control) -> ctx)
+            .addAction("second", (ctx, control) -> ctx)
+            .addPostAction("metrics", new AggregatingMetricsAction<>(1_000, null, new BinaryMetricsWriter(discard)))
+            .build();
+
+        long checksum = 0;
+        for (int warmup = 0; warmup < 200_000; warmup++) {
+            checksum += runOnce(pipeline, "x");
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        int iterations = 100_000;
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            checksum += runOnce(pipeline, "x");
+        }
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum > 0);
+        assertTrue(written.get() > 0, "windows should have been written");
+        assertTrue(allocated < 64 * 1024, "expected no per-run allocation, got " + allocated + " bytes over " + iterations + " runs");
+    }
+
+    @Test
+    void recycledResultReflectsTheLatestRunOnTheThread() {
+        var pipeline = new Pipeline<String>("recycled_view", true)
+            .recycleRunState(true)
+            .addAction("a", s -> s + "A")
+            .addAction("b", s -> s + "B");
+
+        PipelineResult<String> first = pipeline.run("x");
+        assertEquals(2, first.actionTimings().size());
+        assertEquals("s0:a", first.actionTimings().get(0).actionName());
+        assertEquals("s1:b", first.actionTimings().get(1).actionName());
+        assertTrue(first.actionTimings().get(1).success());
+
+        PipelineResult<String> second = pipeline.run("y");
+        assertSame(first, second);
+        assertSame(first.actionTimings(), second.actionTimings());
+        assertEquals("yAB", second.context());
+    }
+
+    @Test
+    void defaultRunsKeepTimingsIndependentAcrossRuns() {
+        var pipeline = new Pipeline<String>("default_view", false)
+            .addAction("ok", s -> s + "A")
+            .addAction("boom", (s, control) -> { throw new IllegalStateException("boom"); });
+
+        PipelineResult<String> first = pipeline.run("x");
+        PipelineResult<String> second = pipeline.run("y");
+
+        assertEquals(2, first.actionTimings().size());
+        assertTrue(first.actionTimings().get(0).success());
+        assertEquals(false, first.actionTimings().get(1).success());
+        assertEquals(1, first.errors().size());
+        assertEquals(1, second.errors().size());
+        assertEquals("s1:boom", second.errors().getFirst().stepName());
+    }
+
+    @Test
+    void copiesOfRecycledResultsAreStableValues() {
+        var pipeline = new Pipeline<String>("recycled_copy", true)
+            .recycleRunState(true)
+            .addAction("a", s -> s + "A");
+
+        PipelineResult<String> recycled = pipeline.run("x");
+        PipelineResult<String> copy = new PipelineResult<>(recycled.context(), recycled.shortCircuited(), recycled.errors(),
+            recycled.actionTimings(), recycled.totalNanos());
+        PipelineResult<String> again = new PipelineResult<>(copy.context(), copy.shortCircuited(), copy.errors(),
+            copy.actionTimings(), copy.totalNanos());
+        List<ActionTiming> timings = List.copyOf(copy.actionTimings());
+        pipeline.run("yy");
+
+        assertEquals("xA", copy.context());
+        assertEquals(timings, copy.actionTimings(), "the copy must not follow the recycled buffer");
+        assertEquals(copy, again);
+        assertEquals(copy.hashCode(), again.hashCode());
+        assertNotEquals(copy, recycled, "a recycled result compares by identity");
+        assertEquals(recycled, recycled);
+    }
+
+    private static int runOnce(Pipeline<String> pipeline, String input) {
+        PipelineResult<String> result = pipeline.run(input);
+        return result.context().length() + result.actionTimings().size();
+    }
+
+    private static final class NoopRecorder implements MetricsRecorder {
+        private final MeterRegistry registry = new SimpleMeterRegistry();
+
+        @Override public void onStepSuccess(String pipeline, String stepName, long nanos) {}
+        @Override public void onStepError(String pipeline, String stepName, Throwable t) {}
+        @Override public void onShortCircuit(String pipeline, String stepName) {}
+        @Override public MeterRegistry registry() { return registry; }
+    }
+}
@@ -0,0 +1,140 @@
+package com.pipeline.core;
+
+import com.pipeline.metrics.Metrics;
+import com.pipeline.metrics.SimpleMetricsRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PipelineListenerTest {
+
+    @AfterEach
+    void resetRecorder() {
+        Metrics.setRecorder(new SimpleMetricsRecorder());
+    }
+
+    @Test
+    void stepsShareBoundaryTimestampsAndReportRunOrderPositions() {
+        Recording recording = new Recording();
+        Pipeline<String> pipeline = Pipeline.<String>builder("listened")
+            .addListener(recording)
+            .addPreAction("trim", (String s) -> s.strip())
+            .addAction("upper", (String s) -> s.toUpperCase())
+            .addPostAction("mark", (String s) -> s + "!")
+            .build();
+        pipeline.addAction("late", (String s) -> s + "?");
+
+        PipelineResult<String> result = pipeline.run(" a ");
+
+        assertEquals("A?!", result.context());
+        assertEquals(List.of("start:pre0:trim@0", "end:pre0:trim@0", "start:s0:upper@1", "end:s0:upper@1",
+            "start:s1:late@2", "end:s1:late@2", "start:post0:mark@3", "end:post0:mark@3", "run:ok"), recording.events);
+        assertEquals(recording.runStart, recording.stamps.getFirst());
+        for (int i = 1; i < recording.stamps.size() - 1; i += 2) {
+            assertEquals(recording.stamps.get(i), recording.stamps.get(i + 1), "a step starts where the previous one ended");
+        }
+        assertEquals(recording.stamps.getLast() - recording.runStart, result.totalNanos());
+        for (int i = 0; i < result.actionTimings().size(); i++) {
+            assertEquals(recording.stamps.get(2 * i + 1) - recording.stamps.get(2 * i), result.actionTimings().get(i).elapsedNanos());
+        }
+    }
+
+    @Test
+    void errorsAndShortCircuitsReachListenersAndTheRecorder() {
+        SimpleMetricsRecorder recorder = new SimpleMetricsRecorder();
+        Metrics.setRecorder(recorder);
+        Recording recording = new Recording();
+        IllegalStateException boom = new IllegalStateException("boom");
+        Pipeline<String> pipeline = new Pipeline<String>("failing")
+            .addListener(recording)
+            .addAction("boom", (s, control) -> { throw boom; })
+            .addAction("skipped", (String s) -> s);
+
+        pipeline.run("x");
+
+        assertEquals(List.of("start:s0:boom@0", "end:s0:boom@0:boom", "short:s0:boom", "run:boom"), recording.events);
+        assertEquals(1.0, recorder.registry().find("ps.pipeline.failing.step.s0:boom.errors").counter().count());
+        assertEquals(1.0, recorder.registry().find("ps.pipeline.failing.step.s0:boom.short_circuits").counter().count());
+    }
+
+    @Test
+    void listenersSittingOutARunAndEngineFailuresAreHandled() {
+        Recording recording = new Recording();
+        List<String> optedOut = new ArrayList<>();
+        Pipeline<String> pipeline = new Pipeline<String>("aborting", false)
+            .addListener((name, startNanos) -> { optedOut.add(name); return null; })
+            .addListener(recording)
+            .onError((ctx, err) -> null)
+            .addAction("boom", (s, control) -> { throw new IllegalArgumentException("x"); });
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> pipeline.run("x"));
+
+        assertEquals(List.of("aborting"), optedOut);
+        assertEquals(List.of("start:s0:boom@0", "run:" + failure.getMessage()), recording.events);
+    }
+
+    @Test
+    void asyncRunsReachListenersUpToTheRunEnd() throws Exception {
+        Recording recording = new Recording();
+        CompletableFuture<String> remote = new CompletableFuture<>();
+        Pipeline<String> pipeline = new Pipeline<String>("listened_async")
+            .addListener(recording)
+            .addAction("remote", (AsyncStepAction<String>) (s, control) -> remote.thenApply(body -> s + body))
+            .addAction("upper", (String s) -> s.toUpperCase());
+
+        CompletableFuture<PipelineResult<String>> future = pipeline.runAsync("a");
+        remote.complete("b");
+
+        assertEquals("AB", future.get(1, TimeUnit.SECONDS).context());
+        assertEquals(List.of("start:s0:remote@0", "end:s0:remote@0", "start:s1:upper@1", "end:s1:upper@1", "run:ok"),
+            recording.events);
+        assertEquals("AB", recording.result);
+    }
+
+    private static final class Recording implements PipelineListener, PipelineListener.RunListener {
+        private final List<String> events = new ArrayList<>();
+        private final List<Long> stamps = new ArrayList<>();
+        private long runStart;
+        private Object result;
+
+        @Override
+        public RunListener onRunStart(String pipeline, long startNanos) {
+            runStart = startNanos;
+            return this;
+        }
+
+        @Override
+        public void onStepStart(StepInfo step, long startNanos) {
+            events.add("start:" + step.stepName() + "@" + step.position());
+            stamps.add(startNanos);
+        }
+
+        @Override
+        public void onStepEnd(StepInfo step, long endNanos, long elapsedNanos, Throwable error) {
+            events.add("end:" + step.stepName() + "@" + step.position() + ((error == null) ? "" : ":" + error.getMessage()));
+            stamps.add(endNanos);
+        }
+
+        @Override
+        public void onShortCircuit(StepInfo step) {
+            events.add("short:" + step.stepName());
+        }
+
+        @Override
+        public void onRunResult(Object result) {
+            this.result = result;
+        }
+
+        @Override
+        public void onRunEnd(long endNanos, long elapsedNanos, Throwable error) {
+            events.add("run:" + ((error == null) ? "ok" : error.getMessage()));
+            stamps.add(endNanos);
+        }
+    }
+}
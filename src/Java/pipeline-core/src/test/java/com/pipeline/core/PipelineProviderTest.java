@@ -71,6 +71,33 @@ final class PipelineProviderTest {
     assertNotEquals(idSuffix(firstCaptured.value), idSuffix(secondCaptured.value));
   }
 
+  @Test
+  void enablingPooledLocalActionsLeavesInFlightSharedRunsOnTheirSnapshot() throws Exception {
+    CountDownLatch startedLatch = new CountDownLatch(1);
+    CountDownLatch proceedLatch = new CountDownLatch(1);
+    CountingResettableAction stateful = new CountingResettableAction();
+
+    Pipeline<String> pipeline = new Pipeline<String>("shared_swap", true)
+        .addAction(new BlockingIdAppendAction(new AtomicInteger(0), startedLatch, proceedLatch))
+        .addAction("stateful", stateful);
+    PipelineProvider<String> provider = PipelineProvider.shared(pipeline);
+
+    CapturedResult inFlight = new CapturedResult();
+    Thread runner = new Thread(() -> inFlight.value = provider.run("a").context(), "test-run-1");
+    runner.start();
+    assertTrue(startedLatch.await(2, TimeUnit.SECONDS), "run should start");
+
+    PipelineProvider<String> pooledProvider = provider.withPooledLocalActions(new ActionPoolCache(2));
+    proceedLatch.countDown();
+    runner.join(2_000);
+
+    assertEquals("a|1|s", inFlight.value);
+    assertEquals(0, stateful.resets.get(), "in-flight run must keep the actions it started with");
+
+    assertEquals("b|1|s", pooledProvider.run("b").context());
+    assertEquals(1, stateful.resets.get(), "new runs go through the pooled wrapper");
+  }
+
   private static String idSuffix(String value) {
     int split = value.lastIndexOf('|');
     if (split < 0) return "";
@@ -119,5 +146,18 @@ final class PipelineProviderTest {
       return input + "|" + instanceId;
     }
   }
-}
 
+  private static final class CountingResettableAction implements StepAction<String>, ResettableAction {
+    private final AtomicInteger resets = new AtomicInteger(0);
+
+    @Override
+    public String apply(String input, ActionControl<String> control) {
+      return input + "|s";
+    }
+
+    @Override
+    public void reset() {
+      resets.incrementAndGet();
+    }
+  }
+}
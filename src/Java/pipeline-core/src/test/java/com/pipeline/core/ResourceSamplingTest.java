@@ -0,0 +1,109 @@
+package com.pipeline.core;
+
+import com.pipeline.metrics.HistogramMetricsRecorder;
+import com.pipeline.metrics.Metrics;
+import com.pipeline.metrics.SimpleMetricsRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+final class ResourceSamplingTest {
+    private static volatile Object sink;
+
+    @AfterEach
+    void resetRecorder() {
+        Metrics.setRecorder(new SimpleMetricsRecorder());
+    }
+
+    @Test
+    void sampledRunsReportCpuAndAllocationPerStep() {
+        assumeTrue(ResourceSampler.SUPPORTED, "thread CPU/allocation accounting unavailable");
+        Pipeline<String> pipeline = Pipeline.<String>builder("sampled")
+            .sampleResources(1.0)
+            .addAction("allocate", (String s) -> {
+                sink = new byte[1 << 20];
+                return s;
+            })
+            .addAction("spin", ResourceSamplingTest::spin)
+            .build();
+
+        PipelineResult<String> result = pipeline.run("x");
+
+        ActionTiming allocate = result.actionTimings().get(0);
+        ActionTiming spin = result.actionTimings().get(1);
+        assertTrue(allocate.hasResourceUsage());
+        assertTrue(allocate.allocatedBytes() >= 1 << 20, "allocatedBytes=" + allocate.allocatedBytes());
+        assertTrue(spin.allocatedBytes() < 1 << 20);
+        assertTrue(spin.cpuNanos() > 0, "cpuNanos=" + spin.cpuNanos());
+    }
+
+    @Test
+    void unsampledRunsCarryNoResourceUsage() {
+        Pipeline<String> off = new Pipeline<String>("unsampled").addAction("echo", (String s) -> s);
+
+        ActionTiming unsampled = off.run("x").actionTimings().getFirst();
+
+        assertFalse(unsampled.hasResourceUsage());
+        assertEquals(-1L, unsampled.cpuNanos());
+        assertEquals(-1L, unsampled.allocatedBytes());
+        assertEquals(0.0, off.resourceSampleRate());
+    }
+
+    @Test
+    void samplesReachListenersAndBothRecorders() {
+        assumeTrue(ResourceSampler.SUPPORTED, "thread CPU/allocation accounting unavailable");
+        SimpleMetricsRecorder simple = new SimpleMetricsRecorder();
+        Metrics.setRecorder(simple);
+        List<String> events = new ArrayList<>();
+        Pipeline<String> pipeline = Pipeline.<String>builder("recorded")
+            .sampleResources(1.0)
+            .addListener((name, startNanos) -> new PipelineListener.RunListener() {
+                @Override
+                public void onStepResources(StepInfo step, long cpuNanos, long allocatedBytes) {
+                    events.add("resources:" + step.stepName());
+                }
+
+                @Override
+                public void onStepEnd(StepInfo step, long endNanos, long elapsedNanos, Throwable error) {
+                    events.add("end:" + step.stepName());
+                }
+            })
+            .addAction("work", ResourceSamplingTest::spin)
+            .build();
+
+        pipeline.run("a");
+        pipeline.run("b");
+
+        assertEquals(List.of("resources:s0:work", "end:s0:work", "resources:s0:work", "end:s0:work"), events);
+        assertEquals(2, simple.registry().find("ps.pipeline.recorded.step.s0:work.cpu_nanos").summary().count());
+        assertEquals(2, simple.registry().find("ps.pipeline.recorded.step.s0:work.allocated_bytes").summary().count());
+
+        HistogramMetricsRecorder histograms = new HistogramMetricsRecorder();
+        Metrics.setRecorder(histograms);
+        pipeline.run("c");
+        HistogramMetricsRecorder.StepResources resources = histograms.snapshot().steps().getFirst().resources();
+        assertEquals(1, resources.samples());
+        assertTrue(resources.meanCpuNanos() > 0);
+    }
+
+    @Test
+    void sampleRateMustBeAFraction() {
+        Pipeline<String> pipeline = new Pipeline<>("rates");
+
+        assertThrows(IllegalArgumentException.class, () -> pipeline.sampleResources(1.5));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.sampleResources(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.sampleResources(Double.NaN));
+        assertEquals(0.01, pipeline.sampleResources(0.01).resourceSampleRate());
+    }
+
+    private static String spin(String s) {
+        long acc = 0;
+        for (int i = 0; i < 2_000_000; i++) acc += (long) i * i ^ acc;
+        return (acc == 42) ? s + "!" : s;
+    }
+}
@@ -0,0 +1,120 @@
+package com.pipeline.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class BottleneckAnalyzerTest {
+
+    @Test
+    void stepsAreRankedByTimeAndTailShareWithRatesAndPoolWaits() {
+        HistogramMetricsRecorder recorder = recorded();
+        List<BottleneckAnalyzer.PoolWait> pools =
+            List.of(new BottleneckAnalyzer.PoolWait("orders", "s0:parse", 1_000, 100, 3_000_000L, 0));
+
+        BottleneckAnalyzer.PipelineReport orders = BottleneckAnalyzer.analyze(recorder.snapshot(), pools).pipelines().getFirst();
+
+        assertEquals("orders", orders.pipeline());
+        assertEquals(1_000, orders.runs());
+        assertEquals(0.05, orders.failureRate(), 1e-9);
+        assertEquals(List.of("s1:charge", "s2:render", "s0:parse"),
+            orders.steps().stream().map(BottleneckAnalyzer.StepFinding::step).toList());
+
+        BottleneckAnalyzer.StepFinding charge = orders.steps().get(0);
+        assertTrue(charge.timeShare() > 0.9, "timeShare=" + charge.timeShare());
+        assertTrue(charge.varianceShare() > 0.99, "the 50 ms outliers explain the jitter");
+        assertEquals(0.0, charge.errorRate());
+
+        BottleneckAnalyzer.StepFinding render = orders.steps().get(1);
+        assertEquals(50 / 1_050.0, render.errorRate(), 1e-9);
+        assertEquals(5 / 1_050.0, render.shortCircuitRate(), 1e-9);
+
+        BottleneckAnalyzer.StepFinding parse = orders.steps().get(2);
+        assertEquals(3_000.0, parse.meanPoolWaitNanos(), 1e-9);
+        assertEquals(3_000_000.0 / 10_000_000, parse.poolWaitShare(), 0.01); // the step's timing includes the wait
+        assertEquals(7_000.0, parse.meanServiceNanos(), 100.0);
+        assertEquals(charge.meanNanos(), charge.meanServiceNanos(), 1e-9);
+
+        double shares = orders.steps().stream().mapToDouble(BottleneckAnalyzer.StepFinding::timeShare).sum();
+        assertEquals(1.0, shares, 1e-9);
+    }
+
+    @Test
+    void snapshotsRoundTripThroughTheFileFormatAndMerge() throws Exception {
+        HistogramMetricsRecorder.Snapshot snapshot = recorded().snapshot();
+        List<BottleneckAnalyzer.PoolWait> pools = List.of(new BottleneckAnalyzer.PoolWait("orders", "s0:parse", 10, 1, 500, 0));
+
+        StringWriter text = new StringWriter();
+        MetricsSnapshots.write(text, snapshot, pools);
+        MetricsSnapshots.Contents read = MetricsSnapshots.read(new StringReader(text.toString()));
+
+        assertEquals(BottleneckAnalyzer.analyze(snapshot, pools), BottleneckAnalyzer.analyze(read.snapshot(), read.pools()));
+        HistogramMetricsRecorder.StepLatency charge = read.snapshot().steps().get(1);
+        assertEquals(snapshot.steps().get(1).latency().p99Nanos(), charge.latency().p99Nanos());
+        assertEquals(snapshot.steps().get(1).latency().maxNanos(), charge.latency().maxNanos());
+
+        MetricsSnapshots.Contents merged = MetricsSnapshots.merge(List.of(read, read));
+        assertEquals(2_000, merged.snapshot().pipelines().getFirst().latency().count());
+        assertEquals(100, merged.snapshot().steps().get(2).errors());
+        assertEquals(20, merged.pools().getFirst().borrows());
+
+        assertThrows(IOException.class, () -> MetricsSnapshots.read(new StringReader("not a snapshot\n")));
+        assertThrows(IOException.class,
+            () -> MetricsSnapshots.read(new StringReader("pipeline-metrics-snapshot\t1\nrun\torders\t1\n")));
+    }
+
+    @Test
+    void cliPrintsTheReportForSnapshotFiles() throws Exception {
+        Path file = Files.createTempFile("pipeline-metrics", ".tsv");
+        try {
+            MetricsSnapshots.write(file, recorded().snapshot(), List.of());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+            int exit = BottleneckCli.run(new String[] {"--top", "1", file.toString()}, print(out), print(err));
+
+            String report = out.toString(StandardCharsets.UTF_8);
+            assertEquals(0, exit, err.toString(StandardCharsets.UTF_8));
+            assertTrue(report.contains("pipeline orders  runs=1000"), report);
+            assertTrue(report.contains("s1:charge"), report);
+            assertFalse(report.contains("s0:parse"), "--top 1 keeps only the first step\n" + report);
+
+            assertEquals(2, BottleneckCli.run(new String[] {"--top", "0", file.toString()}, print(out), print(err)));
+            assertEquals(2, BottleneckCli.run(new String[0], print(out), print(err)));
+            assertEquals(1, BottleneckCli.run(new String[] {file + ".missing"}, print(out), print(err)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** orders: a cheap parse, a charge with a 1% 50 ms tail, and a render that sometimes fails. */
+    private static HistogramMetricsRecorder recorded() {
+        HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();
+        StepMeters parse = recorder.bind("orders", "s0:parse");
+        StepMeters charge = recorder.bind("orders", "s1:charge");
+        StepMeters render = recorder.bind("orders", "s2:render");
+        for (int i = 0; i < 1_000; i++) {
+            parse.onSuccess(10_000);
+            charge.onSuccess((i % 100 == 0) ? 50_000_000 : 100_000);
+            render.onSuccess(20_000);
+            recorder.onPipelineRun("orders", 200_000, i % 20 != 0);
+        }
+        for (int i = 0; i < 50; i++) render.onError(new IllegalStateException());
+        for (int i = 0; i < 5; i++) render.onShortCircuit();
+        return recorder;
+    }
+
+    private static PrintStream print(ByteArrayOutputStream buffer) {
+        return new PrintStream(buffer, true, StandardCharsets.UTF_8);
+    }
+}
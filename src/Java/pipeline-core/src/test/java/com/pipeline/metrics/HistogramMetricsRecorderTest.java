@@ -0,0 +1,137 @@
+package com.pipeline.metrics;
+
+import com.pipeline.core.Pipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+final class HistogramMetricsRecorderTest {
+
+    @AfterEach
+    void resetRecorder() {
+        Metrics.setRecorder(new SimpleMetricsRecorder());
+    }
+
+    @Test
+    void percentilesStayWithinTheBucketErrorBound() {
+        HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();
+        StepMeters meters = recorder.bind("p", "s0");
+        for (long micros = 1; micros <= 10_000; micros++) meters.onSuccess(micros * 1_000);
+
+        LatencySnapshot latency = recorder.snapshot().steps().getFirst().latency();
+        assertEquals(10_000, latency.count());
+        assertEquals(10_000_000, latency.maxNanos());
+        assertEquals(5_000_500.0, latency.meanNanos(), 0.01);
+        assertWithin(5_000_000, latency.p50Nanos());
+        assertWithin(9_900_000, latency.p99Nanos());
+        assertWithin(9_990_000, latency.p999Nanos());
+        assertEquals(latency.maxNanos(), latency.percentileNanos(100.0));
+        assertEquals(1_000, latency.percentileNanos(0.0), 1_000 * 0.04);
+    }
+
+    @Test
+    void manyThreadsShareABoundedSetOfStripes() throws Exception {
+        HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();
+        StepMeters meters = recorder.bind("p", "s0");
+        assertSame(meters, recorder.bind("p", "s0"));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> { for (int i = 0; i < 10_000; i++) meters.onSuccess(100); }));
+            threads.add(Thread.ofVirtual().start(() -> { for (int i = 0; i < 1_000; i++) meters.onSuccess(200); }));
+        }
+        for (Thread thread : threads) thread.join();
+        recorder.onStepSuccess("p", "s0", 300);
+
+        LatencySnapshot first = recorder.snapshot().steps().getFirst().latency();
+        LatencySnapshot again = recorder.snapshot().steps().getFirst().latency();
+        assertEquals(88_001, first.count());
+        assertEquals(88_001, again.count());
+        assertEquals(8 * 10_000 * 100L + 8 * 1_000 * 200L + 300, again.totalNanos());
+        assertEquals(300, again.maxNanos());
+
+        ConcurrentLatencyHistogram histogram = new ConcurrentLatencyHistogram();
+        for (int t = 0; t < 1_000; t++) Thread.ofVirtual().start(() -> histogram.record(1)).join();
+        assertTrue(histogram.allocatedStripes() <= ConcurrentLatencyHistogram.STRIPES);
+        assertEquals(1_000, histogram.cumulative().count());
+    }
+
+    @Test
+    void intervalSnapshotsResetWhileCumulativeOnesKeepGrowing() {
+        HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();
+        Metrics.setRecorder(recorder);
+        Pipeline<String> pipeline = Pipeline.<String>builder("hist")
+            .addAction("upper", (String s) -> s.toUpperCase())
+            .addAction("check", (String s) -> { if (s.startsWith("BAD")) throw new IllegalStateException(s); return s; })
+            .build();
+
+        pipeline.run("a");
+        pipeline.run("bad");
+        HistogramMetricsRecorder.Snapshot first = recorder.intervalSnapshot();
+        pipeline.run("b");
+        HistogramMetricsRecorder.Snapshot second = recorder.intervalSnapshot();
+        HistogramMetricsRecorder.Snapshot empty = recorder.intervalSnapshot();
+
+        assertEquals(List.of("s0:upper", "s1:check"), first.steps().stream().map(HistogramMetricsRecorder.StepLatency::step).toList());
+        assertEquals(2, first.pipelines().getFirst().latency().count());
+        assertEquals(1, first.pipelines().getFirst().failures());
+        assertEquals(1, first.steps().get(1).errors());
+        assertEquals(1, first.steps().get(1).latency().count());
+        assertEquals(1, second.pipelines().getFirst().latency().count());
+        assertEquals(0, second.pipelines().getFirst().failures());
+        assertEquals(0, second.steps().get(1).errors());
+        assertEquals(0, empty.pipelines().getFirst().latency().count());
+        assertEquals(0, empty.pipelines().getFirst().latency().maxNanos());
+        assertEquals(3, recorder.snapshot().pipelines().getFirst().latency().count());
+    }
+
+    @Test
+    void emitterDeliversIntervalSnapshotsUntilClosed() throws Exception {
+        HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();
+        recorder.onPipelineRun("p", 1_000, true);
+        BlockingQueue<HistogramMetricsRecorder.Snapshot> emitted = new LinkedBlockingQueue<>();
+
+        HistogramEmitter emitter = HistogramEmitter.start(recorder, Duration.ofMillis(10), emitted::add);
+        try {
+            HistogramMetricsRecorder.Snapshot snapshot = emitted.poll(5, TimeUnit.SECONDS);
+            assertNotNull(snapshot);
+            assertEquals(1, snapshot.pipelines().getFirst().latency().count());
+        } finally {
+            emitter.close();
+        }
+    }
+
+    @Test
+    void recordingIntoABoundStepAllocatesNothing() {
+        var threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean, "allocated-bytes accounting unavailable");
+        var allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported(), "allocated-bytes accounting unsupported");
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();
+        StepMeters meters = recorder.bind("p", "s0");
+        for (int warmup = 0; warmup < 200_000; warmup++) meters.onSuccess(warmup);
+
+        long threadId = Thread.currentThread().threadId();
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) meters.onSuccess(i * 31L);
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(allocated < 16 * 1024, "expected allocation-free recording, got " + allocated + " bytes");
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertEquals(expected, actual, expected * 0.04, "expected ~" + expected + " (+/-4%), got " + actual);
+    }
+}
@@ -0,0 +1,92 @@
+package com.pipeline.metrics;
+
+import com.pipeline.core.Pipeline;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class SimpleMetricsRecorderTest {
+
+    @AfterEach
+    void resetRecorder() {
+        Metrics.setRecorder(new SimpleMetricsRecorder());
+    }
+
+    @Test
+    void boundHandleRecordsConcurrentlyIntoTheStepTimer() throws Exception {
+        SimpleMetricsRecorder recorder = new SimpleMetricsRecorder();
+        StepMeters meters = recorder.bind("p", "s0");
+        assertSame(meters, recorder.bind("p", "s0"));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 1; i <= 10_000; i++) meters.onSuccess(i);
+            }));
+        }
+        for (Thread thread : threads) thread.join();
+        recorder.onStepSuccess("p", "s0", 20_000);
+
+        Timer timer = recorder.registry().find("ps.pipeline.p.step.s0.duration").timer();
+        assertNotNull(timer);
+        assertEquals(80_001, timer.count());
+        assertEquals(8 * 50_005_000.0 + 20_000, timer.totalTime(TimeUnit.NANOSECONDS));
+        assertEquals(20_000.0, timer.max(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void meterFiltersStillConfigureTheStepTimer() {
+        SimpleMetricsRecorder recorder = new SimpleMetricsRecorder();
+        recorder.registry().config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentiles(0.5).build().merge(config);
+            }
+        });
+
+        for (int i = 1; i <= 100; i++) recorder.bind("p", "s2").onSuccess(TimeUnit.MILLISECONDS.toNanos(i));
+
+        Timer timer = recorder.registry().find("ps.pipeline.p.step.s2.duration").timer();
+        assertEquals(1, timer.takeSnapshot().percentileValues().length);
+    }
+
+    @Test
+    void errorsAndShortCircuitsAreCountersRegisteredOnFirstUse() {
+        SimpleMetricsRecorder recorder = new SimpleMetricsRecorder();
+        StepMeters meters = recorder.bind("p", "s1");
+        assertNull(recorder.registry().find("ps.pipeline.p.step.s1.errors").counter());
+
+        meters.onError(new IllegalStateException("boom"));
+        recorder.onStepError("p", "s1", new IllegalStateException("again"));
+        meters.onShortCircuit();
+
+        assertEquals(2.0, recorder.registry().find("ps.pipeline.p.step.s1.errors").counter().count());
+        assertEquals(1.0, recorder.registry().find("ps.pipeline.p.step.s1.short_circuits").counter().count());
+        assertNull(recorder.registry().find("ps.pipeline.p.step.s1.duration").timer());
+    }
+
+    @Test
+    void pipelineRebindsWhenTheRecorderIsSwapped() {
+        SimpleMetricsRecorder first = new SimpleMetricsRecorder();
+        Metrics.setRecorder(first);
+        Pipeline<String> pipeline = Pipeline.<String>builder("swap").addAction("upper", (String s) -> s.toUpperCase()).build();
+        pipeline.run("a");
+
+        SimpleMetricsRecorder second = new SimpleMetricsRecorder();
+        Metrics.setRecorder(second);
+        pipeline.run("b");
+        pipeline.run("c");
+
+        assertEquals(1, first.registry().find("ps.pipeline.swap.step.s0:upper.duration").timer().count());
+        assertEquals(2, second.registry().find("ps.pipeline.swap.step.s0:upper.duration").timer().count());
+    }
+}
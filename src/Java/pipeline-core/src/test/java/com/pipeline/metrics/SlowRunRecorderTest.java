@@ -0,0 +1,117 @@
+package com.pipeline.metrics;
+
+import com.pipeline.core.Pipeline;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class SlowRunRecorderTest {
+
+    @Test
+    void onlyRunsAboveAFixedThresholdAreCapturedWithTheirSteps() {
+        SlowRunRecorder recorder = new SlowRunRecorder(SlowRunOptions.defaults()
+            .withPercentile(0.0)
+            .withMinThreshold(Duration.ofMillis(20)));
+        Pipeline<String> pipeline = new Pipeline<String>("slow_runs")
+            .addListener(recorder)
+            .addAction("trim", (String s) -> s.strip())
+            .addAction("nap", (String s) -> {
+                if (s.equals("slow")) sleep(30);
+                return s + "!";
+            });
+
+        pipeline.run(" fast ");
+        pipeline.run(" slow ");
+
+        List<SlowRunRecorder.CapturedRun> runs = recorder.captured();
+        assertEquals(1, runs.size());
+        SlowRunRecorder.CapturedRun run = runs.getFirst();
+        assertEquals("slow_runs", run.pipeline());
+        assertEquals("slow", run.reason());
+        assertEquals("slow!", run.summary());
+        assertTrue(run.elapsedNanos() >= Duration.ofMillis(30).toNanos());
+        assertEquals(List.of("trim", "nap"), run.steps().stream().map(SlowRunRecorder.StepTiming::step).toList());
+        assertTrue(run.steps().get(1).elapsedNanos() >= Duration.ofMillis(30).toNanos());
+        assertNull(run.error());
+    }
+
+    @Test
+    void samplingFillsABoundedRingWithErrorsAndTruncatedSummaries() {
+        SlowRunRecorder recorder = new SlowRunRecorder(SlowRunOptions.defaults()
+            .withPercentile(0.0)
+            .withMinThreshold(null)
+            .withSampleOneIn(1)
+            .withCapacity(2)
+            .withMaxSteps(1)
+            .withSummaryMaxChars(3));
+        Pipeline<String> pipeline = new Pipeline<String>("sampled")
+            .addListener(recorder)
+            .addAction("check", (s, control) -> {
+                if (s.equals("bad")) throw new IllegalArgumentException("bad input");
+                return s;
+            })
+            .addAction("echo", (String s) -> s);
+
+        pipeline.run("first");
+        pipeline.run("second");
+        pipeline.run("bad");
+
+        List<SlowRunRecorder.CapturedRun> runs = recorder.captured();
+        assertEquals(2, runs.size(), "the oldest capture is overwritten");
+        assertEquals("sampled", runs.get(0).reason());
+        assertEquals("sec...", runs.get(0).summary());
+        assertEquals(1, runs.get(0).steps().size());
+        assertEquals(1, runs.get(0).droppedSteps());
+        assertEquals("java.lang.IllegalArgumentException: bad input", runs.get(1).error());
+        assertEquals("check", runs.get(1).shortCircuitedAt());
+        assertEquals(runs.get(1).error(), runs.get(1).steps().getFirst().error());
+        assertTrue(runs.get(0).sequence() < runs.get(1).sequence());
+
+        recorder.clear();
+        assertTrue(recorder.captured().isEmpty());
+    }
+
+    @Test
+    void thresholdFollowsRecentRunsAndDumpsAsJson() throws Exception {
+        SlowRunRecorder recorder = new SlowRunRecorder(SlowRunOptions.defaults().withMinThreshold(null));
+        Pipeline<String> pipeline = new Pipeline<String>("dynamic")
+            .addListener(recorder)
+            .addAction("nap", (String s) -> {
+                if (s.equals("slow")) sleep(20);
+                return "say \"" + s + "\"";
+            });
+
+        assertEquals(Long.MAX_VALUE, recorder.thresholdNanos(), "nothing is slow before a percentile is known");
+        for (int i = 0; i < 200; i++) pipeline.run("fast");
+        recorder.refreshThreshold();
+        assertTrue(recorder.thresholdNanos() < Duration.ofMillis(20).toNanos());
+        pipeline.run("slow");
+
+        StringBuilder json = new StringBuilder();
+        recorder.writeJson(json);
+        assertTrue(json.toString().contains("\"pipeline\":\"dynamic\""), json.toString());
+        assertTrue(json.toString().contains("\"summary\":\"say \\\"slow\\\"\""), json.toString());
+        assertTrue(json.toString().contains("\"step\":\"nap\""), json.toString());
+
+        Path file = Files.createTempFile("slow-runs", ".json");
+        try {
+            recorder.dumpJson(file);
+            assertEquals(json.toString(), Files.readString(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.pipeline.metrics;
+
+import com.pipeline.core.AsyncStepAction;
+import com.pipeline.core.Pipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class StepWatchdogTest {
+
+    @AfterEach
+    void resetRecorder() {
+        Metrics.setRecorder(new SimpleMetricsRecorder());
+    }
+
+    @Test
+    void aStepHangingPastItsThresholdIsReportedOnceWithItsStack() throws Exception {
+        BlockingQueue<StuckStep> reports = new LinkedBlockingQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+        try (StepWatchdog watchdog = StepWatchdog.start(Duration.ofMillis(20), Duration.ofMillis(5), reports::add)) {
+            Pipeline<String> pipeline = new Pipeline<String>("watched")
+                .addListener(watchdog)
+                .addAction("quick", (String s) -> s)
+                .addAction("hang", (String s) -> {
+                    await(release);
+                    return s;
+                });
+            Thread runner = Thread.ofPlatform().name("watched-runner").start(() -> pipeline.run("x"));
+
+            StuckStep stuck = reports.poll(5, TimeUnit.SECONDS);
+            assertNotNull(stuck, "the hanging step was not reported");
+            assertEquals("watched", stuck.pipeline());
+            assertEquals("s1:hang", stuck.step());
+            assertEquals(1, stuck.position());
+            assertEquals("watched-runner", stuck.thread());
+            assertTrue(stuck.elapsedNanos() >= Duration.ofMillis(20).toNanos());
+            assertTrue(stuck.stackTrace().stream().anyMatch(frame -> frame.getClassName().equals(CountDownLatch.class.getName())),
+                "stack should show where the step is blocked");
+
+            assertNull(reports.poll(100, TimeUnit.MILLISECONDS), "one report per step execution");
+            release.countDown();
+            runner.join();
+        }
+    }
+
+    @Test
+    void aPendingAsyncStepIsReportedWithoutAnUnrelatedStack() throws Exception {
+        BlockingQueue<StuckStep> reports = new LinkedBlockingQueue<>();
+        CompletableFuture<String> remote = new CompletableFuture<>();
+        try (StepWatchdog watchdog = StepWatchdog.start(Duration.ofMillis(20), Duration.ofMillis(5), reports::add)) {
+            Pipeline<String> pipeline = new Pipeline<String>("watched_async")
+                .addListener(watchdog)
+                .addAction("remote", (AsyncStepAction<String>) (s, control) -> remote);
+            CompletableFuture<?> run = pipeline.runAsync("x");
+
+            StuckStep stuck = reports.poll(5, TimeUnit.SECONDS);
+            assertNotNull(stuck, "the pending step was not reported");
+            assertEquals("s0:remote", stuck.step());
+            assertEquals(Thread.currentThread().getName(), stuck.thread());
+            assertTrue(stuck.stackTrace().isEmpty(), "the starting thread has moved on");
+            remote.complete("done");
+            run.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void perStepThresholdsOverrideTheDefaultAndReachTheRecorder() throws Exception {
+        SimpleMetricsRecorder recorder = new SimpleMetricsRecorder();
+        Metrics.setRecorder(recorder);
+        CountDownLatch release = new CountDownLatch(1);
+        try (StepWatchdog watchdog = StepWatchdog.start(Duration.ofMinutes(5), Duration.ofMillis(5))
+                .threshold("overridden", "hang", Duration.ofMillis(10))) {
+            Pipeline<String> pipeline = new Pipeline<String>("overridden")
+                .addListener(watchdog)
+                .addAction("hang", (String s) -> {
+                    await(release);
+                    return s;
+                });
+            Thread runner = Thread.ofPlatform().start(() -> pipeline.run("x"));
+
+            String counter = "ps.pipeline.overridden.step.s0:hang.stuck";
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (recorder.registry().find(counter).counter() == null && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            runner.join();
+            assertNotNull(recorder.registry().find(counter).counter(), "stuck step was not reported to the recorder");
+            assertEquals(1.0, recorder.registry().find(counter).counter().count());
+        }
+    }
+
+    @Test
+    void nestedRunsKeepTheirOwnSlotsAndEndedRunsGiveThemBack() throws Exception {
+        BlockingQueue<StuckStep> reports = new LinkedBlockingQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+        try (StepWatchdog watchdog = StepWatchdog.start(Duration.ofMillis(20), Duration.ofMillis(5), reports::add)) {
+            Pipeline<String> inner = new Pipeline<String>("inner")
+                .addListener(watchdog)
+                .addAction("quick", (String s) -> s + "!");
+            Pipeline<String> outer = new Pipeline<String>("outer")
+                .addListener(watchdog)
+                .addAction("nest", (String s) -> {
+                    String out = inner.run(s).context();
+                    await(release);
+                    return out;
+                });
+            Thread runner = Thread.ofPlatform().start(() -> outer.run("x"));
+
+            StuckStep stuck = reports.poll(5, TimeUnit.SECONDS);
+            assertNotNull(stuck, "the nested run's end must not clear the outer step");
+            assertEquals("outer", stuck.pipeline());
+            assertEquals("s0:nest", stuck.step());
+            release.countDown();
+            runner.join();
+
+            for (int i = 0; i < 2 * StepWatchdog.SLOTS; i++) Thread.ofVirtual().start(() -> inner.run("v")).join();
+            assertEquals(0, watchdog.claimedSlots());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.pipeline.disruptor;
 
 import com.pipeline.core.Pipeline;
 import com.pipeline.metrics.Metrics;
+import com.pipeline.metrics.MetricsRecorder;
+import com.pipeline.metrics.StepMeters;
 
 import java.util.Objects;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -12,13 +14,18 @@ public final class DisruptorEngine<T> implements AutoCloseable {
     private final String name;
     private final Pipeline<T> pipeline;
     private final ArrayBlockingQueue<T> queue;
+    private final int capacity;
     private final ExecutorService worker;
     private volatile boolean running = true;
+    // Touched by the worker thread only; rebound when the global recorder changes.
+    private MetricsRecorder boundRecorder;
+    private StepMeters e2e;
 
     public DisruptorEngine(String name, int bufferSize, Pipeline<T> pipeline) {
         this.name = Objects.requireNonNull(name);
         this.pipeline = Objects.requireNonNull(pipeline);
         this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.capacity = bufferSize;
         this.worker = Executors.newSingleThreadExecutor(r -> {
             Thread t = new Thread(r, "engine-" + name);
             t.setDaemon(true);
@@ -31,24 +38,40 @@ public final class DisruptorEngine<T> implements AutoCloseable {
         while (running) {
             try {
                 T payload = queue.take();
-                var rec = Metrics.recorder();
+                StepMeters meters = e2eMeters();
                 long t0 = System.nanoTime();
                 pipeline.run(payload);
-                rec.onStepSuccess(name, "e2e", System.nanoTime() - t0);
+                meters.onSuccess(System.nanoTime() - t0);
             } catch (InterruptedException ie) {
                 Thread.currentThread().interrupt();
                 break;
             } catch (Throwable t) {
-                Metrics.recorder().onStepError(name, "e2e", t);
+                e2eMeters().onError(t);
             }
         }
     }
 
+    private StepMeters e2eMeters() {
+        MetricsRecorder recorder = Metrics.recorder();
+        if (recorder != boundRecorder) {
+            e2e = recorder.bind(name, "e2e");
+            boundRecorder = recorder;
+        }
+        return e2e;
+    }
+
     public void publish(T payload) {
         if (!running) throw new IllegalStateException("engine stopped");
         queue.offer(payload);
     }
 
+    public String name() { return name; }
+
+    /** Payloads published but not yet taken by the worker. */
+    public int queueDepth() { return queue.size(); }
+
+    public int capacity() { return capacity; }
+
     public void shutdown() {
         running = false;
         worker.shutdownNow();
@@ -0,0 +1,85 @@
+package com.pipeline.examples;
+
+import com.pipeline.core.Pipeline;
+import com.pipeline.core.StepAction;
+import com.pipeline.metrics.Metrics;
+import com.pipeline.metrics.MetricsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Interpreted vs {@link Pipeline#compile() compiled} runs for 3, 10 and 50 step pipelines.
+ *
+ * <p>Several differently-shaped pipelines are warmed on the interpreted path first so its shared
+ * {@code action.apply} call site is megamorphic, as it would be in a process hosting many pipelines.
+ */
+public final class Benchmark02CompiledPipeline {
+  private Benchmark02CompiledPipeline() {}
+
+  public static void main(String[] args) {
+    int warmupIterations = 20_000;
+    int iterations = 200_000;
+    Metrics.setRecorder(new NoopRecorder());
+
+    for (int pollutionIndex = 0; pollutionIndex < 6; pollutionIndex++) {
+      Pipeline<Long> polluter = pipeline("benchmark02_polluter_" + pollutionIndex, 4 + pollutionIndex, pollutionIndex);
+      for (int warmupIndex = 0; warmupIndex < warmupIterations; warmupIndex++) {
+        polluter.run((long) warmupIndex);
+      }
+    }
+
+    for (int stepCount : new int[] {3, 10, 50}) {
+      Pipeline<Long> interpreted = pipeline("benchmark02_interpreted_" + stepCount, stepCount, 0);
+      Pipeline<Long> compiled = pipeline("benchmark02_compiled_" + stepCount, stepCount, 0).compile();
+
+      measure(interpreted, warmupIterations);
+      measure(compiled, warmupIterations);
+      double interpretedNs = measure(interpreted, iterations);
+      double compiledNs = measure(compiled, iterations);
+
+      System.out.println("steps=" + stepCount
+          + " interpretedNsPerRun=" + String.format("%.1f", interpretedNs)
+          + " compiledNsPerRun=" + String.format("%.1f", compiledNs)
+          + " speedup=" + String.format("%.2f", interpretedNs / compiledNs));
+    }
+  }
+
+  private static Pipeline<Long> pipeline(String name, int stepCount, int shape) {
+    Pipeline<Long> pipeline = new Pipeline<Long>(name, true).recycleRunState(true);
+    for (int stepIndex = 0; stepIndex < stepCount; stepIndex++) {
+      pipeline.addAction(step(stepIndex + shape));
+    }
+    return pipeline;
+  }
+
+  // A handful of distinct lambda classes so the steps do not all share one receiver type.
+  private static StepAction<Long> step(int stepIndex) {
+    return switch (stepIndex % 5) {
+      case 0 -> (value, control) -> value + 1;
+      case 1 -> (value, control) -> value * 3;
+      case 2 -> (value, control) -> value ^ 0x5DEECE66DL;
+      case 3 -> (value, control) -> value - 7;
+      default -> (value, control) -> Long.rotateLeft(value, 1);
+    };
+  }
+
+  private static double measure(Pipeline<Long> pipeline, int iterations) {
+    long checksum = 0L;
+    long startNanos = System.nanoTime();
+    for (int iterationIndex = 0; iterationIndex < iterations; iterationIndex++) {
+      checksum += pipeline.run((long) iterationIndex).context();
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    if (checksum == 42L) System.out.println("checksum=" + checksum);
+    return elapsedNanos / (double) iterations;
+  }
+
+  private static final class NoopRecorder implements MetricsRecorder {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Override public void onStepSuccess(String pipeline, String stepName, long nanos) {}
+    @Override public void onStepError(String pipeline, String stepName, Throwable t) {}
+    @Override public void onShortCircuit(String pipeline, String stepName) {}
+    @Override public MeterRegistry registry() { return registry; }
+  }
+}
@@ -0,0 +1,89 @@
+package com.pipeline.examples;
+
+import com.pipeline.core.ActionPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Borrow/release throughput of {@link ActionPool} against a plain {@link ArrayBlockingQueue} pool (the previous
+ * implementation) as the number of threads hammering the same pool grows.
+ */
+public final class Benchmark03ActionPoolContention {
+  private Benchmark03ActionPoolContention() {}
+
+  private interface Pool {
+    Object borrow() throws InterruptedException;
+    void release(Object instance);
+  }
+
+  public static void main(String[] args) throws Exception {
+    long runMillis = 500L;
+    int maxThreads = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      int poolMax = threads * 2;
+
+      ActionPool<Object> magazinePool = new ActionPool<>(poolMax, Object::new);
+      Pool magazine = new Pool() {
+        @Override public Object borrow() { return magazinePool.borrow(); }
+        @Override public void release(Object instance) { magazinePool.release(instance); }
+      };
+
+      ArrayBlockingQueue<Object> queue = new ArrayBlockingQueue<>(poolMax);
+      for (int i = 0; i < poolMax; i++) queue.add(new Object());
+      Pool blockingQueue = new Pool() {
+        @Override public Object borrow() throws InterruptedException { return queue.take(); }
+        @Override public void release(Object instance) { queue.offer(instance); }
+      };
+
+      measure(blockingQueue, threads, runMillis / 2);
+      measure(magazine, threads, runMillis / 2);
+      double queueOps = measure(blockingQueue, threads, runMillis);
+      double magazineOps = measure(magazine, threads, runMillis);
+
+      System.out.println("threads=" + threads
+          + " arrayBlockingQueueMopsPerSec=" + String.format("%.2f", queueOps / 1e6)
+          + " actionPoolMopsPerSec=" + String.format("%.2f", magazineOps / 1e6)
+          + " speedup=" + String.format("%.2f", magazineOps / queueOps));
+    }
+  }
+
+  private static double measure(Pool pool, int threadCount, long runMillis) throws Exception {
+    LongAdder operations = new LongAdder();
+    CountDownLatch start = new CountDownLatch(1);
+    long[] deadline = new long[1];
+    List<Thread> threads = new ArrayList<>();
+
+    for (int threadIndex = 0; threadIndex < threadCount; threadIndex++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+          long local = 0L;
+          while (System.nanoTime() < deadline[0]) {
+            for (int i = 0; i < 1_000; i++) {
+              Object instance = pool.borrow();
+              pool.release(instance);
+            }
+            local += 1_000;
+          }
+          operations.add(local);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    long startNanos = System.nanoTime();
+    deadline[0] = startNanos + runMillis * 1_000_000L;
+    start.countDown();
+    for (Thread thread : threads) thread.join();
+    long elapsedNanos = System.nanoTime() - startNanos;
+    return operations.sum() / (elapsedNanos / 1e9);
+  }
+}
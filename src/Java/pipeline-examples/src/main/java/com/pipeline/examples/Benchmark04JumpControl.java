@@ -0,0 +1,70 @@
+package com.pipeline.examples;
+
+import com.pipeline.api.JumpControl;
+import com.pipeline.api.JumpTarget;
+import com.pipeline.api.Pipeline;
+import com.pipeline.core.Jumps;
+
+/**
+ * 100-jump self loop on the api jump engine: {@link Jumps.Signal} throws vs {@link JumpControl} requests by label
+ * and by a {@link JumpTarget} resolved at seal time.
+ */
+public final class Benchmark04JumpControl {
+  private static final int JUMPS_PER_RUN = 100;
+
+  private Benchmark04JumpControl() {}
+
+  public static void main(String[] args) throws Exception {
+    int warmupIterations = 20_000;
+    int iterations = 100_000;
+
+    Pipeline<long[], long[]> signal = Pipeline.<long[]>named("benchmark04_signal", false)
+        .enableJumps(true)
+        .maxJumpsPerRun(JUMPS_PER_RUN)
+        .addAction("loop", counter -> {
+          if (++counter[0] < JUMPS_PER_RUN + 1) Jumps.now("loop");
+          return counter;
+        });
+
+    Pipeline<long[], long[]> label = Pipeline.<long[]>named("benchmark04_label", false)
+        .enableJumps(true)
+        .maxJumpsPerRun(JUMPS_PER_RUN)
+        .addAction("loop", (long[] counter, JumpControl control) -> {
+          if (++counter[0] < JUMPS_PER_RUN + 1) control.jumpTo("loop");
+          return counter;
+        });
+
+    Pipeline<long[], long[]> target = Pipeline.<long[]>named("benchmark04_target", false)
+        .enableJumps(true)
+        .maxJumpsPerRun(JUMPS_PER_RUN);
+    JumpTarget loop = target.jumpTarget("loop");
+    target.addAction("loop", (long[] counter, JumpControl control) -> {
+      if (++counter[0] < JUMPS_PER_RUN + 1) control.jumpTo(loop);
+      return counter;
+    });
+
+    measure(signal, warmupIterations);
+    measure(label, warmupIterations);
+    measure(target, warmupIterations);
+    double signalNs = measure(signal, iterations);
+    double labelNs = measure(label, iterations);
+    double targetNs = measure(target, iterations);
+
+    System.out.println("jumpsPerRun=" + JUMPS_PER_RUN
+        + " signalNsPerRun=" + String.format("%.1f", signalNs)
+        + " labelNsPerRun=" + String.format("%.1f", labelNs)
+        + " targetNsPerRun=" + String.format("%.1f", targetNs)
+        + " speedup=" + String.format("%.2f", signalNs / targetNs));
+  }
+
+  private static double measure(Pipeline<long[], long[]> pipeline, int iterations) throws Exception {
+    long checksum = 0L;
+    long startNanos = System.nanoTime();
+    for (int iterationIndex = 0; iterationIndex < iterations; iterationIndex++) {
+      checksum += pipeline.run(new long[1])[0];
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    if (checksum == 42L) System.out.println("checksum=" + checksum);
+    return elapsedNanos / (double) iterations;
+  }
+}
@@ -0,0 +1,94 @@
+package com.pipeline.examples;
+
+import com.pipeline.api.Pipeline;
+import com.pipeline.core.ThrowingFn;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * The same 10 typed steps loaded from JSON {@code $method} refs, written in code, and called through
+ * {@link Method#invoke} (how JSON steps used to be dispatched).
+ */
+public final class Benchmark05JsonVsProgrammatic {
+  private static final String[] STEPS = {"inc", "triple", "mix", "dec", "rotate"};
+  private static final int STEP_COUNT = 10;
+
+  private Benchmark05JsonVsProgrammatic() {}
+
+  public static void main(String[] args) throws Exception {
+    int warmupIterations = 50_000;
+    int iterations = 500_000;
+
+    Pipeline<Long, Long> json = new Pipeline<>(json());
+    Pipeline<Long, Long> programmatic = Pipeline.<Long>named("benchmark05_programmatic");
+    Pipeline<Long, Long> reflective = Pipeline.<Long>named("benchmark05_reflective");
+    for (int stepIndex = 0; stepIndex < STEP_COUNT; stepIndex++) {
+      programmatic.addAction(step(stepIndex));
+      Method method = Benchmark05JsonVsProgrammatic.class.getDeclaredMethod(STEPS[stepIndex % STEPS.length], Long.class);
+      reflective.addAction(reflective(method));
+    }
+
+    measure(json, warmupIterations);
+    measure(programmatic, warmupIterations);
+    measure(reflective, warmupIterations);
+    double jsonNs = measure(json, iterations);
+    double programmaticNs = measure(programmatic, iterations);
+    double reflectiveNs = measure(reflective, iterations);
+
+    System.out.println("steps=" + STEP_COUNT
+        + " programmaticNsPerRun=" + String.format("%.1f", programmaticNs)
+        + " jsonNsPerRun=" + String.format("%.1f", jsonNs)
+        + " methodInvokeNsPerRun=" + String.format("%.1f", reflectiveNs));
+  }
+
+  private static String json() {
+    StringBuilder steps = new StringBuilder();
+    for (int stepIndex = 0; stepIndex < STEP_COUNT; stepIndex++) {
+      if (stepIndex > 0) steps.append(',');
+      steps.append("{\"in\":\"java.lang.Long\",\"out\":\"java.lang.Long\",\"$method\":{\"ref\":\"")
+          .append(Benchmark05JsonVsProgrammatic.class.getName()).append('#').append(STEPS[stepIndex % STEPS.length])
+          .append("\"}}");
+    }
+    return "{\"pipeline\":\"benchmark05_json\",\"type\":\"typed\",\"inType\":\"java.lang.Long\","
+        + "\"outType\":\"java.lang.Long\",\"steps\":[" + steps + "]}";
+  }
+
+  private static ThrowingFn<Long, Long> step(int stepIndex) {
+    return switch (stepIndex % STEPS.length) {
+      case 0 -> Benchmark05JsonVsProgrammatic::inc;
+      case 1 -> Benchmark05JsonVsProgrammatic::triple;
+      case 2 -> Benchmark05JsonVsProgrammatic::mix;
+      case 3 -> Benchmark05JsonVsProgrammatic::dec;
+      default -> Benchmark05JsonVsProgrammatic::rotate;
+    };
+  }
+
+  private static ThrowingFn<Long, Long> reflective(Method method) {
+    method.setAccessible(true);
+    return value -> {
+      try {
+        return (Long) method.invoke(null, value);
+      } catch (InvocationTargetException invocationFailure) {
+        throw (Exception) invocationFailure.getCause();
+      }
+    };
+  }
+
+  private static double measure(Pipeline<Long, Long> pipeline, int iterations) throws Exception {
+    long checksum = 0L;
+    long startNanos = System.nanoTime();
+    for (int iterationIndex = 0; iterationIndex < iterations; iterationIndex++) {
+      checksum += pipeline.run((long) iterationIndex, Long.class);
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    if (checksum == 42L) System.out.println("checksum=" + checksum);
+    return elapsedNanos / (double) iterations;
+  }
+
+  private static Long inc(Long value) { return value + 1; }
+  private static Long triple(Long value) { return value * 3; }
+  private static Long mix(Long value) { return value ^ 0x5DEECE66DL; }
+  private static Long dec(Long value) { return value - 7; }
+  private static Long rotate(Long value) { return Long.rotateLeft(value, 1); }
+}
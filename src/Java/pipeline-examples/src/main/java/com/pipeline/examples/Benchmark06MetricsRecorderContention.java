@@ -0,0 +1,79 @@
+package com.pipeline.examples;
+
+import com.pipeline.metrics.SimpleMetricsRecorder;
+import com.pipeline.metrics.StepMeters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorder cost per step with 64 threads recording into the same (pipeline, step): the former per-call
+ * {@code Timer.builder(...).register(...)}, the name-based {@link SimpleMetricsRecorder#onStepSuccess} and a handle
+ * from {@link SimpleMetricsRecorder#bind}.
+ */
+public final class Benchmark06MetricsRecorderContention {
+  private static final int THREADS = 64;
+
+  private Benchmark06MetricsRecorderContention() {}
+
+  public static void main(String[] args) throws Exception {
+    int warmupRecordsPerThread = 20_000;
+    int recordsPerThread = 200_000;
+
+    MeterRegistry legacyRegistry = new SimpleMeterRegistry();
+    SimpleMetricsRecorder byName = new SimpleMetricsRecorder();
+    SimpleMetricsRecorder bound = new SimpleMetricsRecorder();
+    StepMeters handle = bound.bind("benchmark06", "s0");
+
+    Recording legacy = nanos -> Timer.builder("ps.pipeline.benchmark06.step.s0.duration")
+        .register(legacyRegistry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+    Recording named = nanos -> byName.onStepSuccess("benchmark06", "s0", nanos);
+    Recording direct = handle::onSuccess;
+
+    measure(legacy, warmupRecordsPerThread);
+    measure(named, warmupRecordsPerThread);
+    measure(direct, warmupRecordsPerThread);
+    double legacyNs = measure(legacy, recordsPerThread);
+    double namedNs = measure(named, recordsPerThread);
+    double directNs = measure(direct, recordsPerThread);
+
+    System.out.println("threads=" + THREADS
+        + " legacyNsPerRecord=" + String.format("%.1f", legacyNs)
+        + " byNameNsPerRecord=" + String.format("%.1f", namedNs)
+        + " boundNsPerRecord=" + String.format("%.1f", directNs)
+        + " speedup=" + String.format("%.2f", legacyNs / directNs));
+  }
+
+  /** Wall-clock nanos per record across all threads. */
+  private static double measure(Recording recording, int recordsPerThread) throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] threads = new Thread[THREADS];
+    for (int threadIndex = 0; threadIndex < THREADS; threadIndex++) {
+      threads[threadIndex] = Thread.ofPlatform().start(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for (int recordIndex = 0; recordIndex < recordsPerThread; recordIndex++) {
+          recording.record(1_000L + (recordIndex & 1023));
+        }
+      });
+    }
+    long startNanos = System.nanoTime();
+    start.countDown();
+    for (Thread thread : threads) thread.join();
+    long elapsedNanos = System.nanoTime() - startNanos;
+    return elapsedNanos / ((double) THREADS * recordsPerThread);
+  }
+
+  @FunctionalInterface
+  private interface Recording {
+    void record(long nanos);
+  }
+}
@@ -0,0 +1,85 @@
+package com.pipeline.examples;
+
+import com.pipeline.api.Pipeline;
+import com.pipeline.core.metrics.Metrics;
+import com.pipeline.core.metrics.NoopMetrics;
+
+/**
+ * Per-run cost of a 10-step api pipeline on the core engine with {@link NoopMetrics} and with a counting
+ * {@link Metrics} sink, against the same steps run as a plain loop (no engine, no instrumentation).
+ */
+public final class Benchmark07InstrumentationOverhead {
+  private static final int STEP_COUNT = 10;
+
+  private Benchmark07InstrumentationOverhead() {}
+
+  public static void main(String[] args) throws Exception {
+    int warmupIterations = 200_000;
+    int iterations = 2_000_000;
+
+    Pipeline<Long, Long> noop = pipeline("benchmark07_noop").metrics(NoopMetrics.INSTANCE);
+    CountingMetrics counting = new CountingMetrics();
+    Pipeline<Long, Long> counted = pipeline("benchmark07_counting").metrics(counting);
+
+    measure(noop, warmupIterations);
+    measure(counted, warmupIterations);
+    measurePlain(warmupIterations);
+    double noopNs = measure(noop, iterations);
+    double countingNs = measure(counted, iterations);
+    double plainNs = measurePlain(iterations);
+
+    System.out.println("steps=" + STEP_COUNT
+        + " plainLoopNsPerRun=" + String.format("%.1f", plainNs)
+        + " noopMetricsNsPerRun=" + String.format("%.1f", noopNs)
+        + " countingMetricsNsPerRun=" + String.format("%.1f", countingNs)
+        + " stepEvents=" + counting.steps);
+  }
+
+  private static Pipeline<Long, Long> pipeline(String name) {
+    Pipeline<Long, Long> pipeline = Pipeline.<Long>named(name);
+    for (int stepIndex = 0; stepIndex < STEP_COUNT; stepIndex++) {
+      pipeline.addAction("s" + stepIndex, (Long value) -> value + 1);
+    }
+    return pipeline;
+  }
+
+  private static double measure(Pipeline<Long, Long> pipeline, int iterations) throws Exception {
+    long checksum = 0L;
+    long startNanos = System.nanoTime();
+    for (int iterationIndex = 0; iterationIndex < iterations; iterationIndex++) {
+      checksum += pipeline.run((long) iterationIndex);
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    if (checksum == 42L) System.out.println("checksum=" + checksum);
+    return elapsedNanos / (double) iterations;
+  }
+
+  private static double measurePlain(int iterations) {
+    long checksum = 0L;
+    long startNanos = System.nanoTime();
+    for (int iterationIndex = 0; iterationIndex < iterations; iterationIndex++) {
+      Long value = (long) iterationIndex;
+      for (int stepIndex = 0; stepIndex < STEP_COUNT; stepIndex++) value = value + 1;
+      checksum += value;
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    if (checksum == 42L) System.out.println("checksum=" + checksum);
+    return elapsedNanos / (double) iterations;
+  }
+
+  /** Counts step ends; a stand-in for a sink that aggregates rather than logs. */
+  private static final class CountingMetrics implements Metrics {
+    private long steps;
+
+    @Override
+    public RunScope onPipelineStart(String pipelineName, String runId, String startLabel) {
+      return new RunScope() {
+        @Override public void onStepStart(int index, String label) {}
+        @Override public void onStepEnd(int index, String label, long elapsedNanos, boolean success) { steps++; }
+        @Override public void onStepError(int index, String label, Throwable error) {}
+        @Override public void onJump(String fromLabel, String toLabel, long delayMillis) {}
+        @Override public void onPipelineEnd(boolean success, long elapsedNanos, Throwable error) {}
+      };
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.pipeline.examples;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pipeline.core.ThrowingFn;
+import com.pipeline.remote.http.HttpStep;
+import com.pipeline.remote.http.RemoteSerde;
+import com.sun.net.httpserver.HttpServer;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-call latency and allocation of a typed remote POST against a local echo server, with the payload mapped through
+ * {@code String}s ({@code toJson}/{@code fromJson}) and streamed through a {@link RemoteSerde}, with and without gzip.
+ * Allocation is process-wide, so it includes the echo server's share.
+ */
+public final class Benchmark08RemoteSerde {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  public record Line(String sku, String description, int qty, double price) {}
+
+  public record Order(String id, List<Line> lines) {}
+
+  private Benchmark08RemoteSerde() {}
+
+  public static void main(String[] args) throws Exception {
+    int lineCount = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000;
+    int warmupIterations = 300;
+    int iterations = 1_000;
+    // Without TCP_NODELAY the JDK server's split header/body writes meet delayed ACKs and every call costs ~40ms.
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+
+    HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/echo", exchange -> {
+      byte[] body = exchange.getRequestBody().readAllBytes();
+      String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+      if (encoding != null) exchange.getResponseHeaders().set("Content-Encoding", encoding);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+    try {
+      String endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/echo";
+      Order order = order(lineCount);
+      int payloadBytes = MAPPER.writeValueAsBytes(order).length;
+
+      ThrowingFn<Order, Order> strings = HttpStep.jsonPostTyped(stringSpec(endpoint));
+      ThrowingFn<Order, Order> streamed = HttpStep.jsonPostTyped(serdeSpec(endpoint, false));
+      ThrowingFn<Order, Order> gzipped = HttpStep.jsonPostTyped(serdeSpec(endpoint, true));
+
+      measure(strings, order, warmupIterations);
+      measure(streamed, order, warmupIterations);
+      measure(gzipped, order, warmupIterations);
+      double[] stringCost = measure(strings, order, iterations);
+      double[] serdeCost = measure(streamed, order, iterations);
+      double[] gzipCost = measure(gzipped, order, iterations);
+
+      System.out.println("payloadBytes=" + payloadBytes
+          + " stringUsPerCall=" + String.format("%.1f", stringCost[0] / 1_000.0)
+          + " serdeUsPerCall=" + String.format("%.1f", serdeCost[0] / 1_000.0)
+          + " serdeGzipUsPerCall=" + String.format("%.1f", gzipCost[0] / 1_000.0)
+          + " stringKbPerCall=" + String.format("%.0f", stringCost[1] / 1024.0)
+          + " serdeKbPerCall=" + String.format("%.0f", serdeCost[1] / 1024.0)
+          + " serdeGzipKbPerCall=" + String.format("%.0f", gzipCost[1] / 1024.0));
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static HttpStep.RemoteSpecTyped<Order, Order> stringSpec(String endpoint) {
+    HttpStep.RemoteSpecTyped<Order, Order> spec = new HttpStep.RemoteSpecTyped<>();
+    spec.endpoint = endpoint;
+    spec.timeoutMillis = 10_000;
+    spec.toJson = order -> {
+      try { return MAPPER.writeValueAsString(order); }
+      catch (Exception e) { throw new RuntimeException(e); }
+    };
+    spec.fromJson = body -> {
+      try { return MAPPER.readValue(body, Order.class); }
+      catch (Exception e) { throw new RuntimeException(e); }
+    };
+    return spec;
+  }
+
+  private static HttpStep.RemoteSpecTyped<Order, Order> serdeSpec(String endpoint, boolean gzip) {
+    HttpStep.RemoteSpecTyped<Order, Order> spec = new HttpStep.RemoteSpecTyped<>();
+    spec.endpoint = endpoint;
+    spec.timeoutMillis = 10_000;
+    spec.serde = RemoteSerde.jackson(MAPPER, Order.class, Order.class);
+    spec.gzip = gzip;
+    return spec;
+  }
+
+  /** Returns {nanos per call, bytes allocated per call}. */
+  private static double[] measure(ThrowingFn<Order, Order> call, Order order, int iterations) throws Exception {
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long checksum = 0L;
+    long startBytes = threads.getTotalThreadAllocatedBytes();
+    long startNanos = System.nanoTime();
+    for (int iterationIndex = 0; iterationIndex < iterations; iterationIndex++) {
+      checksum += call.apply(order).lines().size();
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    long allocatedBytes = threads.getTotalThreadAllocatedBytes() - startBytes;
+    if (checksum == 42L) System.out.println("checksum=" + checksum);
+    return new double[] {elapsedNanos / (double) iterations, allocatedBytes / (double) iterations};
+  }
+
+  private static Order order(int lineCount) {
+    List<Line> lines = new ArrayList<>(lineCount);
+    for (int lineIndex = 0; lineIndex < lineCount; lineIndex++) {
+      lines.add(new Line("SKU-" + lineIndex, "line item number " + lineIndex + " of the benchmark order", lineIndex % 7 + 1,
+          lineIndex * 0.25));
+    }
+    return new Order("order-1", lines);
+  }
+}
@@ -0,0 +1,265 @@
+package com.pipeline.metrics.http;
+
+import com.pipeline.core.ActionPoolStats;
+import com.pipeline.core.Pipeline;
+import com.pipeline.core.PipelineRegistry;
+import com.pipeline.disruptor.DisruptorEngine;
+import com.pipeline.metrics.HistogramMetricsRecorder;
+import com.pipeline.metrics.Metrics;
+import com.pipeline.metrics.MetricsRecorder;
+import com.pipeline.remote.http.EndpointHealth;
+import com.pipeline.remote.http.HttpClientStats;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Encodes pipeline metrics in the Prometheus text exposition format (version 0.0.4):
+ * <ul>
+ *   <li>run and step latency histograms, error, short-circuit and resource counters of a
+ *       {@link HistogramMetricsRecorder} (the global {@link Metrics#recorder()} unless one is set);</li>
+ *   <li>action pool gauges and counters of the registered pipelines' pooled steps;</li>
+ *   <li>queue depth of the registered {@link DisruptorEngine}s;</li>
+ *   <li>per-authority {@link HttpClientStats} and per-endpoint hedging and coalescing counters of
+ *       {@link EndpointHealth} once {@link #httpClients()} is called.</li>
+ * </ul>
+ *
+ * <p>Histograms are merged straight from the recorder's cells into fixed {@code le} buckets and written into
+ * reused per-family buffers, so a scrape costs a constant number of allocations on this side regardless of how many
+ * series there are. {@code pipeline-remote} and {@code pipeline-disruptor} are optional dependencies; they are only
+ * needed when engines or HTTP client stats are exported.
+ */
+public final class PrometheusExporter {
+    private static final long[] DEFAULT_BOUNDS = {
+        1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+        1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L, 250_000_000L,
+        500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+
+    private volatile HistogramMetricsRecorder histograms;
+    private volatile long[] bounds = DEFAULT_BOUNDS;
+    private volatile boolean httpClients;
+    private final List<Pipeline<?>> pipelines = new CopyOnWriteArrayList<>();
+    private final List<PipelineRegistry> registries = new CopyOnWriteArrayList<>();
+    private final List<DisruptorEngine<?>> engines = new CopyOnWriteArrayList<>();
+
+    // Encoding state, guarded by this.
+    private final Family runDuration = new Family("pipeline_run_duration_seconds", "histogram", "Whole-run latency.");
+    private final Family runFailures = new Family("pipeline_run_failures_total", "counter", "Runs that ended with an error.");
+    private final Family stepDuration = new Family("pipeline_step_duration_seconds", "histogram", "Latency of successful step calls.");
+    private final Family stepErrors = new Family("pipeline_step_errors_total", "counter", "Step calls that threw.");
+    private final Family stepShortCircuits = new Family("pipeline_step_short_circuits_total", "counter", "Short-circuits taken at a step.");
+    private final Family stepSamples = new Family("pipeline_step_resource_samples_total", "counter", "Step calls sampled for CPU and allocation.");
+    private final Family stepCpu = new Family("pipeline_step_cpu_seconds_total", "counter", "CPU time of sampled step calls.");
+    private final Family stepAllocated = new Family("pipeline_step_allocated_bytes_total", "counter", "Bytes allocated by sampled step calls.");
+    private final Family poolMax = new Family("pipeline_pool_max", "gauge", "Maximum instances of a step's action pool.");
+    private final Family poolCreated = new Family("pipeline_pool_created", "gauge", "Live instances of a step's action pool.");
+    private final Family poolInUse = new Family("pipeline_pool_in_use", "gauge", "Borrowed instances of a step's action pool.");
+    private final Family poolBorrows = new Family("pipeline_pool_borrows_total", "counter", "Borrows from a step's action pool.");
+    private final Family poolWaits = new Family("pipeline_pool_waits_total", "counter", "Borrows that found no idle instance.");
+    private final Family poolWaitSeconds = new Family("pipeline_pool_wait_seconds_total", "counter", "Time spent waiting for an instance.");
+    private final Family poolTimeouts = new Family("pipeline_pool_timeouts_total", "counter", "Borrows that timed out.");
+    private final Family engineDepth = new Family("pipeline_engine_queue_depth", "gauge", "Payloads queued in an engine.");
+    private final Family engineCapacity = new Family("pipeline_engine_queue_capacity", "gauge", "Queue capacity of an engine.");
+    private final Family httpAttempts = new Family("pipeline_http_client_attempts_total", "counter", "HTTP attempts, retries included.");
+    private final Family httpFailures = new Family("pipeline_http_client_failures_total", "counter", "HTTP attempts that failed or returned non-2xx.");
+    private final Family httpInFlight = new Family("pipeline_http_client_in_flight", "gauge", "HTTP attempts awaiting a response.");
+    private final Family httpSeconds = new Family("pipeline_http_client_seconds_total", "counter", "Time spent in HTTP attempts.");
+    private final Family httpHttp2 = new Family("pipeline_http_client_http2_responses_total", "counter", "Responses received over HTTP/2.");
+    private final Family httpHedgedCalls = new Family("pipeline_http_endpoint_hedged_calls_total", "counter", "Calls made under a hedge policy.");
+    private final Family httpHedges = new Family("pipeline_http_endpoint_hedges_total", "counter", "Hedge requests sent.");
+    private final Family httpHedgeWins = new Family("pipeline_http_endpoint_hedge_wins_total", "counter", "Hedge requests that answered first.");
+    private final Family httpCoalesced = new Family("pipeline_http_endpoint_coalesced_calls_total", "counter", "Calls that shared an identical call's request.");
+    private final Family[] families = {
+        runDuration, runFailures, stepDuration, stepErrors, stepShortCircuits, stepSamples, stepCpu, stepAllocated,
+        poolMax, poolCreated, poolInUse, poolBorrows, poolWaits, poolWaitSeconds, poolTimeouts,
+        engineDepth, engineCapacity, httpAttempts, httpFailures, httpInFlight, httpSeconds, httpHttp2,
+        httpHedgedCalls, httpHedges, httpHedgeWins, httpCoalesced
+    };
+    private final Visitor visitor = new Visitor();
+
+    /** Exports {@code recorder} instead of the global recorder. */
+    public PrometheusExporter histograms(HistogramMetricsRecorder recorder) {
+        this.histograms = Objects.requireNonNull(recorder, "recorder");
+        return this;
+    }
+
+    /** Histogram {@code le} boundaries; they must ascend. Defaults to 1-2.5-5 steps from 1µs to 10s. */
+    public PrometheusExporter buckets(Duration... upperBounds) {
+        if (upperBounds.length == 0) throw new IllegalArgumentException("at least one bucket is required");
+        long[] nanos = new long[upperBounds.length];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = upperBounds[i].toNanos();
+            if (nanos[i] <= 0 || (i > 0 && nanos[i] <= nanos[i - 1])) {
+                throw new IllegalArgumentException("bucket bounds must be positive and ascending");
+            }
+        }
+        this.bounds = nanos;
+        return this;
+    }
+
+    /** Exports the action pools of {@code pipeline}'s pooled steps. */
+    public PrometheusExporter pools(Pipeline<?> pipeline) {
+        pipelines.add(Objects.requireNonNull(pipeline, "pipeline"));
+        return this;
+    }
+
+    /** Exports the action pools of every pipeline in {@code registry}, including ones registered later. */
+    public PrometheusExporter pools(PipelineRegistry registry) {
+        registries.add(Objects.requireNonNull(registry, "registry"));
+        return this;
+    }
+
+    public PrometheusExporter engine(DisruptorEngine<?> engine) {
+        engines.add(Objects.requireNonNull(engine, "engine"));
+        return this;
+    }
+
+    /** Exports {@link HttpClientStats} and hedging and coalescing counters; needs {@code pipeline-remote} on the class path. */
+    public PrometheusExporter httpClients() {
+        this.httpClients = true;
+        return this;
+    }
+
+    /** The current exposition as a string; meant for tests and debugging, the server encodes into a reused buffer. */
+    public String scrape() {
+        TextBuffer out = new TextBuffer(4096);
+        encode(out);
+        return out.toString();
+    }
+
+    /** Appends the whole exposition to {@code out}. */
+    synchronized void encode(TextBuffer out) {
+        for (Family family : families) family.body.reset();
+        long[] le = bounds;
+        HistogramMetricsRecorder recorder = histograms;
+        if (recorder == null) {
+            MetricsRecorder global = Metrics.recorder();
+            if (global instanceof HistogramMetricsRecorder h) recorder = h;
+        }
+        if (recorder != null) {
+            visitor.bounds = le;
+            recorder.visit(le, visitor);
+        }
+        for (Pipeline<?> pipeline : pipelines) encodePools(pipeline);
+        for (PipelineRegistry registry : registries) {
+            for (Pipeline<String> pipeline : registry.asMap().values()) encodePools(pipeline);
+        }
+        for (DisruptorEngine<?> engine : engines) {
+            labeled(engineDepth.body, engineDepth.name, "engine", engine.name()).number(engine.queueDepth()).ch('\n');
+            labeled(engineCapacity.body, engineCapacity.name, "engine", engine.name()).number(engine.capacity()).ch('\n');
+        }
+        if (httpClients) {
+            for (HttpClientStats.HostStats host : HttpClientStats.snapshot()) {
+                labeled(httpAttempts.body, httpAttempts.name, "authority", host.authority()).number(host.attempts()).ch('\n');
+                labeled(httpFailures.body, httpFailures.name, "authority", host.authority()).number(host.failures()).ch('\n');
+                labeled(httpInFlight.body, httpInFlight.name, "authority", host.authority()).number(host.inFlight()).ch('\n');
+                labeled(httpSeconds.body, httpSeconds.name, "authority", host.authority()).seconds(host.totalNanos()).ch('\n');
+                labeled(httpHttp2.body, httpHttp2.name, "authority", host.authority()).number(host.http2Responses()).ch('\n');
+            }
+            for (EndpointHealth.Snapshot endpoint : EndpointHealth.snapshot()) {
+                if (endpoint.coalescedCalls() > 0L) {
+                    labeled(httpCoalesced.body, httpCoalesced.name, "endpoint", endpoint.endpoint()).number(endpoint.coalescedCalls()).ch('\n');
+                }
+                if (endpoint.hedgedCalls() == 0L && endpoint.hedgesSent() == 0L) continue;
+                labeled(httpHedgedCalls.body, httpHedgedCalls.name, "endpoint", endpoint.endpoint()).number(endpoint.hedgedCalls()).ch('\n');
+                labeled(httpHedges.body, httpHedges.name, "endpoint", endpoint.endpoint()).number(endpoint.hedgesSent()).ch('\n');
+                labeled(httpHedgeWins.body, httpHedgeWins.name, "endpoint", endpoint.endpoint()).number(endpoint.hedgeWins()).ch('\n');
+            }
+        }
+        for (Family family : families) family.writeTo(out);
+    }
+
+    private void encodePools(Pipeline<?> pipeline) {
+        String name = pipeline.name();
+        for (Map.Entry<String, ActionPoolStats> e : pipeline.poolStats().entrySet()) {
+            String step = e.getKey();
+            ActionPoolStats stats = e.getValue();
+            series(poolMax.body, poolMax.name, name, step).number(stats.max()).ch('\n');
+            series(poolCreated.body, poolCreated.name, name, step).number(stats.created()).ch('\n');
+            series(poolInUse.body, poolInUse.name, name, step).number(stats.inUse()).ch('\n');
+            series(poolBorrows.body, poolBorrows.name, name, step).number(stats.borrows()).ch('\n');
+            series(poolWaits.body, poolWaits.name, name, step).number(stats.waitedBorrows()).ch('\n');
+            series(poolWaitSeconds.body, poolWaitSeconds.name, name, step).seconds(stats.totalWaitNanos()).ch('\n');
+            series(poolTimeouts.body, poolTimeouts.name, name, step).number(stats.timeouts()).ch('\n');
+        }
+    }
+
+    /** Writes {@code name{key="value"} } up to the sample value. */
+    private static TextBuffer labeled(TextBuffer out, String name, String key, String value) {
+        return out.ascii(name).ch('{').ascii(key).ascii("=\"").labelValue(value).ascii("\"} ");
+    }
+
+    /** Writes {@code name{pipeline="...",step="..."} } up to the sample value; {@code step} may be null. */
+    private static TextBuffer series(TextBuffer out, String name, String pipeline, String step) {
+        return labels(out.ascii(name).ch('{'), pipeline, step).ascii("} ");
+    }
+
+    private static TextBuffer labels(TextBuffer out, String pipeline, String step) {
+        out.ascii("pipeline=\"").labelValue(pipeline).ch('"');
+        if (step != null) out.ascii(",step=\"").labelValue(step).ch('"');
+        return out;
+    }
+
+    private static void histogram(Family family, String pipeline, String step, long[] le, long[] cumulative,
+                                  long count, long totalNanos) {
+        TextBuffer out = family.body;
+        for (int i = 0; i < le.length; i++) {
+            labels(out.ascii(family.name).ascii("_bucket{"), pipeline, step)
+                .ascii(",le=\"").seconds(le[i]).ascii("\"} ").number(cumulative[i]).ch('\n');
+        }
+        labels(out.ascii(family.name).ascii("_bucket{"), pipeline, step).ascii(",le=\"+Inf\"} ").number(count).ch('\n');
+        labels(out.ascii(family.name).ascii("_sum{"), pipeline, step).ascii("} ").seconds(totalNanos).ch('\n');
+        labels(out.ascii(family.name).ascii("_count{"), pipeline, step).ascii("} ").number(count).ch('\n');
+    }
+
+    private final class Visitor implements HistogramMetricsRecorder.SeriesVisitor {
+        private long[] bounds;
+
+        @Override
+        public void pipeline(String pipeline, long[] cumulative, long count, long totalNanos, long failures) {
+            histogram(runDuration, pipeline, null, bounds, cumulative, count, totalNanos);
+            series(runFailures.body, runFailures.name, pipeline, null).number(failures).ch('\n');
+        }
+
+        @Override
+        public void step(String pipeline, String step, long[] cumulative, long count, long totalNanos, long errors,
+                         long shortCircuits) {
+            histogram(stepDuration, pipeline, step, bounds, cumulative, count, totalNanos);
+            series(stepErrors.body, stepErrors.name, pipeline, step).number(errors).ch('\n');
+            series(stepShortCircuits.body, stepShortCircuits.name, pipeline, step).number(shortCircuits).ch('\n');
+        }
+
+        @Override
+        public void stepResources(String pipeline, String step, long samples, long cpuNanos, long allocatedBytes) {
+            if (samples == 0) return;
+            series(stepSamples.body, stepSamples.name, pipeline, step).number(samples).ch('\n');
+            series(stepCpu.body, stepCpu.name, pipeline, step).seconds(cpuNanos).ch('\n');
+            series(stepAllocated.body, stepAllocated.name, pipeline, step).number(allocatedBytes).ch('\n');
+        }
+    }
+
+    /** One metric family: its samples are collected in {@code body} and written after a single HELP/TYPE header. */
+    private static final class Family {
+        private final String name;
+        private final String type;
+        private final String help;
+        private final TextBuffer body = new TextBuffer(256);
+
+        private Family(String name, String type, String help) {
+            this.name = name;
+            this.type = type;
+            this.help = help;
+        }
+
+        private void writeTo(TextBuffer out) {
+            if (body.size() == 0) return;
+            out.ascii("# HELP ").ascii(name).ch(' ').ascii(help).ch('\n');
+            out.ascii("# TYPE ").ascii(name).ch(' ').ascii(type).ch('\n');
+            out.append(body);
+        }
+    }
+}
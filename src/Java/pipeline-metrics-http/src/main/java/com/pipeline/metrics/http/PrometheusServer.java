@@ -0,0 +1,93 @@
+package com.pipeline.metrics.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves a {@link PrometheusExporter} at {@code /metrics} from the JDK's built-in {@link HttpServer}, handling each
+ * exchange on a virtual thread. Scrapes are encoded into one reused buffer, serialized by a lock (Prometheus scrapes
+ * a target at most every few seconds, so they rarely contend).
+ *
+ * <pre>{@code
+ * try (PrometheusServer server = PrometheusServer.start(new InetSocketAddress(9464),
+ *         new PrometheusExporter().pools(registry).httpClients())) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class PrometheusServer implements AutoCloseable {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final PrometheusExporter exporter;
+    private final ReentrantLock lock = new ReentrantLock(); // not synchronized: handlers run on virtual threads
+    private final TextBuffer buffer = new TextBuffer(64 * 1024);
+
+    private PrometheusServer(HttpServer server, PrometheusExporter exporter) {
+        this.server = server;
+        this.exporter = exporter;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+    }
+
+    /** Binds {@code address} (port 0 picks a free port) and starts serving. */
+    public static PrometheusServer start(InetSocketAddress address, PrometheusExporter exporter) {
+        Objects.requireNonNull(address, "address");
+        Objects.requireNonNull(exporter, "exporter");
+        try {
+            PrometheusServer started = new PrometheusServer(HttpServer.create(address, 0), exporter);
+            started.server.start();
+            return started;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot bind " + address, e);
+        }
+    }
+
+    /** The bound address; useful after binding port 0. */
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    public PrometheusExporter exporter() {
+        return exporter;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            boolean head = "HEAD".equals(method);
+            if (!head && !"GET".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            lock.lock();
+            try {
+                buffer.reset();
+                exporter.encode(buffer);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, head ? -1 : buffer.size());
+                if (!head) buffer.writeTo(exchange.getResponseBody());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Stops accepting scrapes, waiting at most a second for ones in progress. */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+}
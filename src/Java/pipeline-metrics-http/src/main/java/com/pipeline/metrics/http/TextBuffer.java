@@ -0,0 +1,154 @@
+package com.pipeline.metrics.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable UTF-8 byte buffer the exposition is encoded into. Numbers and label values are written digit by digit and
+ * char by char, so once the buffer has grown to a scrape's size, later scrapes of the same series allocate nothing
+ * here. Not thread-safe.
+ */
+final class TextBuffer {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private byte[] bytes;
+    private int size;
+
+    TextBuffer(int initialCapacity) {
+        this.bytes = new byte[Math.max(64, initialCapacity)];
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, size, StandardCharsets.UTF_8);
+    }
+
+    /** Appends {@code s} as-is; for metric names and fixed text, which are ASCII. */
+    TextBuffer ascii(String s) {
+        int n = s.length();
+        ensure(n);
+        for (int i = 0; i < n; i++) bytes[size++] = (byte) s.charAt(i);
+        return this;
+    }
+
+    TextBuffer append(TextBuffer other) {
+        ensure(other.size);
+        System.arraycopy(other.bytes, 0, bytes, size, other.size);
+        size += other.size;
+        return this;
+    }
+
+    TextBuffer ch(char c) {
+        ensure(1);
+        bytes[size++] = (byte) c;
+        return this;
+    }
+
+    /** Appends a label value, escaping backslash, double quote and newline as the text format requires. */
+    TextBuffer labelValue(String s) {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\' -> ch('\\').ch('\\');
+                case '"' -> ch('\\').ch('"');
+                case '\n' -> ch('\\').ch('n');
+                default -> {
+                    if (c < 0x80) ch(c);
+                    else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        codePoint(Character.toCodePoint(c, s.charAt(++i)));
+                    } else {
+                        codePoint(Character.isSurrogate(c) ? '?' : c);
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    TextBuffer number(long value) {
+        if (value == Long.MIN_VALUE) return ascii("-9223372036854775808");
+        ensure(20);
+        if (value < 0) {
+            bytes[size++] = '-';
+            value = -value;
+        }
+        int start = size;
+        do {
+            bytes[size++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        reverse(start, size - 1);
+        return this;
+    }
+
+    /** Appends {@code nanos} as decimal seconds, without trailing zeros ({@code 1500000} becomes {@code 0.0015}). */
+    TextBuffer seconds(long nanos) {
+        if (nanos < 0) {
+            ch('-');
+            nanos = -nanos;
+        }
+        number(nanos / NANOS_PER_SECOND);
+        long fraction = nanos % NANOS_PER_SECOND;
+        if (fraction == 0) return this;
+        ensure(10);
+        bytes[size++] = '.';
+        int digits = 9;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        int end = size + digits;
+        for (int i = end - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + (fraction % 10));
+            fraction /= 10;
+        }
+        size = end;
+        return this;
+    }
+
+    private void codePoint(int cp) {
+        ensure(4);
+        if (cp < 0x80) {
+            bytes[size++] = (byte) cp;
+            return;
+        }
+        if (cp < 0x800) {
+            bytes[size++] = (byte) (0xC0 | (cp >> 6));
+        } else if (cp < 0x10000) {
+            bytes[size++] = (byte) (0xE0 | (cp >> 12));
+            bytes[size++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+        } else {
+            bytes[size++] = (byte) (0xF0 | (cp >> 18));
+            bytes[size++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            bytes[size++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+        }
+        bytes[size++] = (byte) (0x80 | (cp & 0x3F));
+    }
+
+    private void reverse(int from, int to) {
+        while (from < to) {
+            byte b = bytes[from];
+            bytes[from++] = bytes[to];
+            bytes[to--] = b;
+        }
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+    }
+}
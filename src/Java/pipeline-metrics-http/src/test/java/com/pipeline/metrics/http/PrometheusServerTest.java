@@ -0,0 +1,90 @@
+package com.pipeline.metrics.http;
+
+import com.pipeline.core.Pipeline;
+import com.pipeline.disruptor.DisruptorEngine;
+import com.pipeline.metrics.HistogramMetricsRecorder;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PrometheusServerTest {
+
+    @Test
+    void servesHistogramsInTextFormat() throws Exception {
+        HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();
+        for (int i = 0; i < 10; i++) {
+            recorder.bind("orders", "price").onSuccess(800_000);  // under 1ms
+            recorder.bind("orders", "price").onSuccess(3_000_000); // under 5ms
+            recorder.onPipelineRun("orders", 4_000_000, i != 0);
+        }
+        recorder.bind("orders", "price").onError(new IllegalStateException());
+
+        PrometheusExporter exporter = new PrometheusExporter().histograms(recorder);
+        try (PrometheusServer server = PrometheusServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), exporter)) {
+            URI uri = URI.create("http://127.0.0.1:" + server.address().getPort() + "/metrics");
+            HttpResponse<String> response = HttpClient.newHttpClient()
+                .send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertEquals(PrometheusServer.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElse(""));
+            String body = response.body();
+            assertTrue(body.contains("pipeline_step_duration_seconds_bucket{pipeline=\"orders\",step=\"price\",le=\"0.001\"} 10\n"), body);
+            assertTrue(body.contains("pipeline_step_duration_seconds_bucket{pipeline=\"orders\",step=\"price\",le=\"0.005\"} 20\n"), body);
+            assertTrue(body.contains("pipeline_step_duration_seconds_bucket{pipeline=\"orders\",step=\"price\",le=\"+Inf\"} 20\n"), body);
+            assertTrue(body.contains("pipeline_step_duration_seconds_sum{pipeline=\"orders\",step=\"price\"} 0.038\n"), body);
+            assertTrue(body.contains("pipeline_step_errors_total{pipeline=\"orders\",step=\"price\"} 1\n"), body);
+            assertTrue(body.contains("pipeline_run_failures_total{pipeline=\"orders\"} 1\n"), body);
+            assertEquals(1, occurrences(body, "# TYPE pipeline_step_duration_seconds histogram\n"));
+
+            // A second scrape reuses the buffer and yields the same text.
+            assertEquals(body, HttpClient.newHttpClient()
+                .send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString()).body());
+        }
+    }
+
+    @Test
+    void exportsEngineQueueDepthWithEscapedLabels() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Pipeline<String> blocking = new Pipeline<String>("blocking", true).addAction("wait", (ctx, control) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ctx;
+        });
+        try (DisruptorEngine<String> engine = new DisruptorEngine<>("in\"take", 8, blocking)) {
+            for (int i = 0; i < 4; i++) engine.publish("x" + i);
+            assertTrue(started.await(5, TimeUnit.SECONDS), "the worker must take the first payload");
+            String body = new PrometheusExporter().histograms(new HistogramMetricsRecorder()).engine(engine).scrape();
+            assertTrue(body.contains("pipeline_engine_queue_depth{engine=\"in\\\"take\"} 3\n"), body);
+            assertTrue(body.contains("pipeline_engine_queue_capacity{engine=\"in\\\"take\"} 8\n"), body);
+            release.countDown();
+        }
+    }
+
+    @Test
+    void encodesNumbersWithoutFormatting() {
+        TextBuffer buffer = new TextBuffer(0);
+        buffer.seconds(1_500_000).ch(' ').seconds(2_000_000_000L).ch(' ').seconds(0).ch(' ').number(-42)
+            .ch(' ').labelValue("é\n\\");
+        assertEquals("0.0015 2 0 -42 é\\n\\\\", buffer.toString());
+    }
+
+    private static int occurrences(String text, String needle) {
+        int count = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + 1)) count++;
+        return count;
+    }
+}
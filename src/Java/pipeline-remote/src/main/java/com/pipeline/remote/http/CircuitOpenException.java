@@ -0,0 +1,20 @@
+package com.pipeline.remote.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while an endpoint's circuit is open (see {@link RemotePolicy}). Carries no
+ * stack trace: it is the expected, frequent outcome of a tripped breaker and must stay cheap.
+ */
+public final class CircuitOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String endpoint) {
+        super("Circuit open for " + endpoint);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
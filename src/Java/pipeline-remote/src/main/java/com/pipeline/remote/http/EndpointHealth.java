@@ -0,0 +1,176 @@
+package com.pipeline.remote.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide retry budget, circuit breaker and hedging state of each endpoint {@link HttpStep} calls, driven by the
+ * calling spec's {@link RemotePolicy} and {@link HedgePolicy}. Lock-free: a successful call on a closed circuit with a
+ * full budget costs a few volatile reads and no writes.
+ */
+public final class EndpointHealth {
+    private static final ConcurrentHashMap<String, EndpointHealth> BY_ENDPOINT = new ConcurrentHashMap<>();
+
+    private final String endpoint;
+    private final TokenBucket retryTokens = new TokenBucket();
+    private final TokenBucket hedgeTokens = new TokenBucket();
+    private final LatencyWindow latency = new LatencyWindow();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    /** {@link System#nanoTime()} the circuit opened at; 0 while closed. */
+    private final AtomicLong openedAtNanos = new AtomicLong();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private final LongAdder retriesDenied = new LongAdder();
+    private final LongAdder rejectedCalls = new LongAdder();
+    private final LongAdder hedgedCalls = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    private EndpointHealth(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * State of one endpoint. {@code circuit} is {@code closed}, {@code open} or {@code half-open} (a probe is in
+     * flight). {@code hedgedCalls} counts calls made under a {@link HedgePolicy}; {@code hedgesSent / hedgedCalls} is
+     * the hedge rate and {@code hedgeWins / hedgesSent} the share of hedges that answered first. {@code coalescedCalls}
+     * counts calls that shared an identical call's request instead of sending their own.
+     */
+    public record Snapshot(String endpoint, String circuit, int consecutiveFailures, double retryTokens,
+                           long retriesDenied, long rejectedCalls, long hedgedCalls, long hedgesSent, long hedgeWins,
+                           long coalescedCalls) {}
+
+    /** Current state, one entry per endpoint called so far. */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>(BY_ENDPOINT.size());
+        BY_ENDPOINT.forEach((endpoint, h) -> {
+            String circuit = (h.openedAtNanos.get() == 0L) ? "closed" : h.probing.get() ? "half-open" : "open";
+            snapshots.add(new Snapshot(endpoint, circuit, h.consecutiveFailures.get(), h.retryTokens.tokens(),
+                h.retriesDenied.sum(), h.rejectedCalls.sum(), h.hedgedCalls.sum(), h.hedgesSent.sum(), h.hedgeWins.sum(),
+                h.coalescedCalls.sum()));
+        });
+        return snapshots;
+    }
+
+    /** Forgets every endpoint, closing all circuits; meant for tests. */
+    public static void reset() {
+        BY_ENDPOINT.clear();
+    }
+
+    static EndpointHealth of(String endpoint) {
+        EndpointHealth health = BY_ENDPOINT.get(endpoint);
+        return (health != null) ? health : BY_ENDPOINT.computeIfAbsent(endpoint, EndpointHealth::new);
+    }
+
+    /** Whether an attempt may go out now; while half-open only the one probe may. */
+    boolean tryAcquire(RemotePolicy policy) {
+        long openedAt = openedAtNanos.get();
+        if (openedAt == 0L || policy.failureThreshold() == 0) return true;
+        if (System.nanoTime() - openedAt >= policy.openDuration().toNanos() && probing.compareAndSet(false, true)) {
+            return true;
+        }
+        rejectedCalls.increment();
+        return false;
+    }
+
+    CircuitOpenException circuitOpen() {
+        return new CircuitOpenException(endpoint);
+    }
+
+    void onSuccess() {
+        if (consecutiveFailures.get() != 0) consecutiveFailures.set(0);
+        if (openedAtNanos.get() != 0L) {
+            openedAtNanos.set(0L);
+            probing.set(false);
+        }
+    }
+
+    void onFailure(RemotePolicy policy) {
+        if (policy.failureThreshold() == 0) return;
+        if (probing.get()) { // the probe failed: open for another period
+            openedAtNanos.set(nonZero(System.nanoTime()));
+            probing.set(false);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= policy.failureThreshold()) {
+            openedAtNanos.compareAndSet(0L, nonZero(System.nanoTime()));
+        }
+    }
+
+    /**
+     * An attempt ended without an outcome (cancelled or interrupted). While the circuit is open only the probe can be
+     * in flight, so this frees the probe slot and the next call probes instead of the circuit staying open for good.
+     */
+    void onAbandoned() {
+        if (openedAtNanos.get() != 0L) probing.set(false);
+    }
+
+    /** Adds one call's share of retry tokens. */
+    void deposit(RemotePolicy policy) {
+        if (policy.retryBudgetBurst() != 0) retryTokens.deposit(policy.retryBudgetRatio(), policy.retryBudgetBurst());
+    }
+
+    /**
+     * Nanoseconds to wait before retry {@code retry} (from 0), or -1 when the budget is spent or {@code Retry-After}
+     * ({@code retryAfterNanos}, -1 when absent) asks for more than the policy's {@code maxBackoff}.
+     */
+    long retryDelayNanos(RemotePolicy policy, int retry, long retryAfterNanos) {
+        long maxNanos = policy.maxBackoff().toNanos();
+        if (retryAfterNanos > maxNanos) return -1L;
+        if (policy.retryBudgetBurst() != 0 && !retryTokens.tryTake(policy.retryBudgetBurst())) {
+            retriesDenied.increment();
+            return -1L;
+        }
+        long baseNanos = policy.baseBackoff().toNanos();
+        long capNanos = (retry < 62 && baseNanos <= (maxNanos >> retry)) ? baseNanos << retry : maxNanos;
+        long backoff = (capNanos <= 0L) ? 0L : ThreadLocalRandom.current().nextLong(capNanos + 1);
+        return Math.max(backoff, retryAfterNanos);
+    }
+
+    /** Counts a hedged call and adds its share of hedge tokens. */
+    void hedgedCall(HedgePolicy hedge) {
+        hedgedCalls.increment();
+        hedgeTokens.deposit(hedge.extraLoadRatio(), hedge.extraLoadBurst());
+    }
+
+    /** Whether the extra-load budget allows one more hedge; counts it when it does. */
+    boolean tryHedge(HedgePolicy hedge) {
+        if (!hedgeTokens.tryTake(hedge.extraLoadBurst())) return false;
+        hedgesSent.increment();
+        return true;
+    }
+
+    void hedgeWon() {
+        hedgeWins.increment();
+    }
+
+    void coalesced() {
+        coalescedCalls.increment();
+    }
+
+    /** How long a hedged call waits before sending its hedge. */
+    long hedgeDelayNanos(HedgePolicy hedge) {
+        long observed = latency.quantileNanos(hedge.quantile());
+        if (observed < 0L) return hedge.fallbackDelay().toNanos();
+        return Math.max(observed, hedge.minDelay().toNanos());
+    }
+
+    void recordLatency(long nanos) {
+        latency.record(nanos);
+    }
+
+    /** Latency samples not yet in a complete window; for tests. */
+    long pendingLatencySamples() {
+        return latency.pendingSamples();
+    }
+
+    private static long nonZero(long nanos) {
+        return (nanos == 0L) ? 1L : nanos;
+    }
+}
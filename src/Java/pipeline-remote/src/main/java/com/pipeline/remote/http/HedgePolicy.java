@@ -0,0 +1,65 @@
+package com.pipeline.remote.http;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hedging of an idempotent GET call (see {@link HttpStep}): when the response has not arrived after a delay, a second
+ * request goes out and the first success wins; the other one is cancelled.
+ *
+ * <ul>
+ *   <li>{@code quantile}: the delay is this quantile of the endpoint's recent successful latencies (the previous
+ *       window of up to 1000 calls or 10 seconds), but at least {@code minDelay}; {@code fallbackDelay} applies until
+ *       a first window is complete.</li>
+ *   <li>{@code extraLoadRatio}, {@code extraLoadBurst}: a token bucket per endpoint caps the added load; every hedged
+ *       call adds {@code extraLoadRatio} tokens (at most {@code extraLoadBurst}, full at start) and every hedge spends
+ *       one, so hedges stay under that share of traffic. {@code extraLoadBurst} 0 sends none.</li>
+ *   <li>{@code endpoints}: where hedges go, picked at random; empty sends them to the call's own endpoint.</li>
+ * </ul>
+ */
+public record HedgePolicy(
+    double quantile,
+    Duration minDelay,
+    Duration fallbackDelay,
+    double extraLoadRatio,
+    int extraLoadBurst,
+    List<String> endpoints
+) {
+    public HedgePolicy {
+        if (!(quantile > 0.0 && quantile < 1.0)) throw new IllegalArgumentException("quantile must be in (0, 1)");
+        Objects.requireNonNull(minDelay, "minDelay");
+        Objects.requireNonNull(fallbackDelay, "fallbackDelay");
+        if (minDelay.isNegative()) throw new IllegalArgumentException("minDelay must not be negative");
+        if (fallbackDelay.isNegative()) throw new IllegalArgumentException("fallbackDelay must not be negative");
+        if (!(extraLoadRatio >= 0.0) || Double.isInfinite(extraLoadRatio)) {
+            throw new IllegalArgumentException("extraLoadRatio must be a finite value >= 0");
+        }
+        if (extraLoadBurst < 0) throw new IllegalArgumentException("extraLoadBurst must be >= 0");
+        endpoints = List.copyOf(Objects.requireNonNull(endpoints, "endpoints"));
+        for (String endpoint : endpoints) {
+            if (endpoint.isBlank()) throw new IllegalArgumentException("hedge endpoints must not be blank");
+        }
+    }
+
+    /** p95 delay, at least 1ms and 50ms until measured; at most 5% extra requests with a burst of 10. */
+    public static HedgePolicy defaults() {
+        return new HedgePolicy(0.95, Duration.ofMillis(1), Duration.ofMillis(50), 0.05, 10, List.of());
+    }
+
+    public HedgePolicy withQuantile(double value) {
+        return new HedgePolicy(value, minDelay, fallbackDelay, extraLoadRatio, extraLoadBurst, endpoints);
+    }
+
+    public HedgePolicy withDelays(Duration min, Duration fallback) {
+        return new HedgePolicy(quantile, min, fallback, extraLoadRatio, extraLoadBurst, endpoints);
+    }
+
+    public HedgePolicy withExtraLoad(double ratio, int burst) {
+        return new HedgePolicy(quantile, minDelay, fallbackDelay, ratio, burst, endpoints);
+    }
+
+    public HedgePolicy withEndpoints(List<String> value) {
+        return new HedgePolicy(quantile, minDelay, fallbackDelay, extraLoadRatio, extraLoadBurst, value);
+    }
+}
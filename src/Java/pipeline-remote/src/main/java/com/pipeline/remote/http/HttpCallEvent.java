@@ -0,0 +1,52 @@
+package com.pipeline.remote.http;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.net.http.HttpRequest;
+
+/** One attempt of an {@link HttpStep} call, from send to response (or failure). */
+@Name("com.pipeline.HttpCall")
+@Label("HTTP Step Call")
+@Category("Pipeline Services")
+@Description("Single attempt of a remote HttpStep request")
+@StackTrace(false)
+public final class HttpCallEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Attempt")
+    @Description("0 for the first attempt, then one per retry")
+    int attempt;
+
+    @Label("Status")
+    @Description("HTTP status code, or -1 when no response arrived")
+    int status;
+
+    @Label("Outcome")
+    @Description("success, status or the failure's class name")
+    String outcome;
+
+    /** Ends the attempt and commits it if the event is enabled and over its threshold. */
+    void complete(HttpRequest request, int attempt, int status, Throwable failure) {
+        end();
+        if (!shouldCommit()) return;
+        this.method = request.method();
+        this.uri = request.uri().toString();
+        this.attempt = attempt;
+        this.status = status;
+        if (failure != null) {
+            this.outcome = failure.getClass().getName();
+        } else {
+            this.outcome = (status >= 200 && status < 300) ? "success" : "status";
+        }
+        commit();
+    }
+}
@@ -0,0 +1,59 @@
+package com.pipeline.remote.http;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Settings of a shared {@link HttpClient} handed out by {@link HttpClients}.
+ *
+ * <ul>
+ *   <li>{@code version}: {@link HttpClient.Version#HTTP_2} negotiates HTTP/2 through ALPN on https and through an
+ *       {@code Upgrade: h2c} request on plain http (local stand-ins), falling back to HTTP/1.1 when the server
+ *       declines; HTTP/2 multiplexes concurrent requests over one connection per origin.</li>
+ *   <li>{@code connectTimeout}: bound on establishing a connection; {@code null} leaves it to the OS.</li>
+ *   <li>{@code redirect}: redirect policy.</li>
+ * </ul>
+ */
+public record HttpClientProfile(
+    HttpClient.Version version,
+    Duration connectTimeout,
+    HttpClient.Redirect redirect
+) {
+    public HttpClientProfile {
+        Objects.requireNonNull(version, "version");
+        Objects.requireNonNull(redirect, "redirect");
+        if (connectTimeout != null && (connectTimeout.isNegative() || connectTimeout.isZero())) {
+            throw new IllegalArgumentException("connectTimeout must be positive");
+        }
+    }
+
+    /** HTTP/2 with fallback, a 5 second connect timeout, no redirects (the {@code default} profile). */
+    public static HttpClientProfile defaults() {
+        return new HttpClientProfile(HttpClient.Version.HTTP_2, Duration.ofSeconds(5), HttpClient.Redirect.NEVER);
+    }
+
+    /** HTTP/1.1 only (the {@code http1} profile); for servers that mishandle h2c upgrades. */
+    public static HttpClientProfile http1() {
+        return defaults().withVersion(HttpClient.Version.HTTP_1_1);
+    }
+
+    public HttpClientProfile withVersion(HttpClient.Version value) {
+        return new HttpClientProfile(value, connectTimeout, redirect);
+    }
+
+    public HttpClientProfile withConnectTimeout(Duration value) {
+        return new HttpClientProfile(version, value, redirect);
+    }
+
+    public HttpClientProfile withRedirect(HttpClient.Redirect value) {
+        return new HttpClientProfile(version, connectTimeout, value);
+    }
+
+    HttpClient newClient(Executor executor) {
+        HttpClient.Builder builder = HttpClient.newBuilder().version(version).followRedirects(redirect).executor(executor);
+        if (connectTimeout != null) builder.connectTimeout(connectTimeout);
+        return builder.build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.pipeline.remote.http;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters of the HTTP attempts made by {@link HttpStep}, kept per target authority ({@code host:port}).
+ * Every attempt counts, retries included; an attempt fails on an I/O error or a non-2xx status.
+ * {@code http2Responses} counts responses that arrived over HTTP/2, showing whether multiplexing is in effect.
+ */
+public final class HttpClientStats {
+    private static final ConcurrentHashMap<String, Counters> BY_AUTHORITY = new ConcurrentHashMap<>();
+
+    private HttpClientStats() {}
+
+    /** Counters of one authority, read without locking (each value is individually consistent). */
+    public record HostStats(String authority, long attempts, long failures, long inFlight, long totalNanos,
+                            long http2Responses) {}
+
+    /** Current counters, one entry per authority seen so far. */
+    public static List<HostStats> snapshot() {
+        List<HostStats> stats = new ArrayList<>(BY_AUTHORITY.size());
+        BY_AUTHORITY.forEach((authority, c) -> stats.add(new HostStats(
+            authority, c.attempts.sum(), c.failures.sum(), c.inFlight.sum(), c.totalNanos.sum(), c.http2Responses.sum())));
+        return stats;
+    }
+
+    /** Forgets every authority; meant for tests. */
+    public static void reset() {
+        BY_AUTHORITY.clear();
+    }
+
+    static Counters counters(URI uri) {
+        String authority = uri.getAuthority();
+        return BY_AUTHORITY.computeIfAbsent((authority == null) ? "" : authority, key -> new Counters());
+    }
+
+    static final class Counters {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder inFlight = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder http2Responses = new LongAdder();
+
+        long start() {
+            attempts.increment();
+            inFlight.increment();
+            return System.nanoTime();
+        }
+
+        void end(long startNanos, boolean failed) {
+            totalNanos.add(System.nanoTime() - startNanos);
+            inFlight.decrement();
+            if (failed) failures.increment();
+        }
+
+        void end(long startNanos, HttpResponse<?> response) {
+            int code = response.statusCode();
+            if (response.version() == HttpClient.Version.HTTP_2) http2Responses.increment();
+            end(startNanos, code < 200 || code >= 300);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.pipeline.remote.http;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide registry of named {@link HttpClientProfile}s and the shared {@link HttpClient}s built from them.
+ *
+ * <p>{@link HttpStep} specs without an explicit {@code client} get theirs from {@link #forEndpoint}: one client per
+ * origin ({@code scheme://host:port}) and profile, created on first use and reused afterwards, so every remote
+ * action against a service shares one connection pool and selector thread, and HTTP/2 multiplexes their requests.
+ * Clients run their async work on one shared virtual-thread executor.
+ *
+ * <p>Profiles {@value #DEFAULT} ({@link HttpClientProfile#defaults()}) and {@code http1}
+ * ({@link HttpClientProfile#http1()}) are always registered; JSON pipelines pick one with {@code "client"} in
+ * {@code remoteDefaults} or in a {@code $remote} object.
+ */
+public final class HttpClients {
+    public static final String DEFAULT = "default";
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final Map<String, HttpClientProfile> PROFILES = new ConcurrentHashMap<>();
+    private static final Map<ClientKey, HttpClient> CLIENTS = new ConcurrentHashMap<>();
+
+    static {
+        PROFILES.put(DEFAULT, HttpClientProfile.defaults());
+        PROFILES.put("http1", HttpClientProfile.http1());
+    }
+
+    private HttpClients() {}
+
+    private record ClientKey(String origin, HttpClientProfile profile) {}
+
+    /** One shared client of the registry, with the counters of its origin. */
+    public record ClientStats(String origin, HttpClientProfile profile, HttpClientStats.HostStats traffic) {}
+
+    /** Registers or replaces {@code name}; clients already built from the previous settings stay with their users. */
+    public static void registerProfile(String name, HttpClientProfile profile) {
+        PROFILES.put(requireName(name), Objects.requireNonNull(profile, "profile"));
+    }
+
+    /** The profile registered as {@code name}; {@code null} means {@value #DEFAULT}. */
+    public static HttpClientProfile profile(String name) {
+        HttpClientProfile profile = PROFILES.get((name == null) ? DEFAULT : name);
+        if (profile == null) throw new IllegalArgumentException("Unknown HTTP client profile: " + name);
+        return profile;
+    }
+
+    /** The shared client for {@code endpoint}'s origin under the profile named {@code profileName}. */
+    public static HttpClient forEndpoint(String endpoint, String profileName) {
+        return forEndpoint(endpoint, profile(profileName));
+    }
+
+    /** The shared client for {@code endpoint}'s origin under {@code profile}. */
+    public static HttpClient forEndpoint(String endpoint, HttpClientProfile profile) {
+        Objects.requireNonNull(profile, "profile");
+        ClientKey key = new ClientKey(origin(endpoint), profile);
+        HttpClient client = CLIENTS.get(key);
+        return (client != null) ? client : CLIENTS.computeIfAbsent(key, k -> k.profile().newClient(EXECUTOR));
+    }
+
+    /** Number of distinct clients built so far; each owns a connection pool and a selector thread. */
+    public static int clientCount() {
+        return CLIENTS.size();
+    }
+
+    /** Every shared client with the in-flight and attempt counters of its origin. */
+    public static List<ClientStats> stats() {
+        Map<String, HttpClientStats.HostStats> byAuthority = new HashMap<>();
+        for (HttpClientStats.HostStats host : HttpClientStats.snapshot()) byAuthority.put(host.authority(), host);
+        List<ClientStats> stats = new ArrayList<>();
+        CLIENTS.keySet().forEach(key -> {
+            HttpClientStats.HostStats traffic = byAuthority.get(authority(key.origin()));
+            if (traffic == null) traffic = new HttpClientStats.HostStats(authority(key.origin()), 0, 0, 0, 0, 0);
+            stats.add(new ClientStats(key.origin(), key.profile(), traffic));
+        });
+        return stats;
+    }
+
+    /** The virtual-thread executor shared by every client of the registry. */
+    static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    /** {@code scheme://authority} of {@code url}; the whole string when it has no scheme. */
+    static String origin(String url) {
+        Objects.requireNonNull(url, "url");
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd < 0) return url;
+        int end = schemeEnd + 3;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) end++;
+        return url.substring(0, end);
+    }
+
+    private static String authority(String origin) {
+        int schemeEnd = origin.indexOf("://");
+        return (schemeEnd < 0) ? origin : origin.substring(schemeEnd + 3);
+    }
+
+    private static String requireName(String name) {
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("profile name is required");
+        return name;
+    }
+}
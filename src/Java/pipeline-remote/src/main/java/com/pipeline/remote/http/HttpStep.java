@@ -1,23 +1,59 @@
 package com.pipeline.remote.http;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pipeline.core.AsyncStepAction;
 import com.pipeline.core.StepAction;
 import com.pipeline.core.ThrowingFn;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public final class HttpStep {
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int GZIP_BUFFER_BYTES = 8 * 1024;
+    private static final RemotePolicy DEFAULT_POLICY = RemotePolicy.defaults();
+    /** Reads the (gunzipped) response body as is, for coalesced serde calls that decode it once per caller. */
+    private static final RemoteSerde<Object, byte[]> RAW_BYTES = new RemoteSerde<>() {
+        @Override
+        public void write(Object value, OutputStream out) {
+            throw new UnsupportedOperationException("response side only");
+        }
+
+        @Override
+        public byte[] read(InputStream in) throws IOException {
+            return in.readAllBytes();
+        }
+    };
     private HttpStep() {}
 
     public static <C> StepAction<C> jsonPost(RemoteSpec<C> spec) {
@@ -49,41 +85,48 @@ public final class HttpStep {
     }
 
     private static <C> C invoke(RemoteSpec<C> spec, String method, C ctx) throws IOException, InterruptedException {
-        validateSpec(spec);
-        HttpClient client = (spec.client != null) ? spec.client : HttpClient.newHttpClient();
+        validateSpec(spec, method);
+        String payload = spec.toJson.apply(ctx);
+        Call call = prepare(method, spec.endpoint, spec.timeoutMillis, spec.headers, spec.gzip, payload, payload, RemoteSerde.string());
+        HttpClient client = client(spec.client, spec.clientProfile, spec.endpoint);
+        if (coalesces(spec.coalesce, spec.coalesceKey)) {
+            Object key = (spec.coalesceKey != null) ? spec.coalesceKey.apply(ctx) : null;
+            return spec.fromJson.apply(ctx, await(coalesced(spec.flights, key, spec.endpoint, call,
+                () -> exchangeKeepingBody(client, call, spec.retries, spec.policy, spec.hedge, RemoteSerde.string()))));
+        }
+        return spec.fromJson.apply(ctx, exchange(client, call, spec.retries, spec.policy, spec.hedge, RemoteSerde.string()));
+    }
 
-        String body = spec.toJson.apply(ctx);
-        HttpRequest.Builder b = HttpRequest.newBuilder()
-                .timeout(Duration.ofMillis(spec.timeoutMillis));
+    /**
+     * Non-blocking {@link #jsonPost}: the request goes out via {@link HttpClient#sendAsync} and the step completes
+     * when the response arrives, so {@link com.pipeline.core.Pipeline#runAsync} does not hold a thread meanwhile.
+     */
+    public static <C> AsyncStepAction<C> jsonPostAsync(RemoteSpec<C> spec) {
+        Objects.requireNonNull(spec, "spec");
+        return (ctx, control) -> invokeAsync(spec, "POST", ctx);
+    }
 
-        if ("POST".equalsIgnoreCase(method)) {
-            b = b.uri(URI.create(spec.endpoint));
-            b = b.POST(HttpRequest.BodyPublishers.ofString(body));
-        } else {
-            String uri = withQuery(spec.endpoint, body);
-            b = b.uri(URI.create(uri));
-            b = b.GET();
-        }
-        Map<String, String> headers = spec.headers == null ? Map.of() : spec.headers;
-        for (Map.Entry<String, String> e : headers.entrySet()) {
-            b.header(e.getKey(), e.getValue());
-        }
-        b.header("Content-Type", "application/json");
+    /** Non-blocking {@link #jsonGet}; see {@link #jsonPostAsync}. */
+    public static <C> AsyncStepAction<C> jsonGetAsync(RemoteSpec<C> spec) {
+        Objects.requireNonNull(spec, "spec");
+        return (ctx, control) -> invokeAsync(spec, "GET", ctx);
+    }
 
-        IOException last = null;
-        for (int attempt = 0; attempt <= spec.retries; attempt++) {
-            try {
-                HttpResponse<String> resp = client.send(b.build(), HttpResponse.BodyHandlers.ofString());
-                int code = resp.statusCode();
-                if (code >= 200 && code < 300) {
-                    return spec.fromJson.apply(ctx, resp.body());
-                }
-                last = new IOException("HTTP " + code + " body=" + resp.body());
-            } catch (IOException ioe) {
-                last = ioe;
-            }
+    private static <C> CompletableFuture<C> invokeAsync(RemoteSpec<C> spec, String method, C ctx) {
+        validateSpec(spec, method);
+        String payload = spec.toJson.apply(ctx);
+        Call call;
+        try {
+            call = prepare(method, spec.endpoint, spec.timeoutMillis, spec.headers, spec.gzip, payload, payload, RemoteSerde.string());
+        } catch (IOException ioe) {
+            return CompletableFuture.failedFuture(ioe);
         }
-        throw last != null ? last : new IOException("Unknown HTTP error");
+        HttpClient client = client(spec.client, spec.clientProfile, spec.endpoint);
+        CompletableFuture<String> body = coalesces(spec.coalesce, spec.coalesceKey)
+            ? coalesced(spec.flights, (spec.coalesceKey != null) ? spec.coalesceKey.apply(ctx) : null, spec.endpoint, call,
+                () -> exchangeKeepingBody(client, call, spec.retries, spec.policy, spec.hedge, RemoteSerde.string()))
+            : exchangeAsync(client, call, spec.retries, spec.policy, spec.hedge, RemoteSerde.string());
+        return body.thenApply(b -> spec.fromJson.apply(ctx, b));
     }
 
     public static <I, O> ThrowingFn<I, O> jsonPostTyped(RemoteSpecTyped<I, O> spec) {
@@ -95,41 +138,481 @@ public final class HttpStep {
     }
 
     private static <I, O> O invokeTyped(RemoteSpecTyped<I, O> spec, String method, I in) throws IOException, InterruptedException {
-        validateSpec(spec);
-        HttpClient client = (spec.client != null) ? spec.client : HttpClient.newHttpClient();
+        validateSpec(spec, method);
+        if (coalesces(spec.coalesce, spec.coalesceKey)) return await(invokeTypedAsync(spec, method, in));
+        HttpClient client = client(spec.client, spec.clientProfile, spec.endpoint);
+        if (spec.serde == null) {
+            String payload = spec.toJson.apply(in);
+            Call call = prepare(method, spec.endpoint, spec.timeoutMillis, spec.headers, spec.gzip, payload, payload, RemoteSerde.string());
+            return spec.fromJson.apply(exchange(client, call, spec.retries, spec.policy, spec.hedge, RemoteSerde.string()));
+        }
+        Call call = prepare(method, spec.endpoint, spec.timeoutMillis, spec.headers, spec.gzip, query(spec, method, in), in, spec.serde);
+        return exchange(client, call, spec.retries, spec.policy, spec.hedge, spec.serde);
+    }
+
+    /** Non-blocking {@link #jsonPostTyped}; the returned future completes with the mapped response. */
+    public static <I, O> Function<I, CompletableFuture<O>> jsonPostTypedAsync(RemoteSpecTyped<I, O> spec) {
+        Objects.requireNonNull(spec, "spec");
+        return in -> invokeTypedAsync(spec, "POST", in);
+    }
+
+    /** Non-blocking {@link #jsonGetTyped}; the returned future completes with the mapped response. */
+    public static <I, O> Function<I, CompletableFuture<O>> jsonGetTypedAsync(RemoteSpecTyped<I, O> spec) {
+        Objects.requireNonNull(spec, "spec");
+        return in -> invokeTypedAsync(spec, "GET", in);
+    }
+
+    private static <I, O> CompletableFuture<O> invokeTypedAsync(RemoteSpecTyped<I, O> spec, String method, I in) {
+        validateSpec(spec, method);
+        HttpClient client = client(spec.client, spec.clientProfile, spec.endpoint);
+        boolean coalesce = coalesces(spec.coalesce, spec.coalesceKey);
+        Object key = (spec.coalesceKey != null) ? spec.coalesceKey.apply(in) : null;
+        try {
+            if (spec.serde == null) {
+                String payload = spec.toJson.apply(in);
+                Call call = prepare(method, spec.endpoint, spec.timeoutMillis, spec.headers, spec.gzip, payload, payload, RemoteSerde.string());
+                CompletableFuture<String> body = coalesce
+                    ? coalesced(spec.<String>flights(), key, spec.endpoint, call,
+                        () -> exchangeKeepingBody(client, call, spec.retries, spec.policy, spec.hedge, RemoteSerde.string()))
+                    : exchangeAsync(client, call, spec.retries, spec.policy, spec.hedge, RemoteSerde.string());
+                return body.thenApply(spec.fromJson);
+            }
+            Call call = prepare(method, spec.endpoint, spec.timeoutMillis, spec.headers, spec.gzip, query(spec, method, in), in, spec.serde);
+            if (!coalesce) return exchangeAsync(client, call, spec.retries, spec.policy, spec.hedge, spec.serde);
+            // Callers share the raw body and each decodes its own O, so none of them sees another's mutations.
+            RemoteSerde<I, O> serde = spec.serde;
+            return coalesced(spec.<byte[]>flights(), key, spec.endpoint, call,
+                    () -> exchangeKeepingBody(client, call, spec.retries, spec.policy, spec.hedge, RAW_BYTES))
+                .thenApplyAsync(bytes -> {
+                    try {
+                        return serde.read(new ByteArrayInputStream(bytes));
+                    } catch (IOException ioe) {
+                        throw new CompletionException(ioe);
+                    }
+                }, HttpClients.executor());
+        } catch (IOException ioe) {
+            return CompletableFuture.failedFuture(ioe);
+        }
+    }
+
+    private static String jsonQuery(Object value) {
+        try {
+            return (value == null) ? "null" : OBJECT_MAPPER.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static HttpClient client(HttpClient client, String clientProfile, String endpoint) {
+        return (client != null) ? client : HttpClients.forEndpoint(endpoint, clientProfile);
+    }
+
+    /** GET query of a serde spec: {@code toJson} of the input when set, otherwise none. */
+    private static <I> String query(RemoteSpecTyped<I, ?> spec, String method, I in) {
+        return (!isPost(method) && spec.toJson != null) ? spec.toJson.apply(in) : null;
+    }
+
+    private static boolean isPost(String method) {
+        return "POST".equalsIgnoreCase(method);
+    }
+
+    private static boolean coalesces(boolean coalesce, Function<?, ?> coalesceKey) {
+        return coalesce || coalesceKey != null;
+    }
+
+    /**
+     * {@code exchange} of {@code call}, or the result of an identical call already in flight: one with the same
+     * method and URI and the same body, or the same {@code customKey} and endpoint when the spec has a key function.
+     * The key compares bodies in place, so {@code exchange} must keep the body; it is released here once the request
+     * has succeeded and can no longer be matched.
+     */
+    private static <V> CompletableFuture<V> coalesced(SingleFlight<V> flights, Object customKey, String endpoint, Call call,
+                                                     Supplier<CompletableFuture<V>> exchange) {
+        HttpRequest request = call.request();
+        SingleFlight.Key key = (customKey != null)
+            ? new SingleFlight.Key(request.method(), endpoint, customKey)
+            : new SingleFlight.Key(request.method(), request.uri(),
+                (call.body() == null) ? null : SingleFlight.body(call.body()));
+        Runnable releaseBody = () -> {
+            if (call.body() != null) call.body().release();
+        };
+        return flights.run(key, exchange, () -> {
+            releaseBody.run();
+            call.health().coalesced();
+        }, releaseBody);
+    }
 
-        String body = spec.toJson.apply(in);
+    /** A built request, the pooled body it sends ({@code null} for GET), its GET query and its endpoint's health. */
+    private record Call(HttpRequest request, PooledBytes body, String query, EndpointHealth health) {}
+
+    /** Encodes {@code body} (POST) or appends {@code query} (GET) and builds the request. */
+    private static <I> Call prepare(String method,
+                                    String endpoint,
+                                    int timeoutMillis,
+                                    Map<String, String> headers,
+                                    boolean gzip,
+                                    String query,
+                                    I body,
+                                    RemoteSerde<I, ?> serde) throws IOException {
         HttpRequest.Builder b = HttpRequest.newBuilder()
-            .timeout(Duration.ofMillis(spec.timeoutMillis));
+            .timeout(Duration.ofMillis(timeoutMillis));
 
-        if ("POST".equalsIgnoreCase(method)) {
-            b = b.uri(URI.create(spec.endpoint));
-            b = b.POST(HttpRequest.BodyPublishers.ofString(body));
+        PooledBytes bytes = null;
+        if (isPost(method)) {
+            bytes = encode(serde, body, gzip);
+            b = b.uri(URI.create(endpoint));
+            b = b.POST(bytes.publisher());
+            if (gzip && bytes.size() > 0) b.header("Content-Encoding", "gzip");
         } else {
-            String uri = withQuery(spec.endpoint, body);
+            String uri = withQuery(endpoint, query);
             b = b.uri(URI.create(uri));
             b = b.GET();
         }
-        Map<String, String> headers = spec.headers == null ? Map.of() : spec.headers;
-        for (Map.Entry<String, String> e : headers.entrySet()) {
+        Map<String, String> h = headers == null ? Map.of() : headers;
+        for (Map.Entry<String, String> e : h.entrySet()) {
             b.header(e.getKey(), e.getValue());
         }
-        b.header("Content-Type", "application/json");
+        b.header("Content-Type", serde.contentType());
+        if (gzip) b.header("Accept-Encoding", "gzip");
+        return new Call(b.build(), bytes, query, EndpointHealth.of(endpoint));
+    }
+
+    private static <I> PooledBytes encode(RemoteSerde<I, ?> serde, I value, boolean gzip) throws IOException {
+        PooledBytes bytes = PooledBytes.acquire();
+        try {
+            if (gzip) {
+                try (GZIPOutputStream out = new GZIPOutputStream(bytes, GZIP_BUFFER_BYTES)) {
+                    serde.write(value, out);
+                }
+            } else {
+                serde.write(value, bytes);
+            }
+            return bytes;
+        } catch (IOException | RuntimeException e) {
+            bytes.release();
+            throw e;
+        }
+    }
+
+    /** Sends {@code call} with retries and parses the 2xx response's stream; the body buffer is recycled on success. */
+    private static <O> O exchange(HttpClient client, Call call, int retries, RemotePolicy policy, HedgePolicy hedge,
+                                  RemoteSerde<?, O> serde) throws IOException, InterruptedException {
+        if (hedge != null) return await(exchangeAsync(client, call, retries, policy, hedge, serde));
+        O out = decode(serde, send(client, call, retries, (policy != null) ? policy : DEFAULT_POLICY));
+        if (call.body() != null) call.body().release();
+        return out;
+    }
+
+    /** Async {@link #exchange}: parsing blocks on the body stream, so it runs on the shared virtual-thread executor. */
+    private static <O> CompletableFuture<O> exchangeAsync(HttpClient client, Call call, int retries, RemotePolicy policy,
+                                                          HedgePolicy hedge, RemoteSerde<?, O> serde) {
+        return exchangeKeepingBody(client, call, retries, policy, hedge, serde)
+            .whenComplete((out, failure) -> {
+                if (failure == null && call.body() != null) call.body().release();
+            });
+    }
+
+    /** {@link #exchangeAsync} leaving the body buffer to the caller. */
+    private static <O> CompletableFuture<O> exchangeKeepingBody(HttpClient client, Call call, int retries, RemotePolicy policy,
+                                                                HedgePolicy hedge, RemoteSerde<?, O> serde) {
+        RemotePolicy p = (policy != null) ? policy : DEFAULT_POLICY;
+        call.health().deposit(p);
+        CompletableFuture<HttpResponse<InputStream>> response = (hedge != null)
+            ? sendHedged(client, call, retries, p, hedge)
+            : sendAsync(client, call, p, 0, retries, null);
+        return response.thenApplyAsync(resp -> {
+            try {
+                return decode(serde, resp);
+            } catch (IOException ioe) {
+                throw new CompletionException(ioe);
+            }
+        }, HttpClients.executor());
+    }
+
+    private static <O> O await(CompletableFuture<O> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException interrupted) {
+            future.cancel(true);
+            throw interrupted;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioe) throw ioe;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error error) throw error;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Sends {@code call} and, unless it has answered after the endpoint's hedge delay and the extra-load budget
+     * allows, one hedge without retries; the first 2xx response wins and the other request is cancelled.
+     */
+    private static CompletableFuture<HttpResponse<InputStream>> sendHedged(HttpClient client, Call call, int retries,
+                                                                         RemotePolicy policy, HedgePolicy hedge) {
+        EndpointHealth health = call.health();
+        health.hedgedCall(hedge);
+        Race race = new Race(health);
+        sendAsync(client, call, policy, 0, retries, race.primary)
+            .whenComplete((resp, failure) -> race.settle(race.primary, resp, failure));
+        Executor timer = CompletableFuture.delayedExecutor(health.hedgeDelayNanos(hedge), TimeUnit.NANOSECONDS, HttpClients.executor());
+        timer.execute(() -> {
+            if (!race.join()) return;
+            if (!health.tryHedge(hedge)) {
+                race.leave();
+                return;
+            }
+            sendAsync(client, hedgeCall(call, hedge), policy, 0, 0, race.hedge)
+                .whenComplete((resp, failure) -> race.settle(race.hedge, resp, failure));
+        });
+        return race.result;
+    }
+
+    /** {@code call} redirected to one of the hedge endpoints, picked at random; itself when there are none. */
+    private static Call hedgeCall(Call call, HedgePolicy hedge) {
+        List<String> endpoints = hedge.endpoints();
+        if (endpoints.isEmpty()) return call;
+        String endpoint = endpoints.get(ThreadLocalRandom.current().nextInt(endpoints.size()));
+        HttpRequest request = HttpRequest.newBuilder(call.request(), (name, value) -> true)
+            .uri(URI.create(withQuery(endpoint, call.query())))
+            .build();
+        return new Call(request, call.body(), call.query(), EndpointHealth.of(endpoint));
+    }
+
+    /** The requests of one attempt chain; cancelling it cancels the attempt in flight and any retry to come. */
+    private static final class Leg {
+        private volatile boolean cancelled;
+        private volatile CompletableFuture<?> current;
+
+        void track(CompletableFuture<?> attempt) {
+            current = attempt;
+            if (cancelled) attempt.cancel(true);
+        }
+
+        void cancel() {
+            cancelled = true;
+            CompletableFuture<?> attempt = current;
+            if (attempt != null) attempt.cancel(true);
+        }
+    }
+
+    /** First-success race between a call and its hedge; fails with the first failure once every leg has failed. */
+    private static final class Race {
+        final CompletableFuture<HttpResponse<InputStream>> result = new CompletableFuture<>();
+        final Leg primary = new Leg();
+        final Leg hedge = new Leg();
+        private final EndpointHealth health;
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger running = new AtomicInteger(1);
+        private final AtomicBoolean decided = new AtomicBoolean();
+        private volatile Throwable failure;
+
+        Race(EndpointHealth health) {
+            this.health = health;
+            result.whenComplete((resp, error) -> {
+                if (result.isCancelled()) {
+                    primary.cancel();
+                    hedge.cancel();
+                }
+            });
+        }
+
+        /** Enters the hedge leg unless the race is already decided. */
+        boolean join() {
+            while (true) {
+                int legs = running.get();
+                if (legs == 0 || decided.get()) return false;
+                if (running.compareAndSet(legs, legs + 1)) return true;
+            }
+        }
+
+        void settle(Leg leg, HttpResponse<InputStream> resp, Throwable error) {
+            if (error == null) {
+                if (decided.compareAndSet(false, true)) {
+                    if (leg == hedge) {
+                        health.hedgeWon();
+                        // The cancelled primary took at least this long; without the sample the window would only
+                        // ever see the calls that were fast enough to win, and its p95 would drift down.
+                        health.recordLatency(System.nanoTime() - startNanos);
+                    }
+                    (leg == primary ? hedge : primary).cancel();
+                    result.complete(resp);
+                } else {
+                    closeQuietly(resp);
+                }
+            } else if (failure == null) {
+                failure = error;
+            }
+            leave();
+        }
+
+        void leave() {
+            if (running.decrementAndGet() == 0 && decided.compareAndSet(false, true)) result.completeExceptionally(failure);
+        }
+    }
+
+    private static void closeQuietly(HttpResponse<InputStream> resp) {
+        try {
+            resp.body().close();
+        } catch (IOException ignored) {
+            // the losing response is discarded either way
+        }
+    }
+
+    private static <O> O decode(RemoteSerde<?, O> serde, HttpResponse<InputStream> response) throws IOException {
+        try (InputStream in = decoded(response)) {
+            return serde.read(in);
+        }
+    }
+
+    /** The response body, gunzipped when the server says {@code Content-Encoding: gzip}. */
+    private static InputStream decoded(HttpResponse<InputStream> response) throws IOException {
+        InputStream in = response.body();
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        if (!"gzip".equalsIgnoreCase(encoding.strip())) return in;
+        try {
+            return new GZIPInputStream(in, GZIP_BUFFER_BYTES);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
 
-        IOException last = null;
-        for (int attempt = 0; attempt <= spec.retries; attempt++) {
+    /** The failure reported for a non-2xx response, body included. */
+    private static IOException statusFailure(HttpResponse<InputStream> response) {
+        String body;
+        try (InputStream in = decoded(response)) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            body = "<unreadable: " + e + ">";
+        }
+        return new IOException("HTTP " + response.statusCode() + " body=" + body);
+    }
+
+    /**
+     * Sends with up to {@code retries} extra attempts on I/O errors or non-2xx responses, as far as {@code policy}'s
+     * budget and breaker allow, backing off between them; returns the 2xx response.
+     */
+    private static HttpResponse<InputStream> send(HttpClient client, Call call, int retries, RemotePolicy policy)
+        throws IOException, InterruptedException {
+        HttpRequest request = call.request();
+        EndpointHealth health = call.health();
+        HttpClientStats.Counters stats = HttpClientStats.counters(request.uri());
+        health.deposit(policy);
+        for (int attempt = 0; ; attempt++) {
+            if (!health.tryAcquire(policy)) throw health.circuitOpen();
+            HttpCallEvent event = new HttpCallEvent();
+            event.begin();
+            long t0 = stats.start();
+            HttpResponse<InputStream> resp = null;
+            IOException failure;
             try {
-                HttpResponse<String> resp = client.send(b.build(), HttpResponse.BodyHandlers.ofString());
+                resp = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
                 int code = resp.statusCode();
+                event.complete(request, attempt, code, null);
+                stats.end(t0, resp);
                 if (code >= 200 && code < 300) {
-                    return spec.fromJson.apply(resp.body());
+                    health.onSuccess();
+                    return resp;
                 }
-                last = new IOException("HTTP " + code + " body=" + resp.body());
+                failure = statusFailure(resp);
             } catch (IOException ioe) {
-                last = ioe;
+                event.complete(request, attempt, -1, ioe);
+                stats.end(t0, true);
+                failure = ioe;
+            } catch (InterruptedException interrupted) {
+                event.complete(request, attempt, -1, interrupted);
+                stats.end(t0, true);
+                health.onAbandoned();
+                throw interrupted;
             }
+            recordOutcome(health, policy, resp);
+            long delayNanos = (attempt < retries) ? health.retryDelayNanos(policy, attempt, retryAfterNanos(resp)) : -1L;
+            if (delayNanos < 0L) throw failure;
+            if (delayNanos > 0L) TimeUnit.NANOSECONDS.sleep(delayNanos);
+        }
+    }
+
+    /**
+     * Async counterpart of {@link #send}: same retry rules, each attempt chained on the previous one's completion and
+     * backoff delays scheduled rather than slept.
+     */
+    private static CompletableFuture<HttpResponse<InputStream>> sendAsync(HttpClient client, Call call, RemotePolicy policy,
+                                                                        int attempt, int retriesLeft, Leg leg) {
+        HttpRequest request = call.request();
+        EndpointHealth health = call.health();
+        if (leg != null && leg.cancelled) return CompletableFuture.failedFuture(new CancellationException("hedge race lost"));
+        if (!health.tryAcquire(policy)) return CompletableFuture.failedFuture(health.circuitOpen());
+        HttpCallEvent event = new HttpCallEvent();
+        event.begin();
+        HttpClientStats.Counters stats = HttpClientStats.counters(request.uri());
+        long t0 = stats.start();
+        CompletableFuture<HttpResponse<InputStream>> sent = client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (leg != null) leg.track(sent);
+        return sent
+            .handle((resp, failure) -> {
+                Throwable cause = (failure instanceof CompletionException && failure.getCause() != null) ? failure.getCause() : failure;
+                event.complete(request, attempt, (cause == null) ? resp.statusCode() : -1, cause);
+                if (cause instanceof CancellationException) { // lost a hedge race or cancelled: neither a failure nor retried
+                    stats.end(t0, false);
+                    health.onAbandoned();
+                    return CompletableFuture.<HttpResponse<InputStream>>failedFuture(cause);
+                }
+                if (cause == null) stats.end(t0, resp);
+                else stats.end(t0, true);
+                if (cause == null) {
+                    int code = resp.statusCode();
+                    if (code >= 200 && code < 300) {
+                        health.onSuccess();
+                        // Only hedged calls pay for the latency window; unhedged successes stay write-free.
+                        if (leg != null) health.recordLatency(System.nanoTime() - t0);
+                        return CompletableFuture.completedFuture(resp);
+                    }
+                    recordOutcome(health, policy, resp);
+                    long retryAfterNanos = retryAfterNanos(resp);
+                    // reading the error body blocks, so it moves off the client's completion thread
+                    return CompletableFuture.supplyAsync(() -> statusFailure(resp), HttpClients.executor())
+                        .thenCompose(error -> retryOrFail(error, retryAfterNanos, client, call, policy, attempt, retriesLeft, leg));
+                }
+                recordOutcome(health, policy, null);
+                return retryOrFail(cause, -1L, client, call, policy, attempt, retriesLeft, leg);
+            })
+            .thenCompose(Function.identity());
+    }
+
+    private static CompletableFuture<HttpResponse<InputStream>> retryOrFail(Throwable cause, long retryAfterNanos, HttpClient client,
+                                                                             Call call, RemotePolicy policy, int attempt, int retriesLeft,
+                                                                             Leg leg) {
+        if (!(cause instanceof IOException) || retriesLeft <= 0 || (leg != null && leg.cancelled)) {
+            return CompletableFuture.failedFuture(cause);
+        }
+        long delayNanos = call.health().retryDelayNanos(policy, attempt, retryAfterNanos);
+        if (delayNanos < 0L) return CompletableFuture.failedFuture(cause);
+        if (delayNanos == 0L) return sendAsync(client, call, policy, attempt + 1, retriesLeft - 1, leg);
+        Executor delayed = CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, HttpClients.executor());
+        return CompletableFuture.supplyAsync(() -> sendAsync(client, call, policy, attempt + 1, retriesLeft - 1, leg), delayed)
+            .thenCompose(Function.identity());
+    }
+
+    /** Feeds a failed attempt to the breaker; a {@code null} response is an I/O error. Other 4xx are the caller's fault. */
+    private static void recordOutcome(EndpointHealth health, RemotePolicy policy, HttpResponse<?> resp) {
+        int code = (resp == null) ? -1 : resp.statusCode();
+        if (code < 0 || code == 408 || code == 429 || code >= 500) health.onFailure(policy);
+        else health.onSuccess();
+    }
+
+    /** {@code Retry-After} of a 429 or 503 in nanoseconds (delta-seconds or HTTP-date); -1 when absent or unparsable. */
+    static long retryAfterNanos(HttpResponse<?> resp) {
+        if (resp == null || (resp.statusCode() != 429 && resp.statusCode() != 503)) return -1L;
+        String value = resp.headers().firstValue("Retry-After").map(String::strip).orElse(null);
+        if (value == null || value.isEmpty()) return -1L;
+        try {
+            if (Character.isDigit(value.charAt(0))) return TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+            ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0L, Duration.between(Instant.now(), at.toInstant()).toNanos());
+        } catch (RuntimeException unparsable) {
+            return -1L;
         }
-        throw last != null ? last : new IOException("Unknown HTTP error");
     }
 
     private static String withQuery(String endpoint, String query) {
@@ -138,18 +621,21 @@ public final class HttpStep {
         return endpoint + "?" + query;
     }
 
-    private static void validateSpec(RemoteSpec<?> spec) {
+    private static void validateSpec(RemoteSpec<?> spec, String method) {
         if (spec.endpoint == null || spec.endpoint.isBlank()) {
             throw new IllegalArgumentException("RemoteSpec.endpoint is required");
         }
+        if (spec.hedge != null && isPost(method)) throw new IllegalArgumentException("RemoteSpec.hedge requires GET");
         Objects.requireNonNull(spec.toJson, "RemoteSpec.toJson");
         Objects.requireNonNull(spec.fromJson, "RemoteSpec.fromJson");
     }
 
-    private static void validateSpec(RemoteSpecTyped<?, ?> spec) {
+    private static void validateSpec(RemoteSpecTyped<?, ?> spec, String method) {
         if (spec.endpoint == null || spec.endpoint.isBlank()) {
             throw new IllegalArgumentException("RemoteSpecTyped.endpoint is required");
         }
+        if (spec.hedge != null && isPost(method)) throw new IllegalArgumentException("RemoteSpecTyped.hedge requires GET");
+        if (spec.serde != null) return;
         Objects.requireNonNull(spec.toJson, "RemoteSpecTyped.toJson");
         Objects.requireNonNull(spec.fromJson, "RemoteSpecTyped.fromJson");
     }
@@ -159,9 +645,17 @@ public final class HttpStep {
         public int timeoutMillis = 1000;
         public int retries = 0;
         public Map<String, String> headers = Map.of();
-        public HttpClient client = HttpClient.newHttpClient();
+        public HttpClient client;                   // null: shared client from HttpClients
+        public String clientProfile;                // HttpClients profile name; null: "default"
+        public boolean gzip;                        // gzip the body and accept gzip responses
+        public RemotePolicy policy;                 // backoff, retry budget, breaker; null: RemotePolicy.defaults()
+        public HedgePolicy hedge;                   // GET only; null: no hedging
+        public boolean coalesce;                    // identical concurrent calls share one request
+        public Function<C, ?> coalesceKey;          // C -> key replacing the body in the match; implies coalesce
         public Function<C, String> toJson;          // C -> JSON body or query string
         public BiFunction<C, String, C> fromJson;   // (C, body) -> updated context
+
+        final SingleFlight<String> flights = new SingleFlight<>();
     }
 
     public static final class RemoteSpecTyped<I, O> {
@@ -169,9 +663,24 @@ public final class HttpStep {
         public int timeoutMillis = 1000;
         public int retries = 0;
         public Map<String, String> headers = Map.of();
-        public HttpClient client = HttpClient.newHttpClient();
-        public Function<I, String> toJson;   // I -> JSON body or query string
+        public HttpClient client;            // null: shared client from HttpClients
+        public String clientProfile;         // HttpClients profile name; null: "default"
+        public boolean gzip;                 // gzip the body and accept gzip responses
+        public RemotePolicy policy;          // backoff, retry budget, breaker; null: RemotePolicy.defaults()
+        public HedgePolicy hedge;            // GET only; null: no hedging
+        public boolean coalesce;             // identical concurrent calls share one request; each decodes its own O
+        public Function<I, ?> coalesceKey;   // I -> key replacing the body in the match; implies coalesce
+        public RemoteSerde<I, O> serde;      // streams body and response; null: toJson/fromJson Strings
+        public Function<I, String> toJson;   // I -> JSON body or query string (with a serde: GET query only)
         public Function<String, O> fromJson; // JSON -> O
+
+        private final SingleFlight<?> flights = new SingleFlight<>();
+
+        /** Shared response bodies: Strings without a serde, raw bytes with one. */
+        @SuppressWarnings("unchecked")
+        <V> SingleFlight<V> flights() {
+            return (SingleFlight<V>) flights;
+        }
     }
 
     /** Shared defaults so you don't repeat endpoint base, timeouts, retries, headers, and client wiring. */
@@ -182,7 +691,12 @@ public final class HttpStep {
         public Map<String, String> headers = Map.of();
         public String method = "POST"; // POST | GET
         public String serde;           // null | "string" | "jackson"
-        public HttpClient client = HttpClient.newHttpClient();
+        public HttpClient client;      // null: shared client from HttpClients
+        public String clientProfile;   // HttpClients profile name; null: "default"
+        public boolean gzip;           // gzip bodies and accept gzip responses
+        public RemotePolicy policy;    // backoff, retry budget, breaker; null: RemotePolicy.defaults()
+        public HedgePolicy hedge;      // GET only; null: no hedging
+        public boolean coalesce;       // identical concurrent calls share one request
 
         public String resolveEndpoint(String endpointOrPath) {
             String v = Objects.requireNonNull(endpointOrPath, "endpointOrPath").strip();
@@ -211,6 +725,11 @@ public final class HttpStep {
             spec.retries = retries;
             spec.headers = mergeHeaders(null);
             spec.client = client;
+            spec.clientProfile = clientProfile;
+            spec.gzip = gzip;
+            spec.policy = policy;
+            spec.hedge = hedge;
+            spec.coalesce = coalesce;
             spec.toJson = toJson;
             spec.fromJson = fromJson;
             return spec;
@@ -224,6 +743,15 @@ public final class HttpStep {
             return jsonPost(spec);
         }
 
+        /** Non-blocking counterpart of {@link #action}. */
+        public <C> AsyncStepAction<C> asyncAction(String endpointOrPath,
+                                                  Function<C, String> toJson,
+                                                  BiFunction<C, String, C> fromJson) {
+            RemoteSpec<C> spec = spec(endpointOrPath, toJson, fromJson);
+            if ("GET".equalsIgnoreCase(method)) return jsonGetAsync(spec);
+            return jsonPostAsync(spec);
+        }
+
         public <I, O> RemoteSpecTyped<I, O> typedSpec(String endpointOrPath,
                                                       Function<I, String> toJson,
                                                       Function<String, O> fromJson) {
@@ -233,6 +761,11 @@ public final class HttpStep {
             spec.retries = retries;
             spec.headers = mergeHeaders(null);
             spec.client = client;
+            spec.clientProfile = clientProfile;
+            spec.gzip = gzip;
+            spec.policy = policy;
+            spec.hedge = hedge;
+            spec.coalesce = coalesce;
             spec.toJson = toJson;
             spec.fromJson = fromJson;
             return spec;
@@ -246,22 +779,13 @@ public final class HttpStep {
             return jsonPostTyped(spec);
         }
 
+        /** Typed call through a {@link JacksonSerde}: the input is streamed as JSON and the response parsed into {@code outClass}. */
         public <I, O> ThrowingFn<I, O> jacksonFn(String endpointOrPath, Class<O> outClass) {
             Objects.requireNonNull(outClass, "outClass");
-            return fn(endpointOrPath,
-                obj -> {
-                    try { return (obj == null) ? "null" : OBJECT_MAPPER.writeValueAsString(obj); }
-                    catch (Exception e) { throw new RuntimeException(e); }
-                },
-                body -> {
-                    try {
-                        if (outClass == String.class) return outClass.cast(body);
-                        return OBJECT_MAPPER.readValue(body, outClass);
-                    } catch (Exception e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            );
+            RemoteSpecTyped<I, O> spec = typedSpec(endpointOrPath, HttpStep::jsonQuery, null);
+            spec.serde = new JacksonSerde<>(OBJECT_MAPPER, null, outClass);
+            if ("GET".equalsIgnoreCase(method)) return jsonGetTyped(spec);
+            return jsonPostTyped(spec);
         }
     }
 }
@@ -0,0 +1,50 @@
+package com.pipeline.remote.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * {@link RemoteSerde} over Jackson's streaming generator and parser, with the {@link ObjectWriter} and
+ * {@link ObjectReader} resolved once per spec instead of per call.
+ *
+ * <p>The writer is bound to {@code inClass} only when that class is final (records, {@code String}, boxed values):
+ * a root type makes Jackson ignore subclass properties, so other classes keep the runtime type. A {@code String}
+ * output is the raw body, as with the string-based specs.
+ */
+public final class JacksonSerde<I, O> implements RemoteSerde<I, O> {
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final boolean rawString;
+
+    public JacksonSerde(ObjectMapper mapper, Class<I> inClass, Class<O> outClass) {
+        Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(outClass, "outClass");
+        ObjectWriter w = (inClass != null && Modifier.isFinal(inClass.getModifiers()))
+            ? mapper.writerFor(inClass)
+            : mapper.writer();
+        this.writer = w.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.reader = mapper.readerFor(outClass);
+        this.rawString = (outClass == String.class);
+    }
+
+    @Override
+    public void write(I value, OutputStream out) throws IOException {
+        writer.writeValue(out, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public O read(InputStream in) throws IOException {
+        if (rawString) return (O) new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        return reader.readValue(in);
+    }
+}
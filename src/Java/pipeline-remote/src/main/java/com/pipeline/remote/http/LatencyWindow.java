@@ -0,0 +1,86 @@
+package com.pipeline.remote.http;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Recent latencies of an endpoint for {@link HedgePolicy}: samples accumulate in a log-linear histogram (8
+ * sub-buckets per power of two, about 12% resolution) that is swapped out every {@value #WINDOW_SAMPLES} samples,
+ * or after 10 seconds once it holds {@value #MIN_SAMPLES}; quantiles are read from the last complete window.
+ * Lock-free; a sample racing a swap may land in either window.
+ */
+final class LatencyWindow {
+    static final int WINDOW_SAMPLES = 1000;
+    static final int MIN_SAMPLES = 20;
+    private static final long WINDOW_NANOS = 10_000_000_000L;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(COUNT);
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicBoolean swapping = new AtomicBoolean();
+    private volatile long windowStartNanos = System.nanoTime();
+    private volatile long[] previous;
+    private volatile Quantile cached;
+
+    private record Quantile(long[] window, double quantile, long nanos) {}
+
+    void record(long nanos) {
+        counts.incrementAndGet(index(nanos));
+        long n = samples.incrementAndGet();
+        if (n >= WINDOW_SAMPLES || (n >= MIN_SAMPLES && System.nanoTime() - windowStartNanos >= WINDOW_NANOS)) swap();
+    }
+
+    /** {@code quantile} of the last complete window (upper bucket bound), or -1 before the first one. */
+    long quantileNanos(double quantile) {
+        long[] window = previous;
+        if (window == null) return -1L;
+        Quantile c = cached;
+        if (c != null && c.window() == window && c.quantile() == quantile) return c.nanos();
+        long total = 0L;
+        for (long count : window) total += count;
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0L;
+        int bucket = 0;
+        while (bucket < COUNT - 1 && (seen += window[bucket]) < rank) bucket++;
+        long nanos = highestValue(bucket);
+        cached = new Quantile(window, quantile, nanos);
+        return nanos;
+    }
+
+    /** Samples recorded into the window being filled; for tests. */
+    long pendingSamples() {
+        return samples.get();
+    }
+
+    private void swap() {
+        if (!swapping.compareAndSet(false, true)) return;
+        try {
+            long[] window = new long[COUNT];
+            for (int i = 0; i < COUNT; i++) window[i] = counts.getAndSet(i, 0L);
+            samples.set(0L);
+            windowStartNanos = System.nanoTime();
+            previous = window;
+        } finally {
+            swapping.set(false);
+        }
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (value < 0) ? 0 : (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) return COUNT - 1;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,137 @@
+package com.pipeline.remote.http;
+
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Growable request-body buffer recycled across calls. A call {@link #acquire()}s one, lets its serde write into it,
+ * sends it through {@link #publisher()} (which hands the client slices of the array, no copy) and
+ * {@link #release()}s it once the call succeeded. Failed calls drop theirs: a timed-out request may still be reading
+ * the array, so it must not be handed to another call.
+ */
+final class PooledBytes extends OutputStream {
+    private static final int INITIAL_BYTES = 8 * 1024;
+    private static final int MAX_RETAINED_BYTES = 2 * 1024 * 1024;
+    private static final int CHUNK_BYTES = 64 * 1024;
+    private static final ArrayBlockingQueue<PooledBytes> POOL = new ArrayBlockingQueue<>(64);
+
+    private byte[] buf = new byte[INITIAL_BYTES];
+    private int count;
+
+    private PooledBytes() {}
+
+    static PooledBytes acquire() {
+        PooledBytes bytes = POOL.poll();
+        return (bytes != null) ? bytes : new PooledBytes();
+    }
+
+    void release() {
+        if (buf.length > MAX_RETAINED_BYTES) return;
+        count = 0;
+        POOL.offer(this);
+    }
+
+    int size() {
+        return count;
+    }
+
+    /** {@link Arrays#hashCode(byte[])} of the bytes written so far, computed without copying them. */
+    int contentHash() {
+        int hash = 1;
+        for (int i = 0; i < count; i++) hash = 31 * hash + buf[i];
+        return hash;
+    }
+
+    /** Whether {@code other} holds the same bytes, compared in place. */
+    boolean contentEquals(PooledBytes other) {
+        return Arrays.equals(buf, 0, count, other.buf, 0, other.count);
+    }
+
+    @Override
+    public void write(int b) {
+        ensure(count + 1);
+        buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensure(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    /** Publishes the bytes written so far; each retry subscribes again and gets them from the start. */
+    HttpRequest.BodyPublisher publisher() {
+        if (count == 0) return HttpRequest.BodyPublishers.noBody();
+        byte[] content = buf;
+        int length = count;
+        return HttpRequest.BodyPublishers.fromPublisher(subscriber -> subscriber.onSubscribe(
+            new Chunks(subscriber, content, length)), length);
+    }
+
+    private void ensure(int capacity) {
+        if (capacity < 0) throw new OutOfMemoryError("request body too large");
+        if (capacity > buf.length) buf = Arrays.copyOf(buf, Math.max(capacity, buf.length * 2));
+    }
+
+    /** Emits {@code content} as wrapped slices on demand; a drain loop keeps re-entrant requests from recursing. */
+    private static final class Chunks implements Flow.Subscription {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final byte[] content;
+        private final int length;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private int position;
+        private boolean completed;
+
+        Chunks(Flow.Subscriber<? super ByteBuffer> subscriber, byte[] content, int length) {
+            this.subscriber = subscriber;
+            this.content = content;
+            this.length = length;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("non-positive request: " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, add) -> (current + add < 0) ? Long.MAX_VALUE : current + add);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) return;
+            int missed = 1;
+            do {
+                while (!cancelled && position < length && demand.get() > 0) {
+                    int size = Math.min(CHUNK_BYTES, length - position);
+                    ByteBuffer chunk = ByteBuffer.wrap(content, position, size);
+                    position += size;
+                    demand.decrementAndGet();
+                    subscriber.onNext(chunk);
+                }
+                if (!cancelled && !completed && position == length) {
+                    completed = true;
+                    subscriber.onComplete();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.pipeline.remote.http;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How {@link HttpStep} retries and guards an endpoint; the state it drives lives in {@link EndpointHealth}.
+ *
+ * <ul>
+ *   <li>{@code baseBackoff}, {@code maxBackoff}: retry {@code n} (from 0) waits a random delay in
+ *       {@code [0, min(maxBackoff, baseBackoff * 2^n)]} ("full jitter"). A {@code Retry-After} on a 429 or 503 is
+ *       waited out instead when longer; one longer than {@code maxBackoff} ends the retries.</li>
+ *   <li>{@code retryBudgetRatio}, {@code retryBudgetBurst}: a token bucket per endpoint holding at most
+ *       {@code retryBudgetBurst} tokens (full at start); every call adds {@code retryBudgetRatio} and every retry
+ *       spends one, so in steady state retries stay under that share of traffic. {@code retryBudgetBurst} 0 lifts
+ *       the budget.</li>
+ *   <li>{@code failureThreshold}, {@code openDuration}: that many consecutive failed attempts (I/O errors, 408, 429,
+ *       5xx) open the circuit. Calls then fail at once with {@link CircuitOpenException} until {@code openDuration}
+ *       has passed, when a single probe goes through: its success closes the circuit, its failure reopens it.
+ *       {@code failureThreshold} 0 disables the breaker.</li>
+ * </ul>
+ *
+ * The number of retries stays on the spec ({@code retries}).
+ */
+public record RemotePolicy(
+    Duration baseBackoff,
+    Duration maxBackoff,
+    double retryBudgetRatio,
+    int retryBudgetBurst,
+    int failureThreshold,
+    Duration openDuration
+) {
+    public RemotePolicy {
+        requireNotNegative(baseBackoff, "baseBackoff");
+        requireNotNegative(maxBackoff, "maxBackoff");
+        requireNotNegative(openDuration, "openDuration");
+        if (!(retryBudgetRatio >= 0.0) || Double.isInfinite(retryBudgetRatio)) {
+            throw new IllegalArgumentException("retryBudgetRatio must be a finite value >= 0");
+        }
+        if (retryBudgetBurst < 0) throw new IllegalArgumentException("retryBudgetBurst must be >= 0");
+        if (failureThreshold < 0) throw new IllegalArgumentException("failureThreshold must be >= 0");
+        if (failureThreshold > 0 && openDuration.isZero()) {
+            throw new IllegalArgumentException("openDuration must be positive when the breaker is enabled");
+        }
+    }
+
+    /**
+     * 25ms base backoff capped at 2s, retries limited to 20% of calls with a burst of 10, circuit opened by 5
+     * consecutive failures for 5s.
+     */
+    public static RemotePolicy defaults() {
+        return new RemotePolicy(Duration.ofMillis(25), Duration.ofSeconds(2), 0.2, 10, 5, Duration.ofSeconds(5));
+    }
+
+    /** Immediate retries, no budget and no breaker; {@code Retry-After} is still honoured up to 2s. */
+    public static RemotePolicy none() {
+        return new RemotePolicy(Duration.ZERO, Duration.ofSeconds(2), 0.0, 0, 0, Duration.ZERO);
+    }
+
+    public RemotePolicy withBaseBackoff(Duration value) {
+        return new RemotePolicy(value, maxBackoff, retryBudgetRatio, retryBudgetBurst, failureThreshold, openDuration);
+    }
+
+    public RemotePolicy withMaxBackoff(Duration value) {
+        return new RemotePolicy(baseBackoff, value, retryBudgetRatio, retryBudgetBurst, failureThreshold, openDuration);
+    }
+
+    public RemotePolicy withRetryBudget(double ratio, int burst) {
+        return new RemotePolicy(baseBackoff, maxBackoff, ratio, burst, failureThreshold, openDuration);
+    }
+
+    public RemotePolicy withCircuitBreaker(int threshold, Duration open) {
+        return new RemotePolicy(baseBackoff, maxBackoff, retryBudgetRatio, retryBudgetBurst, threshold, open);
+    }
+
+    private static void requireNotNegative(Duration value, String name) {
+        Objects.requireNonNull(value, name);
+        if (value.isNegative()) throw new IllegalArgumentException(name + " must not be negative");
+    }
+}
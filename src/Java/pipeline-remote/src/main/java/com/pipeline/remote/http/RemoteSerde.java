@@ -0,0 +1,36 @@
+package com.pipeline.remote.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Byte-level codec of a typed remote call: {@link #write} streams the request body into a pooled buffer and
+ * {@link #read} parses the response straight from the connection's stream, so neither side of the call is ever held
+ * as a {@code String}. Gzip, when enabled on the spec, wraps both streams; implementations never see it.
+ *
+ * <p>Implementations are shared by every call of a spec and must be thread-safe.
+ */
+public interface RemoteSerde<I, O> {
+    /** Writes {@code value} as the request body; must not close {@code out}. */
+    void write(I value, OutputStream out) throws IOException;
+
+    /** Parses the response body; the caller closes {@code in}. */
+    O read(InputStream in) throws IOException;
+
+    default String contentType() {
+        return "application/json";
+    }
+
+    /** UTF-8 text in and out, unchanged. */
+    static RemoteSerde<String, String> string() {
+        return StringSerde.INSTANCE;
+    }
+
+    /** Jackson with a reader and writer resolved once for {@code inClass} and {@code outClass}; see {@link JacksonSerde}. */
+    static <I, O> RemoteSerde<I, O> jackson(ObjectMapper mapper, Class<I> inClass, Class<O> outClass) {
+        return new JacksonSerde<>(mapper, inClass, outClass);
+    }
+}
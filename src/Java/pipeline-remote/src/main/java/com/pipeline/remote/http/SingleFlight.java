@@ -0,0 +1,71 @@
+package com.pipeline.remote.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing of one spec: the first call for a key sends the request and every call asking for the same key
+ * while it is in flight gets its result instead of sending another. Nothing is cached: the key is dropped as the
+ * request completes, so a call made afterwards always goes out again.
+ */
+final class SingleFlight<V> {
+    private final ConcurrentHashMap<Key, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /** What makes two calls identical: the method, the URI or endpoint, and the body or a caller-chosen key. */
+    record Key(String method, Object target, Object body) {}
+
+    /**
+     * The result of the call in flight for {@code key}, after running {@code onJoin}; otherwise that of {@code call},
+     * started now. Every caller gets its own copy, so cancelling one does not cancel the request the others share.
+     * {@code onLanded} runs once {@code call} has succeeded and its key is gone, before any caller is completed.
+     */
+    CompletableFuture<V> run(Key key, Supplier<CompletableFuture<V>> call, Runnable onJoin, Runnable onLanded) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            onJoin.run();
+            return leader.copy();
+        }
+        try {
+            call.get().whenComplete((value, failure) -> {
+                inFlight.remove(key, flight);
+                if (failure != null) {
+                    flight.completeExceptionally(failure);
+                    return;
+                }
+                onLanded.run();
+                flight.complete(value);
+            });
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return flight.copy();
+    }
+
+    /** Calls in flight; for tests. */
+    int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * A pooled request body as a key component, hashed and compared in place by content. The buffer must not be
+     * released while the key can still be matched.
+     */
+    static Object body(PooledBytes bytes) {
+        return new Body(bytes, bytes.contentHash());
+    }
+
+    private record Body(PooledBytes bytes, int hash) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Body other && hash == other.hash && bytes.contentEquals(other.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
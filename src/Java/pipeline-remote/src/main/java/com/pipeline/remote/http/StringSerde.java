@@ -0,0 +1,23 @@
+package com.pipeline.remote.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/** {@link RemoteSerde#string()}: UTF-8 text both ways. */
+final class StringSerde implements RemoteSerde<String, String> {
+    static final StringSerde INSTANCE = new StringSerde();
+
+    private StringSerde() {}
+
+    @Override
+    public void write(String value, OutputStream out) throws IOException {
+        if (value != null) out.write(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String read(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
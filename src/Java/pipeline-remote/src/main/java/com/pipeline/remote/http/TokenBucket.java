@@ -0,0 +1,41 @@
+package com.pipeline.remote.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in thousandths of a token, full until first touched. A full bucket makes
+ * {@link #deposit} a single read.
+ */
+final class TokenBucket {
+    private static final long MILLI = 1000L;
+
+    private final AtomicLong milliTokens = new AtomicLong(-1L);
+
+    void deposit(double tokens, int burst) {
+        long add = (long) (tokens * MILLI);
+        if (add == 0L || burst == 0) return;
+        long cap = burst * MILLI;
+        while (true) {
+            long current = milliTokens.get();
+            if (current < 0L || current >= cap) return;
+            if (milliTokens.compareAndSet(current, Math.min(cap, current + add))) return;
+        }
+    }
+
+    /** Takes one token if at least one is left. */
+    boolean tryTake(int burst) {
+        long cap = burst * MILLI;
+        while (true) {
+            long current = milliTokens.get();
+            long available = (current < 0L) ? cap : Math.min(current, cap);
+            if (available < MILLI) return false;
+            if (milliTokens.compareAndSet(current, available - MILLI)) return true;
+        }
+    }
+
+    /** Tokens left; {@code NaN} while untouched (full at whatever burst the first caller uses). */
+    double tokens() {
+        long current = milliTokens.get();
+        return (current < 0L) ? Double.NaN : current / (double) MILLI;
+    }
+}
@@ -0,0 +1,104 @@
+package com.pipeline.remote.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class HedgingTest {
+    @Test
+    void slowCallIsOvertakenByAHedgeToAnotherEndpoint() throws Exception {
+        try (StubServer stub = new StubServer().route("/slow", Duration.ofSeconds(3)).route("/fast", Duration.ZERO)) {
+            HttpStep.RemoteSpecTyped<String, String> spec = spec(stub.url("/slow"), HedgePolicy.defaults()
+                .withDelays(Duration.ofMillis(1), Duration.ofMillis(20))
+                .withEndpoints(List.of(stub.url("/fast"))));
+
+            long startNanos = System.nanoTime();
+            assertEquals("/fast", HttpStep.jsonGetTyped(spec).apply("q=1"));
+            assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(2), "the hedge did not win");
+            assertEquals("/fast", HttpStep.jsonGetTypedAsync(spec).apply("q=2").get(2, TimeUnit.SECONDS));
+
+            EndpointHealth.Snapshot health = health(spec.endpoint);
+            assertEquals(2, health.hedgedCalls());
+            assertEquals(2, health.hedgesSent());
+            assertEquals(2, health.hedgeWins());
+            assertEquals(2, stub.calls("/slow"));
+            assertEquals(2, stub.calls("/fast"));
+            // the overtaken primaries still count, as lower bounds of their latency
+            assertEquals(2, EndpointHealth.of(spec.endpoint).pendingLatencySamples());
+            assertEquals(2, EndpointHealth.of(stub.url("/fast")).pendingLatencySamples());
+        }
+    }
+
+    @Test
+    void unhedgedCallsLeaveTheLatencyWindowAlone() throws Exception {
+        try (StubServer stub = new StubServer().route("/plain", Duration.ZERO)) {
+            HttpStep.RemoteSpecTyped<String, String> spec = spec(stub.url("/plain"), null);
+
+            assertEquals("/plain", HttpStep.jsonGetTyped(spec).apply("q=1"));
+            assertEquals("/plain", HttpStep.jsonGetTypedAsync(spec).apply("q=2").get(2, TimeUnit.SECONDS));
+
+            assertEquals(0, EndpointHealth.of(spec.endpoint).pendingLatencySamples());
+        }
+    }
+
+    @Test
+    void fastCallsSendNoHedgeAndTheBudgetCapsTheRest() throws Exception {
+        try (StubServer stub = new StubServer().route("/echo", Duration.ZERO)) {
+            HttpStep.RemoteSpecTyped<String, String> spec = spec(stub.url("/echo"), HedgePolicy.defaults()
+                .withDelays(Duration.ofMillis(1), Duration.ofMillis(500))
+                .withExtraLoad(0.0, 1));
+            var call = HttpStep.jsonGetTyped(spec);
+
+            assertEquals("/echo", call.apply("q=1"));
+            assertEquals(0, health(spec.endpoint).hedgesSent());
+
+            stub.route("/echo", Duration.ofMillis(700));
+            assertEquals("/echo", call.apply("q=2"));
+            assertEquals("/echo", call.apply("q=3"));
+            EndpointHealth.Snapshot health = health(spec.endpoint);
+            assertEquals(3, health.hedgedCalls());
+            assertEquals(1, health.hedgesSent()); // one token, never refilled
+            assertEquals(4, stub.calls("/echo"));
+        }
+    }
+
+    @Test
+    void delayFollowsTheObservedQuantileOnceAWindowIsComplete() {
+        EndpointHealth health = EndpointHealth.of("http://hedge.test/quantile");
+        HedgePolicy hedge = HedgePolicy.defaults().withDelays(Duration.ofMillis(1), Duration.ofMillis(50));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), health.hedgeDelayNanos(hedge));
+
+        for (int i = 1; i <= LatencyWindow.WINDOW_SAMPLES; i++) health.recordLatency(TimeUnit.MICROSECONDS.toNanos(i * 10L));
+        long p95 = health.hedgeDelayNanos(hedge);
+        assertTrue(p95 >= TimeUnit.MICROSECONDS.toNanos(9_500) && p95 <= TimeUnit.MICROSECONDS.toNanos(9_500 * 9 / 8), "p95=" + p95);
+        long p50 = health.hedgeDelayNanos(hedge.withQuantile(0.5));
+        assertTrue(p50 >= TimeUnit.MICROSECONDS.toNanos(5_000) && p50 <= TimeUnit.MICROSECONDS.toNanos(5_000 * 9 / 8), "p50=" + p50);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20),
+            health.hedgeDelayNanos(hedge.withDelays(Duration.ofMillis(20), Duration.ofMillis(50))));
+    }
+
+    @Test
+    void hedgingIsRejectedForPosts() {
+        HttpStep.RemoteSpecTyped<String, String> spec = spec("http://hedge.test/post", HedgePolicy.defaults());
+        assertThrows(IllegalArgumentException.class, () -> HttpStep.jsonPostTyped(spec).apply("x"));
+        assertThrows(IllegalArgumentException.class, () -> HttpStep.jsonPostTypedAsync(spec).apply("x"));
+    }
+
+    private static HttpStep.RemoteSpecTyped<String, String> spec(String endpoint, HedgePolicy hedge) {
+        HttpStep.RemoteSpecTyped<String, String> spec = new HttpStep.RemoteSpecTyped<>();
+        spec.endpoint = endpoint;
+        spec.timeoutMillis = 5000;
+        spec.hedge = hedge;
+        spec.toJson = s -> s;
+        spec.fromJson = body -> body;
+        return spec;
+    }
+
+    private static EndpointHealth.Snapshot health(String endpoint) {
+        return EndpointHealth.snapshot().stream().filter(h -> h.endpoint().equals(endpoint)).findFirst().orElseThrow();
+    }
+}
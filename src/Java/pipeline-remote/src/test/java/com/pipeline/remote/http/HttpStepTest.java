@@ -1,13 +1,33 @@
 package com.pipeline.remote.http;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pipeline.core.Pipeline;
 import com.pipeline.core.PipelineResult;
 import com.pipeline.metrics.Metrics;
 import com.pipeline.metrics.SimpleMetricsRecorder;
+import com.sun.net.httpserver.HttpServer;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 final class HttpStepTest {
@@ -36,4 +56,290 @@ final class HttpStepTest {
         assertNotNull(c);
         assertTrue(c.count() >= 1.0);
     }
+
+    @Test
+    void asyncPostKeepsManyRunsInFlightAndRetriesServerErrors() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/echo", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            // first request fails once to exercise the async retry path
+            int status = (calls.getAndIncrement() == 0) ? 503 : 200;
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            HttpStep.RemoteSpec<String> spec = new HttpStep.RemoteSpec<>();
+            spec.endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/echo";
+            spec.timeoutMillis = 2000;
+            spec.retries = 1;
+            spec.toJson = s -> s;
+            spec.fromJson = (ctx, body) -> body + "!";
+
+            Pipeline<String> pipeline = Pipeline.build("remote_async", true, HttpStep.jsonPostAsync(spec));
+            List<CompletableFuture<PipelineResult<String>>> runs = new ArrayList<>();
+            for (int i = 0; i < 50; i++) runs.add(pipeline.runAsync("m" + i));
+
+            for (int i = 0; i < runs.size(); i++) {
+                PipelineResult<String> r = runs.get(i).get(10, TimeUnit.SECONDS);
+                assertFalse(r.hasErrors(), () -> r.errors().toString());
+                assertEquals("m" + i + "!", r.context());
+            }
+            assertEquals(51, calls.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void specsWithoutAClientShareOnePerOriginAndProfile() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = exchange.getRequestURI().getPath().getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+            HttpStep.RemoteDefaults defaults = new HttpStep.RemoteDefaults();
+            defaults.baseUrl = base;
+            defaults.method = "GET";
+            Pipeline<String> pipeline = new Pipeline<String>("shared_clients", true)
+                .addAction(defaults.action("/a", s -> "", (ctx, body) -> ctx + body))
+                .addAction(defaults.action("/b", s -> "", (ctx, body) -> ctx + body));
+
+            assertEquals("x/a/b", pipeline.run("x").context());
+            assertSame(HttpClients.forEndpoint(base + "/a", (String) null), HttpClients.forEndpoint(base + "/other?q=1", "default"));
+            assertNotSame(HttpClients.forEndpoint(base, "default"), HttpClients.forEndpoint(base, "http1"));
+            assertThrows(IllegalArgumentException.class, () -> HttpClients.forEndpoint(base, "missing"));
+
+            HttpClients.ClientStats stats = HttpClients.stats().stream()
+                .filter(c -> c.origin().equals(base) && c.profile().equals(HttpClientProfile.defaults()))
+                .findFirst().orElseThrow();
+            assertEquals(2, stats.traffic().attempts());
+            assertEquals(0, stats.traffic().inFlight());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    record Order(String id, int qty) {}
+
+    record Ack(String id, int total) {}
+
+    @Test
+    void serdeSpecsStreamGzippedBodiesBothWays() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        AtomicInteger gzippedRequests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/orders", exchange -> {
+            InputStream in = exchange.getRequestBody();
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                gzippedRequests.incrementAndGet();
+                in = new GZIPInputStream(in);
+            }
+            Order order = mapper.readValue(in, Order.class);
+            byte[] ack = mapper.writeValueAsBytes(new Ack(order.id(), order.qty() * 2));
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+                ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+                try (GZIPOutputStream out = new GZIPOutputStream(zipped)) {
+                    out.write(ack);
+                }
+                ack = zipped.toByteArray();
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, ack.length);
+            exchange.getResponseBody().write(ack);
+            exchange.close();
+        });
+        server.start();
+        try {
+            HttpStep.RemoteSpecTyped<Order, Ack> spec = new HttpStep.RemoteSpecTyped<>();
+            spec.endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/orders";
+            spec.timeoutMillis = 5000;
+            spec.serde = RemoteSerde.jackson(mapper, Order.class, Ack.class);
+            spec.gzip = true;
+
+            assertEquals(new Ack("a", 4), HttpStep.jsonPostTyped(spec).apply(new Order("a", 2)));
+            assertEquals(new Ack("b", 6), HttpStep.jsonPostTypedAsync(spec).apply(new Order("b", 3)).get(10, TimeUnit.SECONDS));
+
+            String large = "x".repeat(300_000); // spans several published chunks
+            assertEquals(new Ack(large, 2), HttpStep.jsonPostTyped(spec).apply(new Order(large, 1)));
+            assertEquals(3, gzippedRequests.get());
+
+            spec.gzip = false;
+            assertEquals(new Ack(large, 8), HttpStep.jsonPostTyped(spec).apply(new Order(large, 4)));
+            assertEquals(3, gzippedRequests.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void retriesHonourRetryAfterAndStopWhenTheBudgetIsSpent() throws Exception {
+        AtomicInteger busyCalls = new AtomicInteger();
+        AtomicInteger downCalls = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/busy", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            boolean first = busyCalls.getAndIncrement() == 0;
+            if (first) exchange.getResponseHeaders().set("Retry-After", "1");
+            exchange.sendResponseHeaders(first ? 503 : 200, -1);
+            exchange.close();
+        });
+        server.createContext("/down", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            downCalls.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+            HttpStep.RemoteSpecTyped<String, String> busy = stringSpec(base + "/busy", 1, RemotePolicy.none());
+            long startNanos = System.nanoTime();
+            assertEquals("", HttpStep.jsonPostTyped(busy).apply("x"));
+            assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(900), "Retry-After was not waited out");
+            assertEquals(2, busyCalls.get());
+
+            HttpStep.RemoteSpecTyped<String, String> down = stringSpec(base + "/down", 5, RemotePolicy.none().withRetryBudget(0.0, 2));
+            assertThrows(IOException.class, () -> HttpStep.jsonPostTyped(down).apply("x"));
+            assertEquals(3, downCalls.get()); // two retries, then the budget is empty
+            CompletionException async = assertThrows(CompletionException.class, () -> HttpStep.jsonPostTypedAsync(down).apply("x").join());
+            assertInstanceOf(IOException.class, async.getCause());
+            assertEquals(4, downCalls.get());
+            EndpointHealth.Snapshot health = EndpointHealth.snapshot().stream()
+                .filter(h -> h.endpoint().equals(down.endpoint)).findFirst().orElseThrow();
+            assertEquals(2, health.retriesDenied());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndClosesOnASuccessfulProbe() throws Exception {
+        AtomicBoolean healthy = new AtomicBoolean();
+        AtomicInteger calls = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/flaky", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            calls.incrementAndGet();
+            exchange.sendResponseHeaders(healthy.get() ? 200 : 502, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            HttpStep.RemoteSpecTyped<String, String> spec = stringSpec(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/flaky", 0,
+                RemotePolicy.none().withCircuitBreaker(2, Duration.ofMillis(200)));
+            var call = HttpStep.jsonPostTyped(spec);
+
+            assertThrows(IOException.class, () -> call.apply("x"));
+            assertThrows(IOException.class, () -> call.apply("x"));
+            assertThrows(CircuitOpenException.class, () -> call.apply("x"));
+            assertEquals(2, calls.get());
+
+            healthy.set(true);
+            Thread.sleep(250);
+            assertEquals("", call.apply("x")); // the probe
+            assertEquals("", call.apply("x"));
+            assertEquals(4, calls.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void anAbandonedProbeFreesTheHalfOpenSlot() throws Exception {
+        EndpointHealth health = EndpointHealth.of("http://breaker.test/abandoned");
+        RemotePolicy policy = RemotePolicy.none().withCircuitBreaker(1, Duration.ofMillis(20));
+        health.onFailure(policy);
+        assertFalse(health.tryAcquire(policy));
+
+        Thread.sleep(30);
+        assertTrue(health.tryAcquire(policy)); // the probe
+        assertFalse(health.tryAcquire(policy));
+        health.onAbandoned();
+        assertTrue(health.tryAcquire(policy)); // the next call probes again
+        health.onSuccess();
+        assertTrue(health.tryAcquire(policy));
+        assertTrue(health.tryAcquire(policy));
+    }
+
+    @Test
+    void identicalConcurrentCallsShareOneRequestWhileItIsInFlight() throws Exception {
+        try (StubServer stub = new StubServer().route("/rates", Duration.ofMillis(300))) {
+            HttpStep.RemoteSpecTyped<String, String> spec = stringSpec(stub.url("/rates"), 0, RemotePolicy.none());
+            spec.coalesce = true;
+            var call = HttpStep.jsonPostTypedAsync(spec);
+
+            List<CompletableFuture<String>> usd = new ArrayList<>();
+            for (int i = 0; i < 20; i++) usd.add(call.apply("USD"));
+            CompletableFuture<String> eur = call.apply("EUR");
+            for (CompletableFuture<String> f : usd) assertEquals("/rates", f.get(2, TimeUnit.SECONDS));
+            assertEquals("/rates", eur.get(2, TimeUnit.SECONDS));
+            assertEquals(2, stub.calls("/rates"));
+            assertEquals(0, spec.flights().size());
+
+            assertEquals("/rates", HttpStep.jsonPostTyped(spec).apply("USD")); // nothing cached: sent again
+            assertEquals(3, stub.calls("/rates"));
+
+            spec.coalesceKey = currency -> currency.charAt(0);
+            CompletableFuture<String> first = call.apply("USD");
+            CompletableFuture<String> second = call.apply("UAH");
+            assertEquals("/rates", first.get(2, TimeUnit.SECONDS));
+            assertEquals("/rates", second.get(2, TimeUnit.SECONDS));
+            assertEquals(4, stub.calls("/rates"));
+
+            EndpointHealth.Snapshot health = EndpointHealth.snapshot().stream()
+                .filter(h -> h.endpoint().equals(spec.endpoint)).findFirst().orElseThrow();
+            assertEquals(20, health.coalescedCalls());
+        }
+    }
+
+    @Test
+    void coalescedSerdeCallsEachDecodeTheirOwnOutput() throws Exception {
+        try (StubServer stub = new StubServer().route("/basket", Duration.ofMillis(300))) {
+            HttpStep.RemoteSpecTyped<String, StringBuilder> spec = new HttpStep.RemoteSpecTyped<>();
+            spec.endpoint = stub.url("/basket");
+            spec.timeoutMillis = 5000;
+            spec.coalesce = true;
+            spec.serde = new RemoteSerde<>() {
+                @Override
+                public void write(String value, OutputStream out) throws IOException {
+                    out.write(value.getBytes(StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public StringBuilder read(InputStream in) throws IOException {
+                    return new StringBuilder(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            };
+            var call = HttpStep.jsonPostTypedAsync(spec);
+
+            CompletableFuture<StringBuilder> first = call.apply("cart-1");
+            CompletableFuture<StringBuilder> second = call.apply("cart-1");
+            StringBuilder mine = first.get(2, TimeUnit.SECONDS);
+            mine.append("!");
+
+            assertEquals("/basket", second.get(2, TimeUnit.SECONDS).toString());
+            assertNotSame(mine, second.get());
+            assertEquals(1, stub.calls("/basket"));
+        }
+    }
+
+    private static HttpStep.RemoteSpecTyped<String, String> stringSpec(String endpoint, int retries, RemotePolicy policy) {
+        HttpStep.RemoteSpecTyped<String, String> spec = new HttpStep.RemoteSpecTyped<>();
+        spec.endpoint = endpoint;
+        spec.timeoutMillis = 5000;
+        spec.retries = retries;
+        spec.policy = policy;
+        spec.toJson = s -> s;
+        spec.fromJson = body -> body;
+        return spec;
+    }
 }